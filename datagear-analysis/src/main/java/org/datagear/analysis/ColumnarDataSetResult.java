@@ -0,0 +1,490 @@
+/*
+ * Copyright (c) 2018 datagear.tech. All Rights Reserved.
+ */
+
+package org.datagear.analysis;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 列式数据集结果。
+ * <p>
+ * 它将行对象（{@linkplain Map}）列表形式的{@linkplain DataSetResult}转换为属性名列表、列数组的紧凑形式，
+ * 整数列、双精度浮点数列分别使用{@code long[]}、{@code double[]}基本类型数组存储，其他列使用{@code Object[]}存储，
+ * 以避免每行一个{@linkplain Map}对象、装箱数值、重复属性名带来的内存和传输开销。
+ * </p>
+ * <p>
+ * 数据源可使用{@linkplain Builder}逐行直接构建此类，而不必先构建行对象列表。
+ * </p>
+ * <p>
+ * 此类的{@linkplain #getData()}将在首次调用时还原行对象列表（参考{@linkplain #toRows()}），
+ * 因此不了解列式结构的调用方仍可按照{@linkplain DataSetResult}使用它。
+ * </p>
+ *
+ * @author datagear@163.com
+ *
+ */
+public class ColumnarDataSetResult extends DataSetResult
+{
+	/** 属性名列表 */
+	private List<String> names;
+
+	/** 列数组，元素为：long[]、double[]、Object[] */
+	private Object[] columns;
+
+	/** 行数 */
+	private int rowCount;
+
+	/** 值为{@code null}的行索引，为{@code null}表示没有 */
+	private BitSet nullRows = null;
+
+	/** 由{@linkplain #getData()}还原的行对象列表 */
+	private transient volatile List<Map<String, Object>> _rows = null;
+
+	public ColumnarDataSetResult()
+	{
+		super();
+	}
+
+	public ColumnarDataSetResult(List<String> names, Object[] columns, int rowCount)
+	{
+		super();
+		this.names = names;
+		this.columns = columns;
+		this.rowCount = rowCount;
+	}
+
+	public List<String> getNames()
+	{
+		return names;
+	}
+
+	public void setNames(List<String> names)
+	{
+		this.names = names;
+		this._rows = null;
+	}
+
+	/**
+	 * 获取列数组。
+	 * <p>
+	 * 元素与{@linkplain #getNames()}一一对应，类型为：{@code long[]}、{@code double[]}、{@code Object[]}。
+	 * </p>
+	 *
+	 * @return
+	 */
+	public Object[] getColumns()
+	{
+		return columns;
+	}
+
+	public void setColumns(Object[] columns)
+	{
+		this.columns = columns;
+		this._rows = null;
+	}
+
+	public int getRowCount()
+	{
+		return rowCount;
+	}
+
+	public void setRowCount(int rowCount)
+	{
+		this.rowCount = rowCount;
+		this._rows = null;
+	}
+
+	/**
+	 * 获取值为{@code null}的行索引。
+	 * <p>
+	 * 这些行在{@linkplain #getColumns()}中的列值都是{@code null}，还原时将还原为{@code null}而非行对象。
+	 * </p>
+	 * 
+	 * @return 为{@code null}表示没有
+	 */
+	public BitSet getNullRows()
+	{
+		return nullRows;
+	}
+
+	public void setNullRows(BitSet nullRows)
+	{
+		this.nullRows = nullRows;
+		this._rows = null;
+	}
+
+	/**
+	 * 是否是值为{@code null}的行。
+	 * 
+	 * @param rowIndex
+	 * @return
+	 */
+	public boolean isNullRow(int rowIndex)
+	{
+		return (this.nullRows != null && this.nullRows.get(rowIndex));
+	}
+
+	/**
+	 * 返回还原的行对象列表，它在首次调用时创建。
+	 */
+	@Override
+	public Object getData()
+	{
+		List<Map<String, Object>> rows = this._rows;
+
+		if (rows == null)
+		{
+			rows = (this.names == null || this.columns == null ? null : toRows());
+			this._rows = rows;
+		}
+
+		return rows;
+	}
+
+	/**
+	 * 获取指定列、行的值。
+	 *
+	 * @param columnIndex
+	 * @param rowIndex
+	 * @return
+	 */
+	public Object getValue(int columnIndex, int rowIndex)
+	{
+		Object column = this.columns[columnIndex];
+
+		if (column instanceof long[])
+			return ((long[]) column)[rowIndex];
+		else if (column instanceof double[])
+			return ((double[]) column)[rowIndex];
+		else
+			return ((Object[]) column)[rowIndex];
+	}
+
+	/**
+	 * 还原为行对象列表。
+	 * <p>
+	 * 行对象包含所有{@linkplain #getNames()}，值为{@code null}的也不会省略；{@linkplain #isNullRow(int)}的行将还原为{@code null}。
+	 * </p>
+	 *
+	 * @return
+	 */
+	public List<Map<String, Object>> toRows()
+	{
+		List<Map<String, Object>> rows = new ArrayList<>(this.rowCount);
+
+		int columnCount = this.names.size();
+
+		for (int i = 0; i < this.rowCount; i++)
+		{
+			if (isNullRow(i))
+			{
+				rows.add(null);
+				continue;
+			}
+
+			Map<String, Object> row = new HashMap<>();
+
+			for (int j = 0; j < columnCount; j++)
+				row.put(this.names.get(j), getValue(j, i));
+
+			rows.add(row);
+		}
+
+		return rows;
+	}
+
+	/**
+	 * 由{@linkplain DataSetResult}构建{@linkplain ColumnarDataSetResult}。
+	 * <p>
+	 * 仅支持数据对象是{@linkplain Map}数组或集合的{@linkplain DataSetResult}，其他情况将返回{@code null}。
+	 * </p>
+	 *
+	 * @param result
+	 * @return {@code null}表示不支持转换
+	 */
+	public static ColumnarDataSetResult valueOf(DataSetResult result)
+	{
+		if (result == null)
+			return null;
+
+		if (result instanceof ColumnarDataSetResult)
+			return (ColumnarDataSetResult) result;
+
+		Object data = result.getData();
+
+		List<?> rows = null;
+
+		if (data instanceof List<?>)
+			rows = (List<?>) data;
+		else if (data instanceof Collection<?>)
+			rows = new ArrayList<Object>((Collection<?>) data);
+		else if (data instanceof Object[])
+			rows = Arrays.asList((Object[]) data);
+		else
+			return null;
+
+		Set<String> nameSet = new LinkedHashSet<>();
+
+		for (Object row : rows)
+		{
+			if (row == null)
+				continue;
+
+			if (!(row instanceof Map<?, ?>))
+				return null;
+
+			for (Object key : ((Map<?, ?>) row).keySet())
+			{
+				if (!(key instanceof String))
+					return null;
+
+				nameSet.add((String) key);
+			}
+		}
+
+		List<String> names = new ArrayList<>(nameSet);
+		int columnCount = names.size();
+
+		Builder builder = new Builder(names, rows.size());
+		Object[] values = new Object[columnCount];
+
+		for (Object row : rows)
+		{
+			if (row == null)
+			{
+				builder.addNullRow();
+				continue;
+			}
+
+			Map<?, ?> rowMap = (Map<?, ?>) row;
+
+			for (int i = 0; i < columnCount; i++)
+				values[i] = rowMap.get(names.get(i));
+
+			builder.addRow(values);
+		}
+
+		return builder.build();
+	}
+
+	protected static boolean isLongValue(Object value)
+	{
+		return (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte);
+	}
+
+	/**
+	 * {@linkplain ColumnarDataSetResult}构建器。
+	 * <p>
+	 * 它逐行将值直接写入列数组：列值全是非{@code null}的{@linkplain Long}、{@linkplain Integer}、{@linkplain Short}、{@linkplain Byte}时
+	 * 使用{@code long[]}，全是非{@code null}的{@linkplain Double}时使用{@code double[]}，否则使用{@code Object[]}，
+	 * 以避免{@linkplain java.math.BigDecimal}、{@linkplain Float}等数值转换时丢失精度。
+	 * </p>
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	public static class Builder
+	{
+		private final List<String> names;
+
+		private final ColumnBuilder[] columns;
+
+		private int rowCount = 0;
+
+		private BitSet nullRows = null;
+
+		public Builder(List<String> names)
+		{
+			this(names, 16);
+		}
+
+		/**
+		 * 创建构建器。
+		 * 
+		 * @param names
+		 *            属性名列表
+		 * @param initialCapacity
+		 *            预计的行数
+		 */
+		public Builder(List<String> names, int initialCapacity)
+		{
+			super();
+			this.names = Collections.unmodifiableList(new ArrayList<>(names));
+			this.columns = new ColumnBuilder[names.size()];
+
+			for (int i = 0; i < this.columns.length; i++)
+				this.columns[i] = new ColumnBuilder(Math.max(initialCapacity, 1));
+		}
+
+		/**
+		 * 添加一行。
+		 * 
+		 * @param values
+		 *            与属性名列表一一对应的行值，此方法不会持有它，调用方可复用
+		 */
+		public void addRow(Object[] values)
+		{
+			for (int i = 0; i < this.columns.length; i++)
+				this.columns[i].add(values[i]);
+
+			this.rowCount++;
+		}
+
+		/**
+		 * 添加一个值为{@code null}的行。
+		 */
+		public void addNullRow()
+		{
+			for (int i = 0; i < this.columns.length; i++)
+				this.columns[i].add(null);
+
+			if (this.nullRows == null)
+				this.nullRows = new BitSet();
+
+			this.nullRows.set(this.rowCount);
+			this.rowCount++;
+		}
+
+		public int getRowCount()
+		{
+			return rowCount;
+		}
+
+		public ColumnarDataSetResult build()
+		{
+			Object[] columns = new Object[this.columns.length];
+
+			for (int i = 0; i < columns.length; i++)
+				columns[i] = this.columns[i].build();
+
+			ColumnarDataSetResult result = new ColumnarDataSetResult(this.names, columns, this.rowCount);
+			result.setNullRows(this.nullRows);
+
+			return result;
+		}
+	}
+
+	/**
+	 * 列数组构建器。
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static class ColumnBuilder
+	{
+		private static final int TYPE_NONE = 0;
+
+		private static final int TYPE_LONG = 1;
+
+		private static final int TYPE_DOUBLE = 2;
+
+		private static final int TYPE_OBJECT = 3;
+
+		private int type = TYPE_NONE;
+
+		private long[] longs = null;
+
+		private double[] doubles = null;
+
+		private Object[] objects = null;
+
+		private int capacity;
+
+		private int size = 0;
+
+		public ColumnBuilder(int initialCapacity)
+		{
+			super();
+			this.capacity = initialCapacity;
+		}
+
+		public void add(Object value)
+		{
+			if (this.type == TYPE_NONE)
+				initType(value);
+			else if ((this.type == TYPE_LONG && !isLongValue(value))
+					|| (this.type == TYPE_DOUBLE && !(value instanceof Double)))
+				toObjectType();
+
+			if (this.size == this.capacity)
+				grow();
+
+			if (this.type == TYPE_LONG)
+				this.longs[this.size] = ((Number) value).longValue();
+			else if (this.type == TYPE_DOUBLE)
+				this.doubles[this.size] = ((Double) value).doubleValue();
+			else
+				this.objects[this.size] = value;
+
+			this.size++;
+		}
+
+		public Object build()
+		{
+			if (this.type == TYPE_LONG)
+				return Arrays.copyOf(this.longs, this.size);
+			else if (this.type == TYPE_DOUBLE)
+				return Arrays.copyOf(this.doubles, this.size);
+			else if (this.type == TYPE_OBJECT)
+				return Arrays.copyOf(this.objects, this.size);
+			else
+				return new Object[0];
+		}
+
+		protected void initType(Object value)
+		{
+			if (isLongValue(value))
+			{
+				this.type = TYPE_LONG;
+				this.longs = new long[this.capacity];
+			}
+			else if (value instanceof Double)
+			{
+				this.type = TYPE_DOUBLE;
+				this.doubles = new double[this.capacity];
+			}
+			else
+			{
+				this.type = TYPE_OBJECT;
+				this.objects = new Object[this.capacity];
+			}
+		}
+
+		protected void toObjectType()
+		{
+			Object[] objects = new Object[this.capacity];
+
+			for (int i = 0; i < this.size; i++)
+				objects[i] = (this.type == TYPE_LONG ? (Object) this.longs[i] : (Object) this.doubles[i]);
+
+			this.type = TYPE_OBJECT;
+			this.objects = objects;
+			this.longs = null;
+			this.doubles = null;
+		}
+
+		protected void grow()
+		{
+			int newCapacity = this.capacity + (this.capacity >> 1) + 1;
+
+			if (this.type == TYPE_LONG)
+				this.longs = Arrays.copyOf(this.longs, newCapacity);
+			else if (this.type == TYPE_DOUBLE)
+				this.doubles = Arrays.copyOf(this.doubles, newCapacity);
+			else
+				this.objects = Arrays.copyOf(this.objects, newCapacity);
+
+			this.capacity = newCapacity;
+		}
+	}
+}
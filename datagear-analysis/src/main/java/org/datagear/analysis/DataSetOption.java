@@ -18,6 +18,9 @@ public class DataSetOption
 	/** 结果数据最大返回数目 */
 	private int resultDataMaxCount = -1;
 
+	/** 是否返回列式结果 */
+	private boolean columnarResult = false;
+
 	public DataSetOption()
 	{
 		super();
@@ -37,4 +40,23 @@ public class DataSetOption
 	{
 		this.resultDataMaxCount = resultDataMaxCount;
 	}
+
+	/**
+	 * 是否返回列式结果。
+	 * <p>
+	 * 为{@code true}时，支持的数据集将直接构建并返回{@linkplain ColumnarDataSetResult}，而不必先构建行对象列表；
+	 * 不支持的数据集将忽略此项。
+	 * </p>
+	 * 
+	 * @return
+	 */
+	public boolean isColumnarResult()
+	{
+		return columnarResult;
+	}
+
+	public void setColumnarResult(boolean columnarResult)
+	{
+		this.columnarResult = columnarResult;
+	}
 }
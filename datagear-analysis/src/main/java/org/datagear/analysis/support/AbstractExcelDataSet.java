@@ -7,22 +7,49 @@
  */
 package org.datagear.analysis.support;
 
+import static org.apache.poi.xssf.usermodel.XSSFRelation.NS_SPREADSHEETML;
+
 import java.io.File;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-
+import java.util.TreeSet;
+
+import org.apache.poi.hssf.eventusermodel.EventWorkbookBuilder.SheetRecordCollectingListener;
+import org.apache.poi.hssf.eventusermodel.FormatTrackingHSSFListener;
+import org.apache.poi.hssf.eventusermodel.HSSFEventFactory;
+import org.apache.poi.hssf.eventusermodel.HSSFListener;
+import org.apache.poi.hssf.eventusermodel.HSSFRequest;
+import org.apache.poi.hssf.model.HSSFFormulaParser;
+import org.apache.poi.hssf.record.BOFRecord;
+import org.apache.poi.hssf.record.BoolErrRecord;
+import org.apache.poi.hssf.record.CellValueRecordInterface;
+import org.apache.poi.hssf.record.EOFRecord;
+import org.apache.poi.hssf.record.FormulaRecord;
+import org.apache.poi.hssf.record.LabelRecord;
+import org.apache.poi.hssf.record.LabelSSTRecord;
+import org.apache.poi.hssf.record.MulBlankRecord;
+import org.apache.poi.hssf.record.NumberRecord;
+import org.apache.poi.hssf.record.Record;
+import org.apache.poi.hssf.record.RowRecord;
+import org.apache.poi.hssf.record.SSTRecord;
+import org.apache.poi.hssf.record.StringRecord;
 import org.apache.poi.hssf.usermodel.HSSFWorkbook;
 import org.apache.poi.hssf.util.CellReference;
 import org.apache.poi.openxml4j.opc.OPCPackage;
 import org.apache.poi.openxml4j.opc.PackageAccess;
 import org.apache.poi.poifs.filesystem.POIFSFileSystem;
-import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellType;
 import org.apache.poi.ss.usermodel.DateUtil;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.FormulaError;
+import org.apache.poi.util.SAXHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.datagear.analysis.DataSetException;
 import org.datagear.analysis.DataSetOption;
@@ -37,6 +64,11 @@ import org.datagear.util.IOUtil;
 import org.datagear.util.StringUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
 
 /**
  * 抽象Excel数据集。
@@ -50,6 +82,10 @@ import org.slf4j.LoggerFactory;
  * 通过{@linkplain #setNameRow(int)}可设置名称行。
  * </p>
  * <p>
+ * 此类以事件模式流式读取Excel文件（{@code xlsx}采用SAX，{@code xls}采用{@linkplain HSSFEventFactory}），不会将整个文件加载至内存，
+ * 并在数据达到{@linkplain DataSetOption#getResultDataMaxCount()}后停止读取。
+ * </p>
+ * <p>
  * 注意：此类不支持<code>Freemarker</code>模板语言。
  * </p>
  * 
@@ -254,6 +290,9 @@ public abstract class AbstractExcelDataSet extends AbstractResolvableDataSet imp
 
 	/**
 	 * 解析{@code xls}结果。
+	 * <p>
+	 * 此方法使用{@linkplain HSSFEventFactory}事件模式读取，不会将整个文件加载至内存，并且在数据达到最大数目后停止读取。
+	 * </p>
 	 * 
 	 * @param paramValues
 	 * @param file
@@ -268,16 +307,36 @@ public abstract class AbstractExcelDataSet extends AbstractResolvableDataSet imp
 			List<DataSetProperty> properties, DataSetOption dataSetOption) throws DataSetException
 	{
 		POIFSFileSystem poifs = null;
-		HSSFWorkbook wb = null;
+
+		SheetRowResolver rowResolver = new SheetRowResolver(properties, dataSetOption);
 
 		try
 		{
 			poifs = new POIFSFileSystem(file, true);
-			wb = new HSSFWorkbook(poifs.getRoot(), true);
 
-			Sheet sheet = wb.getSheetAt(getSheetIndex() - 1);
+			XlsEventListener listener = new XlsEventListener(rowResolver, getSheetIndex() - 1);
+			FormatTrackingHSSFListener formatListener = new FormatTrackingHSSFListener(listener);
+			SheetRecordCollectingListener workbookListener = new SheetRecordCollectingListener(formatListener);
+			listener.setFormatListener(formatListener);
+			listener.setWorkbookListener(workbookListener);
+
+			HSSFRequest req = new HSSFRequest();
+			req.addListenerForAllRecords(workbookListener);
+
+			HSSFEventFactory factory = new HSSFEventFactory();
 
-			return resolveResultForSheet(paramValues, sheet, properties, dataSetOption);
+			try
+			{
+				factory.processWorkbookEvents(req, poifs);
+			}
+			catch (ExcelReadStoppedException e)
+			{
+			}
+
+			if (!listener.isSheetFound())
+				throw new DataSetSourceParseException("No sheet found for index " + getSheetIndex());
+
+			return rowResolver.getResult();
 		}
 		catch (DataSetException e)
 		{
@@ -289,13 +348,15 @@ public abstract class AbstractExcelDataSet extends AbstractResolvableDataSet imp
 		}
 		finally
 		{
-			IOUtil.close(wb);
 			IOUtil.close(poifs);
 		}
 	}
 
 	/**
 	 * 解析{@code xlsx}结果。
+	 * <p>
+	 * 此方法使用{@linkplain XSSFReader}以SAX方式读取，不会将整个文件加载至内存，并且在数据达到最大数目后停止读取。
+	 * </p>
 	 * 
 	 * @param paramValues
 	 * @param file
@@ -310,126 +371,48 @@ public abstract class AbstractExcelDataSet extends AbstractResolvableDataSet imp
 			List<DataSetProperty> properties, DataSetOption dataSetOption) throws DataSetException
 	{
 		OPCPackage pkg = null;
-		XSSFWorkbook wb = null;
+		InputStream sheetIn = null;
+
+		SheetRowResolver rowResolver = new SheetRowResolver(properties, dataSetOption);
 
 		try
 		{
 			pkg = OPCPackage.open(file, PackageAccess.READ);
-			wb = new XSSFWorkbook(pkg);
-
-			Sheet sheet = wb.getSheetAt(getSheetIndex() - 1);
-
-			return resolveResultForSheet(paramValues, sheet, properties, dataSetOption);
-		}
-		catch (DataSetException e)
-		{
-			throw e;
-		}
-		catch (Throwable t)
-		{
-			throw new DataSetSourceParseException(t);
-		}
-		finally
-		{
-			IOUtil.close(wb);
-			IOUtil.close(pkg);
-		}
-	}
-
-	/**
-	 * 解析sheet结果。
-	 * 
-	 * @param paramValues
-	 * @param sheet
-	 * @param properties
-	 *            允许为{@code null}，此时会自动解析
-	 * @param dataSetOption
-	 *            允许为{@code null}
-	 * @return
-	 * @throws DataSetException
-	 */
-	protected ResolvedDataSetResult resolveResultForSheet(Map<String, ?> paramValues, Sheet sheet,
-			List<DataSetProperty> properties, DataSetOption dataSetOption) throws DataSetException
-	{
-		boolean resolveProperties = (properties == null || properties.isEmpty());
-
-		if (resolveProperties)
-			properties = new ArrayList<>();
-
-		List<List<Object>> data = new ArrayList<>();
 
-		List<String> propertyNames = null;
+			ReadOnlySharedStringsTable sharedStringsTable = new ReadOnlySharedStringsTable(pkg);
+			XSSFReader xssfReader = new XSSFReader(pkg);
+			StylesTable stylesTable = xssfReader.getStylesTable();
 
-		DataSetPropertyValueConverter converter = createDataSetPropertyValueConverter();
-
-		try
-		{
-			int rowIdx = 0;
-			int dataRowIdx = 0;
+			Iterator<InputStream> sheets = xssfReader.getSheetsData();
 
-			for (Row row : sheet)
+			for (int i = 0, sheetIndex = getSheetIndex() - 1; sheets.hasNext(); i++)
 			{
-				if (isNameRow(rowIdx))
+				InputStream in = sheets.next();
+
+				if (i == sheetIndex)
 				{
-					if (resolveProperties)
-						propertyNames = resolveDataSetPropertyNames(row, false);
+					sheetIn = in;
+					break;
 				}
-				else if (isDataRow(rowIdx))
-				{
-					if (resolveProperties && dataRowIdx == 0 && propertyNames == null)
-						propertyNames = resolveDataSetPropertyNames(row, true);
-
-					// 名称行不一定在数据行之前，此时可能还无法确定属性名，所以暂时采用列表存储
-					List<Object> rowObj = new ArrayList<>();
-
-					int colIdx = 0;
-					int dataColIdx = 0;
-
-					for (Cell cell : row)
-					{
-						if (isDataColumn(colIdx))
-						{
-							DataSetProperty property = null;
-
-							if (!resolveProperties)
-							{
-								if (dataColIdx >= properties.size())
-									throw new DataSetSourceParseException(
-											"No property defined for column index " + dataColIdx);
-
-								property = properties.get(dataColIdx);
-							}
-
-							Object value = resolvePropertyValue(cell, property, converter);
-
-							if (resolveProperties)
-							{
-								property = resolveDataSetProperty(row, rowIdx, dataRowIdx, cell, colIdx, dataColIdx,
-										value, properties);
-							}
-
-							rowObj.add(value);
-
-							dataColIdx++;
-						}
-
-						colIdx++;
-					}
-
-					boolean reachMaxCount = isReachResultDataMaxCount(dataSetOption, data.size());
-					boolean breakLoop = (reachMaxCount && (!resolveProperties || isAfterNameRow(rowIdx)));
-
-					if (!reachMaxCount)
-						data.add(rowObj);
+				else
+					IOUtil.close(in);
+			}
 
-					dataRowIdx++;
+			if (sheetIn == null)
+				throw new DataSetSourceParseException("No sheet found for index " + getSheetIndex());
 
-					if (breakLoop)
-						break;
-				}
+			XMLReader sheetParser = SAXHelper.newXMLReader();
+			sheetParser.setContentHandler(new XlsxSheetHandler(rowResolver, stylesTable, sharedStringsTable));
 
-				rowIdx++;
+			try
+			{
+				sheetParser.parse(new InputSource(sheetIn));
 			}
+			catch (ExcelReadStoppedException e)
+			{
+			}
+
+			return rowResolver.getResult();
 		}
 		catch (DataSetException e)
 		{
@@ -439,13 +422,14 @@ public abstract class AbstractExcelDataSet extends AbstractResolvableDataSet imp
 		{
 			throw new DataSetSourceParseException(t);
 		}
+		finally
+		{
+			IOUtil.close(sheetIn);
 
-		if (resolveProperties)
-			inflateDataSetProperties(properties, propertyNames);
-
-		DataSetResult result = new DataSetResult(listRowsToMapRows(data, properties));
-
-		return new ResolvedDataSetResult(result, properties);
+			// 只读打开，应使用revert()关闭而非close()
+			if (pkg != null)
+				pkg.revert();
+		}
 	}
 
 	protected void inflateDataSetProperties(List<DataSetProperty> properties, List<String> propertyNames)
@@ -463,18 +447,16 @@ public abstract class AbstractExcelDataSet extends AbstractResolvableDataSet imp
 	/**
 	 * 解析{@linkplain DataSetProperty}并写入{@code properties}。
 	 * 
-	 * @param row
 	 * @param rowIdx
 	 * @param dataRowIdx
-	 * @param cell
 	 * @param colIdx
 	 * @param dataColIdx
 	 * @param cellValue
 	 * @param properties
 	 * @return
 	 */
-	protected DataSetProperty resolveDataSetProperty(Row row, int rowIdx, int dataRowIdx, Cell cell, int colIdx,
-			int dataColIdx, Object cellValue, List<DataSetProperty> properties)
+	protected DataSetProperty resolveDataSetProperty(int rowIdx, int dataRowIdx, int colIdx, int dataColIdx,
+			Object cellValue, List<DataSetProperty> properties)
 	{
 		DataSetProperty property = null;
 
@@ -501,40 +483,34 @@ public abstract class AbstractExcelDataSet extends AbstractResolvableDataSet imp
 	/**
 	 * 解析属性名。
 	 * 
-	 * @param nameRow
+	 * @param cellValues
+	 *            行的单元格值列表，元素索引即是列索引
+	 * @param forceColumnString
 	 * @return
 	 */
-	protected List<String> resolveDataSetPropertyNames(Row nameRow, boolean forceColumnString)
+	protected List<String> resolveDataSetPropertyNames(List<Object> cellValues, boolean forceColumnString)
 	{
 		List<String> propertyNames = new ArrayList<>();
 
-		int colIdx = 0;
-		for (Cell cell : nameRow)
+		for (int colIdx = 0, len = cellValues.size(); colIdx < len; colIdx++)
 		{
 			if (isDataColumn(colIdx))
 			{
 				String name = null;
 
-				if (forceColumnString)
-					name = CellReference.convertNumToColString(colIdx);
-				else
+				if (!forceColumnString)
 				{
-					try
-					{
-						name = cell.getStringCellValue();
-					}
-					catch (Throwable t)
-					{
-					}
+					Object value = cellValues.get(colIdx);
 
-					if (StringUtil.isEmpty(name))
-						name = CellReference.convertNumToColString(colIdx);
+					if (value instanceof String)
+						name = (String) value;
 				}
 
+				if (StringUtil.isEmpty(name))
+					name = CellReference.convertNumToColString(colIdx);
+
 				propertyNames.add(name);
 			}
-
-			colIdx++;
 		}
 
 		return propertyNames;
@@ -543,7 +519,8 @@ public abstract class AbstractExcelDataSet extends AbstractResolvableDataSet imp
 	/**
 	 * 解析单元格属性值。
 	 * 
-	 * @param cell
+	 * @param cellValue
+	 *            单元格原始值，允许为{@code null}
 	 * @param property
 	 *            允许为{@code null}
 	 * @param converter
@@ -551,55 +528,657 @@ public abstract class AbstractExcelDataSet extends AbstractResolvableDataSet imp
 	 * @throws DataSetSourceParseException
 	 * @throws DataSetException
 	 */
-	protected Object resolvePropertyValue(Cell cell, DataSetProperty property, DataSetPropertyValueConverter converter)
-			throws DataSetSourceParseException, DataSetException
+	protected Object resolvePropertyValue(Object cellValue, DataSetProperty property,
+			DataSetPropertyValueConverter converter) throws DataSetSourceParseException, DataSetException
+	{
+		return convertToPropertyDataType(converter, cellValue, property);
+	}
+
+	/**
+	 * 是否日期格式的数值单元格。
+	 * 
+	 * @param formatIndex
+	 * @param formatString
+	 *            允许为{@code null}
+	 * @return
+	 */
+	protected boolean isDateFormatted(int formatIndex, String formatString)
 	{
-		CellType cellType = cell.getCellTypeEnum();
+		if (formatString == null)
+			return DateUtil.isInternalDateFormat(formatIndex);
 
-		Object cellValue = null;
+		return DateUtil.isADateFormat(formatIndex, formatString);
+	}
 
-		try
+	protected static <T> void setElementWithExpand(List<? super T> list, int index, T element)
+	{
+		int expandCount = index - list.size() + 1;
+		for (int i = 0; i < expandCount; i++)
+			list.add(null);
+
+		list.set(index, element);
+	}
+
+	/**
+	 * sheet行解析器。
+	 * <p>
+	 * 它按顺序接收sheet的行，处理名称行、数据行、数据列，并在数据达到最大数目时通知停止读取。
+	 * </p>
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	protected class SheetRowResolver
+	{
+		private List<DataSetProperty> properties;
+
+		private final boolean resolveProperties;
+
+		private final DataSetOption dataSetOption;
+
+		private final DataSetPropertyValueConverter converter;
+
+		private final List<List<Object>> data = new ArrayList<>();
+
+		private List<String> propertyNames = null;
+
+		private int dataRowIdx = 0;
+
+		/**
+		 * 创建实例。
+		 * 
+		 * @param properties
+		 *            允许为{@code null}，此时会自动解析
+		 * @param dataSetOption
+		 *            允许为{@code null}
+		 */
+		public SheetRowResolver(List<DataSetProperty> properties, DataSetOption dataSetOption)
+		{
+			super();
+			this.resolveProperties = (properties == null || properties.isEmpty());
+			this.properties = (this.resolveProperties ? new ArrayList<>() : properties);
+			this.dataSetOption = dataSetOption;
+			this.converter = createDataSetPropertyValueConverter();
+		}
+
+		/**
+		 * 处理一行。
+		 * 
+		 * @param rowIdx
+		 *            行索引（以{@code 0}计数）
+		 * @param cellValues
+		 *            单元格原始值列表，元素索引即是列索引，空单元格为{@code null}
+		 * @return {@code false}表示已读取足够的数据，应停止读取
+		 * @throws DataSetException
+		 */
+		public boolean handleRow(int rowIdx, List<Object> cellValues) throws DataSetException
+		{
+			if (isNameRow(rowIdx))
+			{
+				if (this.resolveProperties)
+					this.propertyNames = resolveDataSetPropertyNames(cellValues, false);
+			}
+			else if (isDataRow(rowIdx))
+			{
+				if (this.resolveProperties && this.dataRowIdx == 0 && this.propertyNames == null)
+					this.propertyNames = resolveDataSetPropertyNames(cellValues, true);
+
+				// 名称行不一定在数据行之前，此时可能还无法确定属性名，所以暂时采用列表存储
+				List<Object> rowObj = new ArrayList<>();
+
+				int dataColIdx = 0;
+
+				for (int colIdx = 0, len = cellValues.size(); colIdx < len; colIdx++)
+				{
+					if (isDataColumn(colIdx))
+					{
+						DataSetProperty property = null;
+
+						if (!this.resolveProperties)
+						{
+							if (dataColIdx >= this.properties.size())
+								throw new DataSetSourceParseException(
+										"No property defined for column index " + dataColIdx);
+
+							property = this.properties.get(dataColIdx);
+						}
+
+						Object value = resolvePropertyValue(cellValues.get(colIdx), property, this.converter);
+
+						if (this.resolveProperties)
+							resolveDataSetProperty(rowIdx, this.dataRowIdx, colIdx, dataColIdx, value,
+									this.properties);
+
+						rowObj.add(value);
+
+						dataColIdx++;
+					}
+				}
+
+				boolean reachMaxCount = isReachResultDataMaxCount(this.dataSetOption, this.data.size());
+				boolean stop = (reachMaxCount && (!this.resolveProperties || isAfterNameRow(rowIdx)));
+
+				if (!reachMaxCount)
+					this.data.add(rowObj);
+
+				this.dataRowIdx++;
+
+				if (stop)
+					return false;
+			}
+
+			return true;
+		}
+
+		/**
+		 * 获取解析结果。
+		 * 
+		 * @return
+		 */
+		public ResolvedDataSetResult getResult()
+		{
+			if (this.resolveProperties)
+				inflateDataSetProperties(this.properties, this.propertyNames);
+
+			DataSetResult result = new DataSetResult(listRowsToMapRows(this.data, this.properties));
+
+			return new ResolvedDataSetResult(result, this.properties);
+		}
+	}
+
+	/**
+	 * 停止读取Excel时抛出的异常。
+	 */
+	protected static class ExcelReadStoppedException extends RuntimeException
+	{
+		private static final long serialVersionUID = 1L;
+
+		public ExcelReadStoppedException()
+		{
+			super();
+		}
+	}
+
+	/**
+	 * {@code .xls}格式的sheet事件处理器。
+	 * <p>
+	 * 注意：xls格式的Record记录事件顺序为：全部BoundSheetRecord -> 各sheet的RowRecord、cell记录，
+	 * 且每个sheet中，每个行块的RowRecord位于其cell记录之前。
+	 * </p>
+	 */
+	protected class XlsEventListener implements HSSFListener
+	{
+		private final SheetRowResolver rowResolver;
+
+		/** 要读取的sheet索引（以{@code 0}计数） */
+		private final int sheetIndex;
+
+		private FormatTrackingHSSFListener formatListener;
+
+		private SheetRecordCollectingListener workbookListener;
+
+		private HSSFWorkbook _stubWorkbook = null;
+
+		private SSTRecord _sstRecord = null;
+
+		private int _sheetIndex = -1;
+
+		/** BOF/EOF嵌套深度，sheet内可能嵌有图表等子流 */
+		private int _bofDepth = 0;
+
+		private boolean _sheetFound = false;
+
+		/** 已有RowRecord但还未处理的行索引 */
+		private TreeSet<Integer> _pendingRows = new TreeSet<>();
+
+		private int _rowIndex = -1;
+
+		private List<Object> _cellValues = null;
+
+		/** 上一个公式单元格的列索引，用于接收其后的StringRecord缓存值 */
+		private int _formulaColumn = -1;
+
+		public XlsEventListener(SheetRowResolver rowResolver, int sheetIndex)
+		{
+			super();
+			this.rowResolver = rowResolver;
+			this.sheetIndex = sheetIndex;
+		}
+
+		public FormatTrackingHSSFListener getFormatListener()
+		{
+			return formatListener;
+		}
+
+		public void setFormatListener(FormatTrackingHSSFListener formatListener)
+		{
+			this.formatListener = formatListener;
+		}
+
+		public SheetRecordCollectingListener getWorkbookListener()
 		{
-			if (CellType.BLANK.equals(cellType))
+			return workbookListener;
+		}
+
+		public void setWorkbookListener(SheetRecordCollectingListener workbookListener)
+		{
+			this.workbookListener = workbookListener;
+		}
+
+		public boolean isSheetFound()
+		{
+			return _sheetFound;
+		}
+
+		@Override
+		public void processRecord(Record record)
+		{
+			short sid = record.getSid();
+
+			if (sid == BOFRecord.sid)
 			{
-				cellValue = null;
+				BOFRecord bofRecord = (BOFRecord) record;
+
+				this._bofDepth++;
+
+				if (this._bofDepth == 1 && bofRecord.getType() == BOFRecord.TYPE_WORKSHEET)
+				{
+					this._sheetIndex++;
+
+					if (this._sheetIndex == this.sheetIndex)
+						this._sheetFound = true;
+				}
+
+				return;
 			}
-			else if (CellType.BOOLEAN.equals(cellType))
+
+			if (sid == SSTRecord.sid)
 			{
-				cellValue = cell.getBooleanCellValue();
+				this._sstRecord = (SSTRecord) record;
+				return;
+			}
+
+			if (sid == EOFRecord.sid)
+			{
+				this._bofDepth--;
+
+				if (this._bofDepth > 0 || this._sheetIndex != this.sheetIndex)
+					return;
+
+				endRow();
+				endPendingRows(Integer.MAX_VALUE);
+
+				// 目标sheet已读取完，不必再读取后续sheet
+				throw new ExcelReadStoppedException();
 			}
-			else if (CellType.ERROR.equals(cellType))
+
+			if (this._sheetIndex != this.sheetIndex || this._bofDepth != 1)
+				return;
+
+			if (sid == RowRecord.sid)
 			{
-				cellValue = cell.getErrorCellValue();
+				this._pendingRows.add(((RowRecord) record).getRowNumber());
+				return;
 			}
-			else if (CellType.FORMULA.equals(cellType))
+
+			if (sid == StringRecord.sid)
 			{
-				cellValue = cell.getCellFormula();
+				if (this._formulaColumn > -1 && this._cellValues != null)
+					setCellValue(this._formulaColumn, ((StringRecord) record).getString());
+
+				this._formulaColumn = -1;
+				return;
 			}
-			else if (CellType.NUMERIC.equals(cellType))
+
+			if (sid == MulBlankRecord.sid)
 			{
-				if (DateUtil.isCellDateFormatted(cell))
-					cellValue = cell.getDateCellValue();
-				else
-					cellValue = cell.getNumericCellValue();
+				MulBlankRecord mulBlankRecord = (MulBlankRecord) record;
+
+				startRow(mulBlankRecord.getRow());
+
+				for (int i = mulBlankRecord.getFirstColumn(); i <= mulBlankRecord.getLastColumn(); i++)
+					setCellValue(i, null);
+
+				return;
+			}
+
+			if (!(record instanceof CellValueRecordInterface))
+				return;
+
+			CellValueRecordInterface cellRecord = (CellValueRecordInterface) record;
+			int column = cellRecord.getColumn();
+			Object value = null;
+
+			startRow(cellRecord.getRow());
+			this._formulaColumn = -1;
+
+			if (sid == NumberRecord.sid)
+			{
+				NumberRecord numberRecord = (NumberRecord) record;
+				value = resolveNumberValue(numberRecord, numberRecord.getValue());
+			}
+			else if (sid == LabelSSTRecord.sid)
+			{
+				LabelSSTRecord labelSSTRecord = (LabelSSTRecord) record;
+				value = (this._sstRecord == null ? null
+						: this._sstRecord.getString(labelSSTRecord.getSSTIndex()).getString());
 			}
-			else if (CellType.STRING.equals(cellType))
+			else if (sid == LabelRecord.sid)
 			{
-				cellValue = cell.getStringCellValue();
+				value = ((LabelRecord) record).getValue();
 			}
+			else if (sid == BoolErrRecord.sid)
+			{
+				BoolErrRecord boolErrRecord = (BoolErrRecord) record;
+				value = (boolErrRecord.isBoolean() ? (Object) boolErrRecord.getBooleanValue()
+						: (Object) boolErrRecord.getErrorValue());
+			}
+			else if (sid == FormulaRecord.sid)
+			{
+				FormulaRecord formulaRecord = (FormulaRecord) record;
+				value = resolveFormulaValue(formulaRecord);
+
+				if (value == null && formulaRecord.hasCachedResultString())
+					this._formulaColumn = column;
+			}
+
+			setCellValue(column, value);
 		}
-		catch (DataSetException e)
+
+		protected Object resolveNumberValue(CellValueRecordInterface cellRecord, double value)
 		{
-			throw e;
+			if (isDateFormatted(this.formatListener.getFormatIndex(cellRecord),
+					this.formatListener.getFormatString(cellRecord)))
+				return DateUtil.getJavaDate(value);
+			else
+				return value;
 		}
-		catch (Throwable t)
+
+		/**
+		 * 解析公式单元格值，与{@code Cell.getCellFormula()}保持一致，返回公式文本。
+		 * 
+		 * @param formulaRecord
+		 * @return 为{@code null}表示公式文本无法解析，且缓存值在后续的StringRecord中
+		 */
+		protected Object resolveFormulaValue(FormulaRecord formulaRecord)
 		{
-			throw new DataSetSourceParseException(t);
+			try
+			{
+				if (this._stubWorkbook == null)
+					this._stubWorkbook = this.workbookListener.getStubHSSFWorkbook();
+
+				return HSSFFormulaParser.toFormulaString(this._stubWorkbook, formulaRecord.getParsedExpression());
+			}
+			catch (Throwable t)
+			{
+			}
+
+			// 公式文本无法解析（比如共享公式），则采用缓存值
+			// FormulaRecord仅提供整数类型码，这里转换一次为CellType
+			@SuppressWarnings("deprecation")
+			CellType cachedType = CellType.forInt(formulaRecord.getCachedResultType());
+
+			switch (cachedType)
+			{
+				case NUMERIC:
+					return resolveNumberValue(formulaRecord, formulaRecord.getValue());
+				case BOOLEAN:
+					return formulaRecord.getCachedBooleanValue();
+				case ERROR:
+					return (byte) formulaRecord.getCachedErrorValue();
+				default:
+					return null;
+			}
+		}
+
+		protected void startRow(int row)
+		{
+			if (row == this._rowIndex)
+				return;
+
+			endRow();
+			endPendingRows(row);
+
+			this._rowIndex = row;
+			this._cellValues = new ArrayList<>();
+		}
+
+		protected void setCellValue(int column, Object value)
+		{
+			setElementWithExpand(this._cellValues, column, value);
+		}
+
+		protected void endRow()
+		{
+			if (this._cellValues == null)
+				return;
+
+			List<Object> cellValues = this._cellValues;
+			this._cellValues = null;
+			this._pendingRows.remove(this._rowIndex);
+
+			handleRow(this._rowIndex, cellValues);
+		}
+
+		/**
+		 * 处理指定行之前没有单元格的行。
+		 * 
+		 * @param beforeRow
+		 */
+		@SuppressWarnings("unchecked")
+		protected void endPendingRows(int beforeRow)
+		{
+			while (!this._pendingRows.isEmpty() && this._pendingRows.first() < beforeRow)
+			{
+				int row = this._pendingRows.pollFirst();
+
+				if (row != this._rowIndex)
+					handleRow(row, Collections.EMPTY_LIST);
+			}
+		}
+
+		protected void handleRow(int row, List<Object> cellValues)
+		{
+			if (!this.rowResolver.handleRow(row, cellValues))
+				throw new ExcelReadStoppedException();
+		}
+	}
+
+	/**
+	 * {@code .xlsx}格式的sheet处理器。
+	 * <p>
+	 * 此类参考自{@code org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler}。
+	 * </p>
+	 * <p>
+	 * 注意：xlsx格式的单元格可能有两种格式（将文件改为zip后解压缩可见）：
+	 * </p>
+	 * <p>
+	 * &lt;c&gt;&lt;v&gt;......&lt;/v&gt;&lt;/c&gt;
+	 * </p>
+	 * 或者
+	 * <p>
+	 * &lt;c&gt;&lt;is&gt;&lt;t&gt;......&lt;/t&gt;&lt;/is&gt;&lt;/c&gt;
+	 * </p>
+	 */
+	protected class XlsxSheetHandler extends DefaultHandler
+	{
+		private final SheetRowResolver rowResolver;
+
+		private final StylesTable stylesTable;
+
+		private final ReadOnlySharedStringsTable sharedStringsTable;
+
+		private int _rowIndex = -1;
+
+		private List<Object> _cellValues = null;
+
+		private int _cellIndex = -1;
+
+		/** 单元格的{@code t}属性 */
+		private String _cellType = null;
+
+		/** 单元格的{@code s}属性 */
+		private String _cellStyle = null;
+
+		private StringBuilder _cellContents = new StringBuilder();
+
+		private StringBuilder _formulaContents = new StringBuilder();
+
+		private boolean _inCellContentElement = false;
+
+		private boolean _inFormulaElement = false;
+
+		public XlsxSheetHandler(SheetRowResolver rowResolver, StylesTable stylesTable,
+				ReadOnlySharedStringsTable sharedStringsTable)
+		{
+			super();
+			this.rowResolver = rowResolver;
+			this.stylesTable = stylesTable;
+			this.sharedStringsTable = sharedStringsTable;
+		}
+
+		@Override
+		public void startElement(String uri, String localName, String name, Attributes attributes) throws SAXException
+		{
+			if (uri != null && !uri.equals(NS_SPREADSHEETML))
+				return;
+
+			if ("v".equals(localName) || "t".equals(localName))
+			{
+				this._inCellContentElement = true;
+			}
+			else if ("f".equals(localName))
+			{
+				this._inFormulaElement = true;
+			}
+			else if ("row".equals(localName))
+			{
+				String rowIndexStr = attributes.getValue("r");
+
+				this._rowIndex = (rowIndexStr != null ? Integer.parseInt(rowIndexStr) - 1 : this._rowIndex + 1);
+				this._cellValues = new ArrayList<>();
+				this._cellIndex = -1;
+			}
+			else if ("c".equals(localName))
+			{
+				String cellRef = attributes.getValue("r");
+
+				this._cellIndex = (cellRef != null ? new CellReference(cellRef).getCol() : this._cellIndex + 1);
+				this._cellType = attributes.getValue("t");
+				this._cellStyle = attributes.getValue("s");
+
+				this._cellContents.setLength(0);
+				this._formulaContents.setLength(0);
+			}
 		}
 
-		cellValue = convertToPropertyDataType(converter, cellValue, property);
+		@Override
+		public void endElement(String uri, String localName, String name) throws SAXException
+		{
+			if (uri != null && !uri.equals(NS_SPREADSHEETML))
+				return;
+
+			if ("v".equals(localName) || "t".equals(localName))
+			{
+				this._inCellContentElement = false;
+			}
+			else if ("f".equals(localName))
+			{
+				this._inFormulaElement = false;
+			}
+			else if ("c".equals(localName))
+			{
+				setElementWithExpand(this._cellValues, this._cellIndex, resolveCellValue());
+			}
+			else if ("row".equals(localName))
+			{
+				List<Object> cellValues = this._cellValues;
+				this._cellValues = null;
 
-		return cellValue;
+				if (!this.rowResolver.handleRow(this._rowIndex, cellValues))
+					throw new ExcelReadStoppedException();
+			}
+		}
+
+		@Override
+		public void characters(char[] ch, int start, int length) throws SAXException
+		{
+			if (this._inCellContentElement)
+				this._cellContents.append(ch, start, length);
+			else if (this._inFormulaElement)
+				this._formulaContents.append(ch, start, length);
+		}
+
+		/**
+		 * 解析当前单元格原始值，与{@linkplain XSSFWorkbook}的单元格取值方式保持一致。
+		 * 
+		 * @return
+		 */
+		protected Object resolveCellValue()
+		{
+			// 与Cell.getCellFormula()一致，公式单元格返回公式文本
+			if (this._formulaContents.length() > 0)
+				return this._formulaContents.toString();
+
+			String contents = this._cellContents.toString();
+
+			if ("s".equals(this._cellType))
+			{
+				if (contents.isEmpty())
+					return null;
+
+				return this.sharedStringsTable.getEntryAt(Integer.parseInt(contents));
+			}
+			else if ("inlineStr".equals(this._cellType) || "str".equals(this._cellType))
+			{
+				return contents;
+			}
+			else if ("b".equals(this._cellType))
+			{
+				return (contents.isEmpty() ? null : "1".equals(contents));
+			}
+			else if ("e".equals(this._cellType))
+			{
+				try
+				{
+					return FormulaError.forString(contents).getCode();
+				}
+				catch (Throwable t)
+				{
+					return contents;
+				}
+			}
+			else
+			{
+				if (contents.isEmpty())
+					return null;
+
+				double value = Double.parseDouble(contents);
+
+				if (isDateFormattedCell())
+					return DateUtil.getJavaDate(value);
+				else
+					return value;
+			}
+		}
+
+		protected boolean isDateFormattedCell()
+		{
+			if (this.stylesTable == null)
+				return false;
+
+			XSSFCellStyle style = null;
+
+			if (!StringUtil.isEmpty(this._cellStyle))
+				style = this.stylesTable.getStyleAt(Integer.parseInt(this._cellStyle));
+			else if (this.stylesTable.getNumCellStyles() > 0)
+				style = this.stylesTable.getStyleAt(0);
+
+			if (style == null)
+				return false;
+
+			return isDateFormatted(style.getDataFormat(), style.getDataFormatString());
+		}
 	}
 
 	/**
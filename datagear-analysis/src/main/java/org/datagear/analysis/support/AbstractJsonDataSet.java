@@ -23,6 +23,8 @@ import org.datagear.analysis.ResolvedDataSetResult;
 import org.datagear.util.IOUtil;
 import org.datagear.util.StringUtil;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
@@ -35,6 +37,11 @@ import com.jayway.jsonpath.spi.mapper.JacksonMappingProvider;
 
 /**
  * 抽象JSON数据集。
+ * <p>
+ * 当{@linkplain #getDataJsonPath()}为空或者是仅包含属性名、数组下标、末尾{@code [*]}的简单路径（比如：{@code $.a.b[*]}、{@code stores[0].books}）时，
+ * 此类将流式解析JSON，逐条读取数据，并在达到{@linkplain DataSetOption#getResultDataMaxCount()}时停止读取后续内容；
+ * 否则，将读取整个JSON后再使用{@code JSONPath}计算数据。
+ * </p>
  * 
  * @author datagear@163.com
  *
@@ -153,6 +160,193 @@ public abstract class AbstractJsonDataSet extends AbstractResolvableDataSet impl
 	 */
 	protected ResolvedDataSetResult resolveResult(Reader jsonReader, List<DataSetProperty> properties,
 			DataSetOption dataSetOption) throws Throwable
+	{
+		SimpleJsonPath simpleJsonPath = SimpleJsonPath.valueOf(getDataJsonPath());
+
+		if (simpleJsonPath != null)
+			return resolveResultByStream(jsonReader, simpleJsonPath, properties, dataSetOption);
+		else
+			return resolveResultByTree(jsonReader, properties, dataSetOption);
+	}
+
+	/**
+	 * 流式解析结果。
+	 * 
+	 * @param jsonReader
+	 *            JSON输入流
+	 * @param simpleJsonPath
+	 *            数据JSON路径
+	 * @param properties
+	 *            允许为{@code null}，此时会自动解析
+	 * @param dataSetOption
+	 *            允许为{@code null}
+	 * @return
+	 * @throws Throwable
+	 */
+	protected ResolvedDataSetResult resolveResultByStream(Reader jsonReader, SimpleJsonPath simpleJsonPath,
+			List<DataSetProperty> properties, DataSetOption dataSetOption) throws Throwable
+	{
+		boolean resolveProperties = (properties == null || properties.isEmpty());
+
+		DataSetPropertyValueConverter converter = createDataSetPropertyValueConverter();
+
+		Object data = null;
+
+		JsonParser parser = getObjectMapperNonStardand().getFactory().createParser(jsonReader);
+
+		try
+		{
+			JsonToken token = parser.nextToken();
+
+			if (token != null)
+			{
+				moveToJsonPath(parser, simpleJsonPath);
+				token = parser.currentToken();
+
+				if (token == JsonToken.START_ARRAY)
+				{
+					List<Object> list = new ArrayList<>();
+					List<Object> firstEle = null;
+
+					while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null)
+					{
+						if (isReachResultDataMaxCount(dataSetOption, list.size()))
+							break;
+
+						Object ele = getObjectMapperNonStardand().readValue(parser, Object.class);
+
+						if (ele != null && !(ele instanceof Map<?, ?>))
+							throw new UnsupportedJsonResultDataException(
+									"Result data must be object or object array/list");
+
+						if (resolveProperties && firstEle == null)
+						{
+							firstEle = Collections.singletonList(ele);
+							properties = resolveDataSetProperties(firstEle);
+						}
+
+						list.add(convertJsonResultData(ele, properties, null, converter));
+					}
+
+					if (resolveProperties && firstEle == null)
+						properties = resolveDataSetProperties(list);
+
+					data = list;
+				}
+				else if (token == JsonToken.START_OBJECT)
+				{
+					Object obj = getObjectMapperNonStardand().readValue(parser, Object.class);
+
+					// 对象的"[*]"与JSONPath一致，取其所有属性值
+					if (simpleJsonPath.isWildcard())
+						obj = new ArrayList<Object>(((Map<?, ?>) obj).values());
+
+					if (resolveProperties)
+						properties = resolveDataSetProperties(obj);
+
+					data = convertJsonResultData(obj, properties, dataSetOption, converter);
+				}
+				else if (token == JsonToken.VALUE_NULL)
+				{
+					data = null;
+				}
+				else
+					throw new UnsupportedJsonResultDataException("Result data must be JSON object or array");
+			}
+		}
+		finally
+		{
+			parser.close();
+		}
+
+		if (resolveProperties && data == null)
+			properties = resolveDataSetProperties(null);
+
+		DataSetResult result = new DataSetResult(data);
+
+		return new ResolvedDataSetResult(result, properties);
+	}
+
+	/**
+	 * 将{@linkplain JsonParser}移至指定JSON路径的值处。
+	 * 
+	 * @param parser
+	 *            当前应位于根值处
+	 * @param simpleJsonPath
+	 * @throws ReadJsonDataPathException
+	 *             路径不存在时
+	 * @throws Throwable
+	 */
+	protected void moveToJsonPath(JsonParser parser, SimpleJsonPath simpleJsonPath)
+			throws ReadJsonDataPathException, Throwable
+	{
+		for (Object segment : simpleJsonPath.getSegments())
+		{
+			boolean found = false;
+
+			if (segment instanceof String)
+			{
+				if (parser.currentToken() == JsonToken.START_OBJECT)
+				{
+					while (parser.nextToken() == JsonToken.FIELD_NAME)
+					{
+						String name = parser.getCurrentName();
+						parser.nextToken();
+
+						if (segment.equals(name))
+						{
+							found = true;
+							break;
+						}
+
+						parser.skipChildren();
+					}
+				}
+			}
+			else
+			{
+				int index = (Integer) segment;
+
+				if (parser.currentToken() == JsonToken.START_ARRAY)
+				{
+					for (int i = 0;; i++)
+					{
+						JsonToken token = parser.nextToken();
+
+						if (token == JsonToken.END_ARRAY || token == null)
+							break;
+
+						if (i == index)
+						{
+							found = true;
+							break;
+						}
+
+						parser.skipChildren();
+					}
+				}
+			}
+
+			if (!found)
+				throw new ReadJsonDataPathException(getDataJsonPath(),
+						"No results for path [" + getDataJsonPath() + "]");
+		}
+	}
+
+	/**
+	 * 读取整个JSON后解析结果。
+	 * 
+	 * @param jsonReader
+	 *            JSON输入流
+	 * @param properties
+	 *            允许为{@code null}，此时会自动解析
+	 * @param dataSetOption
+	 *            允许为{@code null}
+	 * @return
+	 * @throws Throwable
+	 */
+	protected ResolvedDataSetResult resolveResultByTree(Reader jsonReader, List<DataSetProperty> properties,
+			DataSetOption dataSetOption) throws Throwable
 	{
 		boolean resolveProperties = (properties == null || properties.isEmpty());
 
@@ -424,4 +618,139 @@ public abstract class AbstractJsonDataSet extends AbstractResolvableDataSet impl
 	{
 		return JsonSupport.getObjectMapperNonStardand();
 	}
+
+	/**
+	 * 可流式读取的简单JSON路径。
+	 * <p>
+	 * 它仅包含属性名、数组下标，以及可选的末尾{@code [*]}，比如：{@code $.a.b[*]}、{@code $['a'][0]}、{@code stores[0].books}。
+	 * </p>
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static class SimpleJsonPath
+	{
+		/** 路径段，元素为属性名{@linkplain String}或者数组下标{@linkplain Integer} */
+		private final List<Object> segments;
+
+		/** 是否以{@code [*]}结尾 */
+		private final boolean wildcard;
+
+		public SimpleJsonPath(List<Object> segments, boolean wildcard)
+		{
+			super();
+			this.segments = segments;
+			this.wildcard = wildcard;
+		}
+
+		public List<Object> getSegments()
+		{
+			return segments;
+		}
+
+		public boolean isWildcard()
+		{
+			return wildcard;
+		}
+
+		/**
+		 * 解析简单JSON路径。
+		 * 
+		 * @param dataJsonPath
+		 *            允许为{@code null}
+		 * @return 为{@code null}表示不是简单JSON路径
+		 */
+		public static SimpleJsonPath valueOf(String dataJsonPath)
+		{
+			String path = (dataJsonPath == null ? "" : dataJsonPath.trim());
+
+			List<Object> segments = new ArrayList<>();
+			boolean wildcard = false;
+
+			if (path.isEmpty())
+				return new SimpleJsonPath(segments, wildcard);
+
+			// 与"stores[0].books"、"[1].stores"简化模式保持一致
+			if (path.startsWith("$"))
+				path = path.substring(1);
+			else if (!path.startsWith("["))
+				path = "." + path;
+
+			int len = path.length();
+			int i = 0;
+
+			while (i < len)
+			{
+				if (wildcard)
+					return null;
+
+				char c = path.charAt(i);
+
+				if (c == '.')
+				{
+					int start = ++i;
+
+					while (i < len && path.charAt(i) != '.' && path.charAt(i) != '[')
+						i++;
+
+					String name = path.substring(start, i).trim();
+
+					// ".."深度查找、".*"等不支持
+					if (name.isEmpty() || name.indexOf('*') > -1 || name.indexOf('@') > -1)
+						return null;
+
+					segments.add(name);
+				}
+				else if (c == '[')
+				{
+					int end = path.indexOf(']', i);
+
+					if (end < 0)
+						return null;
+
+					String content = path.substring(i + 1, end).trim();
+					i = end + 1;
+
+					if ("*".equals(content))
+						wildcard = true;
+					else if (content.length() > 1 && (content.charAt(0) == '\'' || content.charAt(0) == '"')
+							&& content.charAt(content.length() - 1) == content.charAt(0))
+					{
+						String name = content.substring(1, content.length() - 1);
+
+						// 多个属性名不支持
+						if (name.indexOf('\'') > -1 || name.indexOf('"') > -1)
+							return null;
+
+						segments.add(name);
+					}
+					else
+					{
+						// 仅支持非负数组下标
+						if (content.isEmpty())
+							return null;
+
+						for (int j = 0; j < content.length(); j++)
+						{
+							if (!Character.isDigit(content.charAt(j)))
+								return null;
+						}
+
+						try
+						{
+							segments.add(Integer.valueOf(content));
+						}
+						catch (NumberFormatException e)
+						{
+							return null;
+						}
+					}
+				}
+				else
+					return null;
+			}
+
+			return new SimpleJsonPath(segments, wildcard);
+		}
+	}
 }
@@ -10,13 +10,18 @@ package org.datagear.analysis.support;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
+import org.datagear.analysis.ColumnarDataSetResult;
 import org.datagear.analysis.DataSetException;
 import org.datagear.analysis.DataSetOption;
 import org.datagear.analysis.DataSetProperty;
 import org.datagear.analysis.DataSetResult;
 import org.datagear.analysis.ResolvableDataSet;
 import org.datagear.analysis.ResolvedDataSetResult;
+import org.datagear.analysis.support.DataSetResultCache.DataSetResultCacheKey;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 /**
  * 抽象{@linkplain ResolvableDataSet}。
@@ -26,6 +31,12 @@ import org.datagear.analysis.ResolvedDataSetResult;
  */
 public abstract class AbstractResolvableDataSet extends AbstractDataSet implements ResolvableDataSet
 {
+	/** 结果缓存秒数，小于等于0表示不缓存 */
+	private int resultCacheSeconds = 0;
+
+	/** 结果缓存，为{@code null}表示不缓存 */
+	private DataSetResultCache resultCache = null;
+
 	public AbstractResolvableDataSet()
 	{
 		super();
@@ -42,17 +53,124 @@ public abstract class AbstractResolvableDataSet extends AbstractDataSet implemen
 		super(id, name, properties);
 	}
 
+	/**
+	 * 获取{@linkplain #getResult(Map)}结果缓存秒数。
+	 * 
+	 * @return 小于等于0表示不缓存
+	 */
+	public int getResultCacheSeconds()
+	{
+		return resultCacheSeconds;
+	}
+
+	public void setResultCacheSeconds(int resultCacheSeconds)
+	{
+		this.resultCacheSeconds = resultCacheSeconds;
+	}
+
+	@JsonIgnore
+	public DataSetResultCache getResultCache()
+	{
+		return resultCache;
+	}
+
+	/**
+	 * 设置{@linkplain #getResult(Map)}结果缓存。
+	 * <p>
+	 * 仅当设置了此项、{@linkplain #getResultCacheSeconds()}大于0、且{@linkplain #getId()}不为{@code null}时，才会使用缓存。
+	 * </p>
+	 * 
+	 * @param resultCache
+	 *            允许为{@code null}
+	 */
+	@JsonIgnore
+	public void setResultCache(DataSetResultCache resultCache)
+	{
+		this.resultCache = resultCache;
+	}
+
 	@Override
 	public DataSetResult getResult(Map<String, ?> paramValues) throws DataSetException
 	{
-		List<DataSetProperty> properties = getProperties();
+		return getResult(paramValues, null);
+	}
+
+	/**
+	 * 获取结果，支持时将直接构建并返回{@linkplain ColumnarDataSetResult}。
+	 * <p>
+	 * 它与{@linkplain #getResult(Map)}共用结果缓存，因此返回的也可能是行对象列表形式的结果，
+	 * 调用方应使用{@linkplain ColumnarDataSetResult#valueOf(DataSetResult)}转换。
+	 * </p>
+	 * 
+	 * @param paramValues
+	 * @return
+	 * @throws DataSetException
+	 */
+	public DataSetResult getColumnarResult(Map<String, ?> paramValues) throws DataSetException
+	{
+		DataSetOption dataSetOption = new DataSetOption();
+		dataSetOption.setColumnarResult(true);
+
+		return getResult(paramValues, dataSetOption);
+	}
+
+	/**
+	 * 获取结果。
+	 * 
+	 * @param paramValues
+	 * @param dataSetOption
+	 *            允许为{@code null}，不应设置影响结果数据的选项（比如{@linkplain DataSetOption#getResultDataMaxCount()}），
+	 *            因为结果缓存不区分选项
+	 * @return
+	 * @throws DataSetException
+	 */
+	protected DataSetResult getResult(final Map<String, ?> paramValues, final DataSetOption dataSetOption)
+			throws DataSetException
+	{
+		final List<DataSetProperty> properties = getProperties();
 
 		if (properties == null || properties.isEmpty())
 			throw new DataSetException("[getProperties()] must not be empty");
 
-		ResolvedDataSetResult result = resolveResult(paramValues, properties, null);
+		if (!isResultCacheable())
+			return resolveResult(paramValues, properties, dataSetOption).getResult();
+
+		DataSetResultCacheKey key = new DataSetResultCacheKey(getId(), resolveResultCacheTemplate(paramValues),
+				paramValues);
 
-		return result.getResult();
+		return this.resultCache.get(key, this.resultCacheSeconds, new Callable<DataSetResult>()
+		{
+			@Override
+			public DataSetResult call() throws Exception
+			{
+				return resolveResult(paramValues, properties, dataSetOption).getResult();
+			}
+		});
+	}
+
+	/**
+	 * {@linkplain #getResult(Map)}是否使用缓存。
+	 * 
+	 * @return
+	 */
+	protected boolean isResultCacheable()
+	{
+		return (this.resultCache != null && this.resultCacheSeconds > 0 && getId() != null);
+	}
+
+	/**
+	 * 解析用作结果缓存关键字的模板内容。
+	 * <p>
+	 * 子类应返回由参数值解析后的模板内容（比如SQL语句），使得模板内容不同时不会命中缓存。
+	 * </p>
+	 * 
+	 * @param paramValues
+	 * @return 允许为{@code null}
+	 * @throws DataSetException
+	 */
+	protected String resolveResultCacheTemplate(Map<String, ?> paramValues) throws DataSetException
+	{
+		return null;
 	}
 
 	@Override
@@ -72,6 +72,12 @@ public class CsvValueDataSet extends AbstractCsvDataSet
 		return (TemplateResolvedDataSetResult) resolveResult(paramValues, null, dataSetOption);
 	}
 
+	@Override
+	protected String resolveResultCacheTemplate(Map<String, ?> paramValues) throws DataSetException
+	{
+		return resolveAsFmkTemplate(this.value, paramValues);
+	}
+
 	@Override
 	protected TemplateResolvedSource<Reader> getCsvReader(Map<String, ?> paramValues) throws Throwable
 	{
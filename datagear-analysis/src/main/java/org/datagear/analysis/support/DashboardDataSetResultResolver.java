@@ -0,0 +1,530 @@
+/*
+ * Copyright (c) 2018 datagear.tech. All Rights Reserved.
+ */
+
+/**
+ * 
+ */
+package org.datagear.analysis.support;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.datagear.analysis.Chart;
+import org.datagear.analysis.ChartDataSet;
+import org.datagear.analysis.ColumnarDataSetResult;
+import org.datagear.analysis.Dashboard;
+import org.datagear.analysis.DataSet;
+import org.datagear.analysis.DataSetException;
+import org.datagear.analysis.DataSetResult;
+
+/**
+ * 看板数据集结果解析器。
+ * <p>
+ * 它与{@linkplain Dashboard#getDataSetResults()}、{@linkplain Dashboard#getDataSetResults(Set, Map)}功能一致，区别是：
+ * </p>
+ * <p>
+ * 同一次请求中，{@linkplain DataSet#getId()}相同且参数值相同的图表数据集仅会执行一次{@linkplain DataSet#getResult(Map)}，
+ * 结果将共享给所有引用它的图表；
+ * </p>
+ * <p>
+ * 如果设置了{@linkplain #getExecutorService()}，不同的数据集将并行获取结果，使得请求耗时取决于最慢的那个数据集，而非所有数据集耗时之和。
+ * </p>
+ * <p>
+ * 此类是线程安全的。
+ * </p>
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class DashboardDataSetResultResolver
+{
+	/** 并行执行服务，为{@code null}表示串行执行 */
+	private ExecutorService executorService = null;
+
+	public DashboardDataSetResultResolver()
+	{
+		super();
+	}
+
+	public DashboardDataSetResultResolver(ExecutorService executorService)
+	{
+		super();
+		this.executorService = executorService;
+	}
+
+	public ExecutorService getExecutorService()
+	{
+		return executorService;
+	}
+
+	/**
+	 * 设置并行执行服务。
+	 * <p>
+	 * 应设置为有界的执行服务，以免大量并发请求耗尽数据库连接。
+	 * </p>
+	 * 
+	 * @param executorService
+	 *            允许为{@code null}，表示串行执行
+	 */
+	public void setExecutorService(ExecutorService executorService)
+	{
+		this.executorService = executorService;
+	}
+
+	/**
+	 * 关闭。
+	 */
+	public void shutdown()
+	{
+		if (this.executorService != null)
+			this.executorService.shutdown();
+	}
+
+	/**
+	 * 获取看板所有图表的默认数据集结果。
+	 * 
+	 * @param dashboard
+	 * @return 同{@linkplain Dashboard#getDataSetResults()}
+	 * @throws DataSetException
+	 */
+	public Map<String, DataSetResult[]> getDataSetResults(Dashboard dashboard) throws DataSetException
+	{
+		return getDataSetResults(dashboard, false);
+	}
+
+	/**
+	 * 获取看板所有图表的默认数据集结果。
+	 * 
+	 * @param dashboard
+	 * @param columnar
+	 *            是否请求列式结果，为{@code true}时，支持的数据集将直接返回{@linkplain ColumnarDataSetResult}，其他的仍返回原结果
+	 * @return 同{@linkplain Dashboard#getDataSetResults()}
+	 * @throws DataSetException
+	 */
+	public Map<String, DataSetResult[]> getDataSetResults(Dashboard dashboard, boolean columnar)
+			throws DataSetException
+	{
+		Map<String, DataSetResult[]> resultsMap = new HashMap<>();
+
+		List<Chart> charts = dashboard.getCharts();
+
+		if (charts == null || charts.isEmpty())
+			return resultsMap;
+
+		List<ResultSlot> slots = new ArrayList<>();
+
+		for (Chart chart : charts)
+		{
+			ChartDataSet[] chartDataSets = chart.getChartDataSets();
+			int len = (chartDataSets == null ? 0 : chartDataSets.length);
+
+			DataSetResult[] results = new DataSetResult[len];
+			resultsMap.put(chart.getId(), results);
+
+			for (int i = 0; i < len; i++)
+			{
+				ChartDataSet chartDataSet = chartDataSets[i];
+
+				if (chartDataSet.isResultReady())
+					slots.add(new ResultSlot(results, i, chartDataSet.getDataSet(), chartDataSet.getParamValues()));
+			}
+		}
+
+		resolve(slots, columnar);
+
+		return resultsMap;
+	}
+
+	/**
+	 * 获取看板指定图表ID集的数据集结果。
+	 * 
+	 * @param dashboard
+	 * @param chartIds
+	 * @param dataSetParamValuess
+	 * @return 同{@linkplain Dashboard#getDataSetResults(Set, Map)}
+	 * @throws DataSetException
+	 */
+	public Map<String, DataSetResult[]> getDataSetResults(Dashboard dashboard, Set<String> chartIds,
+			Map<String, ? extends List<? extends Map<String, ?>>> dataSetParamValuess) throws DataSetException
+	{
+		return getDataSetResults(dashboard, chartIds, dataSetParamValuess, false);
+	}
+
+	/**
+	 * 获取看板指定图表ID集的数据集结果。
+	 * 
+	 * @param dashboard
+	 * @param chartIds
+	 * @param dataSetParamValuess
+	 * @param columnar
+	 *            是否请求列式结果，参考{@linkplain #getDataSetResults(Dashboard, boolean)}
+	 * @return 同{@linkplain Dashboard#getDataSetResults(Set, Map)}
+	 * @throws DataSetException
+	 */
+	public Map<String, DataSetResult[]> getDataSetResults(Dashboard dashboard, Set<String> chartIds,
+			Map<String, ? extends List<? extends Map<String, ?>>> dataSetParamValuess, boolean columnar)
+			throws DataSetException
+	{
+		Map<String, DataSetResult[]> resultsMap = new HashMap<>();
+
+		List<Chart> charts = dashboard.getCharts();
+
+		if (charts == null || charts.isEmpty())
+			return resultsMap;
+
+		List<ResultSlot> slots = new ArrayList<>();
+
+		for (Chart chart : charts)
+		{
+			if (!chartIds.contains(chart.getId()))
+				continue;
+
+			List<? extends Map<String, ?>> myParamValuess = dataSetParamValuess.get(chart.getId());
+			int pvSize = (myParamValuess == null ? 0 : myParamValuess.size());
+
+			ChartDataSet[] chartDataSets = chart.getChartDataSets();
+			int len = (chartDataSets == null ? 0 : chartDataSets.length);
+
+			DataSetResult[] results = new DataSetResult[len];
+			resultsMap.put(chart.getId(), results);
+
+			for (int i = 0; i < len; i++)
+			{
+				Map<String, ?> paramValues = (i >= pvSize ? null : myParamValuess.get(i));
+
+				if (paramValues == null)
+					continue;
+
+				ChartDataSet chartDataSet = chartDataSets[i];
+
+				if (chartDataSet.isResultReady(paramValues))
+					slots.add(new ResultSlot(results, i, chartDataSet.getDataSet(), paramValues));
+			}
+		}
+
+		resolve(slots, columnar);
+
+		return resultsMap;
+	}
+
+	/**
+	 * 去重并获取结果，然后填充至对应的{@linkplain ResultSlot}。
+	 * 
+	 * @param slots
+	 * @param columnar
+	 * @throws DataSetException
+	 */
+	protected void resolve(List<ResultSlot> slots, boolean columnar) throws DataSetException
+	{
+		if (slots.isEmpty())
+			return;
+
+		Map<Object, List<ResultSlot>> groups = new LinkedHashMap<>();
+
+		for (ResultSlot slot : slots)
+		{
+			Object key = buildDedupKey(slot.getDataSet(), slot.getParamValues());
+
+			List<ResultSlot> group = groups.get(key);
+
+			if (group == null)
+			{
+				group = new ArrayList<>(1);
+				groups.put(key, group);
+			}
+
+			group.add(slot);
+		}
+
+		List<List<ResultSlot>> groupList = new ArrayList<>(groups.values());
+
+		if (this.executorService == null || groupList.size() == 1)
+		{
+			for (List<ResultSlot> group : groupList)
+				fill(group, getResult(group.get(0), columnar));
+		}
+		else
+			resolveConcurrently(groupList, columnar);
+	}
+
+	/**
+	 * 并行获取结果。
+	 * <p>
+	 * 第一组在当前线程执行，其余组提交至{@linkplain #getExecutorService()}执行。
+	 * </p>
+	 * 
+	 * @param groupList
+	 * @param columnar
+	 * @throws DataSetException
+	 */
+	protected void resolveConcurrently(List<List<ResultSlot>> groupList, final boolean columnar)
+			throws DataSetException
+	{
+		List<Future<DataSetResult>> futures = new ArrayList<>(groupList.size());
+		futures.add(null);
+
+		try
+		{
+			for (int i = 1, len = groupList.size(); i < len; i++)
+			{
+				final ResultSlot slot = groupList.get(i).get(0);
+
+				futures.add(this.executorService.submit(new Callable<DataSetResult>()
+				{
+					@Override
+					public DataSetResult call() throws Exception
+					{
+						return getResult(slot, columnar);
+					}
+				}));
+			}
+
+			List<ResultSlot> first = groupList.get(0);
+			fill(first, getResult(first.get(0), columnar));
+
+			for (int i = 1, len = groupList.size(); i < len; i++)
+				fill(groupList.get(i), futures.get(i).get());
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new DataSetException(e);
+		}
+		catch (ExecutionException e)
+		{
+			Throwable cause = e.getCause();
+
+			if (cause instanceof DataSetException)
+				throw (DataSetException) cause;
+			else
+				throw new DataSetException(cause);
+		}
+		finally
+		{
+			for (Future<DataSetResult> future : futures)
+			{
+				if (future != null && !future.isDone())
+					future.cancel(true);
+			}
+		}
+	}
+
+	protected DataSetResult getResult(ResultSlot slot, boolean columnar) throws DataSetException
+	{
+		DataSet dataSet = slot.getDataSet();
+
+		if (columnar && dataSet instanceof AbstractResolvableDataSet)
+			return ((AbstractResolvableDataSet) dataSet).getColumnarResult(slot.getParamValues());
+		else
+			return dataSet.getResult(slot.getParamValues());
+	}
+
+	protected void fill(List<ResultSlot> group, DataSetResult result)
+	{
+		for (ResultSlot slot : group)
+			slot.setResult(result);
+	}
+
+	/**
+	 * 构建去重关键字。
+	 * <p>
+	 * 对于没有{@linkplain DataSet#getId()}的数据集，将返回唯一对象，即不去重。
+	 * </p>
+	 * 
+	 * @param dataSet
+	 * @param paramValues
+	 *            允许为{@code null}
+	 * @return
+	 */
+	protected Object buildDedupKey(DataSet dataSet, Map<String, ?> paramValues)
+	{
+		String id = dataSet.getId();
+
+		if (id == null)
+			return new Object();
+
+		return new DataSetResultKey(id, normalizeParamValues(paramValues));
+	}
+
+	/**
+	 * 规范化参数值映射表，使得内容相同的参数值映射表{@linkplain Object#equals(Object)}相等。
+	 * 
+	 * @param paramValues
+	 *            允许为{@code null}
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	public static Map<String, Object> normalizeParamValues(Map<String, ?> paramValues)
+	{
+		if (paramValues == null || paramValues.isEmpty())
+			return Collections.EMPTY_MAP;
+
+		Map<String, Object> re = new TreeMap<>();
+
+		for (Map.Entry<String, ?> entry : paramValues.entrySet())
+			re.put(entry.getKey(), normalizeParamValue(entry.getValue()));
+
+		return re;
+	}
+
+	@SuppressWarnings("unchecked")
+	protected static Object normalizeParamValue(Object value)
+	{
+		if (value == null)
+			return null;
+
+		if (value.getClass().isArray())
+		{
+			int len = Array.getLength(value);
+			List<Object> list = new ArrayList<>(len);
+
+			for (int i = 0; i < len; i++)
+				list.add(normalizeParamValue(Array.get(value, i)));
+
+			return list;
+		}
+		else if (value instanceof Collection<?>)
+		{
+			Collection<?> collection = (Collection<?>) value;
+			List<Object> list = new ArrayList<>(collection.size());
+
+			for (Object ele : collection)
+				list.add(normalizeParamValue(ele));
+
+			return list;
+		}
+		else if (value instanceof Map<?, ?>)
+		{
+			return normalizeParamValues((Map<String, ?>) value);
+		}
+		else
+			return value;
+	}
+
+	/**
+	 * 数据集结果去重关键字。
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static class DataSetResultKey
+	{
+		private final String dataSetId;
+
+		private final Map<String, Object> paramValues;
+
+		public DataSetResultKey(String dataSetId, Map<String, Object> paramValues)
+		{
+			super();
+			this.dataSetId = dataSetId;
+			this.paramValues = paramValues;
+		}
+
+		public String getDataSetId()
+		{
+			return dataSetId;
+		}
+
+		public Map<String, Object> getParamValues()
+		{
+			return paramValues;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			final int prime = 31;
+			int result = 1;
+			result = prime * result + ((dataSetId == null) ? 0 : dataSetId.hashCode());
+			result = prime * result + ((paramValues == null) ? 0 : paramValues.hashCode());
+			return result;
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (this == obj)
+				return true;
+			if (obj == null)
+				return false;
+			if (getClass() != obj.getClass())
+				return false;
+			DataSetResultKey other = (DataSetResultKey) obj;
+			if (dataSetId == null)
+			{
+				if (other.dataSetId != null)
+					return false;
+			}
+			else if (!dataSetId.equals(other.dataSetId))
+				return false;
+			if (paramValues == null)
+			{
+				if (other.paramValues != null)
+					return false;
+			}
+			else if (!paramValues.equals(other.paramValues))
+				return false;
+			return true;
+		}
+
+		@Override
+		public String toString()
+		{
+			return getClass().getSimpleName() + " [dataSetId=" + dataSetId + ", paramValues=" + paramValues + "]";
+		}
+	}
+
+	/**
+	 * 图表数据集结果位置。
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static class ResultSlot
+	{
+		private final DataSetResult[] results;
+
+		private final int index;
+
+		private final DataSet dataSet;
+
+		private final Map<String, ?> paramValues;
+
+		public ResultSlot(DataSetResult[] results, int index, DataSet dataSet, Map<String, ?> paramValues)
+		{
+			super();
+			this.results = results;
+			this.index = index;
+			this.dataSet = dataSet;
+			this.paramValues = paramValues;
+		}
+
+		public DataSet getDataSet()
+		{
+			return dataSet;
+		}
+
+		public Map<String, ?> getParamValues()
+		{
+			return paramValues;
+		}
+
+		public void setResult(DataSetResult result)
+		{
+			this.results[this.index] = result;
+		}
+	}
+}
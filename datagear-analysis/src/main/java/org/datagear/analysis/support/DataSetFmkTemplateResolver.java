@@ -8,6 +8,7 @@ import java.io.IOException;
 import java.io.Reader;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.io.Writer;
 import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
@@ -117,16 +118,27 @@ public class DataSetFmkTemplateResolver implements TemplateResolver
 	@Override
 	public String resolve(String template, TemplateContext templateContext) throws TemplateResolverException
 	{
-		String re = null;
+		StringWriter out = new StringWriter();
+		resolve(template, templateContext.getValues(), out);
 
-		Map<String, ?> values = templateContext.getValues();
+		return out.toString();
+	}
 
+	/**
+	 * 使用指定值解析模板，并将结果写入{@code out}。
+	 * 
+	 * @param template
+	 * @param values
+	 *            模板数据模型，除了数据集参数值，也可以包含自定义指令（比如{@code TemplateDirectiveModel}）
+	 * @param out
+	 * @throws TemplateResolverException
+	 */
+	public void resolve(String template, Map<String, ?> values, Writer out) throws TemplateResolverException
+	{
 		try
 		{
 			Template templateObj = this.configuration.getTemplate(template);
-			StringWriter out = new StringWriter();
 			templateObj.process(values, out);
-			re = out.toString();
 		}
 		catch (IOException e)
 		{
@@ -136,8 +148,6 @@ public class DataSetFmkTemplateResolver implements TemplateResolver
 		{
 			throw new TemplateResolverException(e);
 		}
-
-		return re;
 	}
 
 	/**
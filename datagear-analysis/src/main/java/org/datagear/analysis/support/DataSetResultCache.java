@@ -0,0 +1,300 @@
+/*
+ * Copyright (c) 2018 datagear.tech. All Rights Reserved.
+ */
+
+/**
+ * 
+ */
+package org.datagear.analysis.support;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.datagear.analysis.DataSet;
+import org.datagear.analysis.DataSetException;
+import org.datagear.analysis.DataSetResult;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+/**
+ * {@linkplain DataSetResult}缓存。
+ * <p>
+ * 它在所有用户、所有看板间共享，缓存关键字是：{@linkplain DataSet#getId()}、解析后的模板内容、参数值。
+ * </p>
+ * <p>
+ * 同一关键字的并发未命中仅会执行一次加载，其他线程将等待并共享加载结果。
+ * </p>
+ * <p>
+ * 此类是线程安全的。
+ * </p>
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class DataSetResultCache
+{
+	/** 缓存值的最大数 */
+	private int maximumSize = 500;
+
+	/** 缓存最大过期秒数，数据集设置的过期秒数超过它时将以它为准 */
+	private int maxExpireSeconds = 60 * 60 * 24;
+
+	private Cache<DataSetResultCacheKey, CachedDataSetResult> _cache = null;
+
+	public DataSetResultCache()
+	{
+		super();
+	}
+
+	public int getMaximumSize()
+	{
+		return maximumSize;
+	}
+
+	public void setMaximumSize(int maximumSize)
+	{
+		this.maximumSize = maximumSize;
+	}
+
+	public int getMaxExpireSeconds()
+	{
+		return maxExpireSeconds;
+	}
+
+	public void setMaxExpireSeconds(int maxExpireSeconds)
+	{
+		this.maxExpireSeconds = maxExpireSeconds;
+	}
+
+	/**
+	 * 初始化。
+	 */
+	public void init()
+	{
+		this._cache = CacheBuilder.newBuilder().maximumSize(this.maximumSize)
+				.expireAfterWrite(this.maxExpireSeconds, TimeUnit.SECONDS).build();
+	}
+
+	/**
+	 * 获取缓存的{@linkplain DataSetResult}，如果没有或者已过期，则使用{@code loader}加载并缓存。
+	 * 
+	 * @param key
+	 * @param expireSeconds
+	 *            过期秒数，应大于{@code 0}
+	 * @param loader
+	 * @return
+	 * @throws DataSetException
+	 */
+	public DataSetResult get(DataSetResultCacheKey key, int expireSeconds,
+			final Callable<? extends DataSetResult> loader) throws DataSetException
+	{
+		final long expireMillis = Math.min(expireSeconds, this.maxExpireSeconds) * 1000L;
+
+		final boolean[] loaded = new boolean[] { false };
+
+		Callable<CachedDataSetResult> cachedLoader = new Callable<CachedDataSetResult>()
+		{
+			@Override
+			public CachedDataSetResult call() throws Exception
+			{
+				DataSetResult result = loader.call();
+				loaded[0] = true;
+				return new CachedDataSetResult(result, System.currentTimeMillis() + expireMillis);
+			}
+		};
+
+		try
+		{
+			while (true)
+			{
+				CachedDataSetResult cached = this._cache.get(key, cachedLoader);
+
+				// 本次调用加载的值总是直接返回，避免过期秒数很小时无限重新加载
+				if (loaded[0] || !cached.isExpired())
+					return cached.getResult();
+
+				// 仅移除过期的这个值，避免误删其他线程刚加载的新值
+				this._cache.asMap().remove(key, cached);
+			}
+		}
+		catch (ExecutionException | UncheckedExecutionException | ExecutionError e)
+		{
+			Throwable cause = e.getCause();
+
+			if (cause instanceof DataSetException)
+				throw (DataSetException) cause;
+			else
+				throw new DataSetException(cause);
+		}
+	}
+
+	/**
+	 * 清除指定{@linkplain DataSet#getId()}的所有缓存。
+	 * 
+	 * @param dataSetId
+	 */
+	public void invalidate(String dataSetId)
+	{
+		ConcurrentMap<DataSetResultCacheKey, CachedDataSetResult> map = this._cache.asMap();
+		Set<DataSetResultCacheKey> keys = map.keySet();
+
+		Set<DataSetResultCacheKey> myKeys = new HashSet<>();
+		for (DataSetResultCacheKey key : keys)
+		{
+			if (key.getDataSetId().equals(dataSetId))
+				myKeys.add(key);
+		}
+
+		if (!myKeys.isEmpty())
+			this._cache.invalidateAll(myKeys);
+	}
+
+	/**
+	 * 清除所有缓存。
+	 */
+	public void invalidateAll()
+	{
+		this._cache.invalidateAll();
+	}
+
+	/**
+	 * 获取当前缓存数目。
+	 * 
+	 * @return
+	 */
+	public long size()
+	{
+		return this._cache.size();
+	}
+
+	/**
+	 * {@linkplain DataSetResultCache}关键字。
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	public static class DataSetResultCacheKey
+	{
+		private final String dataSetId;
+
+		private final String template;
+
+		private final Map<String, Object> paramValues;
+
+		/**
+		 * 创建实例。
+		 * 
+		 * @param dataSetId
+		 * @param template
+		 *            解析后的模板内容，允许为{@code null}
+		 * @param paramValues
+		 *            参数值映射表，允许为{@code null}
+		 */
+		public DataSetResultCacheKey(String dataSetId, String template, Map<String, ?> paramValues)
+		{
+			super();
+			this.dataSetId = dataSetId;
+			this.template = template;
+			this.paramValues = DashboardDataSetResultResolver.normalizeParamValues(paramValues);
+		}
+
+		public String getDataSetId()
+		{
+			return dataSetId;
+		}
+
+		public String getTemplate()
+		{
+			return template;
+		}
+
+		public Map<String, Object> getParamValues()
+		{
+			return paramValues;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			final int prime = 31;
+			int result = 1;
+			result = prime * result + ((dataSetId == null) ? 0 : dataSetId.hashCode());
+			result = prime * result + ((template == null) ? 0 : template.hashCode());
+			result = prime * result + ((paramValues == null) ? 0 : paramValues.hashCode());
+			return result;
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (this == obj)
+				return true;
+			if (obj == null)
+				return false;
+			if (getClass() != obj.getClass())
+				return false;
+			DataSetResultCacheKey other = (DataSetResultCacheKey) obj;
+			if (dataSetId == null)
+			{
+				if (other.dataSetId != null)
+					return false;
+			}
+			else if (!dataSetId.equals(other.dataSetId))
+				return false;
+			if (template == null)
+			{
+				if (other.template != null)
+					return false;
+			}
+			else if (!template.equals(other.template))
+				return false;
+			if (paramValues == null)
+			{
+				if (other.paramValues != null)
+					return false;
+			}
+			else if (!paramValues.equals(other.paramValues))
+				return false;
+			return true;
+		}
+
+		@Override
+		public String toString()
+		{
+			return getClass().getSimpleName() + " [dataSetId=" + dataSetId + ", template=" + template
+					+ ", paramValues=" + paramValues + "]";
+		}
+	}
+
+	protected static class CachedDataSetResult
+	{
+		private final DataSetResult result;
+
+		private final long expireTime;
+
+		public CachedDataSetResult(DataSetResult result, long expireTime)
+		{
+			super();
+			this.result = result;
+			this.expireTime = expireTime;
+		}
+
+		public DataSetResult getResult()
+		{
+			return result;
+		}
+
+		public boolean isExpired()
+		{
+			return System.currentTimeMillis() >= this.expireTime;
+		}
+	}
+}
@@ -7,7 +7,9 @@
  */
 package org.datagear.analysis.support;
 
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.Reader;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
@@ -24,11 +26,15 @@ import org.apache.hc.client5.http.classic.methods.HttpPatch;
 import org.apache.hc.client5.http.classic.methods.HttpPost;
 import org.apache.hc.client5.http.classic.methods.HttpPut;
 import org.apache.hc.client5.http.entity.UrlEncodedFormEntity;
+import org.apache.hc.core5.concurrent.Cancellable;
 import org.apache.hc.core5.http.ClassicHttpRequest;
 import org.apache.hc.core5.http.ClassicHttpResponse;
 import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
 import org.apache.hc.core5.http.HttpEntity;
 import org.apache.hc.core5.http.HttpException;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.HttpStatus;
 import org.apache.hc.core5.http.NameValuePair;
 import org.apache.hc.core5.http.io.HttpClientResponseHandler;
 import org.apache.hc.core5.http.io.entity.StringEntity;
@@ -36,8 +42,9 @@ import org.apache.hc.core5.http.message.BasicNameValuePair;
 import org.datagear.analysis.DataSetException;
 import org.datagear.analysis.DataSetOption;
 import org.datagear.analysis.DataSetProperty;
-import org.datagear.analysis.DataSetResult;
 import org.datagear.analysis.ResolvedDataSetResult;
+import org.datagear.analysis.support.HttpDataSetResponseCache.CachedHttpResponse;
+import org.datagear.analysis.support.HttpDataSetResponseCache.HttpResponseCacheKey;
 import org.datagear.util.IOUtil;
 import org.datagear.util.StringUtil;
 import org.slf4j.Logger;
@@ -50,6 +57,11 @@ import com.fasterxml.jackson.databind.ObjectMapper;
  * <p>
  * 此类的{@linkplain #getUri()}、{@linkplain #getHeaderContent()}、{@linkplain #getRequestContent()}支持<code>Freemarker</code>模板语言。
  * </p>
+ * <p>
+ * 设置了{@linkplain #setResponseCache(HttpDataSetResponseCache)}且{@linkplain #isCacheResponse()}为{@code true}时，
+ * {@linkplain #REQUEST_METHOD_GET}请求将根据上次响应的{@code ETag}、{@code Last-Modified}发送条件请求，
+ * 服务端返回{@code 304 Not Modified}时将直接复用上次的解析结果。
+ * </p>
  * 
  * @author datagear@163.com
  *
@@ -117,6 +129,12 @@ public class HttpDataSet extends AbstractResolvableDataSet
 	/** 响应数据的JSON路径 */
 	private String responseDataJsonPath = "";
 
+	/** 是否缓存响应 */
+	private boolean cacheResponse = false;
+
+	/** 响应缓存，为{@code null}表示不发送条件请求 */
+	private HttpDataSetResponseCache responseCache = null;
+
 	public HttpDataSet()
 	{
 		super();
@@ -322,6 +340,41 @@ public class HttpDataSet extends AbstractResolvableDataSet
 		this.responseDataJsonPath = responseDataJsonPath;
 	}
 
+	public boolean isCacheResponse()
+	{
+		return cacheResponse;
+	}
+
+	/**
+	 * 设置是否缓存响应。
+	 * <p>
+	 * 设置为{@code true}且设置了{@linkplain #setResponseCache(HttpDataSetResponseCache)}时，才会缓存响应并发送条件请求，
+	 * 适用于响应内容不大、较少变化且服务端支持{@code ETag}、{@code Last-Modified}的接口。
+	 * </p>
+	 * 
+	 * @param cacheResponse
+	 */
+	public void setCacheResponse(boolean cacheResponse)
+	{
+		this.cacheResponse = cacheResponse;
+	}
+
+	public HttpDataSetResponseCache getResponseCache()
+	{
+		return responseCache;
+	}
+
+	/**
+	 * 设置响应缓存。
+	 * 
+	 * @param responseCache
+	 *            为{@code null}表示不发送条件请求
+	 */
+	public void setResponseCache(HttpDataSetResponseCache responseCache)
+	{
+		this.responseCache = responseCache;
+	}
+
 	@Override
 	public TemplateResolvedDataSetResult resolve(Map<String, ?> paramValues, DataSetOption dataSetOption)
 			throws DataSetException
@@ -344,13 +397,35 @@ public class HttpDataSet extends AbstractResolvableDataSet
 			setHttpHeaders(request, headerContent);
 			setHttpEntity(request, requestContent);
 
+			HttpResponseCacheKey responseCacheKey = null;
+			CachedHttpResponse cachedResponse = null;
+
+			if (isConditionalRequest(request))
+			{
+				responseCacheKey = buildResponseCacheKey(uri, headerContent, requestContent, properties, dataSetOption);
+				cachedResponse = this.responseCache.get(responseCacheKey);
+
+				if (cachedResponse != null)
+					setConditionalHeaders(request, cachedResponse);
+			}
+
 			JsonResponseHandler responseHandler = new JsonResponseHandler();
+			responseHandler.setRequest(request);
 			responseHandler.setProperties(properties);
 			responseHandler.setResponseDataJsonPath(getResponseDataJsonPath());
 			responseHandler.setDataSetOption(dataSetOption);
+			responseHandler.setCachedResponse(cachedResponse);
 
 			ResolvedDataSetResult result = this.httpClient.execute(request, responseHandler);
 
+			if (responseCacheKey != null)
+			{
+				CachedHttpResponse response = responseHandler.getResponse();
+
+				if (response != null && response != cachedResponse)
+					this.responseCache.put(responseCacheKey, response);
+			}
+
 			String templateResult = "URI:" + System.lineSeparator() + uri //
 					+ System.lineSeparator() + "-----------------------------------------" + System.lineSeparator() //
 					+ "Request headers:" + System.lineSeparator() + headerContent //
@@ -369,6 +444,81 @@ public class HttpDataSet extends AbstractResolvableDataSet
 		}
 	}
 
+	@Override
+	protected String resolveResultCacheTemplate(Map<String, ?> paramValues) throws DataSetException
+	{
+		return resolveAsFmkTemplate(this.uri, paramValues) + "\n" + resolveAsFmkTemplate(this.headerContent, paramValues)
+				+ "\n" + resolveAsFmkTemplate(this.requestContent, paramValues);
+	}
+
+	/**
+	 * 是否发送条件请求。
+	 * <p>
+	 * 仅在{@linkplain #isCacheResponse()}为{@code true}、设置了{@linkplain #getResponseCache()}、{@linkplain #REQUEST_METHOD_GET}请求且没有自定义条件请求头时才发送。
+	 * </p>
+	 * 
+	 * @param request
+	 * @return
+	 */
+	protected boolean isConditionalRequest(ClassicHttpRequest request)
+	{
+		if (!this.cacheResponse || this.responseCache == null)
+			return false;
+
+		if (!REQUEST_METHOD_GET.equalsIgnoreCase(request.getMethod()))
+			return false;
+
+		return (!request.containsHeader(HttpHeaders.IF_NONE_MATCH)
+				&& !request.containsHeader(HttpHeaders.IF_MODIFIED_SINCE));
+	}
+
+	/**
+	 * 构建响应缓存关键字。
+	 * <p>
+	 * 除了请求内容，响应数据JSON路径、数据集属性、数据集选项都会影响解析结果，因此也需作为关键字。
+	 * </p>
+	 * 
+	 * @param uri
+	 * @param headerContent
+	 * @param requestContent
+	 * @param properties
+	 *            允许为{@code null}
+	 * @param dataSetOption
+	 *            允许为{@code null}
+	 * @return
+	 */
+	protected HttpResponseCacheKey buildResponseCacheKey(String uri, String headerContent, String requestContent,
+			List<DataSetProperty> properties, DataSetOption dataSetOption)
+	{
+		StringBuilder sb = new StringBuilder();
+
+		sb.append(uri).append('\n');
+		sb.append(headerContent).append('\n');
+		sb.append(this.requestContentType).append('\n');
+		sb.append(requestContent).append('\n');
+		sb.append(this.responseDataJsonPath).append('\n');
+
+		if (properties != null)
+		{
+			for (DataSetProperty property : properties)
+				sb.append(property.getName()).append(':').append(property.getType()).append(',');
+		}
+
+		sb.append('\n');
+		sb.append(dataSetOption == null ? -1 : dataSetOption.getResultDataMaxCount());
+
+		return new HttpResponseCacheKey(getId(), sb.toString());
+	}
+
+	protected void setConditionalHeaders(ClassicHttpRequest request, CachedHttpResponse cachedResponse)
+	{
+		if (!StringUtil.isEmpty(cachedResponse.getETag()))
+			request.setHeader(HttpHeaders.IF_NONE_MATCH, cachedResponse.getETag());
+
+		if (!StringUtil.isEmpty(cachedResponse.getLastModified()))
+			request.setHeader(HttpHeaders.IF_MODIFIED_SINCE, cachedResponse.getLastModified());
+	}
+
 	protected void setHttpHeaders(ClassicHttpRequest request, String headerContent) throws Throwable
 	{
 		if (StringUtil.isEmpty(headerContent))
@@ -503,17 +653,42 @@ public class HttpDataSet extends AbstractResolvableDataSet
 
 	protected static class JsonResponseHandler implements HttpClientResponseHandler<ResolvedDataSetResult>
 	{
+		/** 未读取的响应内容不超过此字节数时将读完，以复用连接；否则，将中止请求 */
+		protected static final int MAX_DISCARD_CONTENT_LENGTH = 8192;
+
+		/** 请求，用于在未读完响应内容时中止请求 */
+		private ClassicHttpRequest request = null;
+
 		private List<DataSetProperty> properties;
 
 		private String responseDataJsonPath = "";
 
 		private DataSetOption dataSetOption = null;
 
+		/** 上次缓存的响应，为{@code null}表示没有 */
+		private CachedHttpResponse cachedResponse = null;
+
+		/** 本次的响应，仅在响应有{@code ETag}或{@code Last-Modified}时才不为{@code null} */
+		private CachedHttpResponse response = null;
+
+		/** 本次读取的响应内容字节数 */
+		private long responseContentLength = 0;
+
 		public JsonResponseHandler()
 		{
 			super();
 		}
 
+		public ClassicHttpRequest getRequest()
+		{
+			return request;
+		}
+
+		public void setRequest(ClassicHttpRequest request)
+		{
+			this.request = request;
+		}
+
 		public List<DataSetProperty> getProperties()
 		{
 			return properties;
@@ -550,16 +725,71 @@ public class HttpDataSet extends AbstractResolvableDataSet
 			this.dataSetOption = dataSetOption;
 		}
 
-		@SuppressWarnings("unchecked")
+		public CachedHttpResponse getCachedResponse()
+		{
+			return cachedResponse;
+		}
+
+		public void setCachedResponse(CachedHttpResponse cachedResponse)
+		{
+			this.cachedResponse = cachedResponse;
+		}
+
+		public CachedHttpResponse getResponse()
+		{
+			return response;
+		}
+
 		@Override
 		public ResolvedDataSetResult handleResponse(ClassicHttpResponse response) throws HttpException, IOException
 		{
 			int code = response.getCode();
-			HttpEntity entity = response.getEntity();
+
+			if (code == HttpStatus.SC_NOT_MODIFIED && this.cachedResponse != null)
+			{
+				this.response = this.cachedResponse;
+				return this.cachedResponse.getResult();
+			}
 
 			if (code < 200 || code >= 300)
 				throw new HttpResponseException(code, response.getReasonPhrase());
 
+			ResolvedDataSetResult result = resolveResult(response);
+
+			String eTag = getHeaderValue(response, HttpHeaders.ETAG);
+			String lastModified = getHeaderValue(response, HttpHeaders.LAST_MODIFIED);
+
+			if (eTag != null || lastModified != null)
+				this.response = new CachedHttpResponse(eTag, lastModified, result, this.responseContentLength);
+
+			return result;
+		}
+
+		protected String getHeaderValue(ClassicHttpResponse response, String name)
+		{
+			Header header = response.getFirstHeader(name);
+			String value = (header == null ? null : header.getValue());
+
+			return (StringUtil.isEmpty(value) ? null : value);
+		}
+
+		/**
+		 * 解析响应结果。
+		 * <p>
+		 * 达到{@linkplain DataSetOption#getResultDataMaxCount()}而提前结束读取时，如果剩余的响应内容较多，
+		 * 将中止请求，避免关闭响应时读完剩余的全部内容。
+		 * </p>
+		 * 
+		 * @param response
+		 * @return
+		 * @throws IOException
+		 */
+		@SuppressWarnings("unchecked")
+		protected ResolvedDataSetResult resolveResult(ClassicHttpResponse response) throws IOException
+		{
+			HttpEntity entity = response.getEntity();
+
+			ResponseContentInputStream contentIn = null;
 			Reader reader = null;
 
 			if (entity == null)
@@ -567,24 +797,40 @@ public class HttpDataSet extends AbstractResolvableDataSet
 			else
 			{
 				Charset contentCharset = resolveCharset(entity, ContentType.APPLICATION_JSON.getCharset());
-				reader = IOUtil.getReader(entity.getContent(), contentCharset);
+				contentIn = new ResponseContentInputStream(entity.getContent());
+				reader = IOUtil.getReader(contentIn, contentCharset);
 			}
 
-			if (this.properties == null || this.properties.isEmpty())
-			{
-				HttpResponseJsonDataSet jsonDataSet = new HttpResponseJsonDataSet(reader);
-				jsonDataSet.setDataJsonPath(this.responseDataJsonPath);
+			HttpResponseJsonDataSet jsonDataSet = null;
 
-				return jsonDataSet.resolve(Collections.EMPTY_MAP, this.dataSetOption);
-			}
+			if (this.properties == null || this.properties.isEmpty())
+				jsonDataSet = new HttpResponseJsonDataSet(reader);
 			else
+				jsonDataSet = new HttpResponseJsonDataSet(this.properties, reader);
+
+			jsonDataSet.setDataJsonPath(this.responseDataJsonPath);
+
+			ResolvedDataSetResult result = jsonDataSet.resolveResult(Collections.EMPTY_MAP, this.properties,
+					this.dataSetOption);
+
+			if (contentIn != null)
 			{
-				HttpResponseJsonDataSet jsonDataSet = new HttpResponseJsonDataSet(this.properties, reader);
-				jsonDataSet.setDataJsonPath(this.responseDataJsonPath);
+				this.responseContentLength = contentIn.getCount();
 
-				DataSetResult result = jsonDataSet.getResult(Collections.EMPTY_MAP);
-				return new ResolvedDataSetResult(result, this.properties);
+				if (!contentIn.discard(MAX_DISCARD_CONTENT_LENGTH))
+					abortRequest();
 			}
+
+			return result;
+		}
+
+		/**
+		 * 中止请求，底层连接将被关闭而不会被复用。
+		 */
+		protected void abortRequest()
+		{
+			if (this.request instanceof Cancellable)
+				((Cancellable) this.request).cancel();
 		}
 
 		protected Charset resolveCharset(HttpEntity entity, Charset defaultCharset)
@@ -612,6 +858,113 @@ public class HttpDataSet extends AbstractResolvableDataSet
 		}
 	}
 
+	/**
+	 * 响应内容输入流。
+	 * <p>
+	 * 它记录已读取的字节数，且{@linkplain #close()}不会关闭底层输入流，底层输入流由{@linkplain HttpClient}负责关闭。
+	 * </p>
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static class ResponseContentInputStream extends FilterInputStream
+	{
+		private long count = 0;
+
+		private boolean eof = false;
+
+		public ResponseContentInputStream(InputStream in)
+		{
+			super(in);
+		}
+
+		/**
+		 * 获取已读取的字节数。
+		 * 
+		 * @return
+		 */
+		public long getCount()
+		{
+			return count;
+		}
+
+		@Override
+		public int read() throws IOException
+		{
+			int b = super.read();
+
+			if (b < 0)
+				this.eof = true;
+			else
+				this.count++;
+
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException
+		{
+			int len0 = super.read(b, off, len);
+
+			if (len0 < 0)
+				this.eof = true;
+			else
+				this.count += len0;
+
+			return len0;
+		}
+
+		@Override
+		public long skip(long n) throws IOException
+		{
+			long n0 = super.skip(n);
+			this.count += n0;
+
+			return n0;
+		}
+
+		@Override
+		public boolean markSupported()
+		{
+			return false;
+		}
+
+		/**
+		 * 读完并丢弃剩余内容。
+		 * 
+		 * @param maxLength
+		 *            最多读取的字节数
+		 * @return {@code true} 已读完；{@code false} 剩余内容超过{@code maxLength}
+		 * @throws IOException
+		 */
+		public boolean discard(int maxLength) throws IOException
+		{
+			if (this.eof)
+				return true;
+
+			byte[] buffer = new byte[Math.min(maxLength + 1, 1024)];
+			int discarded = 0;
+
+			while (discarded <= maxLength)
+			{
+				int len = read(buffer, 0, buffer.length);
+
+				if (len < 0)
+					return true;
+
+				discarded += len;
+			}
+
+			return false;
+		}
+
+		@Override
+		public void close() throws IOException
+		{
+			// 不关闭底层输入流
+		}
+	}
+
 	protected static class HttpResponseJsonDataSet extends AbstractJsonDataSet
 	{
 		private Reader responseJsonReader;
@@ -0,0 +1,314 @@
+/*
+ * Copyright (c) 2018 datagear.tech. All Rights Reserved.
+ */
+
+/**
+ * 
+ */
+package org.datagear.analysis.support;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+
+import org.datagear.analysis.ResolvedDataSetResult;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.Weigher;
+
+/**
+ * {@linkplain HttpDataSet}响应缓存。
+ * <p>
+ * 它保存HTTP响应的{@code ETag}、{@code Last-Modified}及对应的已解析结果，{@linkplain HttpDataSet}再次请求时将据此发送条件请求，
+ * 服务端返回{@code 304 Not Modified}时直接复用已解析结果，而不必再次传输、解析响应内容。
+ * </p>
+ * <p>
+ * 缓存按照响应内容的字节数计量：总量不超过{@linkplain #getMaximumWeight()}，
+ * 单个响应内容超过{@linkplain #getMaxEntryWeight()}时将不被缓存。
+ * </p>
+ * <p>
+ * 此类是线程安全的。
+ * </p>
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class HttpDataSetResponseCache
+{
+	/** 缓存响应内容的最大总字节数 */
+	private long maximumWeight = 32 * 1024 * 1024;
+
+	/** 单个缓存响应内容的最大字节数 */
+	private long maxEntryWeight = 1024 * 1024;
+
+	private volatile Cache<HttpResponseCacheKey, CachedHttpResponse> _cache = null;
+
+	public HttpDataSetResponseCache()
+	{
+		super();
+	}
+
+	public long getMaximumWeight()
+	{
+		return maximumWeight;
+	}
+
+	/**
+	 * 设置缓存响应内容的最大总字节数。
+	 * 
+	 * @param maximumWeight
+	 *            为{@code 0}表示不缓存
+	 */
+	public void setMaximumWeight(long maximumWeight)
+	{
+		this.maximumWeight = maximumWeight;
+	}
+
+	public long getMaxEntryWeight()
+	{
+		return maxEntryWeight;
+	}
+
+	/**
+	 * 设置单个缓存响应内容的最大字节数，超过此值的响应将不被缓存。
+	 * 
+	 * @param maxEntryWeight
+	 */
+	public void setMaxEntryWeight(long maxEntryWeight)
+	{
+		this.maxEntryWeight = maxEntryWeight;
+	}
+
+	/**
+	 * 初始化。
+	 * <p>
+	 * 未调用此方法时，将在首次使用时以当前{@linkplain #getMaximumWeight()}初始化。
+	 * </p>
+	 */
+	public void init()
+	{
+		// 写入很少，使用单个分段，使最大总字节数对每个响应都生效，而不是被均分到各分段
+		this._cache = CacheBuilder.newBuilder().concurrencyLevel(1).maximumWeight(this.maximumWeight)
+				.weigher(new Weigher<HttpResponseCacheKey, CachedHttpResponse>()
+				{
+					@Override
+					public int weigh(HttpResponseCacheKey key, CachedHttpResponse value)
+					{
+						return (int) Math.min(value.getWeight(), Integer.MAX_VALUE);
+					}
+				}).build();
+	}
+
+	/**
+	 * 获取缓存的响应。
+	 * 
+	 * @param key
+	 * @return 为{@code null}表示没有
+	 */
+	public CachedHttpResponse get(HttpResponseCacheKey key)
+	{
+		return getCache().getIfPresent(key);
+	}
+
+	/**
+	 * 缓存响应。
+	 * <p>
+	 * 响应内容超过{@linkplain #getMaxEntryWeight()}时将不被缓存，且{@code key}原有的缓存也将被清除。
+	 * </p>
+	 * 
+	 * @param key
+	 * @param response
+	 * @return 是否已缓存
+	 */
+	public boolean put(HttpResponseCacheKey key, CachedHttpResponse response)
+	{
+		Cache<HttpResponseCacheKey, CachedHttpResponse> cache = getCache();
+
+		if (response.getWeight() > this.maxEntryWeight)
+		{
+			cache.invalidate(key);
+			return false;
+		}
+
+		cache.put(key, response);
+		return true;
+	}
+
+	/**
+	 * 清除指定{@linkplain HttpDataSet#getId()}的所有缓存。
+	 * 
+	 * @param dataSetId
+	 */
+	public void invalidate(String dataSetId)
+	{
+		Cache<HttpResponseCacheKey, CachedHttpResponse> cache = getCache();
+		ConcurrentMap<HttpResponseCacheKey, CachedHttpResponse> map = cache.asMap();
+		Set<HttpResponseCacheKey> keys = map.keySet();
+
+		Set<HttpResponseCacheKey> myKeys = new HashSet<>();
+		for (HttpResponseCacheKey key : keys)
+		{
+			if (key.getDataSetId().equals(dataSetId))
+				myKeys.add(key);
+		}
+
+		if (!myKeys.isEmpty())
+			cache.invalidateAll(myKeys);
+	}
+
+	/**
+	 * 清除所有缓存。
+	 */
+	public void invalidateAll()
+	{
+		getCache().invalidateAll();
+	}
+
+	/**
+	 * 获取当前缓存数目。
+	 * 
+	 * @return
+	 */
+	public long size()
+	{
+		return getCache().size();
+	}
+
+	protected Cache<HttpResponseCacheKey, CachedHttpResponse> getCache()
+	{
+		if (this._cache == null)
+		{
+			synchronized (this)
+			{
+				if (this._cache == null)
+					init();
+			}
+		}
+
+		return this._cache;
+	}
+
+	/**
+	 * HTTP响应缓存关键字。
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	public static class HttpResponseCacheKey
+	{
+		private final String dataSetId;
+
+		/** 请求内容，包括地址、请求头、请求体等所有影响响应及其解析结果的内容 */
+		private final String request;
+
+		public HttpResponseCacheKey(String dataSetId, String request)
+		{
+			super();
+			this.dataSetId = dataSetId;
+			this.request = request;
+		}
+
+		public String getDataSetId()
+		{
+			return dataSetId;
+		}
+
+		public String getRequest()
+		{
+			return request;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			final int prime = 31;
+			int result = 1;
+			result = prime * result + ((dataSetId == null) ? 0 : dataSetId.hashCode());
+			result = prime * result + ((request == null) ? 0 : request.hashCode());
+			return result;
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (this == obj)
+				return true;
+			if (obj == null)
+				return false;
+			if (getClass() != obj.getClass())
+				return false;
+			HttpResponseCacheKey other = (HttpResponseCacheKey) obj;
+			if (dataSetId == null)
+			{
+				if (other.dataSetId != null)
+					return false;
+			}
+			else if (!dataSetId.equals(other.dataSetId))
+				return false;
+			if (request == null)
+			{
+				if (other.request != null)
+					return false;
+			}
+			else if (!request.equals(other.request))
+				return false;
+			return true;
+		}
+
+		@Override
+		public String toString()
+		{
+			return getClass().getSimpleName() + " [dataSetId=" + dataSetId + ", request=" + request + "]";
+		}
+	}
+
+	/**
+	 * 缓存的HTTP响应。
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	public static class CachedHttpResponse
+	{
+		/** 响应的{@code ETag}，可能为{@code null} */
+		private final String eTag;
+
+		/** 响应的{@code Last-Modified}，可能为{@code null} */
+		private final String lastModified;
+
+		private final ResolvedDataSetResult result;
+
+		/** 响应内容的字节数 */
+		private final long weight;
+
+		public CachedHttpResponse(String eTag, String lastModified, ResolvedDataSetResult result, long weight)
+		{
+			super();
+			this.eTag = eTag;
+			this.lastModified = lastModified;
+			this.result = result;
+			this.weight = weight;
+		}
+
+		public String getETag()
+		{
+			return eTag;
+		}
+
+		public String getLastModified()
+		{
+			return lastModified;
+		}
+
+		public ResolvedDataSetResult getResult()
+		{
+			return result;
+		}
+
+		public long getWeight()
+		{
+			return weight;
+		}
+	}
+}
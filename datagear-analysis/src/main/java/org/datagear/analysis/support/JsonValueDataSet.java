@@ -63,6 +63,12 @@ public class JsonValueDataSet extends AbstractJsonDataSet
 		return (TemplateResolvedDataSetResult) resolveResult(paramValues, null, dataSetOption);
 	}
 
+	@Override
+	protected String resolveResultCacheTemplate(Map<String, ?> paramValues) throws DataSetException
+	{
+		return resolveAsFmkTemplate(this.value, paramValues);
+	}
+
 	@Override
 	protected TemplateResolvedSource<Reader> getJsonReader(Map<String, ?> paramValues) throws Throwable
 	{
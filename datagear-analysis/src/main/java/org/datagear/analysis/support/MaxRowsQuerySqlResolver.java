@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2018 datagear.tech. All Rights Reserved.
+ */
+
+package org.datagear.analysis.support;
+
+import java.sql.Connection;
+
+import org.datagear.util.Sql;
+
+/**
+ * 限定最大行数的查询SQL解析器。
+ * <p>
+ * {@linkplain SqlDataSet}在限定结果数目时使用它将查询SQL改写为数据库方言的限定行数查询（比如：<code>LIMIT</code>、<code>TOP</code>），
+ * 使数据库只执行、返回所需的行。
+ * </p>
+ * 
+ * @author datagear@163.com
+ *
+ */
+public interface MaxRowsQuerySqlResolver
+{
+	/**
+	 * 解析限定最大行数的查询SQL。
+	 * <p>
+	 * 返回的SQL的结果列应与{@code query}一致。
+	 * </p>
+	 * 
+	 * @param cn
+	 * @param query
+	 * @param maxRows
+	 * @return 返回{@code null}表示不支持
+	 */
+	Sql resolve(Connection cn, Sql query, int maxRows);
+}
@@ -7,49 +7,89 @@
  */
 package org.datagear.analysis.support;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Savepoint;
 import java.sql.Types;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
+import org.datagear.analysis.ColumnarDataSetResult;
 import org.datagear.analysis.DataSet;
 import org.datagear.analysis.DataSetException;
 import org.datagear.analysis.DataSetOption;
+import org.datagear.analysis.DataSetParam;
 import org.datagear.analysis.DataSetProperty;
 import org.datagear.analysis.DataSetProperty.DataType;
 import org.datagear.analysis.DataSetResult;
 import org.datagear.analysis.ResolvableDataSet;
 import org.datagear.analysis.ResolvedDataSetResult;
+import org.datagear.util.ColumnValueReader;
 import org.datagear.util.JDBCCompatiblity;
 import org.datagear.util.JdbcSupport;
 import org.datagear.util.JdbcUtil;
 import org.datagear.util.QueryResultSet;
 import org.datagear.util.Sql;
+import org.datagear.util.SqlParamValue;
 import org.datagear.util.SqlType;
 import org.datagear.util.resource.ConnectionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import freemarker.core.Environment;
+import freemarker.template.TemplateDirectiveBody;
+import freemarker.template.TemplateDirectiveModel;
+import freemarker.template.TemplateException;
+import freemarker.template.TemplateModel;
+import freemarker.template.TemplateNumberModel;
 
 /**
  * SQL {@linkplain DataSet}。
  * <p>
  * 此类的{@linkplain #getSql()}支持<code>Freemarker</code>模板语言。
  * </p>
+ * <p>
+ * 如果{@linkplain #isBindParam()}为{@code true}，{@linkplain #getSql()}中对数据集参数的<code>${参数名}</code>插值将被编译为<code>?</code>占位符，
+ * 并以预编译参数的方式传递参数值，使得不同参数值的SQL语句文本保持一致，可复用数据库执行计划和预编译语句，
+ * 具体规则参考{@linkplain #resolveBindSql(Map)}。
+ * </p>
  * 
  * @author datagear@163.com
  *
  */
 public class SqlDataSet extends AbstractResolvableDataSet implements ResolvableDataSet
 {
+	protected static final Logger LOGGER = LoggerFactory.getLogger(SqlDataSet.class);
+
 	protected static final JdbcSupport JDBC_SUPPORT = new JdbcSupport();
 
+	/** 参数绑定模式下替换参数插值的模板指令名 */
+	protected static final String BIND_PARAM_DIRECTIVE = "__datagearBindParam";
+
 	private ConnectionFactory connectionFactory;
 
 	private String sql;
 
+	/** 是否采用参数绑定模式 */
+	private boolean bindParam = false;
+
+	/** 限定结果数目时使用的限定行数SQL解析器 */
+	private MaxRowsQuerySqlResolver maxRowsQuerySqlResolver = null;
+
 	public SqlDataSet()
 	{
 		super();
@@ -90,6 +130,35 @@ public class SqlDataSet extends AbstractResolvableDataSet implements ResolvableD
 		this.sql = sql;
 	}
 
+	public boolean isBindParam()
+	{
+		return bindParam;
+	}
+
+	public void setBindParam(boolean bindParam)
+	{
+		this.bindParam = bindParam;
+	}
+
+	public MaxRowsQuerySqlResolver getMaxRowsQuerySqlResolver()
+	{
+		return maxRowsQuerySqlResolver;
+	}
+
+	/**
+	 * 设置限定行数SQL解析器。
+	 * <p>
+	 * 设置后，限定结果数目时（{@linkplain DataSetOption#getResultDataMaxCount()}）将优先执行它解析的限定行数SQL，
+	 * 否则，仅设置{@linkplain java.sql.Statement#setMaxRows(int)}。
+	 * </p>
+	 * 
+	 * @param maxRowsQuerySqlResolver
+	 */
+	public void setMaxRowsQuerySqlResolver(MaxRowsQuerySqlResolver maxRowsQuerySqlResolver)
+	{
+		this.maxRowsQuerySqlResolver = maxRowsQuerySqlResolver;
+	}
+
 	@Override
 	public TemplateResolvedDataSetResult resolve(Map<String, ?> paramValues, DataSetOption dataSetOption)
 			throws DataSetException
@@ -101,7 +170,9 @@ public class SqlDataSet extends AbstractResolvableDataSet implements ResolvableD
 	protected TemplateResolvedDataSetResult resolveResult(Map<String, ?> paramValues, List<DataSetProperty> properties,
 			DataSetOption dataSetOption) throws DataSetException
 	{
-		String sql = resolveAsFmkTemplate(getSql(), paramValues);
+		Sql sqlObj = (isBindParam() ? resolveBindSql(paramValues)
+				: Sql.valueOf(resolveAsFmkTemplate(getSql(), paramValues)));
+		String sql = sqlObj.getSqlValue();
 
 		Connection cn = null;
 
@@ -115,15 +186,19 @@ public class SqlDataSet extends AbstractResolvableDataSet implements ResolvableD
 			throw new SqlDataSetConnectionException(t);
 		}
 
-		Sql sqlObj = Sql.valueOf(sql);
-
 		JdbcSupport jdbcSupport = getJdbcSupport();
 
 		QueryResultSet qrs = null;
 
 		try
 		{
-			qrs = jdbcSupport.executeQuery(cn, sqlObj, ResultSet.TYPE_FORWARD_ONLY);
+			int maxCount = (dataSetOption == null ? -1 : dataSetOption.getResultDataMaxCount());
+
+			// 限定数目时仅读取部分结果，不应采用流式查询，因为MySQL关闭未读完的流式结果集时需读取剩余的全部数据
+			if (maxCount < 0)
+				qrs = jdbcSupport.executeStreamingQuery(cn, sqlObj);
+			else
+				qrs = executeMaxRowsQuery(cn, sqlObj, maxCount + 1);
 		}
 		catch (Throwable t)
 		{
@@ -164,6 +239,338 @@ public class SqlDataSet extends AbstractResolvableDataSet implements ResolvableD
 		}
 	}
 
+	@Override
+	protected String resolveResultCacheTemplate(Map<String, ?> paramValues) throws DataSetException
+	{
+		return resolveAsFmkTemplate(getSql(), paramValues);
+	}
+
+	/**
+	 * 执行限定最大行数的查询。
+	 * <p>
+	 * 如果设置了{@linkplain #getMaxRowsQuerySqlResolver()}，将先执行它解析的限定行数SQL，执行出错时（比如用户SQL不能作为子查询）再执行原SQL，
+	 * 但超时、取消、连接异常（参考{@linkplain #isMaxRowsQueryFallbackable(SQLException)}）将直接抛出。
+	 * </p>
+	 * <p>
+	 * 连接不是自动提交模式时，某些数据库（比如PostgreSQL）在语句出错后将中止整个事务，因此会先设置保存点，出错时回滚至保存点再执行原SQL；
+	 * 不支持保存点时，将直接执行原SQL。
+	 * </p>
+	 * 
+	 * @param cn
+	 * @param sql
+	 * @param maxRows
+	 * @return
+	 * @throws SQLException
+	 */
+	protected QueryResultSet executeMaxRowsQuery(Connection cn, Sql sql, int maxRows) throws SQLException
+	{
+		JdbcSupport jdbcSupport = getJdbcSupport();
+
+		Sql maxRowsSql = resolveMaxRowsQuerySql(cn, sql, maxRows);
+
+		if (maxRowsSql != null)
+		{
+			boolean autoCommit = cn.getAutoCommit();
+			Savepoint savepoint = (autoCommit ? null : setSavepoint(cn));
+
+			if (autoCommit || savepoint != null)
+			{
+				try
+				{
+					QueryResultSet qrs = jdbcSupport.executeMaxRowsQuery(cn, maxRowsSql, ResultSet.TYPE_FORWARD_ONLY,
+							maxRows);
+
+					if (savepoint != null)
+						releaseSavepoint(cn, savepoint);
+
+					return qrs;
+				}
+				catch (SQLException e)
+				{
+					if (!isMaxRowsQueryFallbackable(e))
+						throw e;
+
+					LOGGER.warn("Execute max rows query SQL error, the original SQL will be executed instead : "
+							+ maxRowsSql.getSqlValue(), e);
+
+					if (savepoint != null)
+						cn.rollback(savepoint);
+				}
+			}
+		}
+
+		return jdbcSupport.executeMaxRowsQuery(cn, sql, ResultSet.TYPE_FORWARD_ONLY, maxRows);
+	}
+
+	/**
+	 * 执行限定行数SQL出错时，是否可降级为执行原SQL。
+	 * <p>
+	 * 超时、取消、连接异常时，再执行原SQL没有意义，且会使耗时加倍，因此不可降级。
+	 * </p>
+	 * 
+	 * @param e
+	 * @return
+	 */
+	protected boolean isMaxRowsQueryFallbackable(SQLException e)
+	{
+		if (e instanceof SQLTimeoutException || e instanceof SQLTransientConnectionException
+				|| e instanceof SQLNonTransientConnectionException || e instanceof SQLRecoverableException)
+			return false;
+
+		String sqlState = e.getSQLState();
+
+		if (sqlState != null)
+		{
+			// 08：连接异常；57014：语句被取消（PostgreSQL、DB2）；HY008：操作被取消
+			if (sqlState.startsWith("08") || "57014".equals(sqlState) || "HY008".equals(sqlState))
+				return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * 设置保存点。
+	 * 
+	 * @param cn
+	 * @return 返回{@code null}表示不支持
+	 */
+	protected Savepoint setSavepoint(Connection cn)
+	{
+		try
+		{
+			return cn.setSavepoint();
+		}
+		catch (Throwable t)
+		{
+			return null;
+		}
+	}
+
+	protected void releaseSavepoint(Connection cn, Savepoint savepoint)
+	{
+		try
+		{
+			cn.releaseSavepoint(savepoint);
+		}
+		catch (Throwable t)
+		{
+		}
+	}
+
+	/**
+	 * 解析限定最大行数的查询SQL。
+	 * <p>
+	 * 仅支持以<code>SELECT</code>开头的查询，末尾的<code>;</code>将被移除。
+	 * </p>
+	 * 
+	 * @param cn
+	 * @param sql
+	 * @param maxRows
+	 * @return 返回{@code null}表示不支持
+	 */
+	protected Sql resolveMaxRowsQuerySql(Connection cn, Sql sql, int maxRows)
+	{
+		if (this.maxRowsQuerySqlResolver == null)
+			return null;
+
+		String query = sql.getSqlValue().trim();
+
+		while (query.endsWith(";"))
+			query = query.substring(0, query.length() - 1).trim();
+
+		if (query.length() < 6 || !query.substring(0, 6).equalsIgnoreCase("SELECT"))
+			return null;
+
+		Sql querySql = Sql.valueOf(query);
+
+		if (sql.hasParamValue())
+			querySql.param(sql.getParamValues());
+
+		try
+		{
+			return this.maxRowsQuerySqlResolver.resolve(cn, querySql, maxRows);
+		}
+		catch (Throwable t)
+		{
+			return null;
+		}
+	}
+
+	/**
+	 * 以参数绑定模式解析SQL。
+	 * <p>
+	 * 对于{@linkplain #getParams()}中声明的参数，如果{@linkplain DataSetParam#getType()}与参数值类型相符，
+	 * 那么{@linkplain #getSql()}中的<code>${参数名}</code>插值将按照如下规则处理：
+	 * </p>
+	 * <ul>
+	 * <li>字符串参数位于单引号内（<code>'${参数名}'</code>）时，整体替换为<code>?</code>；</li>
+	 * <li>数值、布尔参数不在引号内时，替换为<code>?</code>；</li>
+	 * <li>其他情况（比如：<code>'%${参数名}%'</code>、作为表名或列名的字符串参数），仍然直接插入参数值文本。</li>
+	 * </ul>
+	 * <p>
+	 * 模板中的其他语法（比如：<code>&lt;#if&gt;</code>）仍按Freemarker模板解析。
+	 * </p>
+	 * <p>
+	 * 可绑定的插值在模板解析前被替换为{@linkplain BindParamDirective}指令，解析时由它在{@linkplain BindSqlWriter}中记录绑定点，
+	 * 而不是在输出文本中插入标记，因此直接插入的参数值文本不会被误认为绑定点。
+	 * </p>
+	 * 
+	 * @param paramValues
+	 * @return
+	 */
+	protected Sql resolveBindSql(Map<String, ?> paramValues)
+	{
+		List<DataSetParam> params = getParams();
+		String template = getSql();
+
+		if (template == null || params == null || params.isEmpty())
+			return Sql.valueOf(resolveAsFmkTemplate(template, paramValues));
+
+		List<DataSetParam> bindParams = new ArrayList<>(params.size());
+
+		for (DataSetParam param : params)
+		{
+			String name = param.getName();
+			Object value = (paramValues == null ? null : paramValues.get(name));
+
+			if (isBindableParamValue(param, value) && !isTemplateVariableShadowed(template, name))
+			{
+				Pattern pattern = Pattern.compile("\\$\\{\\s*" + Pattern.quote(name) + "\\s*\\}");
+				Matcher matcher = pattern.matcher(template);
+
+				if (matcher.find())
+				{
+					String directive = "<@" + BIND_PARAM_DIRECTIVE + " index=" + bindParams.size() + " />";
+					template = matcher.replaceAll(Matcher.quoteReplacement(directive));
+					bindParams.add(param);
+				}
+			}
+		}
+
+		if (bindParams.isEmpty())
+			return Sql.valueOf(resolveAsFmkTemplate(template, paramValues));
+
+		Map<String, Object> values = new HashMap<>(paramValues);
+		values.put(BIND_PARAM_DIRECTIVE, new BindParamDirective(bindParams, paramValues));
+
+		BindSqlWriter out = new BindSqlWriter();
+		FMK_TEMPLATE_RESOLVER.resolve(template, values, out);
+
+		String resolved = out.getText();
+		List<BindPoint> bindPoints = out.getBindPoints();
+
+		StringBuilder sql = new StringBuilder(resolved.length());
+		List<SqlParamValue> sqlParamValues = new ArrayList<>();
+
+		int len = resolved.length();
+		int prev = 0;
+
+		for (int i = 0, size = bindPoints.size(); i < size; i++)
+		{
+			BindPoint bindPoint = bindPoints.get(i);
+			int offset = bindPoint.getOffset();
+			DataSetParam param = bindParams.get(bindPoint.getParamIndex());
+			Object value = paramValues.get(param.getName());
+
+			// 紧邻的下一个绑定点也在此引号内时，不能作为整体替换
+			boolean quoted = (offset > prev && resolved.charAt(offset - 1) == '\'' && offset < len
+					&& resolved.charAt(offset) == '\''
+					&& (i + 1 >= size || bindPoints.get(i + 1).getOffset() != offset));
+
+			if (quoted && DataSetParam.DataType.STRING.equals(param.getType()))
+			{
+				sql.append(resolved, prev, offset - 1);
+				sql.append('?');
+				sqlParamValues.add(new SqlParamValue(value, Types.VARCHAR));
+				prev = offset + 1;
+			}
+			else if (!quoted && !DataSetParam.DataType.STRING.equals(param.getType()))
+			{
+				sql.append(resolved, prev, offset);
+				sql.append('?');
+				sqlParamValues.add(toSqlParamValue(value));
+				prev = offset;
+			}
+			else
+			{
+				sql.append(resolved, prev, offset);
+				sql.append(resolveInlineParamValue(param, paramValues));
+				prev = offset;
+			}
+		}
+
+		sql.append(resolved, prev, len);
+
+		return Sql.valueOf(sql.toString()).param(sqlParamValues);
+	}
+
+	/**
+	 * 解析直接插入SQL的参数值文本。
+	 * 
+	 * @param param
+	 * @param paramValues
+	 * @return
+	 */
+	protected String resolveInlineParamValue(DataSetParam param, Map<String, ?> paramValues)
+	{
+		return resolveAsFmkTemplate("${" + param.getName() + "?string}", paramValues);
+	}
+
+	/**
+	 * 参数值是否可绑定。
+	 * 
+	 * @param param
+	 * @param value
+	 * @return
+	 */
+	protected boolean isBindableParamValue(DataSetParam param, Object value)
+	{
+		String type = param.getType();
+
+		if (DataSetParam.DataType.STRING.equals(type))
+			return (value instanceof String);
+		else if (DataSetParam.DataType.NUMBER.equals(type))
+			return (value instanceof Number);
+		else if (DataSetParam.DataType.BOOLEAN.equals(type))
+			return (value instanceof Boolean);
+		else
+			return false;
+	}
+
+	/**
+	 * 模板中是否定义了与参数同名的变量（比如：<code>&lt;#list ... as 参数名&gt;</code>），此时参数插值不能绑定。
+	 * 
+	 * @param template
+	 * @param name
+	 * @return
+	 */
+	protected boolean isTemplateVariableShadowed(String template, String name)
+	{
+		if (template.indexOf("<#") < 0)
+			return false;
+
+		String quoted = Pattern.quote(name);
+
+		return Pattern.compile("<#(assign|local|global)\\s+" + quoted + "\\b").matcher(template).find()
+				|| Pattern.compile("\\bas\\s+" + quoted + "\\b").matcher(template).find();
+	}
+
+	protected SqlParamValue toSqlParamValue(Object value)
+	{
+		if (value instanceof Boolean)
+			return new SqlParamValue(value, Types.BOOLEAN);
+		else if (value instanceof Long || value instanceof Integer || value instanceof Short
+				|| value instanceof Byte)
+			return new SqlParamValue(((Number) value).longValue(), Types.BIGINT);
+		else if (value instanceof BigDecimal)
+			return new SqlParamValue(value, Types.DECIMAL);
+		else if (value instanceof BigInteger)
+			return new SqlParamValue(new BigDecimal((BigInteger) value), Types.DECIMAL);
+		else
+			return new SqlParamValue(new BigDecimal(value.toString()), Types.DECIMAL);
+	}
+
 	/**
 	 * 解析结果。
 	 * 
@@ -172,7 +579,7 @@ public class SqlDataSet extends AbstractResolvableDataSet implements ResolvableD
 	 * @param properties
 	 *            允许为{@code null}，此时会自动解析
 	 * @param dataSetOption
-	 *            允许为{@code null}
+	 *            允许为{@code null}，{@linkplain DataSetOption#isColumnarResult()}时，将直接构建{@linkplain ColumnarDataSetResult}
 	 * @return
 	 * @throws Throwable
 	 */
@@ -180,8 +587,11 @@ public class SqlDataSet extends AbstractResolvableDataSet implements ResolvableD
 			DataSetOption dataSetOption) throws Throwable
 	{
 		boolean resolveProperties = (properties == null || properties.isEmpty());
+		boolean columnar = (dataSetOption != null && dataSetOption.isColumnarResult());
 
-		List<Map<String, ?>> data = new ArrayList<>();
+		List<Map<String, ?>> data = (columnar ? null : new ArrayList<>());
+		ColumnarDataSetResult.Builder columnarBuilder = null;
+		Object[] columnarValues = null;
 
 		JdbcSupport jdbcSupport = getJdbcSupport();
 		DataSetPropertyValueConverter converter = createDataSetPropertyValueConverter();
@@ -189,6 +599,7 @@ public class SqlDataSet extends AbstractResolvableDataSet implements ResolvableD
 		ResultSetMetaData rsMeta = rs.getMetaData();
 		String[] colNames = jdbcSupport.getColumnNames(rsMeta);
 		SqlType[] sqlTypes = jdbcSupport.getColumnSqlTypes(rsMeta);
+		ColumnValueReader[] readers = jdbcSupport.getColumnValueReaders(sqlTypes);
 
 		if (resolveProperties)
 		{
@@ -199,17 +610,30 @@ public class SqlDataSet extends AbstractResolvableDataSet implements ResolvableD
 
 		int maxColumnSize = Math.min(colNames.length, properties.size());
 
+		if (columnar)
+		{
+			List<String> names = new ArrayList<>(maxColumnSize);
+			for (int i = 0; i < maxColumnSize; i++)
+				names.add(properties.get(i).getName());
+
+			columnarBuilder = new ColumnarDataSetResult.Builder(names);
+			columnarValues = new Object[maxColumnSize];
+		}
+
+		// 列值是否需要转换，在第一行解析完属性类型后确定
+		boolean[] converts = null;
+
 		int rowIdx = 0;
 
 		while (rs.next())
 		{
-			Map<String, Object> row = new HashMap<>();
+			Map<String, Object> row = (columnar ? null : new HashMap<>());
 
 			for (int i = 0; i < maxColumnSize; i++)
 			{
 				DataSetProperty property = properties.get(i);
 
-				Object value = jdbcSupport.getColumnValue(cn, rs, colNames[i], sqlTypes[i].getType());
+				Object value = readers[i].read(cn, rs, i + 1);
 
 				if (resolveProperties && rowIdx == 0)
 				{
@@ -221,16 +645,33 @@ public class SqlDataSet extends AbstractResolvableDataSet implements ResolvableD
 						property.setType(resolvePropertyDataType(value));
 				}
 
-				value = convertToPropertyDataType(converter, value, property);
+				if (converts == null || converts[i])
+					value = convertToPropertyDataType(converter, value, property);
 
-				row.put(property.getName(), value);
+				if (columnar)
+					columnarValues[i] = value;
+				else
+					row.put(property.getName(), value);
 			}
 
-			boolean reachMaxCount = isReachResultDataMaxCount(dataSetOption, data.size());
+			if (converts == null)
+			{
+				converts = new boolean[maxColumnSize];
+				for (int i = 0; i < maxColumnSize; i++)
+					converts[i] = requiresConvert(sqlTypes[i], properties.get(i));
+			}
+
+			boolean reachMaxCount = isReachResultDataMaxCount(dataSetOption,
+					(columnar ? columnarBuilder.getRowCount() : data.size()));
 			boolean breakLoop = reachMaxCount;
 
 			if (!reachMaxCount)
-				data.add(row);
+			{
+				if (columnar)
+					columnarBuilder.addRow(columnarValues);
+				else
+					data.add(row);
+			}
 
 			rowIdx++;
 
@@ -238,11 +679,61 @@ public class SqlDataSet extends AbstractResolvableDataSet implements ResolvableD
 				break;
 		}
 
-		DataSetResult result = new DataSetResult(data);
+		DataSetResult result = (columnar ? columnarBuilder.build() : new DataSetResult(data));
 
 		return new ResolvedDataSetResult(result, properties);
 	}
 
+	/**
+	 * 给定SQL类型的列值是否需要转换为属性类型。
+	 * <p>
+	 * 对于读取的列值已是属性类型的情况，转换不会改变值，因此可以省略。
+	 * </p>
+	 * 
+	 * @param sqlType
+	 * @param property
+	 * @return
+	 */
+	protected boolean requiresConvert(SqlType sqlType, DataSetProperty property)
+	{
+		String propertyType = property.getType();
+
+		if (propertyType == null || DataType.UNKNOWN.equals(propertyType))
+			return false;
+
+		switch (sqlType.getType())
+		{
+			case Types.CHAR:
+			case Types.NCHAR:
+			case Types.NVARCHAR:
+			case Types.VARCHAR:
+				return !DataType.STRING.equals(propertyType);
+
+			case Types.BOOLEAN:
+				return !DataType.BOOLEAN.equals(propertyType);
+
+			case Types.BIGINT:
+			case Types.INTEGER:
+			case Types.SMALLINT:
+			case Types.TINYINT:
+			case Types.DECIMAL:
+			case Types.DOUBLE:
+			case Types.FLOAT:
+			case Types.NUMERIC:
+			case Types.REAL:
+				return !DataType.NUMBER.equals(propertyType);
+
+			case Types.TIME:
+				return !DataType.TIME.equals(propertyType);
+
+			case Types.TIMESTAMP:
+				return !DataType.TIMESTAMP.equals(propertyType);
+
+			default:
+				return true;
+		}
+	}
+
 	/**
 	 * 由SQL类型转换为{@linkplain DataSetProperty#getType()}。
 	 * 
@@ -333,4 +824,133 @@ public class SqlDataSet extends AbstractResolvableDataSet implements ResolvableD
 	{
 		return JDBC_SUPPORT;
 	}
+
+	/**
+	 * 参数绑定模式下替换参数插值的模板指令。
+	 * <p>
+	 * 输出是{@linkplain BindSqlWriter}时，它仅记录绑定点，否则（比如在<code>&lt;#assign&gt;</code>内被捕获时）直接输出参数值文本。
+	 * </p>
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	protected class BindParamDirective implements TemplateDirectiveModel
+	{
+		private final List<DataSetParam> bindParams;
+
+		private final Map<String, ?> paramValues;
+
+		public BindParamDirective(List<DataSetParam> bindParams, Map<String, ?> paramValues)
+		{
+			super();
+			this.bindParams = bindParams;
+			this.paramValues = paramValues;
+		}
+
+		@SuppressWarnings("rawtypes")
+		@Override
+		public void execute(Environment env, Map params, TemplateModel[] loopVars, TemplateDirectiveBody body)
+				throws TemplateException, IOException
+		{
+			int index = ((TemplateNumberModel) params.get("index")).getAsNumber().intValue();
+			Writer out = env.getOut();
+
+			if (out instanceof BindSqlWriter)
+				((BindSqlWriter) out).bind(index);
+			else
+				out.write(resolveInlineParamValue(this.bindParams.get(index), this.paramValues));
+		}
+	}
+
+	/**
+	 * 记录绑定点的SQL输出。
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static class BindSqlWriter extends Writer
+	{
+		private final StringBuilder text = new StringBuilder();
+
+		private final List<BindPoint> bindPoints = new ArrayList<>();
+
+		public BindSqlWriter()
+		{
+			super();
+		}
+
+		public String getText()
+		{
+			return this.text.toString();
+		}
+
+		public List<BindPoint> getBindPoints()
+		{
+			return bindPoints;
+		}
+
+		/**
+		 * 在当前位置记录绑定点。
+		 * 
+		 * @param paramIndex
+		 */
+		public void bind(int paramIndex)
+		{
+			this.bindPoints.add(new BindPoint(this.text.length(), paramIndex));
+		}
+
+		@Override
+		public void write(char[] cbuf, int off, int len) throws IOException
+		{
+			this.text.append(cbuf, off, len);
+		}
+
+		@Override
+		public void write(String str, int off, int len) throws IOException
+		{
+			this.text.append(str, off, off + len);
+		}
+
+		@Override
+		public void flush() throws IOException
+		{
+		}
+
+		@Override
+		public void close() throws IOException
+		{
+		}
+	}
+
+	/**
+	 * 绑定点。
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static class BindPoint
+	{
+		/** 在SQL文本中的位置 */
+		private final int offset;
+
+		/** 绑定参数索引 */
+		private final int paramIndex;
+
+		public BindPoint(int offset, int paramIndex)
+		{
+			super();
+			this.offset = offset;
+			this.paramIndex = paramIndex;
+		}
+
+		public int getOffset()
+		{
+			return offset;
+		}
+
+		public int getParamIndex()
+		{
+			return paramIndex;
+		}
+	}
 }
@@ -9,6 +9,7 @@ package org.datagear.analysis.support.html;
 
 import java.io.IOException;
 import java.io.Reader;
+import java.io.StringWriter;
 import java.io.Writer;
 import java.util.ArrayList;
 import java.util.List;
@@ -22,6 +23,9 @@ import org.datagear.analysis.support.html.HtmlChartRenderAttr.HtmlChartRenderOpt
 import org.datagear.util.IOUtil;
 import org.datagear.util.StringUtil;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
 /**
  * 使用原生HTML网页作为模板的{@linkplain HtmlTplDashboardWidget}渲染器。
  * <p>
@@ -99,6 +103,11 @@ public class HtmlTplDashboardWidgetHtmlRenderer extends HtmlTplDashboardWidgetRe
 	/** 属性名：图表部件ID */
 	private String attrNameChartWidget = DEFAULT_ATTR_NAME_CHART_WIDGET;
 
+	/** 编译模板缓存的最大数目，设置为{@code 0}表示不缓存 */
+	private int compiledHtmlTplCacheMaximumSize = 500;
+
+	private volatile Cache<CompiledHtmlTplKey, CompiledHtmlTpl> _compiledHtmlTplCache = null;
+
 	public HtmlTplDashboardWidgetHtmlRenderer()
 	{
 		super();
@@ -170,6 +179,16 @@ public class HtmlTplDashboardWidgetHtmlRenderer extends HtmlTplDashboardWidgetRe
 		this.attrNameChartWidget = attrNameChartWidget;
 	}
 
+	public int getCompiledHtmlTplCacheMaximumSize()
+	{
+		return compiledHtmlTplCacheMaximumSize;
+	}
+
+	public void setCompiledHtmlTplCacheMaximumSize(int compiledHtmlTplCacheMaximumSize)
+	{
+		this.compiledHtmlTplCacheMaximumSize = compiledHtmlTplCacheMaximumSize;
+	}
+
 	@Override
 	public String simpleTemplateContent(String htmlCharset, String... chartWidgetId)
 	{
@@ -232,11 +251,79 @@ public class HtmlTplDashboardWidgetHtmlRenderer extends HtmlTplDashboardWidgetRe
 	protected void renderHtmlTplDashboard(RenderContext renderContext, HtmlTplDashboardRenderAttr renderAttr,
 			HtmlTplDashboard dashboard) throws Throwable
 	{
-		Reader in = getResourceReaderNonNull(dashboard.getWidget(), dashboard.getTemplate());
+		CompiledHtmlTpl compiledHtmlTpl = getCompiledHtmlTpl(dashboard.getWidget(), dashboard.getTemplate());
+		renderCompiledHtmlTpl(renderContext, renderAttr, dashboard, compiledHtmlTpl);
+	}
+
+	protected DashboardInfo renderHtmlTplDashboard(RenderContext renderContext, HtmlTplDashboardRenderAttr renderAttr,
+			HtmlTplDashboard dashboard, Reader in) throws Exception
+	{
+		CompiledHtmlTpl compiledHtmlTpl = compileHtmlTpl(in);
+		return renderCompiledHtmlTpl(renderContext, renderAttr, dashboard, compiledHtmlTpl);
+	}
+
+	/**
+	 * 获取模板的{@linkplain CompiledHtmlTpl}。
+	 * <p>
+	 * 如果模板的{@linkplain TemplateDashboardWidgetResManager#lastModified(String, String)}未变，
+	 * 将直接返回缓存的{@linkplain CompiledHtmlTpl}。
+	 * </p>
+	 * 
+	 * @param dashboardWidget
+	 * @param template
+	 * @return
+	 * @throws IOException
+	 */
+	protected CompiledHtmlTpl getCompiledHtmlTpl(HtmlTplDashboardWidget dashboardWidget, String template)
+			throws IOException
+	{
+		// 资源不存在、或者不支持修改时间（比如NameAsTemplateDashboardWidgetResManager）时为0，此时不缓存
+		long lastModified = getTemplateDashboardWidgetResManager().lastModified(dashboardWidget.getId(), template);
+
+		if (this.compiledHtmlTplCacheMaximumSize <= 0 || lastModified <= 0)
+			return compileHtmlTpl(dashboardWidget, template);
+
+		CompiledHtmlTplKey key = new CompiledHtmlTplKey(dashboardWidget.getId(), template,
+				dashboardWidget.getTemplateEncoding());
+
+		Cache<CompiledHtmlTplKey, CompiledHtmlTpl> cache = getCompiledHtmlTplCache();
+
+		CompiledHtmlTpl compiledHtmlTpl = cache.getIfPresent(key);
+
+		if (compiledHtmlTpl == null || compiledHtmlTpl.getLastModified() != lastModified)
+		{
+			compiledHtmlTpl = compileHtmlTpl(dashboardWidget, template);
+			compiledHtmlTpl.setLastModified(lastModified);
+
+			cache.put(key, compiledHtmlTpl);
+		}
+
+		return compiledHtmlTpl;
+	}
+
+	protected Cache<CompiledHtmlTplKey, CompiledHtmlTpl> getCompiledHtmlTplCache()
+	{
+		if (this._compiledHtmlTplCache == null)
+		{
+			synchronized (this)
+			{
+				if (this._compiledHtmlTplCache == null)
+					this._compiledHtmlTplCache = CacheBuilder.newBuilder()
+							.maximumSize(this.compiledHtmlTplCacheMaximumSize).build();
+			}
+		}
+
+		return this._compiledHtmlTplCache;
+	}
+
+	protected CompiledHtmlTpl compileHtmlTpl(HtmlTplDashboardWidget dashboardWidget, String template)
+			throws IOException
+	{
+		Reader in = getResourceReaderNonNull(dashboardWidget, template);
 
 		try
 		{
-			renderHtmlTplDashboard(renderContext, renderAttr, dashboard, in);
+			return compileHtmlTpl(in);
 		}
 		finally
 		{
@@ -244,20 +331,99 @@ public class HtmlTplDashboardWidgetHtmlRenderer extends HtmlTplDashboardWidgetRe
 		}
 	}
 
-	protected DashboardInfo renderHtmlTplDashboard(RenderContext renderContext, HtmlTplDashboardRenderAttr renderAttr,
-			HtmlTplDashboard dashboard, Reader in) throws Exception
+	/**
+	 * 使用{@linkplain CompiledHtmlTpl}渲染看板。
+	 * 
+	 * @param renderContext
+	 * @param renderAttr
+	 * @param dashboard
+	 * @param compiledHtmlTpl
+	 * @return
+	 * @throws IOException
+	 */
+	protected DashboardInfo renderCompiledHtmlTpl(RenderContext renderContext, HtmlTplDashboardRenderAttr renderAttr,
+			HtmlTplDashboard dashboard, CompiledHtmlTpl compiledHtmlTpl) throws IOException
 	{
 		Writer out = renderAttr.getHtmlWriterNonNull(renderContext);
 
 		HtmlTitleHandler htmlTitleHandler = renderAttr.getHtmlTitleHandler(renderContext);
 
+		DashboardInfo dashboardInfo = compiledHtmlTpl.getDashboardInfo().copy();
+
+		// 元素没有定义“id”属性的图表
+		List<ChartInfo> chartInfos = dashboardInfo.getChartInfos();
+		for (int i = 0; i < chartInfos.size(); i++)
+		{
+			ChartInfo chartInfo = chartInfos.get(i);
+
+			if (StringUtil.isEmpty(chartInfo.getElementId()))
+				chartInfo.setElementId(renderAttr.genChartElementId(Integer.toString(i)));
+		}
+
+		for (CompiledHtmlTplSegment segment : compiledHtmlTpl.getSegments())
+		{
+			CompiledHtmlTplSegmentType type = segment.getType();
+
+			if (CompiledHtmlTplSegmentType.TEXT.equals(type))
+			{
+				out.write(segment.getText());
+			}
+			else if (CompiledHtmlTplSegmentType.DASHBOARD_IMPORT.equals(type))
+			{
+				writeDashboardImport(renderContext, renderAttr, out, dashboard, dashboardInfo);
+			}
+			else if (CompiledHtmlTplSegmentType.TITLE.equals(type))
+			{
+				if (htmlTitleHandler != null)
+					out.write(htmlTitleHandler.handle(segment.getText()));
+				else
+					out.write(segment.getText());
+			}
+			else if (CompiledHtmlTplSegmentType.ABSENT_TITLE.equals(type))
+			{
+				if (htmlTitleHandler != null)
+				{
+					String titleContent = htmlTitleHandler.handle("");
+
+					out.write("<title>");
+					out.write(titleContent);
+					out.write("</title>");
+				}
+			}
+			else if (CompiledHtmlTplSegmentType.CHART_ELEMENT_ID.equals(type))
+			{
+				out.write(" id=\"" + chartInfos.get(segment.getChartIndex()).getElementId() + "\" ");
+			}
+			else if (CompiledHtmlTplSegmentType.DASHBOARD_SCRIPT.equals(type))
+			{
+				writeHtmlTplDashboardScript(renderContext, renderAttr, out, dashboard, dashboardInfo);
+			}
+		}
+
+		return dashboardInfo;
+	}
+
+	/**
+	 * 编译模板。
+	 * <p>
+	 * 模板中的静态内容将编译为文本片段，看板导入、标题、图表元素ID、看板脚本这些与每次渲染相关的内容则编译为插入点。
+	 * </p>
+	 * 
+	 * @param in
+	 * @return
+	 * @throws IOException
+	 */
+	protected CompiledHtmlTpl compileHtmlTpl(Reader in) throws IOException
+	{
+		CompiledHtmlTpl compiledHtmlTpl = new CompiledHtmlTpl();
+		Writer out = compiledHtmlTpl.getTextWriter();
+
 		boolean resolvedDashboardInfo = false;
-		boolean wroteDashboardImport = false;
 		boolean wroteDashboardScript = false;
 		boolean inHeadTag = false;
 		boolean handledTitle = false;
 
-		DashboardInfo dashboardInfo = new DashboardInfo();
+		DashboardInfo dashboardInfo = compiledHtmlTpl.getDashboardInfo();
 
 		StringBuilder nameCache = createStringBuilder();
 		StringBuilder valueCache = createStringBuilder();
@@ -302,8 +468,8 @@ public class HtmlTplDashboardWidgetHtmlRenderer extends HtmlTplDashboardWidgetRe
 					if (last != '>')
 						readToTagEnd(in, out);
 
-					if (!wroteDashboardImport)
-						writeDashboardImport(renderContext, renderAttr, out, dashboard, dashboardInfo);
+					compiledHtmlTpl.addSegment(
+							CompiledHtmlTplSegment.valueOf(CompiledHtmlTplSegmentType.DASHBOARD_IMPORT));
 				}
 				// <title
 				else if (inHeadTag && "title".equalsIgnoreCase(tagName))
@@ -316,18 +482,9 @@ public class HtmlTplDashboardWidgetHtmlRenderer extends HtmlTplDashboardWidgetRe
 					clear(nameCache);
 					last = readToTagStart(in, nameCache);
 
-					if (htmlTitleHandler != null)
-					{
-						String titleContent = htmlTitleHandler.handle(nameCache.toString());
-
-						out.write(titleContent);
-						appendIfValid(out, last);
-					}
-					else
-					{
-						append(out, nameCache);
-						appendIfValid(out, last);
-					}
+					compiledHtmlTpl.addSegment(
+							CompiledHtmlTplSegment.valueOf(CompiledHtmlTplSegmentType.TITLE, nameCache.toString()));
+					appendIfValid(out, last);
 
 					handledTitle = true;
 				}
@@ -336,15 +493,8 @@ public class HtmlTplDashboardWidgetHtmlRenderer extends HtmlTplDashboardWidgetRe
 				{
 					if (!handledTitle)
 					{
-						if (htmlTitleHandler != null)
-						{
-							String titleContent = htmlTitleHandler.handle("");
-
-							out.write("<title>");
-							out.write(titleContent);
-							out.write("</title>");
-						}
-
+						compiledHtmlTpl.addSegment(
+								CompiledHtmlTplSegment.valueOf(CompiledHtmlTplSegmentType.ABSENT_TITLE));
 						handledTitle = true;
 					}
 
@@ -364,10 +514,8 @@ public class HtmlTplDashboardWidgetHtmlRenderer extends HtmlTplDashboardWidgetRe
 						clear(valueCache);
 						clear(tagContentCache);
 
-						last = resolveDashboardChartInfo(renderContext, renderAttr, dashboard, in, last,
-								tagContentCache, nameCache, valueCache, dashboardInfo);
-
-						append(out, tagContentCache);
+						last = resolveDashboardChartInfo(compiledHtmlTpl, in, last, tagContentCache, nameCache,
+								valueCache);
 					}
 				}
 				// </body
@@ -375,7 +523,8 @@ public class HtmlTplDashboardWidgetHtmlRenderer extends HtmlTplDashboardWidgetRe
 				{
 					if (!wroteDashboardScript)
 					{
-						writeHtmlTplDashboardScript(renderContext, renderAttr, out, dashboard, dashboardInfo);
+						compiledHtmlTpl.addSegment(
+								CompiledHtmlTplSegment.valueOf(CompiledHtmlTplSegmentType.DASHBOARD_SCRIPT));
 						wroteDashboardScript = true;
 					}
 
@@ -401,7 +550,9 @@ public class HtmlTplDashboardWidgetHtmlRenderer extends HtmlTplDashboardWidgetRe
 				out.write(c);
 		}
 
-		return dashboardInfo;
+		compiledHtmlTpl.finish();
+
+		return compiledHtmlTpl;
 	}
 
 	protected void writeDashboardImport(RenderContext renderContext, HtmlTplDashboardRenderAttr renderAttr, Writer out,
@@ -554,10 +705,24 @@ public class HtmlTplDashboardWidgetHtmlRenderer extends HtmlTplDashboardWidgetRe
 		return c;
 	}
 
-	protected int resolveDashboardChartInfo(RenderContext renderContext, HtmlTplDashboardRenderAttr renderAttr,
-			HtmlTplDashboard dashboard, Reader in, int last, StringBuilder cache, StringBuilder attrName,
-			StringBuilder attrValue, DashboardInfo dashboardInfo) throws IOException
+	/**
+	 * 解析图表元素的{@linkplain ChartInfo}，并将元素标签内容写入{@linkplain CompiledHtmlTpl}。
+	 * 
+	 * @param compiledHtmlTpl
+	 * @param in
+	 * @param last
+	 * @param cache
+	 * @param attrName
+	 * @param attrValue
+	 * @return
+	 * @throws IOException
+	 */
+	protected int resolveDashboardChartInfo(CompiledHtmlTpl compiledHtmlTpl, Reader in, int last,
+			StringBuilder cache, StringBuilder attrName, StringBuilder attrValue) throws IOException
 	{
+		DashboardInfo dashboardInfo = compiledHtmlTpl.getDashboardInfo();
+		Writer out = compiledHtmlTpl.getTextWriter();
+
 		ChartInfo chartInfo = null;
 
 		for (;;)
@@ -591,17 +756,18 @@ public class HtmlTplDashboardWidgetHtmlRenderer extends HtmlTplDashboardWidgetRe
 		if (chartInfo != null && StringUtil.isEmpty(chartInfo.getWidgetId()))
 			chartInfo = null;
 
-		// 元素没有定义“id”属性
+		// 元素没有定义“id”属性，图表元素ID在渲染时生成
 		if (chartInfo != null && StringUtil.isEmpty(chartInfo.getElementId()))
 		{
 			int chartIndex = dashboardInfo.getChartInfos().size();
-			String elementId = renderAttr.genChartElementId(Integer.toString(chartIndex));
-
-			chartInfo.setElementId(elementId);
-
 			int insertIdx = findInsertAttrIndex(cache);
-			cache.insert(insertIdx, " id=\"" + elementId + "\" ");
+
+			out.write(cache.substring(0, insertIdx));
+			compiledHtmlTpl.addSegment(CompiledHtmlTplSegment.valueOf(chartIndex));
+			out.write(cache.substring(insertIdx));
 		}
+		else
+			append(out, cache);
 
 		if (chartInfo != null)
 			dashboardInfo.addChartInfo(chartInfo);
@@ -810,6 +976,23 @@ public class HtmlTplDashboardWidgetHtmlRenderer extends HtmlTplDashboardWidgetRe
 			this.chartInfos.add(chartInfo);
 		}
 
+		/**
+		 * 复制，{@linkplain #getChartInfos()}的元素也将被复制。
+		 * 
+		 * @return
+		 */
+		public DashboardInfo copy()
+		{
+			DashboardInfo re = new DashboardInfo(this.dashboardVar);
+			re.setDashboardFactoryVar(this.dashboardFactoryVar);
+			re.setImportExclude(this.importExclude);
+
+			for (ChartInfo chartInfo : this.chartInfos)
+				re.addChartInfo(new ChartInfo(chartInfo.getWidgetId(), chartInfo.getElementId()));
+
+			return re;
+		}
+
 		@Override
 		public String toString()
 		{
@@ -863,4 +1046,255 @@ public class HtmlTplDashboardWidgetHtmlRenderer extends HtmlTplDashboardWidgetRe
 			return getClass().getSimpleName() + " [widgetId=" + widgetId + ", elementId=" + elementId + "]";
 		}
 	}
+
+	/**
+	 * 编译后的模板。
+	 * <p>
+	 * 它由静态文本片段、以及渲染时才能确定内容的插入点组成，渲染时只需依次写入这些片段。
+	 * </p>
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static class CompiledHtmlTpl
+	{
+		private final List<CompiledHtmlTplSegment> segments = new ArrayList<>();
+
+		private final DashboardInfo dashboardInfo = new DashboardInfo();
+
+		private long lastModified = 0;
+
+		private transient StringWriter _textWriter = new StringWriter();
+
+		public CompiledHtmlTpl()
+		{
+			super();
+		}
+
+		public List<CompiledHtmlTplSegment> getSegments()
+		{
+			return segments;
+		}
+
+		public DashboardInfo getDashboardInfo()
+		{
+			return dashboardInfo;
+		}
+
+		public long getLastModified()
+		{
+			return lastModified;
+		}
+
+		public void setLastModified(long lastModified)
+		{
+			this.lastModified = lastModified;
+		}
+
+		/**
+		 * 获取写入静态文本的{@linkplain Writer}。
+		 * 
+		 * @return
+		 */
+		public Writer getTextWriter()
+		{
+			return this._textWriter;
+		}
+
+		/**
+		 * 添加插入点片段，之前写入的静态文本将作为一个文本片段添加在它之前。
+		 * 
+		 * @param segment
+		 */
+		public void addSegment(CompiledHtmlTplSegment segment)
+		{
+			flushText();
+			this.segments.add(segment);
+		}
+
+		/**
+		 * 完成编译。
+		 */
+		public void finish()
+		{
+			flushText();
+			this._textWriter = null;
+		}
+
+		protected void flushText()
+		{
+			StringBuffer buffer = this._textWriter.getBuffer();
+
+			if (buffer.length() > 0)
+			{
+				this.segments.add(CompiledHtmlTplSegment.valueOf(CompiledHtmlTplSegmentType.TEXT, buffer.toString()));
+				buffer.setLength(0);
+			}
+		}
+	}
+
+	/**
+	 * 编译后的模板片段类型。
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static enum CompiledHtmlTplSegmentType
+	{
+		/** 静态文本 */
+		TEXT,
+
+		/** 看板导入 */
+		DASHBOARD_IMPORT,
+
+		/** 标题内容 */
+		TITLE,
+
+		/** 模板没有标题时，在“</head>”前插入的标题 */
+		ABSENT_TITLE,
+
+		/** 没有定义“id”属性的图表元素ID */
+		CHART_ELEMENT_ID,
+
+		/** 看板脚本 */
+		DASHBOARD_SCRIPT
+	}
+
+	/**
+	 * 编译后的模板片段。
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static class CompiledHtmlTplSegment
+	{
+		private final CompiledHtmlTplSegmentType type;
+
+		/** 文本内容，用于TEXT、TITLE */
+		private final String text;
+
+		/** 图表索引，用于CHART_ELEMENT_ID */
+		private final int chartIndex;
+
+		public CompiledHtmlTplSegment(CompiledHtmlTplSegmentType type, String text, int chartIndex)
+		{
+			super();
+			this.type = type;
+			this.text = text;
+			this.chartIndex = chartIndex;
+		}
+
+		public CompiledHtmlTplSegmentType getType()
+		{
+			return type;
+		}
+
+		public String getText()
+		{
+			return text;
+		}
+
+		public int getChartIndex()
+		{
+			return chartIndex;
+		}
+
+		public static CompiledHtmlTplSegment valueOf(CompiledHtmlTplSegmentType type)
+		{
+			return new CompiledHtmlTplSegment(type, null, -1);
+		}
+
+		public static CompiledHtmlTplSegment valueOf(CompiledHtmlTplSegmentType type, String text)
+		{
+			return new CompiledHtmlTplSegment(type, text, -1);
+		}
+
+		public static CompiledHtmlTplSegment valueOf(int chartIndex)
+		{
+			return new CompiledHtmlTplSegment(CompiledHtmlTplSegmentType.CHART_ELEMENT_ID, null, chartIndex);
+		}
+	}
+
+	/**
+	 * 编译模板缓存关键字。
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static class CompiledHtmlTplKey
+	{
+		private final String widgetId;
+
+		private final String template;
+
+		private final String templateEncoding;
+
+		public CompiledHtmlTplKey(String widgetId, String template, String templateEncoding)
+		{
+			super();
+			this.widgetId = widgetId;
+			this.template = template;
+			this.templateEncoding = templateEncoding;
+		}
+
+		public String getWidgetId()
+		{
+			return widgetId;
+		}
+
+		public String getTemplate()
+		{
+			return template;
+		}
+
+		public String getTemplateEncoding()
+		{
+			return templateEncoding;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			final int prime = 31;
+			int result = 1;
+			result = prime * result + ((widgetId == null) ? 0 : widgetId.hashCode());
+			result = prime * result + ((template == null) ? 0 : template.hashCode());
+			result = prime * result + ((templateEncoding == null) ? 0 : templateEncoding.hashCode());
+			return result;
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (this == obj)
+				return true;
+			if (obj == null)
+				return false;
+			if (getClass() != obj.getClass())
+				return false;
+			CompiledHtmlTplKey other = (CompiledHtmlTplKey) obj;
+			if (widgetId == null)
+			{
+				if (other.widgetId != null)
+					return false;
+			}
+			else if (!widgetId.equals(other.widgetId))
+				return false;
+			if (template == null)
+			{
+				if (other.template != null)
+					return false;
+			}
+			else if (!template.equals(other.template))
+				return false;
+			if (templateEncoding == null)
+			{
+				if (other.templateEncoding != null)
+					return false;
+			}
+			else if (!templateEncoding.equals(other.templateEncoding))
+				return false;
+			return true;
+		}
+	}
 }
@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2018 datagear.tech. All Rights Reserved.
+ */
+
+package org.datagear.analysis;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * {@linkplain ColumnarDataSetResult}单元测试用例。
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class ColumnarDataSetResultTest
+{
+	@Test
+	public void valueOfTest()
+	{
+		List<Map<String, Object>> rows = new ArrayList<>();
+
+		{
+			Map<String, Object> row = new LinkedHashMap<>();
+			row.put("name", "aaa");
+			row.put("count", 1);
+			row.put("rate", new BigDecimal("1.5"));
+			row.put("size", 3);
+			rows.add(row);
+		}
+
+		{
+			Map<String, Object> row = new LinkedHashMap<>();
+			row.put("name", "bbb");
+			row.put("count", 2L);
+			row.put("rate", 2.5D);
+			row.put("ratio", 0.5D);
+			rows.add(row);
+		}
+
+		rows.get(0).put("ratio", 1.25D);
+
+		ColumnarDataSetResult result = ColumnarDataSetResult.valueOf(new DataSetResult(rows));
+
+		assertEquals(Arrays.asList("name", "count", "rate", "size", "ratio"), result.getNames());
+		assertEquals(2, result.getRowCount());
+
+		Object[] columns = result.getColumns();
+
+		assertArrayEquals(new Object[] { "aaa", "bbb" }, (Object[]) columns[0]);
+		assertArrayEquals(new long[] { 1, 2 }, (long[]) columns[1]);
+		assertArrayEquals(new Object[] { new BigDecimal("1.5"), 2.5D }, (Object[]) columns[2]);
+		assertTrue(columns[3] instanceof Object[]);
+		assertArrayEquals(new double[] { 1.25, 0.5 }, (double[]) columns[4], 0);
+
+		List<Map<String, Object>> restores = result.toRows();
+
+		assertEquals(2, restores.size());
+		assertEquals("aaa", restores.get(0).get("name"));
+		assertEquals(2L, restores.get(1).get("count"));
+		assertEquals(3L, restores.get(0).get("size"));
+		assertTrue(restores.get(1).containsKey("size"));
+		assertNull(restores.get(1).get("size"));
+
+		@SuppressWarnings("unchecked")
+		List<Map<String, Object>> data = (List<Map<String, Object>>) result.getData();
+
+		assertEquals(restores, data);
+		assertSame(data, result.getData());
+	}
+
+	@Test
+	public void valueOfTest_keepPrecision()
+	{
+		BigDecimal money = new BigDecimal("1234567890123456789012345678.0123456789");
+		BigInteger bigInteger = new BigInteger("123456789012345678901234567890");
+
+		List<Map<String, Object>> rows = new ArrayList<>();
+
+		{
+			Map<String, Object> row = new LinkedHashMap<>();
+			row.put("float", 0.1F);
+			row.put("money", money);
+			row.put("bigInteger", bigInteger);
+			row.put("smallBigInteger", BigInteger.ONE);
+			rows.add(row);
+		}
+
+		ColumnarDataSetResult result = ColumnarDataSetResult.valueOf(new DataSetResult(rows));
+		Object[] columns = result.getColumns();
+
+		assertArrayEquals(new Object[] { 0.1F }, (Object[]) columns[0]);
+		assertArrayEquals(new Object[] { money }, (Object[]) columns[1]);
+		assertArrayEquals(new Object[] { bigInteger }, (Object[]) columns[2]);
+		assertArrayEquals(new Object[] { BigInteger.ONE }, (Object[]) columns[3]);
+
+		List<Map<String, Object>> restores = result.toRows();
+
+		assertEquals(0.1F, restores.get(0).get("float"));
+		assertEquals(money, restores.get(0).get("money"));
+		assertEquals(bigInteger, restores.get(0).get("bigInteger"));
+	}
+
+	@Test
+	public void valueOfTest_nullRow()
+	{
+		Map<String, Object> row0 = new HashMap<>();
+		row0.put("name", "aaa");
+		row0.put("value", 1);
+
+		Map<String, Object> row2 = new HashMap<>();
+		row2.put("name", null);
+		row2.put("value", 3);
+
+		ColumnarDataSetResult result = ColumnarDataSetResult
+				.valueOf(new DataSetResult(Arrays.asList(row0, null, row2)));
+
+		assertEquals(3, result.getRowCount());
+		assertTrue(result.isNullRow(1));
+
+		List<Map<String, Object>> restores = result.toRows();
+
+		assertEquals(3, restores.size());
+		assertEquals("aaa", restores.get(0).get("name"));
+		assertNull(restores.get(1));
+		assertTrue(restores.get(2).containsKey("name"));
+		assertNull(restores.get(2).get("name"));
+		assertEquals(3, ((Number) restores.get(2).get("value")).intValue());
+	}
+
+	@Test
+	public void builderTest()
+	{
+		ColumnarDataSetResult.Builder builder = new ColumnarDataSetResult.Builder(
+				Arrays.asList("long", "double", "mixed"), 1);
+
+		int rowCount = 100;
+
+		for (int i = 0; i < rowCount; i++)
+			builder.addRow(new Object[] { i, i + 0.5D, (i == rowCount - 1 ? new BigDecimal("1.5") : i) });
+
+		ColumnarDataSetResult result = builder.build();
+		Object[] columns = result.getColumns();
+
+		assertEquals(rowCount, result.getRowCount());
+		assertNull(result.getNullRows());
+		assertEquals(rowCount, ((long[]) columns[0]).length);
+		assertEquals(99L, ((long[]) columns[0])[99]);
+		assertEquals(99.5D, ((double[]) columns[1])[99], 0);
+
+		Object[] mixed = (Object[]) columns[2];
+
+		assertEquals(rowCount, mixed.length);
+		assertEquals(98L, mixed[98]);
+		assertEquals(new BigDecimal("1.5"), mixed[99]);
+	}
+
+	@Test
+	public void builderTest_empty()
+	{
+		ColumnarDataSetResult result = new ColumnarDataSetResult.Builder(Arrays.asList("name")).build();
+
+		assertEquals(0, result.getRowCount());
+		assertArrayEquals(new Object[0], (Object[]) result.getColumns()[0]);
+		assertTrue(result.toRows().isEmpty());
+	}
+
+	@Test
+	public void valueOfTest_unsupported()
+	{
+		assertNull(ColumnarDataSetResult.valueOf(new DataSetResult(new HashMap<String, Object>())));
+		assertNull(ColumnarDataSetResult.valueOf(new DataSetResult(Arrays.asList("a", "b"))));
+	}
+}
@@ -8,12 +8,18 @@
 package org.datagear.analysis.support;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
+import org.datagear.analysis.DataSetOption;
 import org.datagear.analysis.DataSetProperty;
+import org.datagear.analysis.support.AbstractJsonDataSet.SimpleJsonPath;
 import org.junit.Test;
 
 /**
@@ -75,4 +81,67 @@ public class AbstractJsonDataSetTest
 			}
 		}
 	}
+
+	@Test
+	public void resolveTest_stream_resultDataMaxCount()
+	{
+		// 第二条数据之后的内容不合法，流式读取达到最大数目后不应再读取
+		String jsonString = "{ a: { b: [ { name:'aaa', value: 11 }, { name:'bbb', value: 22 }, { name: ";
+
+		JsonValueDataSet dataSet = new JsonValueDataSet(JsonValueDataSet.class.getSimpleName(),
+				JsonValueDataSet.class.getSimpleName(), jsonString);
+
+		dataSet.setDataJsonPath("$.a.b[*]");
+
+		DataSetOption dataSetOption = new DataSetOption();
+		dataSetOption.setResultDataMaxCount(2);
+
+		TemplateResolvedDataSetResult result = dataSet.resolve(Collections.emptyMap(), dataSetOption);
+		List<DataSetProperty> properties = result.getProperties();
+		@SuppressWarnings("unchecked")
+		List<Map<String, Object>> data = (List<Map<String, Object>>) result.getResult().getData();
+
+		assertEquals(2, properties.size());
+		assertEquals(2, data.size());
+		assertEquals("aaa", data.get(0).get("name"));
+		assertEquals(22, ((Number) data.get(1).get("value")).intValue());
+	}
+
+	@Test
+	public void simpleJsonPathTest()
+	{
+		{
+			SimpleJsonPath path = SimpleJsonPath.valueOf("");
+			assertTrue(path.getSegments().isEmpty());
+			assertFalse(path.isWildcard());
+		}
+
+		{
+			SimpleJsonPath path = SimpleJsonPath.valueOf("$.a.b[*]");
+			assertEquals(Arrays.asList("a", "b"), path.getSegments());
+			assertTrue(path.isWildcard());
+		}
+
+		{
+			SimpleJsonPath path = SimpleJsonPath.valueOf("stores[0].books");
+			assertEquals(Arrays.asList("stores", 0, "books"), path.getSegments());
+			assertFalse(path.isWildcard());
+		}
+
+		{
+			SimpleJsonPath path = SimpleJsonPath.valueOf("[1].stores");
+			assertEquals(Arrays.asList(1, "stores"), path.getSegments());
+		}
+
+		{
+			SimpleJsonPath path = SimpleJsonPath.valueOf("$['store']['book'][0]");
+			assertEquals(Arrays.asList("store", "book", 0), path.getSegments());
+		}
+
+		assertNull(SimpleJsonPath.valueOf("$.store.book[*].author"));
+		assertNull(SimpleJsonPath.valueOf("$..book[2]"));
+		assertNull(SimpleJsonPath.valueOf("$.book[-1]"));
+		assertNull(SimpleJsonPath.valueOf("$.book[0:2]"));
+		assertNull(SimpleJsonPath.valueOf("$.book[?(@.price < 10)]"));
+	}
 }
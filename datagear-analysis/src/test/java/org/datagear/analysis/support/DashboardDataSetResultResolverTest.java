@@ -0,0 +1,203 @@
+/*
+ * Copyright 2018 datagear.tech. All Rights Reserved.
+ */
+
+package org.datagear.analysis.support;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.datagear.analysis.Chart;
+import org.datagear.analysis.ChartDataSet;
+import org.datagear.analysis.Dashboard;
+import org.datagear.analysis.DataSetException;
+import org.datagear.analysis.DataSetParam;
+import org.datagear.analysis.DataSetProperty;
+import org.datagear.analysis.DataSetResult;
+import org.junit.Test;
+
+/**
+ * {@linkplain DashboardDataSetResultResolver}单元测试类。
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class DashboardDataSetResultResolverTest
+{
+	@Test
+	public void getDataSetResultsTest_serial()
+	{
+		DashboardDataSetResultResolver resolver = new DashboardDataSetResultResolver();
+
+		getDataSetResultsTest(resolver);
+	}
+
+	@Test
+	public void getDataSetResultsTest_concurrent()
+	{
+		ExecutorService executorService = Executors.newFixedThreadPool(4);
+
+		try
+		{
+			DashboardDataSetResultResolver resolver = new DashboardDataSetResultResolver(executorService);
+
+			getDataSetResultsTest(resolver);
+		}
+		finally
+		{
+			executorService.shutdown();
+		}
+	}
+
+	@Test(expected = DataSetException.class)
+	public void getDataSetResultsTest_concurrent_exception()
+	{
+		ExecutorService executorService = Executors.newFixedThreadPool(4);
+
+		try
+		{
+			DashboardDataSetResultResolver resolver = new DashboardDataSetResultResolver(executorService);
+
+			CountCsvValueDataSet dataSet0 = createDataSet("0");
+			CountCsvValueDataSet dataSet1 = createDataSet("1");
+			dataSet1.setValue("name, size \n aaa, ${size");
+
+			Dashboard dashboard = createDashboard(createChart("chart0", dataSet0), createChart("chart1", dataSet1));
+
+			resolver.getDataSetResults(dashboard, new HashSet<>(Arrays.asList("chart0", "chart1")),
+					createParamValuess(new String[] { "chart0", "chart1" }, new int[] { 1, 1 }));
+		}
+		finally
+		{
+			executorService.shutdown();
+		}
+	}
+
+	protected void getDataSetResultsTest(DashboardDataSetResultResolver resolver)
+	{
+		CountCsvValueDataSet dataSet0 = createDataSet("0");
+		CountCsvValueDataSet dataSet1 = createDataSet("1");
+
+		// 与dataSet0的ID相同，应去重
+		CountCsvValueDataSet dataSet0Copy = createDataSet("0");
+
+		Dashboard dashboard = createDashboard(createChart("chart0", dataSet0), createChart("chart1", dataSet0Copy),
+				createChart("chart2", dataSet1), createChart("chart3", dataSet0));
+
+		Map<String, List<Map<String, ?>>> paramValuess = createParamValuess(
+				new String[] { "chart0", "chart1", "chart2", "chart3" }, new int[] { 1, 1, 1, 2 });
+		paramValuess.put("chart4", null);
+
+		Map<String, DataSetResult[]> results = resolver.getDataSetResults(dashboard,
+				new HashSet<>(Arrays.asList("chart0", "chart1", "chart2", "chart3")), paramValuess);
+
+		assertEquals(4, results.size());
+		assertEquals(2, dataSet0.getCount() + dataSet0Copy.getCount());
+		assertEquals(1, dataSet1.getCount());
+
+		assertSame(results.get("chart0")[0], results.get("chart1")[0]);
+		assertEquals(1, getSize(results.get("chart0")[0]));
+		assertEquals(1, getSize(results.get("chart2")[0]));
+		assertEquals(2, getSize(results.get("chart3")[0]));
+
+		// 缺少必填参数
+		{
+			Map<String, List<Map<String, ?>>> myParamValuess = new HashMap<>();
+			List<Map<String, ?>> myParamValues = new ArrayList<>();
+			myParamValues.add(new HashMap<String, Object>());
+			myParamValuess.put("chart0", myParamValues);
+
+			Map<String, DataSetResult[]> myResults = resolver.getDataSetResults(dashboard,
+					new HashSet<>(Arrays.asList("chart0")), myParamValuess);
+
+			assertNull(myResults.get("chart0")[0]);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	protected int getSize(DataSetResult result)
+	{
+		List<Map<String, Object>> data = (List<Map<String, Object>>) result.getData();
+		return ((Number) data.get(0).get("size")).intValue();
+	}
+
+	protected Map<String, List<Map<String, ?>>> createParamValuess(String[] chartIds, int[] sizes)
+	{
+		Map<String, List<Map<String, ?>>> paramValuess = new HashMap<>();
+
+		for (int i = 0; i < chartIds.length; i++)
+		{
+			Map<String, Object> paramValues = new HashMap<>();
+			paramValues.put("size", sizes[i]);
+
+			List<Map<String, ?>> list = new ArrayList<>();
+			list.add(paramValues);
+
+			paramValuess.put(chartIds[i], list);
+		}
+
+		return paramValuess;
+	}
+
+	protected Dashboard createDashboard(Chart... charts)
+	{
+		Dashboard dashboard = new Dashboard();
+		dashboard.setCharts(Arrays.asList(charts));
+
+		return dashboard;
+	}
+
+	protected Chart createChart(String id, CountCsvValueDataSet dataSet)
+	{
+		return new Chart(id, id, new ChartDataSet[] { new ChartDataSet(dataSet) }, null, null);
+	}
+
+	protected CountCsvValueDataSet createDataSet(String id)
+	{
+		List<DataSetProperty> properties = new ArrayList<>();
+		properties.add(new DataSetProperty("name", DataSetProperty.DataType.STRING));
+		properties.add(new DataSetProperty("size", DataSetProperty.DataType.NUMBER));
+
+		List<DataSetParam> params = new ArrayList<>();
+		params.add(new DataSetParam("size", DataSetParam.DataType.NUMBER, true));
+
+		CountCsvValueDataSet dataSet = new CountCsvValueDataSet(id, properties, "name, size \n aaa, ${size}");
+		dataSet.setParams(params);
+		dataSet.setNameRow(1);
+
+		return dataSet;
+	}
+
+	protected static class CountCsvValueDataSet extends CsvValueDataSet
+	{
+		private final AtomicInteger count = new AtomicInteger(0);
+
+		public CountCsvValueDataSet(String id, List<DataSetProperty> properties, String value)
+		{
+			super(id, id, properties, value);
+		}
+
+		public int getCount()
+		{
+			return count.get();
+		}
+
+		@Override
+		public DataSetResult getResult(Map<String, ?> paramValues) throws DataSetException
+		{
+			this.count.incrementAndGet();
+			return super.getResult(paramValues);
+		}
+	}
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2018 datagear.tech. All Rights Reserved.
+ */
+
+package org.datagear.analysis.support;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.datagear.analysis.DataSetResult;
+import org.datagear.analysis.support.DataSetResultCache.DataSetResultCacheKey;
+import org.junit.Test;
+
+/**
+ * {@linkplain DataSetResultCache}单元测试类。
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class DataSetResultCacheTest
+{
+	@Test
+	public void getTest() throws Exception
+	{
+		DataSetResultCache cache = new DataSetResultCache();
+		cache.init();
+
+		final AtomicInteger loadCount = new AtomicInteger(0);
+		Callable<DataSetResult> loader = new Callable<DataSetResult>()
+		{
+			@Override
+			public DataSetResult call() throws Exception
+			{
+				loadCount.incrementAndGet();
+				return new DataSetResult();
+			}
+		};
+
+		Map<String, Object> paramValues0 = new HashMap<>();
+		paramValues0.put("a", new String[] { "1", "2" });
+		Map<String, Object> paramValues1 = new HashMap<>();
+		paramValues1.put("a", new String[] { "1", "2" });
+
+		DataSetResult result0 = cache.get(new DataSetResultCacheKey("ds", "sql", paramValues0), 60, loader);
+		DataSetResult result1 = cache.get(new DataSetResultCacheKey("ds", "sql", paramValues1), 60, loader);
+		DataSetResult result2 = cache.get(new DataSetResultCacheKey("ds", "sql-1", paramValues1), 60, loader);
+
+		assertSame(result0, result1);
+		assertNotSame(result0, result2);
+		assertEquals(2, loadCount.get());
+
+		cache.invalidate("ds");
+
+		assertEquals(0, cache.size());
+
+		DataSetResult result3 = cache.get(new DataSetResultCacheKey("ds", "sql", paramValues0), 60, loader);
+
+		assertNotSame(result0, result3);
+		assertEquals(3, loadCount.get());
+	}
+
+	@Test
+	public void getTest_expired() throws Exception
+	{
+		DataSetResultCache cache = new DataSetResultCache();
+		cache.init();
+
+		final AtomicInteger loadCount = new AtomicInteger(0);
+		Callable<DataSetResult> loader = new Callable<DataSetResult>()
+		{
+			@Override
+			public DataSetResult call() throws Exception
+			{
+				loadCount.incrementAndGet();
+				return new DataSetResult();
+			}
+		};
+
+		DataSetResultCacheKey key = new DataSetResultCacheKey("ds", null, null);
+
+		// 过期秒数为0，每次都会重新加载
+		cache.get(key, 0, loader);
+		cache.get(key, 0, loader);
+
+		assertEquals(2, loadCount.get());
+	}
+
+	@Test
+	public void getTest_singleFlight() throws Exception
+	{
+		final DataSetResultCache cache = new DataSetResultCache();
+		cache.init();
+
+		final AtomicInteger loadCount = new AtomicInteger(0);
+		final CountDownLatch startLatch = new CountDownLatch(1);
+
+		final Callable<DataSetResult> loader = new Callable<DataSetResult>()
+		{
+			@Override
+			public DataSetResult call() throws Exception
+			{
+				loadCount.incrementAndGet();
+				Thread.sleep(200);
+				return new DataSetResult();
+			}
+		};
+
+		int threads = 5;
+		ExecutorService executorService = Executors.newFixedThreadPool(threads);
+
+		try
+		{
+			List<Future<DataSetResult>> futures = new ArrayList<>();
+
+			for (int i = 0; i < threads; i++)
+			{
+				futures.add(executorService.submit(new Callable<DataSetResult>()
+				{
+					@Override
+					public DataSetResult call() throws Exception
+					{
+						startLatch.await();
+						return cache.get(new DataSetResultCacheKey("ds", "sql", null), 60, loader);
+					}
+				}));
+			}
+
+			startLatch.countDown();
+
+			DataSetResult result = futures.get(0).get();
+
+			for (Future<DataSetResult> future : futures)
+				assertSame(result, future.get());
+
+			assertEquals(1, loadCount.get());
+		}
+		finally
+		{
+			executorService.shutdown();
+		}
+	}
+}
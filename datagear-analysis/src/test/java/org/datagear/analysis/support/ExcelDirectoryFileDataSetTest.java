@@ -18,6 +18,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.datagear.analysis.DataSetOption;
 import org.datagear.analysis.DataSetProperty;
 import org.datagear.analysis.DataSetResult;
 import org.datagear.analysis.ResolvedDataSetResult;
@@ -352,4 +353,31 @@ public class ExcelDirectoryFileDataSetTest
 			}
 		}
 	}
+
+	@Test
+	public void resolveTest_resultDataMaxCount()
+	{
+		String[] fileNames = { "ExcelDirectoryFileDataSetTest-0.xlsx", "ExcelDirectoryFileDataSetTest-1.xls" };
+
+		for (String fileName : fileNames)
+		{
+			ExcelDirectoryFileDataSet dataSet = new ExcelDirectoryFileDataSet("a", "a", DIRECTORY, fileName);
+			dataSet.setNameRow(1);
+
+			DataSetOption dataSetOption = new DataSetOption();
+			dataSetOption.setResultDataMaxCount(2);
+
+			ResolvedDataSetResult resolvedResult = dataSet.resolve(new HashMap<>(), dataSetOption);
+
+			@SuppressWarnings("unchecked")
+			List<Map<String, Object>> data = (List<Map<String, Object>>) resolvedResult.getResult().getData();
+			List<DataSetProperty> properties = resolvedResult.getProperties();
+
+			assertEquals(4, properties.size());
+			assertEquals("name", properties.get(0).getName());
+			assertEquals(2, data.size());
+			assertEquals("aaa", data.get(0).get("name"));
+			assertEquals("bbb", data.get(1).get("name"));
+		}
+	}
 }
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2018 datagear.tech. All Rights Reserved.
+ */
+
+package org.datagear.analysis.support;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.datagear.analysis.ResolvedDataSetResult;
+import org.datagear.analysis.support.HttpDataSetResponseCache.CachedHttpResponse;
+import org.datagear.analysis.support.HttpDataSetResponseCache.HttpResponseCacheKey;
+import org.junit.Test;
+
+/**
+ * {@linkplain HttpDataSetResponseCache}单元测试类。
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class HttpDataSetResponseCacheTest
+{
+	@Test
+	public void getTest_withoutInit()
+	{
+		HttpDataSetResponseCache cache = new HttpDataSetResponseCache();
+
+		HttpResponseCacheKey key = new HttpResponseCacheKey("ds0", "http://localhost/a");
+
+		assertNull(cache.get(key));
+		assertEquals(0, cache.size());
+
+		CachedHttpResponse response = new CachedHttpResponse("etag", null, new ResolvedDataSetResult(), 10);
+		cache.put(key, response);
+
+		assertSame(response, cache.get(new HttpResponseCacheKey("ds0", "http://localhost/a")));
+		assertNull(cache.get(new HttpResponseCacheKey("ds0", "http://localhost/b")));
+		assertNull(cache.get(new HttpResponseCacheKey("ds1", "http://localhost/a")));
+	}
+
+	@Test
+	public void invalidateTest()
+	{
+		HttpDataSetResponseCache cache = new HttpDataSetResponseCache();
+		cache.init();
+
+		cache.put(new HttpResponseCacheKey("ds0", "a"), new CachedHttpResponse("etag", null, null, 10));
+		cache.put(new HttpResponseCacheKey("ds0", "b"), new CachedHttpResponse("etag", null, null, 10));
+		cache.put(new HttpResponseCacheKey("ds1", "a"), new CachedHttpResponse("etag", null, null, 10));
+
+		cache.invalidate("ds0");
+
+		assertEquals(1, cache.size());
+		assertNull(cache.get(new HttpResponseCacheKey("ds0", "a")));
+
+		cache.invalidateAll();
+
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void putTest_maxEntryWeight()
+	{
+		HttpDataSetResponseCache cache = new HttpDataSetResponseCache();
+		cache.setMaxEntryWeight(100);
+		cache.init();
+
+		HttpResponseCacheKey key = new HttpResponseCacheKey("ds0", "a");
+
+		assertTrue(cache.put(key, new CachedHttpResponse("etag0", null, null, 100)));
+		assertEquals("etag0", cache.get(key).getETag());
+
+		// 超过单个最大字节数的响应不缓存，且原有的缓存也应清除
+		assertFalse(cache.put(key, new CachedHttpResponse("etag1", null, null, 101)));
+		assertNull(cache.get(key));
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void putTest_maximumWeight()
+	{
+		HttpDataSetResponseCache cache = new HttpDataSetResponseCache();
+		cache.setMaximumWeight(100);
+		cache.init();
+
+		for (int i = 0; i < 10; i++)
+			cache.put(new HttpResponseCacheKey("ds0", "r" + i), new CachedHttpResponse("etag", null, null, 40));
+
+		assertEquals(2, cache.size());
+		assertNull(cache.get(new HttpResponseCacheKey("ds0", "r0")));
+		assertEquals("etag", cache.get(new HttpResponseCacheKey("ds0", "r9")).getETag());
+	}
+
+	@Test
+	public void putTest_maximumWeightZero()
+	{
+		HttpDataSetResponseCache cache = new HttpDataSetResponseCache();
+		cache.setMaximumWeight(0);
+		cache.init();
+
+		cache.put(new HttpResponseCacheKey("ds0", "a"), new CachedHttpResponse("etag", null, null, 1));
+
+		assertEquals(0, cache.size());
+	}
+}
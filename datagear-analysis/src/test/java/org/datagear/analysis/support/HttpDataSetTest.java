@@ -5,9 +5,11 @@
 package org.datagear.analysis.support;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.net.URLDecoder;
@@ -16,6 +18,8 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.HttpClients;
@@ -25,11 +29,15 @@ import org.apache.hc.core5.http.ContentType;
 import org.apache.hc.core5.http.Header;
 import org.apache.hc.core5.http.HttpEntity;
 import org.apache.hc.core5.http.HttpException;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.HttpStatus;
 import org.apache.hc.core5.http.impl.bootstrap.HttpServer;
 import org.apache.hc.core5.http.impl.bootstrap.ServerBootstrap;
 import org.apache.hc.core5.http.io.HttpRequestHandler;
+import org.apache.hc.core5.http.io.entity.InputStreamEntity;
 import org.apache.hc.core5.http.io.entity.StringEntity;
 import org.apache.hc.core5.http.protocol.HttpContext;
+import org.datagear.analysis.DataSetOption;
 import org.datagear.analysis.DataSetParam;
 import org.datagear.analysis.DataSetProperty;
 import org.datagear.util.IOUtil;
@@ -57,6 +65,16 @@ public class HttpDataSetTest
 
 	protected static CloseableHttpClient httpClient;
 
+	protected static final String ETAG = "\"v1\"";
+
+	protected static final AtomicInteger eTagNotModifiedCount = new AtomicInteger(0);
+
+	protected static final String LARGE_BODY_ROW = "{name: 'aaa', value: 11},";
+
+	protected static final int LARGE_BODY_ROW_COUNT = 4 * 1024 * 1024;
+
+	protected static final AtomicLong largeBodyWrittenLength = new AtomicLong(0);
+
 	@BeforeClass
 	public static void initTestHttpServer() throws Throwable
 	{
@@ -134,6 +152,39 @@ public class HttpDataSetTest
 					}
 				})
 				//
+				.register("/testLargeBody", new HttpRequestHandler()
+				{
+					@Override
+					public void handle(ClassicHttpRequest request, ClassicHttpResponse response, HttpContext context)
+							throws HttpException, IOException
+					{
+						LargeBodyInputStream in = new LargeBodyInputStream();
+						response.setEntity(new InputStreamEntity(in, in.getLength(), ContentType.APPLICATION_JSON));
+					}
+				})
+				//
+				.register("/testETag", new HttpRequestHandler()
+				{
+					@Override
+					public void handle(ClassicHttpRequest request, ClassicHttpResponse response, HttpContext context)
+							throws HttpException, IOException
+					{
+						Header ifNoneMatch = request.getFirstHeader(HttpHeaders.IF_NONE_MATCH);
+
+						if (ifNoneMatch != null && ETAG.equals(ifNoneMatch.getValue()))
+						{
+							eTagNotModifiedCount.incrementAndGet();
+							response.setCode(HttpStatus.SC_NOT_MODIFIED);
+						}
+						else
+						{
+							response.setHeader(HttpHeaders.ETAG, ETAG);
+							response.setEntity(new StringEntity("[{name: 'aaa', value: 11}]",
+									ContentType.APPLICATION_JSON));
+						}
+					}
+				})
+				//
 				.create();
 
 		server.start();
@@ -466,6 +517,119 @@ public class HttpDataSetTest
 		}
 	}
 
+	@Test
+	public void resolveTest_responseCache() throws Throwable
+	{
+		HttpDataSetResponseCache responseCache = new HttpDataSetResponseCache();
+		responseCache.init();
+
+		HttpDataSet dataSet = new HttpDataSet(HttpDataSet.class.getName(), HttpDataSet.class.getName(), httpClient,
+				SERVER + "/testETag");
+		dataSet.setCacheResponse(true);
+		dataSet.setResponseCache(responseCache);
+
+		eTagNotModifiedCount.set(0);
+
+		TemplateResolvedDataSetResult result0 = dataSet.resolve(Collections.emptyMap(), null);
+		TemplateResolvedDataSetResult result1 = dataSet.resolve(Collections.emptyMap(), null);
+
+		assertEquals(1, eTagNotModifiedCount.get());
+		assertEquals(1, responseCache.size());
+		assertSame(result0.getResult(), result1.getResult());
+
+		@SuppressWarnings("unchecked")
+		List<Map<String, Object>> data = (List<Map<String, Object>>) result1.getResult().getData();
+		assertEquals(1, data.size());
+		assertEquals("aaa", data.get(0).get("name"));
+
+		responseCache.invalidate(dataSet.getId());
+		assertEquals(0, responseCache.size());
+	}
+
+	@Test
+	public void resolveTest_responseCache_notCacheResponse() throws Throwable
+	{
+		HttpDataSetResponseCache responseCache = new HttpDataSetResponseCache();
+		responseCache.init();
+
+		HttpDataSet dataSet = new HttpDataSet(HttpDataSet.class.getName(), HttpDataSet.class.getName(), httpClient,
+				SERVER + "/testETag");
+		dataSet.setResponseCache(responseCache);
+
+		eTagNotModifiedCount.set(0);
+
+		dataSet.resolve(Collections.emptyMap(), null);
+		dataSet.resolve(Collections.emptyMap(), null);
+
+		assertEquals(0, eTagNotModifiedCount.get());
+		assertEquals(0, responseCache.size());
+	}
+
+	@Test
+	public void resolveTest_responseCache_maxEntryWeight() throws Throwable
+	{
+		HttpDataSetResponseCache responseCache = new HttpDataSetResponseCache();
+		responseCache.setMaxEntryWeight(10);
+		responseCache.init();
+
+		HttpDataSet dataSet = new HttpDataSet(HttpDataSet.class.getName(), HttpDataSet.class.getName(), httpClient,
+				SERVER + "/testETag");
+		dataSet.setCacheResponse(true);
+		dataSet.setResponseCache(responseCache);
+
+		eTagNotModifiedCount.set(0);
+
+		dataSet.resolve(Collections.emptyMap(), null);
+		dataSet.resolve(Collections.emptyMap(), null);
+
+		assertEquals(0, eTagNotModifiedCount.get());
+		assertEquals(0, responseCache.size());
+	}
+
+	@Test
+	public void resolveTest_largeBody_resultDataMaxCount() throws Throwable
+	{
+		HttpDataSet dataSet = new HttpDataSet(HttpDataSet.class.getName(), HttpDataSet.class.getName(), httpClient,
+				SERVER + "/testLargeBody");
+		dataSet.setResponseDataJsonPath("data");
+
+		DataSetOption dataSetOption = new DataSetOption();
+		dataSetOption.setResultDataMaxCount(10);
+
+		largeBodyWrittenLength.set(0);
+		long totalLength = new LargeBodyInputStream().getLength();
+
+		TemplateResolvedDataSetResult result = dataSet.resolve(Collections.emptyMap(), dataSetOption);
+
+		@SuppressWarnings("unchecked")
+		List<Map<String, Object>> data = (List<Map<String, Object>>) result.getResult().getData();
+		assertEquals(10, data.size());
+
+		// 提前结束读取时应中止请求，而不是读完剩余的响应内容
+		assertTrue(largeBodyWrittenLength.get() < totalLength / 4);
+	}
+
+	@Test
+	public void resolveTest_resultDataMaxCount_properties() throws Throwable
+	{
+		HttpDataSet dataSet = new HttpDataSet(HttpDataSet.class.getName(), HttpDataSet.class.getName(), httpClient,
+				SERVER + "/testSimple");
+
+		List<DataSetProperty> properties = Arrays.asList(new DataSetProperty("name", DataSetProperty.DataType.STRING),
+				new DataSetProperty("value", DataSetProperty.DataType.NUMBER));
+
+		DataSetOption dataSetOption = new DataSetOption();
+		dataSetOption.setResultDataMaxCount(1);
+
+		TemplateResolvedDataSetResult result = dataSet.resolveResult(Collections.emptyMap(), properties,
+				dataSetOption);
+
+		@SuppressWarnings("unchecked")
+		List<Map<String, Object>> data = (List<Map<String, Object>>) result.getResult().getData();
+		assertEquals(1, data.size());
+		assertEquals("aaa", data.get(0).get("name"));
+	}
+
 	protected static Map<String, String> parseRequestParams(ClassicHttpRequest request) throws IOException
 	{
 		Map<String, String> map = new HashMap<>();
@@ -493,4 +657,52 @@ public class HttpDataSetTest
 
 		return content;
 	}
+
+	/**
+	 * 按需生成的大JSON响应内容：<code>{data: [{...}, {...}, ...]}</code>，并记录已输出的字节数。
+	 */
+	protected static class LargeBodyInputStream extends InputStream
+	{
+		private static final byte[] HEAD = "{data: [".getBytes();
+
+		private static final byte[] ROW = LARGE_BODY_ROW.getBytes();
+
+		private static final byte[] TAIL = "{name: 'aaa', value: 11}]}".getBytes();
+
+		private final long length = HEAD.length + (long) ROW.length * LARGE_BODY_ROW_COUNT + TAIL.length;
+
+		private long position = 0;
+
+		public LargeBodyInputStream()
+		{
+			super();
+		}
+
+		public long getLength()
+		{
+			return length;
+		}
+
+		@Override
+		public int read() throws IOException
+		{
+			if (this.position >= this.length)
+				return -1;
+
+			long pos = this.position++;
+			largeBodyWrittenLength.incrementAndGet();
+
+			if (pos < HEAD.length)
+				return HEAD[(int) pos];
+
+			pos -= HEAD.length;
+
+			if (pos < (long) ROW.length * LARGE_BODY_ROW_COUNT)
+				return ROW[(int) (pos % ROW.length)];
+
+			pos -= (long) ROW.length * LARGE_BODY_ROW_COUNT;
+
+			return TAIL[(int) pos];
+		}
+	}
 }
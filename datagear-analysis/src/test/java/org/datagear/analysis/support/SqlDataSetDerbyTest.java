@@ -0,0 +1,273 @@
+/*
+ * Copyright (c) 2018 datagear.tech. All Rights Reserved.
+ */
+
+package org.datagear.analysis.support;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.datagear.analysis.ColumnarDataSetResult;
+import org.datagear.analysis.DataSetOption;
+import org.datagear.analysis.DataSetResult;
+import org.datagear.util.JdbcSupport;
+import org.datagear.util.JdbcUtil;
+import org.datagear.util.QueryResultSet;
+import org.datagear.util.Sql;
+import org.datagear.util.resource.SimpleConnectionFactory;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * 基于内存<code>Derby</code>数据库的{@linkplain SqlDataSet}单元测试类。
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class SqlDataSetDerbyTest
+{
+	private static final String URL = "jdbc:derby:memory:sqlDataSetDerbyTest";
+
+	private Connection connection;
+
+	@BeforeClass
+	public static void initDatabase() throws Exception
+	{
+		Connection cn = DriverManager.getConnection(URL + ";create=true");
+		Statement st = null;
+
+		try
+		{
+			st = cn.createStatement();
+			st.executeUpdate("CREATE TABLE T_ROW (ID INTEGER, NAME VARCHAR(20), RATE DOUBLE)");
+			st.executeUpdate("INSERT INTO T_ROW VALUES (1, 'aaa', 1.5)");
+			st.executeUpdate("INSERT INTO T_ROW VALUES (2, NULL, 2.5)");
+			st.executeUpdate("INSERT INTO T_ROW VALUES (3, 'ccc', NULL)");
+		}
+		finally
+		{
+			JdbcUtil.closeStatement(st);
+			JdbcUtil.closeConnection(cn);
+		}
+	}
+
+	@AfterClass
+	public static void dropDatabase()
+	{
+		try
+		{
+			DriverManager.getConnection(URL + ";drop=true");
+		}
+		catch (SQLException e)
+		{
+			// 删除内存数据库总是抛出异常
+		}
+	}
+
+	@Before
+	public void openConnection() throws Exception
+	{
+		this.connection = DriverManager.getConnection(URL);
+	}
+
+	@After
+	public void closeConnection()
+	{
+		JdbcUtil.closeConnection(this.connection);
+	}
+
+	@Test
+	public void resolveTest_columnarResult()
+	{
+		SqlDataSet dataSet = new SqlDataSet("columnar", "columnar",
+				new SimpleConnectionFactory(this.connection, false), "SELECT ID, NAME, RATE FROM T_ROW ORDER BY ID");
+
+		DataSetOption dataSetOption = new DataSetOption();
+		dataSetOption.setColumnarResult(true);
+
+		DataSetResult result = dataSet.resolve(Collections.emptyMap(), dataSetOption).getResult();
+
+		assertTrue(result instanceof ColumnarDataSetResult);
+
+		ColumnarDataSetResult columnarResult = (ColumnarDataSetResult) result;
+
+		assertEquals(Arrays.asList("ID", "NAME", "RATE"), columnarResult.getNames());
+		assertEquals(3, columnarResult.getRowCount());
+		assertArrayEquals(new long[] { 1, 2, 3 }, (long[]) columnarResult.getColumns()[0]);
+		assertArrayEquals(new Object[] { "aaa", null, "ccc" }, (Object[]) columnarResult.getColumns()[1]);
+
+		// 与行式结果转换的列式结果一致
+		DataSetResult rowResult = dataSet.resolve(Collections.emptyMap(), null).getResult();
+		assertEquals(ColumnarDataSetResult.valueOf(rowResult).toRows(), columnarResult.toRows());
+
+		@SuppressWarnings("unchecked")
+		List<Map<String, Object>> rows = (List<Map<String, Object>>) columnarResult.getData();
+		assertTrue(rows.get(1).containsKey("NAME"));
+		assertNull(rows.get(1).get("NAME"));
+		assertNull(rows.get(2).get("RATE"));
+	}
+
+	@Test
+	public void resolveTest_columnarResult_resultDataMaxCount()
+	{
+		SqlDataSet dataSet = new SqlDataSet("columnarMaxCount", "columnarMaxCount",
+				new SimpleConnectionFactory(this.connection, false), "SELECT ID, NAME FROM T_ROW ORDER BY ID");
+
+		DataSetOption dataSetOption = new DataSetOption();
+		dataSetOption.setColumnarResult(true);
+		dataSetOption.setResultDataMaxCount(2);
+
+		ColumnarDataSetResult result = (ColumnarDataSetResult) dataSet.resolve(Collections.emptyMap(), dataSetOption)
+				.getResult();
+
+		assertEquals(2, result.getRowCount());
+		assertArrayEquals(new long[] { 1, 2 }, (long[]) result.getColumns()[0]);
+	}
+
+	@Test
+	public void resolveTest_maxRowsQuerySql()
+	{
+		List<String> resolvedSqls = new ArrayList<>();
+
+		SqlDataSet dataSet = new SqlDataSet("maxRowsQuerySql", "maxRowsQuerySql",
+				new SimpleConnectionFactory(this.connection, false), "SELECT ID, NAME FROM T_ROW ORDER BY ID");
+		dataSet.setMaxRowsQuerySqlResolver((cn, query, maxRows) ->
+		{
+			Sql sql = Sql.valueOf("SELECT * FROM (" + query.getSqlValue() + ") T OFFSET 0 ROWS FETCH FIRST "
+					+ maxRows + " ROWS ONLY");
+			resolvedSqls.add(sql.getSqlValue());
+			return sql;
+		});
+
+		List<?> data = resolveRows(dataSet, 2);
+
+		assertEquals(1, resolvedSqls.size());
+		assertTrue(resolvedSqls.get(0).endsWith("FETCH FIRST 3 ROWS ONLY"));
+		assertEquals(2, data.size());
+	}
+
+	@Test
+	public void resolveTest_maxRowsQuerySql_fallback()
+	{
+		SqlDataSet dataSet = new SqlDataSet("maxRowsQuerySqlFallback", "maxRowsQuerySqlFallback",
+				new SimpleConnectionFactory(this.connection, false), "SELECT ID, NAME FROM T_ROW ORDER BY ID");
+		dataSet.setMaxRowsQuerySqlResolver((cn, query, maxRows) -> Sql.valueOf("SELECT * FROM T_NOT_EXISTS"));
+
+		List<?> data = resolveRows(dataSet, 2);
+
+		assertEquals(2, data.size());
+	}
+
+	@Test
+	public void resolveTest_maxRowsQuerySql_fallbackInTransaction() throws Exception
+	{
+		this.connection.setAutoCommit(false);
+
+		Statement st = null;
+
+		try
+		{
+			st = this.connection.createStatement();
+			st.executeUpdate("INSERT INTO T_ROW VALUES (4, 'ddd', 4.5)");
+
+			SqlDataSet dataSet = new SqlDataSet("maxRowsQuerySqlTx", "maxRowsQuerySqlTx",
+					new SimpleConnectionFactory(this.connection, false), "SELECT ID, NAME FROM T_ROW ORDER BY ID");
+			dataSet.setMaxRowsQuerySqlResolver((cn, query, maxRows) -> Sql.valueOf("SELECT * FROM T_NOT_EXISTS"));
+
+			List<?> data = resolveRows(dataSet, 10);
+
+			// 仅回滚至保存点，事务中之前的修改仍然可见
+			assertEquals(4, data.size());
+		}
+		finally
+		{
+			JdbcUtil.closeStatement(st);
+			this.connection.rollback();
+			this.connection.setAutoCommit(true);
+		}
+	}
+
+	@Test
+	public void resolveTest_maxRowsQuerySql_timeout()
+	{
+		String timeoutSql = "SELECT ID, NAME FROM T_ROW WHERE 1 = 1";
+		List<String> executedSqls = new ArrayList<>();
+
+		JdbcSupport jdbcSupport = new JdbcSupport()
+		{
+			@Override
+			public QueryResultSet executeMaxRowsQuery(Connection cn, Sql sql, int resultSetType, int maxRows)
+					throws SQLException
+			{
+				executedSqls.add(sql.getSqlValue());
+
+				if (timeoutSql.equals(sql.getSqlValue()))
+					throw new SQLTimeoutException("timeout");
+
+				return super.executeMaxRowsQuery(cn, sql, resultSetType, maxRows);
+			}
+		};
+
+		SqlDataSet dataSet = new SqlDataSet("maxRowsQuerySqlTimeout", "maxRowsQuerySqlTimeout",
+				new SimpleConnectionFactory(this.connection, false), "SELECT ID, NAME FROM T_ROW ORDER BY ID")
+		{
+			@Override
+			protected JdbcSupport getJdbcSupport()
+			{
+				return jdbcSupport;
+			}
+		};
+		dataSet.setMaxRowsQuerySqlResolver((cn, query, maxRows) -> Sql.valueOf(timeoutSql));
+
+		try
+		{
+			resolveRows(dataSet, 2);
+			fail();
+		}
+		catch (SqlDataSetSqlExecutionException e)
+		{
+			assertTrue(e.getCause() instanceof SQLTimeoutException);
+		}
+
+		// 超时不应降级执行原SQL
+		assertEquals(Arrays.asList(timeoutSql), executedSqls);
+	}
+
+	@Test
+	public void isMaxRowsQueryFallbackableTest()
+	{
+		SqlDataSet dataSet = new SqlDataSet();
+
+		assertTrue(dataSet.isMaxRowsQueryFallbackable(new SQLException("syntax error", "42X01")));
+		assertFalse(dataSet.isMaxRowsQueryFallbackable(new SQLTimeoutException("timeout")));
+		assertFalse(dataSet.isMaxRowsQueryFallbackable(new SQLException("canceled", "57014")));
+		assertFalse(dataSet.isMaxRowsQueryFallbackable(new SQLException("canceled", "HY008")));
+		assertFalse(dataSet.isMaxRowsQueryFallbackable(new SQLException("connection closed", "08003")));
+	}
+
+	protected List<?> resolveRows(SqlDataSet dataSet, int resultDataMaxCount)
+	{
+		DataSetOption dataSetOption = new DataSetOption();
+		dataSetOption.setResultDataMaxCount(resultDataMaxCount);
+
+		return (List<?>) dataSet.resolve(Collections.emptyMap(), dataSetOption).getResult().getData();
+	}
+}
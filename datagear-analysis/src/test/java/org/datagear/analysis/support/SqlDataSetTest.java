@@ -9,6 +9,7 @@ package org.datagear.analysis.support;
 
 import java.sql.Connection;
 import java.sql.Statement;
+import java.sql.Types;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
@@ -18,6 +19,8 @@ import org.datagear.analysis.DataSetParam;
 import org.datagear.analysis.DataSetProperty;
 import org.datagear.analysis.DataSetResult;
 import org.datagear.util.JdbcUtil;
+import org.datagear.util.Sql;
+import org.datagear.util.SqlParamValue;
 import org.datagear.util.resource.SimpleConnectionFactory;
 import org.datagear.util.test.DBTestSupport;
 import org.junit.Assert;
@@ -112,4 +115,71 @@ public class SqlDataSetTest extends DBTestSupport
 			JdbcUtil.closeConnection(cn);
 		}
 	}
+
+	@Test
+	public void resolveBindSqlTest()
+	{
+		String sql = "SELECT * FROM T_ACCOUNT WHERE ID = ${id} AND NAME = '${name}' AND NAME LIKE '%${name}%'"
+				+ "<#if enabled> AND 1 = 1</#if> ORDER BY ${ orderColumn }";
+
+		List<DataSetParam> dataSetParams = Arrays.asList(new DataSetParam("id", DataSetParam.DataType.NUMBER, true),
+				new DataSetParam("name", DataSetParam.DataType.STRING, true),
+				new DataSetParam("enabled", DataSetParam.DataType.BOOLEAN, true),
+				new DataSetParam("orderColumn", DataSetParam.DataType.STRING, true));
+
+		SqlDataSet sqlDataSet = new SqlDataSet("1", "1", null, sql);
+		sqlDataSet.setParams(dataSetParams);
+		sqlDataSet.setBindParam(true);
+
+		Map<String, Object> dataSetParamValues = new HashMap<>();
+		dataSetParamValues.put("id", 3);
+		dataSetParamValues.put("name", "abc");
+		dataSetParamValues.put("enabled", true);
+		dataSetParamValues.put("orderColumn", "NAME");
+
+		Sql sqlObj = sqlDataSet.resolveBindSql(dataSetParamValues);
+
+		Assert.assertEquals(
+				"SELECT * FROM T_ACCOUNT WHERE ID = ? AND NAME = ? AND NAME LIKE '%abc%' AND 1 = 1 ORDER BY NAME",
+				sqlObj.getSqlValue());
+
+		List<SqlParamValue> sqlParamValues = sqlObj.getParamValues();
+
+		Assert.assertEquals(2, sqlParamValues.size());
+		Assert.assertEquals(3L, sqlParamValues.get(0).getValue());
+		Assert.assertEquals(Types.BIGINT, sqlParamValues.get(0).getType());
+		Assert.assertEquals("abc", sqlParamValues.get(1).getValue());
+		Assert.assertEquals(Types.VARCHAR, sqlParamValues.get(1).getType());
+	}
+
+	@Test
+	public void resolveBindSqlTest_inlineValueNotBound()
+	{
+		String sql = "SELECT * FROM T_ACCOUNT WHERE ID = ${id} AND NAME LIKE '%${name}%'"
+				+ "<#assign cond>ID > ${id}</#assign> AND ${cond}";
+
+		List<DataSetParam> dataSetParams = Arrays.asList(new DataSetParam("id", DataSetParam.DataType.NUMBER, true),
+				new DataSetParam("name", DataSetParam.DataType.STRING, true));
+
+		SqlDataSet sqlDataSet = new SqlDataSet("1", "1", null, sql);
+		sqlDataSet.setParams(dataSetParams);
+		sqlDataSet.setBindParam(true);
+
+		// 直接插入的参数值文本不应被当作绑定点
+		String name = "\u00010\u0001<@" + SqlDataSet.BIND_PARAM_DIRECTIVE + " index=0 />";
+
+		Map<String, Object> dataSetParamValues = new HashMap<>();
+		dataSetParamValues.put("id", 3);
+		dataSetParamValues.put("name", name);
+
+		Sql sqlObj = sqlDataSet.resolveBindSql(dataSetParamValues);
+
+		Assert.assertEquals("SELECT * FROM T_ACCOUNT WHERE ID = ? AND NAME LIKE '%" + name + "%' AND ID > 3",
+				sqlObj.getSqlValue());
+
+		List<SqlParamValue> sqlParamValues = sqlObj.getParamValues();
+
+		Assert.assertEquals(1, sqlParamValues.size());
+		Assert.assertEquals(3L, sqlParamValues.get(0).getValue());
+	}
 }
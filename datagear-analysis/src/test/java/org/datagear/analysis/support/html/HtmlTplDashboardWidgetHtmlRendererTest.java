@@ -7,7 +7,9 @@
  */
 package org.datagear.analysis.support.html;
 
+import java.io.File;
 import java.io.StringWriter;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -20,8 +22,10 @@ import org.datagear.analysis.support.SimpleChartWidgetSource;
 import org.datagear.analysis.support.SimpleDashboardThemeSource;
 import org.datagear.analysis.support.html.HtmlTplDashboardRenderAttr.WebContext;
 import org.datagear.analysis.support.html.HtmlTplDashboardWidgetHtmlRenderer.ChartInfo;
+import org.datagear.analysis.support.html.HtmlTplDashboardWidgetHtmlRenderer.CompiledHtmlTpl;
 import org.datagear.analysis.support.html.HtmlTplDashboardWidgetHtmlRenderer.DashboardInfo;
 import org.datagear.analysis.support.html.HtmlTplDashboardWidgetRenderer.AddPrefixHtmlTitleHandler;
+import org.datagear.util.FileUtil;
 import org.datagear.util.IOUtil;
 import org.junit.Assert;
 import org.junit.Test;
@@ -337,6 +341,97 @@ public class HtmlTplDashboardWidgetHtmlRendererTest
 		}
 	}
 
+	@Test
+	public void getCompiledHtmlTplTest() throws Exception
+	{
+		File root = FileUtil.getDirectory("target/HtmlTplDashboardWidgetHtmlRendererTest/getCompiledHtmlTplTest/",
+				true);
+		File templateFile = FileUtil.getFile(FileUtil.getDirectory(root, "widget01", true), "index.html");
+
+		HtmlChartWidget htmlChartWidget = new HtmlChartWidget("chart-widget-01", "chart-widget-01",
+				ChartDefinition.EMPTY_CHART_DATA_SET, HtmlChartPluginTest.createHtmlChartPlugin());
+
+		HtmlTplDashboardWidgetHtmlRenderer renderer = new HtmlTplDashboardWidgetHtmlRenderer(
+				new FileTemplateDashboardWidgetResManager(root), new SimpleChartWidgetSource(htmlChartWidget));
+
+		HtmlTplDashboardWidget dashboardWidget = new HtmlTplDashboardWidget("widget01", "index.html", renderer);
+
+		// 缓存命中
+		{
+			writeTemplate(templateFile, "<html><head><title>v1</title></head><body>"
+					+ "<div dg-chart-widget=\"chart-widget-01\"></div></body></html>");
+			templateFile.setLastModified(1000000000000L);
+
+			CompiledHtmlTpl compiledHtmlTpl0 = renderer.getCompiledHtmlTpl(dashboardWidget, "index.html");
+			CompiledHtmlTpl compiledHtmlTpl1 = renderer.getCompiledHtmlTpl(dashboardWidget, "index.html");
+
+			Assert.assertSame(compiledHtmlTpl0, compiledHtmlTpl1);
+
+			String html = renderWithCompiledHtmlTpl(dashboardWidget);
+
+			Assert.assertTrue(html.contains("<title>v1</title>"));
+			Assert.assertEquals(1, renderer.getCompiledHtmlTpl(dashboardWidget, "index.html").getDashboardInfo()
+					.getChartInfos().size());
+		}
+
+		// 模板修改后重新编译
+		{
+			CompiledHtmlTpl compiledHtmlTpl0 = renderer.getCompiledHtmlTpl(dashboardWidget, "index.html");
+
+			writeTemplate(templateFile, "<html><head><title>v2</title></head><body>"
+					+ "<div dg-chart-widget=\"chart-widget-01\"></div><div dg-chart-widget=\"chart-widget-01\"></div>"
+					+ "</body></html>");
+			templateFile.setLastModified(1000000001000L);
+
+			CompiledHtmlTpl compiledHtmlTpl1 = renderer.getCompiledHtmlTpl(dashboardWidget, "index.html");
+
+			Assert.assertNotSame(compiledHtmlTpl0, compiledHtmlTpl1);
+			Assert.assertSame(compiledHtmlTpl1, renderer.getCompiledHtmlTpl(dashboardWidget, "index.html"));
+			Assert.assertEquals(2, compiledHtmlTpl1.getDashboardInfo().getChartInfos().size());
+
+			String html = renderWithCompiledHtmlTpl(dashboardWidget);
+
+			Assert.assertTrue(html.contains("<title>v2</title>"));
+			Assert.assertFalse(html.contains("<title>v1</title>"));
+		}
+
+		// 不缓存
+		{
+			renderer.setCompiledHtmlTplCacheMaximumSize(0);
+
+			CompiledHtmlTpl compiledHtmlTpl0 = renderer.getCompiledHtmlTpl(dashboardWidget, "index.html");
+			CompiledHtmlTpl compiledHtmlTpl1 = renderer.getCompiledHtmlTpl(dashboardWidget, "index.html");
+
+			Assert.assertNotSame(compiledHtmlTpl0, compiledHtmlTpl1);
+		}
+	}
+
+	protected void writeTemplate(File file, String template) throws Exception
+	{
+		Writer writer = IOUtil.getWriter(file, "UTF-8");
+
+		try
+		{
+			writer.write(template);
+		}
+		finally
+		{
+			IOUtil.close(writer);
+		}
+	}
+
+	protected String renderWithCompiledHtmlTpl(HtmlTplDashboardWidget dashboardWidget) throws Exception
+	{
+		RenderContext renderContext = new DefaultRenderContext();
+		HtmlTplDashboardRenderAttr renderAttr = new HtmlTplDashboardRenderAttr();
+		StringWriter out = new StringWriter();
+		renderAttr.inflate(renderContext, out, new WebContext("", "", ""), SimpleDashboardThemeSource.THEME_LIGHT);
+
+		dashboardWidget.render(renderContext);
+
+		return getHtmlWithPrint(out);
+	}
+
 	protected HtmlTplDashboardWidget createHtmlTplDashboardWidget()
 	{
 		HtmlTplDashboardWidget dashboardWidget = new HtmlTplDashboardWidget("widget01", "index.html", this.renderer);
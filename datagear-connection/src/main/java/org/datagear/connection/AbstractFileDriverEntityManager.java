@@ -17,6 +17,7 @@ import java.io.Writer;
 import java.sql.Driver;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -50,7 +51,16 @@ public abstract class AbstractFileDriverEntityManager implements DriverEntityMan
 
 	private String driverEntityFileEncoding = DEFAULT_DRIVER_ENTITY_FILE_ENCODING;
 
-	private transient Map<String, PathDriverFactoryInfo> pathDriverFactoryInfoMap = new HashMap<String, PathDriverFactoryInfo>();
+	/** 检查驱动程序库目录是否被外部修改的最小间隔毫秒数，通过此类修改驱动程序库时总是立即生效 */
+	private long libraryModificationCheckInterval = 5000;
+
+	/**
+	 * {@linkplain PathDriverFactoryInfo}映射表的不可变快照，变更时整体替换，使得获取已加载的驱动程序不需要加锁
+	 */
+	private transient volatile Map<String, PathDriverFactoryInfo> pathDriverFactoryInfoMap = Collections.emptyMap();
+
+	/** 变更{@linkplain #pathDriverFactoryInfoMap}时使用的锁 */
+	private transient final Object pathDriverFactoryLock = new Object();
 
 	private transient List<DriverEntity> driverEntities = null;
 
@@ -105,6 +115,16 @@ public abstract class AbstractFileDriverEntityManager implements DriverEntityMan
 		this.driverEntityFileEncoding = driverEntityFileEncoding;
 	}
 
+	public long getLibraryModificationCheckInterval()
+	{
+		return libraryModificationCheckInterval;
+	}
+
+	public void setLibraryModificationCheckInterval(long libraryModificationCheckInterval)
+	{
+		this.libraryModificationCheckInterval = libraryModificationCheckInterval;
+	}
+
 	public File getDriverEntityInfoFile()
 	{
 		return new File(this.rootDirectory, this.driverEntityInfoFileName);
@@ -191,6 +211,7 @@ public abstract class AbstractFileDriverEntityManager implements DriverEntityMan
 			removeCount += removeExists(driverEntities, ids[i]);
 
 			deleteDriverLibraryDirectory(ids[i]);
+			markPathDriverFactoryModified(ids[i]);
 		}
 
 		if (removeCount > 0)
@@ -231,6 +252,7 @@ public abstract class AbstractFileDriverEntityManager implements DriverEntityMan
 		finally
 		{
 			IOUtil.close(out);
+			markPathDriverFactoryModified(driverEntity.getId());
 		}
 	}
 
@@ -256,6 +278,8 @@ public abstract class AbstractFileDriverEntityManager implements DriverEntityMan
 			deleted[i] = FileUtil.deleteFile(file);
 		}
 
+		markPathDriverFactoryModified(driverEntity.getId());
+
 		return deleted;
 	}
 
@@ -264,7 +288,11 @@ public abstract class AbstractFileDriverEntityManager implements DriverEntityMan
 	{
 		File directory = getDriverLibraryDirectory(driverEntity.getId(), false);
 
-		return FileUtil.clearDirectory(directory);
+		boolean cleared = FileUtil.clearDirectory(directory);
+
+		markPathDriverFactoryModified(driverEntity.getId());
+
+		return cleared;
 	}
 
 	@Override
@@ -347,9 +375,17 @@ public abstract class AbstractFileDriverEntityManager implements DriverEntityMan
 	}
 
 	@Override
-	public synchronized void releaseAll()
+	public void releaseAll()
 	{
-		for (Map.Entry<String, PathDriverFactoryInfo> entry : this.pathDriverFactoryInfoMap.entrySet())
+		Map<String, PathDriverFactoryInfo> released = null;
+
+		synchronized (this.pathDriverFactoryLock)
+		{
+			released = this.pathDriverFactoryInfoMap;
+			this.pathDriverFactoryInfoMap = Collections.emptyMap();
+		}
+
+		for (Map.Entry<String, PathDriverFactoryInfo> entry : released.entrySet())
 		{
 			try
 			{
@@ -361,8 +397,6 @@ public abstract class AbstractFileDriverEntityManager implements DriverEntityMan
 					LOGGER.error("releaseAllDrivers", t);
 			}
 		}
-
-		this.pathDriverFactoryInfoMap = new HashMap<String, PathDriverFactoryInfo>();
 	}
 
 	@Override
@@ -441,6 +475,7 @@ public abstract class AbstractFileDriverEntityManager implements DriverEntityMan
 							{
 								removeExists(this.driverEntities, driverEntity.getId());
 								this.driverEntities.add(driverEntity);
+								markPathDriverFactoryModified(driverEntity.getId());
 							}
 						}
 					}
@@ -587,45 +622,73 @@ public abstract class AbstractFileDriverEntityManager implements DriverEntityMan
 	 * <p>
 	 * 此方法不会返回{@code null}。
 	 * </p>
+	 * <p>
+	 * 已创建且未被修改的{@linkplain PathDriverFactory}直接从快照中读取，不需要加锁；
+	 * 驱动程序库目录的外部修改至多每隔{@linkplain #getLibraryModificationCheckInterval()}毫秒检查一次。
+	 * </p>
 	 * 
 	 * @param driverEntity
 	 * @return
 	 * @throws PathDriverFactoryException
 	 */
-	protected synchronized PathDriverFactory getPathDriverFactoryNotNull(DriverEntity driverEntity)
+	protected PathDriverFactory getPathDriverFactoryNotNull(DriverEntity driverEntity)
 			throws PathDriverFactoryException
 	{
 		String driverEntityId = driverEntity.getId();
 
-		PathDriverFactory pathDriverFactory = null;
-
 		PathDriverFactoryInfo pathDriverFactoryInfo = this.pathDriverFactoryInfoMap.get(driverEntityId);
-		if (pathDriverFactoryInfo != null)
+		if (pathDriverFactoryInfo != null && !pathDriverFactoryInfo.isModifiedAfterCreation())
+			return pathDriverFactoryInfo.getPathDriverFactory();
+
+		synchronized (this.pathDriverFactoryLock)
 		{
-			if (pathDriverFactoryInfo.isModifiedAfterCreation())
+			PathDriverFactory pathDriverFactory = null;
+
+			pathDriverFactoryInfo = this.pathDriverFactoryInfoMap.get(driverEntityId);
+			if (pathDriverFactoryInfo != null)
 			{
-				this.pathDriverFactoryInfoMap.remove(driverEntityId);
-				pathDriverFactoryInfo.getPathDriverFactory().release();
+				if (pathDriverFactoryInfo.isModifiedAfterCreation())
+				{
+					pathDriverFactoryInfo.getPathDriverFactory().release();
 
-				if (LOGGER.isDebugEnabled())
-					LOGGER.debug(" [" + pathDriverFactory + "] has been discarded for its path modification");
+					if (LOGGER.isDebugEnabled())
+						LOGGER.debug(" [" + pathDriverFactoryInfo.getPathDriverFactory()
+								+ "] has been discarded for its path modification");
+				}
+				else
+					pathDriverFactory = pathDriverFactoryInfo.getPathDriverFactory();
 			}
-			else
-				pathDriverFactory = pathDriverFactoryInfo.getPathDriverFactory();
-		}
 
-		if (pathDriverFactory == null)
-		{
-			pathDriverFactory = createPathDriverFactory(driverEntity);
-			pathDriverFactoryInfo = new PathDriverFactoryInfo(pathDriverFactory);
+			if (pathDriverFactory == null)
+			{
+				pathDriverFactory = createPathDriverFactory(driverEntity);
+				pathDriverFactoryInfo = new PathDriverFactoryInfo(pathDriverFactory,
+						this.libraryModificationCheckInterval);
+
+				Map<String, PathDriverFactoryInfo> map = new HashMap<String, PathDriverFactoryInfo>(
+						this.pathDriverFactoryInfoMap);
+				map.put(driverEntityId, pathDriverFactoryInfo);
+				this.pathDriverFactoryInfoMap = Collections.unmodifiableMap(map);
 
-			this.pathDriverFactoryInfoMap.put(driverEntityId, pathDriverFactoryInfo);
+				if (LOGGER.isDebugEnabled())
+					LOGGER.debug(" [" + pathDriverFactory + "] is created for loading drivers.");
+			}
 
-			if (LOGGER.isDebugEnabled())
-				LOGGER.debug(" [" + pathDriverFactory + "] is created for loading drivers.");
+			return pathDriverFactory;
 		}
+	}
 
-		return pathDriverFactory;
+	/**
+	 * 标记驱动程序库已被修改，下次获取驱动程序时将重新创建{@linkplain PathDriverFactory}。
+	 * 
+	 * @param driverEntityId
+	 */
+	protected void markPathDriverFactoryModified(String driverEntityId)
+	{
+		PathDriverFactoryInfo pathDriverFactoryInfo = this.pathDriverFactoryInfoMap.get(driverEntityId);
+
+		if (pathDriverFactoryInfo != null)
+			pathDriverFactoryInfo.markModified();
 	}
 
 	/**
@@ -634,12 +697,20 @@ public abstract class AbstractFileDriverEntityManager implements DriverEntityMan
 	 * @param driverEntity
 	 * @throws PathDriverFactoryException
 	 */
-	protected synchronized void removePathDriverFactory(DriverEntity driverEntity) throws PathDriverFactoryException
+	protected void removePathDriverFactory(DriverEntity driverEntity) throws PathDriverFactoryException
 	{
-		PathDriverFactoryInfo pathDriverFactoryInfo = this.pathDriverFactoryInfoMap.remove(driverEntity.getId());
+		PathDriverFactoryInfo pathDriverFactoryInfo = null;
 
-		if (pathDriverFactoryInfo == null)
-			return;
+		synchronized (this.pathDriverFactoryLock)
+		{
+			if (!this.pathDriverFactoryInfoMap.containsKey(driverEntity.getId()))
+				return;
+
+			Map<String, PathDriverFactoryInfo> map = new HashMap<String, PathDriverFactoryInfo>(
+					this.pathDriverFactoryInfoMap);
+			pathDriverFactoryInfo = map.remove(driverEntity.getId());
+			this.pathDriverFactoryInfoMap = Collections.unmodifiableMap(map);
+		}
 
 		pathDriverFactoryInfo.getPathDriverFactory().release();
 	}
@@ -976,12 +1047,21 @@ public abstract class AbstractFileDriverEntityManager implements DriverEntityMan
 
 		private final long lastModifiedOnCreation;
 
-		public PathDriverFactoryInfo(PathDriverFactory pathDriverFactory)
+		/** 检查路径是否被修改的最小间隔毫秒数 */
+		private final long checkInterval;
+
+		private volatile long nextCheckTime;
+
+		private volatile boolean modified = false;
+
+		public PathDriverFactoryInfo(PathDriverFactory pathDriverFactory, long checkInterval)
 		{
 			super();
 
 			this.pathDriverFactory = pathDriverFactory;
 			this.lastModifiedOnCreation = this.pathDriverFactory.getPathLastModified();
+			this.checkInterval = checkInterval;
+			this.nextCheckTime = System.currentTimeMillis() + checkInterval;
 		}
 
 		public PathDriverFactory getPathDriverFactory()
@@ -994,9 +1074,38 @@ public abstract class AbstractFileDriverEntityManager implements DriverEntityMan
 			return lastModifiedOnCreation;
 		}
 
+		/**
+		 * 是否在创建后被修改。
+		 * <p>
+		 * 距上次检查未超过检查间隔时，不会读取路径的修改时间。
+		 * </p>
+		 * 
+		 * @return
+		 */
 		public boolean isModifiedAfterCreation()
 		{
-			return this.pathDriverFactory.getPathLastModified() > this.lastModifiedOnCreation;
+			if (this.modified)
+				return true;
+
+			long now = System.currentTimeMillis();
+
+			if (now < this.nextCheckTime)
+				return false;
+
+			this.nextCheckTime = now + this.checkInterval;
+
+			if (this.pathDriverFactory.getPathLastModified() > this.lastModifiedOnCreation)
+				this.modified = true;
+
+			return this.modified;
+		}
+
+		/**
+		 * 标记为已修改。
+		 */
+		public void markModified()
+		{
+			this.modified = true;
 		}
 	}
 }
@@ -42,4 +42,35 @@ public interface ConnectionSource
 	 */
 	Connection getConnection(ConnectionOption connectionOption)
 			throws UnsupportedGetConnectionException, ConnectionSourceException;
+
+	/**
+	 * 获取指定{@linkplain DriverEntity}的独立{@linkplain Connection}。
+	 * <p>
+	 * 与{@linkplain #getConnection(DriverEntity, ConnectionOption)}不同，返回的连接不占用内部连接池，
+	 * 适用于需要长时间持有的连接，关闭它将直接关闭物理连接。
+	 * </p>
+	 * 
+	 * @param driverEntity
+	 * @param connectionOption
+	 * @return
+	 * @throws ConnectionSourceException
+	 */
+	Connection getDedicatedConnection(DriverEntity driverEntity, ConnectionOption connectionOption)
+			throws ConnectionSourceException;
+
+	/**
+	 * 获取独立{@linkplain Connection}。
+	 * <p>
+	 * 与{@linkplain #getConnection(ConnectionOption)}不同，返回的连接不占用内部连接池，
+	 * 适用于需要长时间持有的连接，关闭它将直接关闭物理连接。
+	 * </p>
+	 * 
+	 * @param connectionOption
+	 * @return
+	 * @throws UnsupportedGetConnectionException
+	 *             获取不到任何合适的{@linkplain Connection}时。
+	 * @throws ConnectionSourceException
+	 */
+	Connection getDedicatedConnection(ConnectionOption connectionOption)
+			throws UnsupportedGetConnectionException, ConnectionSourceException;
 }
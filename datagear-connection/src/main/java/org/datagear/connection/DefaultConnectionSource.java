@@ -53,6 +53,12 @@ public class DefaultConnectionSource implements ConnectionSource
 
 	private PropertiesProcessor propertiesProcessor = null;
 
+	/** 内置数据源是否缓存预编译语句 */
+	private boolean poolPreparedStatements = false;
+
+	/** 内置数据源每个连接最多缓存的预编译语句数，小于等于0表示不限 */
+	private int maxOpenPreparedStatements = 50;
+
 	private Cache<ConnectionIdentity, InternalDataSourceHolder> internalDataSourceCache;
 
 	private ConcurrentMap<String, PreferedDriverEntityResult> _urlPreferedDriverEntityMap = new ConcurrentHashMap<>();
@@ -103,6 +109,34 @@ public class DefaultConnectionSource implements ConnectionSource
 		this.propertiesProcessor = propertiesProcessor;
 	}
 
+	public boolean isPoolPreparedStatements()
+	{
+		return poolPreparedStatements;
+	}
+
+	/**
+	 * 设置内置数据源是否缓存预编译语句。
+	 * <p>
+	 * 开启后，同一连接上相同SQL语句的{@linkplain java.sql.PreparedStatement}将被复用，避免数据库重复解析。
+	 * </p>
+	 * 
+	 * @param poolPreparedStatements
+	 */
+	public void setPoolPreparedStatements(boolean poolPreparedStatements)
+	{
+		this.poolPreparedStatements = poolPreparedStatements;
+	}
+
+	public int getMaxOpenPreparedStatements()
+	{
+		return maxOpenPreparedStatements;
+	}
+
+	public void setMaxOpenPreparedStatements(int maxOpenPreparedStatements)
+	{
+		this.maxOpenPreparedStatements = maxOpenPreparedStatements;
+	}
+
 	protected Cache<ConnectionIdentity, InternalDataSourceHolder> getInternalDataSourceCache()
 	{
 		return this.internalDataSourceCache;
@@ -131,13 +165,31 @@ public class DefaultConnectionSource implements ConnectionSource
 		if (!acceptsURL(driver, connectionOption.getUrl()))
 			throw new URLNotAcceptedException(driverEntity, connectionOption.getUrl());
 
-		return getConnection(driver, connectionOption);
+		return getConnection(driver, connectionOption, false);
 	}
 
 	@Override
 	public Connection getConnection(ConnectionOption connectionOption) throws ConnectionSourceException
 	{
-		return getPreferredConnection(connectionOption);
+		return getPreferredConnection(connectionOption, false);
+	}
+
+	@Override
+	public Connection getDedicatedConnection(DriverEntity driverEntity, ConnectionOption connectionOption)
+			throws ConnectionSourceException
+	{
+		Driver driver = this.driverEntityManager.getDriver(driverEntity);
+
+		if (!acceptsURL(driver, connectionOption.getUrl()))
+			throw new URLNotAcceptedException(driverEntity, connectionOption.getUrl());
+
+		return getConnection(driver, connectionOption, true);
+	}
+
+	@Override
+	public Connection getDedicatedConnection(ConnectionOption connectionOption) throws ConnectionSourceException
+	{
+		return getPreferredConnection(connectionOption, true);
 	}
 
 	/**
@@ -152,12 +204,14 @@ public class DefaultConnectionSource implements ConnectionSource
 	 * 获取首选{@linkplain Connection}。
 	 * 
 	 * @param connectionOption
+	 * @param dedicated
+	 *            是否获取不占用内部连接池的独立连接
 	 * @return
 	 * @throws UnsupportedGetConnectionException
 	 *             当找不到时抛出此异常
 	 * @throws ConnectionSourceException
 	 */
-	protected Connection getPreferredConnection(ConnectionOption connectionOption)
+	protected Connection getPreferredConnection(ConnectionOption connectionOption, boolean dedicated)
 			throws UnsupportedGetConnectionException, ConnectionSourceException
 	{
 		if (this.driverEntityManager.getLastModified() > this._driverEntityManagerLastModified)
@@ -177,7 +231,7 @@ public class DefaultConnectionSource implements ConnectionSource
 				DriverEntity preferedDriverEntity = preferedDriverEntityResult.getDriverEntity();
 
 				Driver preferedDriver = this.driverEntityManager.getDriver(preferedDriverEntity);
-				Connection preferedConnection = getConnection(preferedDriver, connectionOption);
+				Connection preferedConnection = getConnection(preferedDriver, connectionOption, dedicated);
 
 				if (LOGGER.isDebugEnabled())
 					LOGGER.debug("Get prefered connection by cached [" + preferedDriverEntity + "] for ["
@@ -214,7 +268,7 @@ public class DefaultConnectionSource implements ConnectionSource
 
 			try
 			{
-				preferedConnection = getConnection(driverEntityDriver.getDriver(), connectionOption);
+				preferedConnection = getConnection(driverEntityDriver.getDriver(), connectionOption, dedicated);
 
 				this._urlPreferedDriverEntityMap.put(connectionOption.getUrl(),
 						new PreferedDriverEntityResult(driverEntity));
@@ -355,11 +409,13 @@ public class DefaultConnectionSource implements ConnectionSource
 	 * 
 	 * @param driver
 	 * @param connectionOption
+	 * @param dedicated
+	 *            是否获取不占用内部连接池的独立连接
 	 * @return
 	 * @throws EstablishConnectionException
 	 * @throws ConnectionSourceException
 	 */
-	protected Connection getConnection(Driver driver, ConnectionOption connectionOption)
+	protected Connection getConnection(Driver driver, ConnectionOption connectionOption, boolean dedicated)
 			throws EstablishConnectionException, ConnectionSourceException
 	{
 		Properties properties = new Properties();
@@ -371,7 +427,10 @@ public class DefaultConnectionSource implements ConnectionSource
 
 		try
 		{
-			return getConnection(driver, connectionOption.getUrl(), properties);
+			if (dedicated)
+				return getConnectionWithoutInternalDataSource(driver, connectionOption.getUrl(), properties);
+			else
+				return getConnection(driver, connectionOption.getUrl(), properties);
 		}
 		catch (SQLException | ExecutionException e)
 		{
@@ -482,6 +541,12 @@ public class DefaultConnectionSource implements ConnectionSource
 	{
 		DriverBasicDataSource re = new DriverBasicDataSource(driver, url, properties);
 
+		if (this.poolPreparedStatements)
+		{
+			re.setPoolPreparedStatements(true);
+			re.setMaxOpenPreparedStatements(this.maxOpenPreparedStatements > 0 ? this.maxOpenPreparedStatements : -1);
+		}
+
 		LOGGER.debug("Create internal data source for {}", ConnectionIdentity.valueOf(url, properties));
 
 		return re;
@@ -39,6 +39,12 @@ public class PathDriverClassLoader extends URLClassLoader
 {
 	private static final Logger LOGGER = LoggerFactory.getLogger(PathDriverClassLoader.class);
 
+	static
+	{
+		// 注册为可并行加载，使不同类名的加载不必争用同一个锁
+		ClassLoader.registerAsParallelCapable();
+	}
+
 	private static final String CLASS_FILE_SUFFIX = ".class";
 
 	private File path;
@@ -166,13 +172,40 @@ public class PathDriverClassLoader extends URLClassLoader
 	}
 
 	@Override
-	protected synchronized Class<?> loadClass(String name, boolean resolve)
-			throws ClassNotFoundException, ClassFormatError
+	protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException, ClassFormatError
 	{
 		// JDK标准库应由父类加载
 		if (isJDKStandardClassName(name))
 			return Class.forName(name, resolve, getParentClassLoader());
 
+		// 已加载的类不必加锁
+		Class<?> loaded = findLoadedClass(name);
+
+		if (loaded != null)
+		{
+			if (resolve)
+				resolveClass(loaded);
+
+			return loaded;
+		}
+
+		synchronized (getClassLoadingLock(name))
+		{
+			return loadClassInLock(name, resolve);
+		}
+	}
+
+	/**
+	 * 在{@linkplain #getClassLoadingLock(String)}锁内加载类。
+	 * 
+	 * @param name
+	 * @param resolve
+	 * @return
+	 * @throws ClassNotFoundException
+	 * @throws ClassFormatError
+	 */
+	protected Class<?> loadClassInLock(String name, boolean resolve) throws ClassNotFoundException, ClassFormatError
+	{
 		// -拷贝自java.net.URLClassLoader.FactoryURLClassLoader
 		SecurityManager sm = System.getSecurityManager();
 		if (sm != null)
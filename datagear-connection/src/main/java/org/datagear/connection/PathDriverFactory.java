@@ -8,6 +8,8 @@ import java.io.File;
 import java.lang.reflect.InvocationTargetException;
 import java.sql.Driver;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,6 +19,9 @@ import org.slf4j.LoggerFactory;
  * <p>
  * 此类实例在使用前需要调用其{@linkplain #init()}方法，在弃用前，需要调用其{@linkplain #release()}方法。
  * </p>
+ * <p>
+ * {@linkplain #getDriver(String)}不需要加锁，已获取过的驱动程序将被缓存，再次获取时没有锁争用。
+ * </p>
  * 
  * @author datagear@163.com
  *
@@ -28,9 +33,12 @@ public class PathDriverFactory
 	/** 驱动程序库路径 */
 	private File path;
 
-	private PathDriverClassLoader pathDriverClassLoader;
+	private volatile PathDriverClassLoader pathDriverClassLoader;
+
+	private volatile Object driverTool;
 
-	private Object driverTool;
+	/** 已获取的驱动程序，关键字是驱动类名 */
+	private final ConcurrentMap<String, Driver> drivers = new ConcurrentHashMap<String, Driver>();
 
 	public PathDriverFactory(String path)
 	{
@@ -92,6 +100,7 @@ public class PathDriverFactory
 		}
 		finally
 		{
+			this.drivers.clear();
 		}
 	}
 
@@ -125,7 +134,31 @@ public class PathDriverFactory
 	 * @return
 	 * @throws PathDriverFactoryException
 	 */
-	public synchronized Driver getDriver(String driverClassName) throws PathDriverFactoryException
+	public Driver getDriver(String driverClassName) throws PathDriverFactoryException
+	{
+		Driver driver = this.drivers.get(driverClassName);
+
+		if (driver == null)
+		{
+			driver = loadDriver(driverClassName);
+
+			// 并发首次加载时，应返回同一个驱动程序实例
+			Driver existing = this.drivers.putIfAbsent(driverClassName, driver);
+			if (existing != null)
+				driver = existing;
+		}
+
+		return driver;
+	}
+
+	/**
+	 * 加载指定类名的JDBC驱动程序。
+	 * 
+	 * @param driverClassName
+	 * @return
+	 * @throws PathDriverFactoryException
+	 */
+	protected Driver loadDriver(String driverClassName) throws PathDriverFactoryException
 	{
 		try
 		{
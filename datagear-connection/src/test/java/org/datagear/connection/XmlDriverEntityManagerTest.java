@@ -5,8 +5,12 @@
 package org.datagear.connection;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.io.Writer;
@@ -16,6 +20,13 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Enumeration;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
 
@@ -234,6 +245,7 @@ public class XmlDriverEntityManagerTest
 	public void getDriverTestWithDirectoryModified() throws Exception
 	{
 		XmlDriverEntityManager driverEntityManager = new XmlDriverEntityManager("src/test/resources/drivers");
+		driverEntityManager.setLibraryModificationCheckInterval(0);
 
 		try
 		{
@@ -278,6 +290,156 @@ public class XmlDriverEntityManagerTest
 		}
 	}
 
+	@Test
+	public void getDriverTestWithLibraryModificationCheckInterval() throws Exception
+	{
+		XmlDriverEntityManager driverEntityManager = new XmlDriverEntityManager("src/test/resources/drivers");
+		driverEntityManager.setLibraryModificationCheckInterval(60 * 60 * 1000);
+
+		DriverEntity driverEntity = DriverEntity.valueOf("mysql", "com.mysql.jdbc.Driver");
+		File modifiedFile = new File(driverEntityManager.getRootDirectory(), "mysql/modified.txt");
+
+		try
+		{
+			ClassLoader classLoader = driverEntityManager.getDriver(driverEntity).getClass().getClassLoader();
+
+			Writer writer = IOUtil.getWriter(modifiedFile);
+			try
+			{
+				writer.write("modified");
+			}
+			finally
+			{
+				writer.close();
+			}
+
+			// 检查间隔内不会读取目录的修改时间
+			assertSame(classLoader, driverEntityManager.getDriver(driverEntity).getClass().getClassLoader());
+
+			// 通过管理器修改驱动程序库时立即生效
+			driverEntityManager.deleteDriverLibrary(driverEntity, modifiedFile.getName());
+
+			Driver modifiedDriver = driverEntityManager.getDriver(driverEntity);
+
+			assertEquals("com.mysql.jdbc.Driver", modifiedDriver.getClass().getName());
+			assertNotSame(classLoader, modifiedDriver.getClass().getClassLoader());
+		}
+		finally
+		{
+			modifiedFile.delete();
+			driverEntityManager.releaseAll();
+		}
+	}
+
+	@Test
+	public void getDriverTestWithConcurrentFirstLoad() throws Exception
+	{
+		AtomicInteger createCount = new AtomicInteger(0);
+
+		XmlDriverEntityManager driverEntityManager = new XmlDriverEntityManager("src/test/resources/drivers")
+		{
+			@Override
+			protected PathDriverFactory createPathDriverFactory(DriverEntity driverEntity)
+					throws PathDriverFactoryException
+			{
+				createCount.incrementAndGet();
+				return super.createPathDriverFactory(driverEntity);
+			}
+		};
+
+		int threadCount = 8;
+		ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+		CyclicBarrier barrier = new CyclicBarrier(threadCount);
+
+		try
+		{
+			DriverEntity driverEntity = DriverEntity.valueOf("mysql", "com.mysql.jdbc.Driver");
+
+			List<Future<Driver>> futures = new ArrayList<Future<Driver>>();
+
+			for (int i = 0; i < threadCount; i++)
+			{
+				futures.add(executor.submit(() ->
+				{
+					barrier.await();
+					return driverEntityManager.getDriver(driverEntity);
+				}));
+			}
+
+			Driver driver = futures.get(0).get(10, TimeUnit.SECONDS);
+
+			// 并发首次加载时，仅创建一个PathDriverFactory，且都返回同一个驱动程序实例
+			for (Future<Driver> future : futures)
+				assertSame(driver, future.get(10, TimeUnit.SECONDS));
+
+			assertEquals(1, createCount.get());
+		}
+		finally
+		{
+			executor.shutdownNow();
+			driverEntityManager.releaseAll();
+		}
+	}
+
+	@Test
+	public void getDriverTestWithLoadedNotBlocked() throws Exception
+	{
+		CountDownLatch creating = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+
+		XmlDriverEntityManager driverEntityManager = new XmlDriverEntityManager("src/test/resources/drivers")
+		{
+			@Override
+			protected PathDriverFactory createPathDriverFactory(DriverEntity driverEntity)
+					throws PathDriverFactoryException
+			{
+				if ("oracle".equals(driverEntity.getId()))
+				{
+					creating.countDown();
+
+					try
+					{
+						release.await(10, TimeUnit.SECONDS);
+					}
+					catch (InterruptedException e)
+					{
+						Thread.currentThread().interrupt();
+					}
+				}
+
+				return super.createPathDriverFactory(driverEntity);
+			}
+		};
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+
+		try
+		{
+			DriverEntity mysql = DriverEntity.valueOf("mysql", "com.mysql.jdbc.Driver");
+			DriverEntity oracle = DriverEntity.valueOf("oracle", "oracle.jdbc.OracleDriver");
+
+			Driver driver = driverEntityManager.getDriver(mysql);
+
+			Future<Driver> oracleFuture = executor.submit(() -> driverEntityManager.getDriver(oracle));
+			assertTrue(creating.await(10, TimeUnit.SECONDS));
+
+			// 其他驱动程序正在加锁创建时，获取已加载的驱动程序不会被阻塞
+			Future<Driver> mysqlFuture = executor.submit(() -> driverEntityManager.getDriver(mysql));
+			assertSame(driver, mysqlFuture.get(5, TimeUnit.SECONDS));
+			assertFalse(oracleFuture.isDone());
+
+			release.countDown();
+
+			assertEquals("oracle.jdbc.OracleDriver", oracleFuture.get(10, TimeUnit.SECONDS).getClass().getName());
+		}
+		finally
+		{
+			release.countDown();
+			executor.shutdownNow();
+			driverEntityManager.releaseAll();
+		}
+	}
+
 	@Test
 	public void exportToZipTest() throws Exception
 	{
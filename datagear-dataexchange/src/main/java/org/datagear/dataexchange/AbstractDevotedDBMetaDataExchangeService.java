@@ -4,13 +4,28 @@
 
 package org.datagear.dataexchange;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigInteger;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.datagear.meta.Column;
+import org.datagear.meta.PrimaryKey;
 import org.datagear.meta.resolver.DBMetaResolver;
+import org.datagear.util.JdbcUtil;
+import org.datagear.util.QueryResultSet;
+import org.datagear.util.resource.ConnectionFactory;
+import org.datagear.util.resource.DataSourceConnectionFactory;
 
 /**
  * 抽象导入服务。
@@ -22,8 +37,23 @@ import org.datagear.meta.resolver.DBMetaResolver;
 public abstract class AbstractDevotedDBMetaDataExchangeService<T extends DataExchange>
 		extends AbstractDevotedDataExchangeService<T>
 {
+	/** 默认分区导出的最大分区数 */
+	public static final int DEFAULT_MAX_PARTITION_COUNT = 8;
+
+	/** 提前执行的分区放入{@linkplain PartitionChannel}的内容块的字符数 */
+	protected static final int PARTITION_CHUNK_SIZE = 8192;
+
+	/** {@linkplain PartitionChannel}的内容块容量 */
+	protected static final int PARTITION_CHANNEL_CAPACITY = 16;
+
 	private DBMetaResolver dbMetaResolver;
 
+	/** 执行分区导出的线程池，应由所有导出服务共享以限定总的并行数，为{@code null}表示不分区导出 */
+	private ExecutorService partitionExecutor = null;
+
+	/** 分区导出的最大分区数，{@linkplain TextDataExportOption#getPartitionCount()}超过它时将以它为准 */
+	private int maxPartitionCount = DEFAULT_MAX_PARTITION_COUNT;
+
 	public AbstractDevotedDBMetaDataExchangeService()
 	{
 		super();
@@ -45,6 +75,26 @@ public abstract class AbstractDevotedDBMetaDataExchangeService<T extends DataExc
 		this.dbMetaResolver = dbMetaResolver;
 	}
 
+	public ExecutorService getPartitionExecutor()
+	{
+		return partitionExecutor;
+	}
+
+	public void setPartitionExecutor(ExecutorService partitionExecutor)
+	{
+		this.partitionExecutor = partitionExecutor;
+	}
+
+	public int getMaxPartitionCount()
+	{
+		return maxPartitionCount;
+	}
+
+	public void setMaxPartitionCount(int maxPartitionCount)
+	{
+		this.maxPartitionCount = maxPartitionCount;
+	}
+
 	/**
 	 * 获取{@linkplain ResultSet}列信息。
 	 * 
@@ -91,4 +141,898 @@ public abstract class AbstractDevotedDBMetaDataExchangeService<T extends DataExc
 	{
 		return getColumns(cn, table, columnNames, nullIfColumnNotFound, this.dbMetaResolver);
 	}
+
+	/**
+	 * 解析表导出的分区查询。
+	 * <p>
+	 * 仅当设置了{@linkplain #getPartitionExecutor()}、{@linkplain TextDataExportOption#getPartitionCount()}大于{@code 1}、
+	 * 查询是{@linkplain TableQuery}、表有单一整数列主键、并且{@linkplain DataExchange#getConnectionFactory()}
+	 * 每次都能获取新的连接时才会分区，分区将按照主键最小值、最大值均分为不超过
+	 * {@linkplain TextDataExportOption#getPartitionCount()}、{@linkplain #getMaxPartitionCount()}个范围。
+	 * </p>
+	 * 
+	 * @param cn
+	 * @param dataExchange
+	 * @return {@code null}表示不分区
+	 * @throws Throwable
+	 */
+	protected List<RangeTableQuery> resolvePartitionQueries(Connection cn, QueryTextDataExport dataExchange)
+			throws Throwable
+	{
+		TextDataExportOption exportOption = dataExchange.getExportOption();
+		Query query = dataExchange.getQuery();
+
+		int partitionCount = (exportOption == null ? 0 : exportOption.getPartitionCount());
+		partitionCount = Math.min(partitionCount, this.maxPartitionCount);
+
+		if (this.partitionExecutor == null || partitionCount <= 1)
+			return null;
+
+		if (!(query instanceof TableQuery) || (query instanceof RangeTableQuery))
+			return null;
+
+		if (!isConnectionFactoryConcurrent(dataExchange.getConnectionFactory()))
+			return null;
+
+		String table = ((TableQuery) query).getTable();
+
+		PrimaryKey primaryKey = this.dbMetaResolver.getPrimaryKey(cn, table);
+		String[] pkColumnNames = (primaryKey == null ? null : primaryKey.getColumnNames());
+
+		if (pkColumnNames == null || pkColumnNames.length != 1)
+			return null;
+
+		Column column = findColumn(getColumns(cn, table), pkColumnNames[0]);
+
+		if (column == null || !isPartitionableColumn(column))
+			return null;
+
+		String quote = cn.getMetaData().getIdentifierQuoteString();
+		String columnName = column.getName();
+
+		Long min = null;
+		Long max = null;
+
+		Statement st = null;
+		ResultSet rs = null;
+
+		try
+		{
+			st = cn.createStatement();
+			rs = st.executeQuery("SELECT MIN(" + quote + columnName + quote + "), MAX(" + quote + columnName + quote
+					+ ") FROM " + quote + table + quote);
+
+			if (rs.next())
+			{
+				long value = rs.getLong(1);
+				if (!rs.wasNull())
+					min = value;
+
+				value = rs.getLong(2);
+				if (!rs.wasNull())
+					max = value;
+			}
+		}
+		finally
+		{
+			JdbcUtil.closeResultSet(rs);
+			JdbcUtil.closeStatement(st);
+		}
+
+		if (min == null || max == null)
+			return null;
+
+		BigInteger minInt = BigInteger.valueOf(min);
+		BigInteger maxInt = BigInteger.valueOf(max);
+		BigInteger span = maxInt.subtract(minInt).add(BigInteger.ONE);
+		BigInteger count = BigInteger.valueOf(partitionCount).min(span);
+
+		if (count.compareTo(BigInteger.ONE) <= 0)
+			return null;
+
+		// 向上取整
+		BigInteger step = span.add(count).subtract(BigInteger.ONE).divide(count);
+
+		// 首个分区不限定下限、最后一个分区不限定上限，使导出期间新增的超出范围的记录也能被导出
+		List<Long> bounds = new ArrayList<>();
+		for (int i = 1, len = count.intValue(); i < len; i++)
+		{
+			BigInteger bound = minInt.add(step.multiply(BigInteger.valueOf(i)));
+
+			if (bound.compareTo(maxInt) > 0)
+				break;
+
+			bounds.add(bound.longValue());
+		}
+
+		if (bounds.isEmpty())
+			return null;
+
+		List<RangeTableQuery> queries = new ArrayList<>(bounds.size() + 1);
+
+		Long lower = null;
+		for (Long bound : bounds)
+		{
+			queries.add(new RangeTableQuery(table, columnName, lower, bound));
+			lower = bound;
+		}
+		queries.add(new RangeTableQuery(table, columnName, lower, null));
+
+		return queries;
+	}
+
+	/**
+	 * 是否可作为分区列。
+	 * 
+	 * @param column
+	 * @return
+	 */
+	protected boolean isPartitionableColumn(Column column)
+	{
+		int sqlType = column.getType();
+
+		if (sqlType == Types.BIGINT || sqlType == Types.INTEGER || sqlType == Types.SMALLINT
+				|| sqlType == Types.TINYINT)
+			return true;
+
+		// 某些数据库（比如Oracle）的整数列是无小数位的NUMBER类型
+		if ((sqlType == Types.DECIMAL || sqlType == Types.NUMERIC) && column.getDecimalDigits() == 0
+				&& column.getSize() > 0 && column.getSize() <= 18)
+			return true;
+
+		return false;
+	}
+
+	/**
+	 * 判断{@linkplain ConnectionFactory}是否每次都返回新的连接，分区导出需在多个线程中使用不同的连接。
+	 * <p>
+	 * 目前仅{@linkplain DataSourceConnectionFactory}是，它每次都从数据源获取新的连接。
+	 * </p>
+	 * 
+	 * @param connectionFactory
+	 * @return
+	 */
+	protected boolean isConnectionFactoryConcurrent(ConnectionFactory connectionFactory)
+	{
+		return (connectionFactory instanceof DataSourceConnectionFactory);
+	}
+
+	/**
+	 * 并行执行分区导出。
+	 * <p>
+	 * 分区按照顺序依次交由{@code partitionConsumer}处理（通常是追加至导出输出流）。正在处理的分区之后的若干分区，
+	 * 将在{@linkplain #getPartitionExecutor()}中使用单独的连接提前执行查询，写入内容分块暂存在容量有限的{@linkplain PartitionChannel}中，
+	 * 轮到它时再由当前线程按顺序读出，暂存已满时分区将等待，因此不需要临时文件，且内存占用有限；
+	 * 轮到时还未开始执行的分区（比如线程池繁忙），将直接在当前线程中执行并写入。
+	 * </p>
+	 * <p>
+	 * 提前执行的分区数不超过{@linkplain SubDataExchangeScheduler#tryAcquireCurrent(int)}获取的额外并发数，
+	 * 使得分区导出也受限于{@linkplain SubDataExchangeScheduler}的最大并发数、分组最大并发数。
+	 * </p>
+	 * <p>
+	 * 注意：各分区使用不同的连接、在不同的事务中查询，导出结果不是表在某一时刻的一致快照，
+	 * 导出期间对表的修改可能只有部分可见，比如主键被修改的记录可能被遗漏或者重复导出，
+	 * 所以只有明确设置了{@linkplain TextDataExportOption#getPartitionCount()}时才会分区导出。
+	 * </p>
+	 * <p>
+	 * 分区的{@linkplain TextDataExportListener}事件会在对应内容写入{@code partitionConsumer}后，以全局行号在当前线程中通知
+	 * {@linkplain QueryTextDataExport#getListener()}，使得它无需考虑线程安全，并能及时反映导出进度。
+	 * </p>
+	 * <p>
+	 * 任一分区出错时，将中止其他分区。
+	 * </p>
+	 * 
+	 * @param dataExchange
+	 * @param queries
+	 * @param partitionWriter
+	 * @param partitionConsumer
+	 * @throws Throwable
+	 */
+	protected void exportPartitions(QueryTextDataExport dataExchange, List<? extends Query> queries,
+			PartitionWriter partitionWriter, PartitionConsumer partitionConsumer) throws Throwable
+	{
+		TextDataExportListener listener = dataExchange.getListener();
+		int size = queries.size();
+
+		List<PartitionTask> tasks = new ArrayList<>(size);
+		for (Query query : queries)
+			tasks.add(new PartitionTask(dataExchange, query, partitionWriter, Thread.currentThread()));
+
+		// 当前线程已占用一个并发数，提前执行的分区需额外获取
+		int aheadCount = SubDataExchangeScheduler.tryAcquireCurrent(size - 1);
+		int submitIndex = 1;
+		boolean finished = false;
+
+		try
+		{
+			long rowOffset = 0;
+
+			for (int i = 0; i < size; i++)
+			{
+				for (; submitIndex < size && submitIndex <= i + aheadCount; submitIndex++)
+					submitPartition(tasks.get(submitIndex));
+
+				PartitionTask task = tasks.get(i);
+
+				if (task.claim())
+					rowOffset += exportPartition(dataExchange, i, task.getQuery(), partitionWriter, partitionConsumer,
+							listener, rowOffset);
+				else
+					rowOffset += consumePartition(i, task.getChannel(), partitionConsumer, listener, rowOffset);
+			}
+
+			finished = true;
+		}
+		finally
+		{
+			if (!finished)
+			{
+				for (PartitionTask task : tasks)
+					task.abort();
+			}
+
+			SubDataExchangeScheduler.releaseCurrent(aheadCount);
+		}
+	}
+
+	/**
+	 * 提交分区至{@linkplain #getPartitionExecutor()}提前执行。
+	 * <p>
+	 * 线程池拒绝时忽略，分区将在轮到时由当前线程直接执行。
+	 * </p>
+	 * 
+	 * @param task
+	 */
+	protected void submitPartition(PartitionTask task)
+	{
+		try
+		{
+			this.partitionExecutor.execute(task);
+		}
+		catch (RejectedExecutionException e)
+		{
+		}
+	}
+
+	/**
+	 * 在当前线程中执行分区，并直接写入{@code partitionConsumer}。
+	 * 
+	 * @param dataExchange
+	 * @param index
+	 * @param query
+	 * @param partitionWriter
+	 * @param partitionConsumer
+	 * @param listener
+	 *            允许为{@code null}
+	 * @param rowOffset
+	 * @return 分区记录数
+	 * @throws DataExchangeException
+	 */
+	protected long exportPartition(QueryTextDataExport dataExchange, int index, Query query,
+			PartitionWriter partitionWriter, PartitionConsumer partitionConsumer, TextDataExportListener listener,
+			long rowOffset) throws DataExchangeException
+	{
+		IndexFormatDataExchangeContext context = IndexFormatDataExchangeContext
+				.valueOf(dataExchange.getConnectionFactory(), dataExchange.getDataFormat());
+		QueryResultSet qrs = null;
+
+		try
+		{
+			Connection cn = context.getConnection();
+			JdbcUtil.setReadonlyIfSupports(cn, true);
+
+			qrs = query.execute(cn);
+			ResultSet rs = qrs.getResultSet();
+			List<Column> columns = getColumns(cn, rs);
+
+			Writer out = partitionConsumer.start(index, columns);
+			OffsetTextDataExportListener offsetListener = new OffsetTextDataExportListener(listener, rowOffset);
+
+			partitionWriter.write(cn, rs, columns, out, context, offsetListener);
+
+			return offsetListener.getRowCount();
+		}
+		catch (Throwable t)
+		{
+			throw wrapToDataExchangeException(t);
+		}
+		finally
+		{
+			QueryResultSet.close(qrs);
+			context.closeConnection();
+		}
+	}
+
+	/**
+	 * 按顺序读出提前执行的分区暂存的内容，并写入{@code partitionConsumer}。
+	 * 
+	 * @param index
+	 * @param channel
+	 * @param partitionConsumer
+	 * @param listener
+	 *            允许为{@code null}
+	 * @param rowOffset
+	 * @return 分区记录数
+	 * @throws Throwable
+	 */
+	protected long consumePartition(int index, PartitionChannel channel, PartitionConsumer partitionConsumer,
+			TextDataExportListener listener, long rowOffset) throws Throwable
+	{
+		Writer out = partitionConsumer.start(index, channel.takeColumns());
+
+		long rowCount = 0;
+		PartitionChunk chunk = null;
+
+		while ((chunk = channel.take()) != null)
+		{
+			out.write(chunk.getText());
+
+			if (listener != null)
+			{
+				for (PartitionSetNullTextValue event : chunk.getSetNullTextValues())
+					listener.onSetNullTextValue(toGlobalDataIndex(event.getDataIndex(), rowOffset),
+							event.getColumnName(), event.getException());
+
+				for (long j = 0, len = chunk.getRowCount(); j < len; j++)
+					listener.onSuccess(RowDataIndex.valueOf(rowOffset + rowCount + j));
+			}
+
+			rowCount += chunk.getRowCount();
+		}
+
+		return rowCount;
+	}
+
+	/**
+	 * 将分区内的{@linkplain DataIndex}转换为全局的。
+	 * 
+	 * @param dataIndex
+	 * @param rowOffset
+	 * @return
+	 */
+	protected DataIndex toGlobalDataIndex(DataIndex dataIndex, long rowOffset)
+	{
+		if (dataIndex instanceof RowDataIndex)
+			return RowDataIndex.valueOf(rowOffset + ((RowDataIndex) dataIndex).getRow());
+
+		return dataIndex;
+	}
+
+	/**
+	 * 分区写入器。
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static interface PartitionWriter
+	{
+		/**
+		 * 将分区结果集的所有记录写入{@code out}。
+		 * <p>
+		 * 每写完一条记录，都应调用{@code listener}的{@linkplain TextDataExportListener#onSuccess(DataIndex)}。
+		 * </p>
+		 * 
+		 * @param cn
+		 * @param rs
+		 * @param columns
+		 * @param out
+		 * @param context
+		 * @param listener
+		 * @throws Throwable
+		 */
+		void write(Connection cn, ResultSet rs, List<Column> columns, Writer out,
+				IndexFormatDataExchangeContext context, TextDataExportListener listener) throws Throwable;
+	}
+
+	/**
+	 * 分区处理器。
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static interface PartitionConsumer
+	{
+		/**
+		 * 开始处理分区。
+		 * <p>
+		 * 分区按照顺序依次开始，上一个分区的内容全部写入后，才会开始下一个分区。
+		 * </p>
+		 * 
+		 * @param index
+		 *            分区索引
+		 * @param columns
+		 * @return 分区内容的输出流，不会被关闭
+		 * @throws Throwable
+		 */
+		Writer start(int index, List<Column> columns) throws Throwable;
+	}
+
+	/**
+	 * 提前执行的分区任务。
+	 * <p>
+	 * 它要么由{@linkplain #getPartitionExecutor()}执行，将内容写入{@linkplain #getChannel()}，
+	 * 要么在执行前被{@linkplain #claim()}，由导出线程直接执行。
+	 * </p>
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	protected class PartitionTask implements Runnable
+	{
+		private static final int STATE_NEW = 0;
+
+		private static final int STATE_RUNNING = 1;
+
+		private static final int STATE_CLAIMED = 2;
+
+		private final QueryTextDataExport dataExchange;
+
+		private final Query query;
+
+		private final PartitionWriter partitionWriter;
+
+		/** 导出线程 */
+		private final Thread exportThread;
+
+		private final PartitionChannel channel = new PartitionChannel(PARTITION_CHANNEL_CAPACITY);
+
+		private final AtomicInteger state = new AtomicInteger(STATE_NEW);
+
+		public PartitionTask(QueryTextDataExport dataExchange, Query query, PartitionWriter partitionWriter,
+				Thread exportThread)
+		{
+			super();
+			this.dataExchange = dataExchange;
+			this.query = query;
+			this.partitionWriter = partitionWriter;
+			this.exportThread = exportThread;
+		}
+
+		public Query getQuery()
+		{
+			return query;
+		}
+
+		public PartitionChannel getChannel()
+		{
+			return channel;
+		}
+
+		/**
+		 * 在执行前认领任务，之后它不会再被执行。
+		 * 
+		 * @return {@code false}表示已经开始执行
+		 */
+		public boolean claim()
+		{
+			return this.state.compareAndSet(STATE_NEW, STATE_CLAIMED);
+		}
+
+		/**
+		 * 中止任务。
+		 */
+		public void abort()
+		{
+			claim();
+			this.channel.abort();
+		}
+
+		@Override
+		public void run()
+		{
+			// 线程池拒绝策略可能在导出线程中执行，此时暂存内容无人读取，应留待轮到时再直接执行
+			if (Thread.currentThread() == this.exportThread || !this.state.compareAndSet(STATE_NEW, STATE_RUNNING))
+				return;
+
+			IndexFormatDataExchangeContext context = IndexFormatDataExchangeContext
+					.valueOf(this.dataExchange.getConnectionFactory(), this.dataExchange.getDataFormat());
+			QueryResultSet qrs = null;
+			Throwable error = null;
+
+			try
+			{
+				Connection cn = context.getConnection();
+				JdbcUtil.setReadonlyIfSupports(cn, true);
+
+				qrs = this.query.execute(cn);
+				ResultSet rs = qrs.getResultSet();
+				List<Column> columns = getColumns(cn, rs);
+
+				this.channel.putColumns(columns);
+
+				PartitionChannelWriter out = new PartitionChannelWriter(this.channel);
+				this.partitionWriter.write(cn, rs, columns, out, context, out);
+				out.putChunk();
+			}
+			catch (Throwable t)
+			{
+				error = wrapToDataExchangeException(t);
+			}
+			finally
+			{
+				QueryResultSet.close(qrs);
+				context.closeConnection();
+
+				this.channel.close(error);
+			}
+		}
+	}
+
+	/**
+	 * 分区内容通道。
+	 * <p>
+	 * 提前执行的分区将内容分块放入，导出线程按顺序取出，已放入的块数达到容量时，放入操作将等待。
+	 * </p>
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static class PartitionChannel
+	{
+		private final int capacity;
+
+		private final LinkedList<PartitionChunk> chunks = new LinkedList<>();
+
+		private List<Column> columns = null;
+
+		/** 是否已放入全部内容 */
+		private boolean closed = false;
+
+		private Throwable error = null;
+
+		/** 是否已中止 */
+		private boolean aborted = false;
+
+		public PartitionChannel(int capacity)
+		{
+			super();
+			this.capacity = capacity;
+		}
+
+		public synchronized void putColumns(List<Column> columns)
+		{
+			this.columns = columns;
+			notifyAll();
+		}
+
+		/**
+		 * 放入内容块。
+		 * 
+		 * @param chunk
+		 * @throws InterruptedException
+		 * @throws DataExchangeException
+		 *             已中止时
+		 */
+		public synchronized void put(PartitionChunk chunk) throws InterruptedException, DataExchangeException
+		{
+			while (!this.aborted && this.chunks.size() >= this.capacity)
+				wait();
+
+			if (this.aborted)
+				throw new DataExchangeException("Partition export has been aborted");
+
+			this.chunks.add(chunk);
+			notifyAll();
+		}
+
+		/**
+		 * 结束放入。
+		 * 
+		 * @param error
+		 *            为{@code null}表示正常结束
+		 */
+		public synchronized void close(Throwable error)
+		{
+			this.closed = true;
+			this.error = error;
+			notifyAll();
+		}
+
+		/**
+		 * 取出列信息，将等待至分区查询执行完成。
+		 * 
+		 * @return
+		 * @throws Throwable
+		 *             分区出错时
+		 */
+		public synchronized List<Column> takeColumns() throws Throwable
+		{
+			while (this.columns == null && !this.closed)
+				wait();
+
+			if (this.error != null)
+				throw this.error;
+
+			return this.columns;
+		}
+
+		/**
+		 * 取出下一个内容块。
+		 * 
+		 * @return {@code null}表示已全部取出
+		 * @throws Throwable
+		 *             分区出错时
+		 */
+		public synchronized PartitionChunk take() throws Throwable
+		{
+			while (this.chunks.isEmpty() && !this.closed)
+				wait();
+
+			if (this.error != null)
+				throw this.error;
+
+			if (this.chunks.isEmpty())
+				return null;
+
+			PartitionChunk chunk = this.chunks.removeFirst();
+			notifyAll();
+
+			return chunk;
+		}
+
+		/**
+		 * 中止，丢弃已放入的内容，之后的放入操作将抛出异常。
+		 */
+		public synchronized void abort()
+		{
+			this.aborted = true;
+			this.chunks.clear();
+			notifyAll();
+		}
+	}
+
+	/**
+	 * 分区内容块，包含若干条完整记录的内容及其{@linkplain TextDataExportListener}事件。
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static class PartitionChunk
+	{
+		private final String text;
+
+		private final long rowCount;
+
+		private final List<PartitionSetNullTextValue> setNullTextValues;
+
+		public PartitionChunk(String text, long rowCount, List<PartitionSetNullTextValue> setNullTextValues)
+		{
+			super();
+			this.text = text;
+			this.rowCount = rowCount;
+			this.setNullTextValues = setNullTextValues;
+		}
+
+		public String getText()
+		{
+			return text;
+		}
+
+		public long getRowCount()
+		{
+			return rowCount;
+		}
+
+		public List<PartitionSetNullTextValue> getSetNullTextValues()
+		{
+			return setNullTextValues;
+		}
+	}
+
+	/**
+	 * 写入{@linkplain PartitionChannel}的输出流。
+	 * <p>
+	 * 它同时也是分区的{@linkplain TextDataExportListener}，写入的内容先缓存，每写完一条记录（{@linkplain #onSuccess(DataIndex)}）时，
+	 * 如果缓存超过{@linkplain AbstractDevotedDBMetaDataExchangeService#PARTITION_CHUNK_SIZE}，则作为一个内容块放入通道，
+	 * 使得每个内容块都只包含完整的记录。
+	 * </p>
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static class PartitionChannelWriter extends Writer implements TextDataExportListener
+	{
+		private final PartitionChannel channel;
+
+		private StringBuilder buffer = new StringBuilder();
+
+		private long rowCount = 0;
+
+		private List<PartitionSetNullTextValue> setNullTextValues = new ArrayList<>();
+
+		public PartitionChannelWriter(PartitionChannel channel)
+		{
+			super();
+			this.channel = channel;
+		}
+
+		@Override
+		public void write(char[] cbuf, int off, int len) throws IOException
+		{
+			this.buffer.append(cbuf, off, len);
+		}
+
+		@Override
+		public void write(String str, int off, int len) throws IOException
+		{
+			this.buffer.append(str, off, off + len);
+		}
+
+		@Override
+		public void flush() throws IOException
+		{
+			// 仅在记录结束时放入内容块
+		}
+
+		@Override
+		public void close() throws IOException
+		{
+		}
+
+		@Override
+		public void onStart()
+		{
+		}
+
+		@Override
+		public void onException(DataExchangeException e)
+		{
+		}
+
+		@Override
+		public void onSuccess()
+		{
+		}
+
+		@Override
+		public void onFinish()
+		{
+		}
+
+		@Override
+		public void onSuccess(DataIndex dataIndex)
+		{
+			this.rowCount++;
+
+			if (this.buffer.length() >= PARTITION_CHUNK_SIZE)
+				putChunk();
+		}
+
+		@Override
+		public void onSetNullTextValue(DataIndex dataIndex, String columnName, DataExchangeException e)
+		{
+			this.setNullTextValues.add(new PartitionSetNullTextValue(dataIndex, columnName, e));
+		}
+
+		/**
+		 * 将缓存的内容作为一个内容块放入通道。
+		 * 
+		 * @throws DataExchangeException
+		 */
+		public void putChunk() throws DataExchangeException
+		{
+			if (this.buffer.length() == 0 && this.rowCount == 0 && this.setNullTextValues.isEmpty())
+				return;
+
+			try
+			{
+				this.channel.put(new PartitionChunk(this.buffer.toString(), this.rowCount, this.setNullTextValues));
+			}
+			catch (InterruptedException e)
+			{
+				throw new DataExchangeException(e);
+			}
+
+			this.buffer = new StringBuilder();
+			this.rowCount = 0;
+			this.setNullTextValues = new ArrayList<>();
+		}
+	}
+
+	/**
+	 * 将分区内的事件以全局行号转发的{@linkplain TextDataExportListener}。
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static class OffsetTextDataExportListener implements TextDataExportListener
+	{
+		/** 允许为null */
+		private final TextDataExportListener listener;
+
+		private final long rowOffset;
+
+		private long rowCount = 0;
+
+		public OffsetTextDataExportListener(TextDataExportListener listener, long rowOffset)
+		{
+			super();
+			this.listener = listener;
+			this.rowOffset = rowOffset;
+		}
+
+		public long getRowCount()
+		{
+			return rowCount;
+		}
+
+		@Override
+		public void onStart()
+		{
+		}
+
+		@Override
+		public void onException(DataExchangeException e)
+		{
+		}
+
+		@Override
+		public void onSuccess()
+		{
+		}
+
+		@Override
+		public void onFinish()
+		{
+		}
+
+		@Override
+		public void onSuccess(DataIndex dataIndex)
+		{
+			if (this.listener != null)
+				this.listener.onSuccess(RowDataIndex.valueOf(this.rowOffset + this.rowCount));
+
+			this.rowCount++;
+		}
+
+		@Override
+		public void onSetNullTextValue(DataIndex dataIndex, String columnName, DataExchangeException e)
+		{
+			if (this.listener == null)
+				return;
+
+			if (dataIndex instanceof RowDataIndex)
+				dataIndex = RowDataIndex.valueOf(this.rowOffset + ((RowDataIndex) dataIndex).getRow());
+
+			this.listener.onSetNullTextValue(dataIndex, columnName, e);
+		}
+	}
+
+	/**
+	 * 分区内的{@linkplain TextDataExportListener#onSetNullTextValue(DataIndex, String, DataExchangeException)}事件。
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static class PartitionSetNullTextValue
+	{
+		private final DataIndex dataIndex;
+
+		private final String columnName;
+
+		private final DataExchangeException exception;
+
+		public PartitionSetNullTextValue(DataIndex dataIndex, String columnName, DataExchangeException exception)
+		{
+			super();
+			this.dataIndex = dataIndex;
+			this.columnName = columnName;
+			this.exception = exception;
+		}
+
+		public DataIndex getDataIndex()
+		{
+			return dataIndex;
+		}
+
+		public String getColumnName()
+		{
+			return columnName;
+		}
+
+		public DataExchangeException getException()
+		{
+			return exception;
+		}
+	}
 }
@@ -10,6 +10,7 @@ import java.io.InputStream;
 import java.io.Reader;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.sql.BatchUpdateException;
 import java.sql.Blob;
 import java.sql.Clob;
 import java.sql.Connection;
@@ -19,6 +20,7 @@ import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.SQLXML;
+import java.sql.Statement;
 import java.sql.Time;
 import java.sql.Timestamp;
 import java.sql.Types;
@@ -1355,6 +1357,204 @@ public abstract class AbstractDevotedDataExchangeService<T extends DataExchange>
 		}
 	}
 
+	/**
+	 * 以批处理方式导入一条值数据。
+	 * <p>
+	 * 如果{@linkplain ImportValueDataBatch#getBatchSize()}小于等于{@code 1}，将直接调用
+	 * {@linkplain #importValueData(Connection, PreparedStatement, List, List, DataIndex, boolean, ExceptionResolve, DataFormatContext, ValueDataImportListener)}逐条导入；
+	 * 否则，数据将先被添加至批处理，达到批量条数时再执行，{@linkplain ValueDataImportListener#onSuccess(DataIndex)}、
+	 * {@linkplain ValueDataImportListener#onIgnore(DataIndex, DataExchangeException)}也将在执行时才被调用。
+	 * </p>
+	 * <p>
+	 * 导入结束时，必须调用{@linkplain #flushImportValueDataBatch(Connection, ImportValueDataBatch)}执行剩余的数据。
+	 * </p>
+	 * 
+	 * @param cn
+	 * @param batch
+	 * @param columnValues
+	 * @param dataIndex
+	 * @return {@code false}表示数据被忽略
+	 * @throws DataExchangeException
+	 */
+	protected boolean importValueData(Connection cn, ImportValueDataBatch batch, List<? extends Object> columnValues,
+			DataIndex dataIndex) throws DataExchangeException
+	{
+		if (batch.getBatchSize() <= 1)
+			return importValueData(cn, batch.getStatement(), batch.getColumns(), columnValues, dataIndex,
+					batch.isNullForIllegalColumnValue(), batch.getExceptionResolve(), batch.getDataFormatContext(),
+					batch.getListener());
+
+		DataExchangeException exception = null;
+
+		try
+		{
+			setImportParameterValues(cn, batch.getStatement(), batch.getColumns(), columnValues, dataIndex,
+					batch.isNullForIllegalColumnValue(), batch.getDataFormatContext(), batch.getListener());
+
+			batch.getStatement().addBatch();
+		}
+		catch (Throwable t)
+		{
+			exception = wrapToDataExchangeException(t);
+		}
+
+		if (exception == null)
+		{
+			batch.addRow(columnValues, dataIndex);
+
+			if (batch.getRowCount() >= batch.getBatchSize())
+				flushImportValueDataBatch(cn, batch);
+
+			return true;
+		}
+		else
+		{
+			if (ExceptionResolve.IGNORE.equals(batch.getExceptionResolve()))
+			{
+				ValueDataImportListener listener = batch.getListener();
+
+				if (listener != null)
+					listener.onIgnore(dataIndex, exception);
+
+				return false;
+			}
+			else
+			{
+				// 先执行此条数据之前的数据，与逐条导入时的中止位置保持一致
+				flushImportValueDataBatch(cn, batch);
+
+				throw exception;
+			}
+		}
+	}
+
+	/**
+	 * 执行批处理中剩余的数据。
+	 * <p>
+	 * 如果执行时出现{@linkplain BatchUpdateException}，将依据{@linkplain BatchUpdateException#getUpdateCounts()}找出出错的数据，
+	 * 按照{@linkplain ImportValueDataBatch#getExceptionResolve()}逐条处理：
+	 * {@linkplain ExceptionResolve#IGNORE}将忽略出错数据并继续执行其后未执行的数据，其他则抛出出错数据的{@linkplain ExecuteDataImportSqlException}。
+	 * </p>
+	 * 
+	 * @param cn
+	 * @param batch
+	 * @throws DataExchangeException
+	 */
+	protected void flushImportValueDataBatch(Connection cn, ImportValueDataBatch batch) throws DataExchangeException
+	{
+		List<ImportValueDataBatchRow> rows = batch.removeRows();
+
+		if (rows.isEmpty())
+			return;
+
+		PreparedStatement st = batch.getStatement();
+		ValueDataImportListener listener = batch.getListener();
+
+		int start = 0;
+		int size = rows.size();
+
+		while (start < size)
+		{
+			// 出错后需重新添加剩余未执行的数据
+			if (start > 0)
+			{
+				for (int i = start; i < size; i++)
+				{
+					ImportValueDataBatchRow row = rows.get(i);
+
+					try
+					{
+						// 添加时已通知过监听器，这里不再重复通知
+						setImportParameterValues(cn, st, batch.getColumns(), row.getColumnValues(),
+								row.getDataIndex(), batch.isNullForIllegalColumnValue(), batch.getDataFormatContext(),
+								null);
+
+						st.addBatch();
+					}
+					catch (Throwable t)
+					{
+						throw wrapToDataExchangeException(t);
+					}
+				}
+			}
+
+			int[] updateCounts = null;
+			SQLException sqlException = null;
+
+			try
+			{
+				st.executeBatch();
+			}
+			catch (BatchUpdateException e)
+			{
+				updateCounts = e.getUpdateCounts();
+				sqlException = e;
+			}
+			catch (SQLException e)
+			{
+				sqlException = e;
+			}
+
+			if (sqlException == null)
+			{
+				if (listener != null)
+				{
+					for (int i = start; i < size; i++)
+						listener.onSuccess(rows.get(i).getDataIndex());
+				}
+
+				start = size;
+			}
+			else
+			{
+				clearBatchSilently(st);
+
+				if (updateCounts == null)
+					updateCounts = new int[0];
+
+				int remain = size - start;
+				int executedCount = Math.min(updateCounts.length, remain);
+				ExecuteDataImportSqlException abortException = null;
+
+				for (int i = 0; i <= executedCount && i < remain; i++)
+				{
+					DataIndex dataIndex = rows.get(start + i).getDataIndex();
+
+					// 驱动在出错处停止执行时，updateCounts不包含出错数据，此时出错数据位于executedCount处
+					boolean failed = (i == executedCount || updateCounts[i] == Statement.EXECUTE_FAILED);
+
+					if (!failed)
+					{
+						if (listener != null)
+							listener.onSuccess(dataIndex);
+					}
+					else if (ExceptionResolve.IGNORE.equals(batch.getExceptionResolve()))
+					{
+						if (listener != null)
+							listener.onIgnore(dataIndex, new ExecuteDataImportSqlException(dataIndex, sqlException));
+					}
+					else if (abortException == null)
+						abortException = new ExecuteDataImportSqlException(dataIndex, sqlException);
+				}
+
+				if (abortException != null)
+					throw abortException;
+
+				start = start + executedCount + (executedCount < remain ? 1 : 0);
+			}
+		}
+	}
+
+	/**
+	 * 清空{@linkplain Statement}的批处理，忽略异常。
+	 * 
+	 * @param st
+	 */
+	protected void clearBatchSilently(Statement st)
+	{
+		JdbcUtil.clearBatchSilently(st);
+	}
+
 	/**
 	 * 执行导入SQL。
 	 * 
@@ -1439,4 +1639,163 @@ public abstract class AbstractDevotedDataExchangeService<T extends DataExchange>
 			}
 		}
 	}
+
+	/**
+	 * 创建{@linkplain ImportValueDataBatch}。
+	 * 
+	 * @param st
+	 * @param columns
+	 * @param importOption
+	 * @param dataFormatContext
+	 * @param listener
+	 * @return
+	 */
+	protected ImportValueDataBatch createImportValueDataBatch(PreparedStatement st, List<Column> columns,
+			ValueDataImportOption importOption, DataFormatContext dataFormatContext, ValueDataImportListener listener)
+	{
+		return new ImportValueDataBatch(st, columns, importOption.getBatchSize(),
+				importOption.isNullForIllegalColumnValue(), importOption.getExceptionResolve(), dataFormatContext,
+				listener);
+	}
+
+	/**
+	 * 值数据导入批处理。
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static class ImportValueDataBatch
+	{
+		private final PreparedStatement statement;
+
+		private final List<Column> columns;
+
+		private final int batchSize;
+
+		private final boolean nullForIllegalColumnValue;
+
+		private final ExceptionResolve exceptionResolve;
+
+		private final DataFormatContext dataFormatContext;
+
+		private final ValueDataImportListener listener;
+
+		private List<ImportValueDataBatchRow> rows = new ArrayList<>();
+
+		public ImportValueDataBatch(PreparedStatement statement, List<Column> columns, int batchSize,
+				boolean nullForIllegalColumnValue, ExceptionResolve exceptionResolve,
+				DataFormatContext dataFormatContext, ValueDataImportListener listener)
+		{
+			super();
+			this.statement = statement;
+			this.columns = columns;
+			this.batchSize = batchSize;
+			this.nullForIllegalColumnValue = nullForIllegalColumnValue;
+			this.exceptionResolve = exceptionResolve;
+			this.dataFormatContext = dataFormatContext;
+			this.listener = listener;
+		}
+
+		public PreparedStatement getStatement()
+		{
+			return statement;
+		}
+
+		public List<Column> getColumns()
+		{
+			return columns;
+		}
+
+		public int getBatchSize()
+		{
+			return batchSize;
+		}
+
+		public boolean isNullForIllegalColumnValue()
+		{
+			return nullForIllegalColumnValue;
+		}
+
+		public ExceptionResolve getExceptionResolve()
+		{
+			return exceptionResolve;
+		}
+
+		public DataFormatContext getDataFormatContext()
+		{
+			return dataFormatContext;
+		}
+
+		public ValueDataImportListener getListener()
+		{
+			return listener;
+		}
+
+		/**
+		 * 获取已添加但未执行的数据条数。
+		 * 
+		 * @return
+		 */
+		public int getRowCount()
+		{
+			return this.rows.size();
+		}
+
+		/**
+		 * 添加一条已加入批处理的数据。
+		 * <p>
+		 * 调用方可能会重用{@code columnValues}，所以这里将存储它的副本。
+		 * </p>
+		 * 
+		 * @param columnValues
+		 * @param dataIndex
+		 */
+		public void addRow(List<? extends Object> columnValues, DataIndex dataIndex)
+		{
+			this.rows.add(new ImportValueDataBatchRow(new ArrayList<Object>(columnValues), dataIndex));
+		}
+
+		/**
+		 * 移除并返回所有未执行的数据。
+		 * 
+		 * @return
+		 */
+		public List<ImportValueDataBatchRow> removeRows()
+		{
+			List<ImportValueDataBatchRow> re = this.rows;
+			this.rows = new ArrayList<>();
+
+			return re;
+		}
+	}
+
+	/**
+	 * {@linkplain ImportValueDataBatch}中的一条数据。
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static class ImportValueDataBatchRow
+	{
+		private final List<? extends Object> columnValues;
+
+		private final DataIndex dataIndex;
+
+		public ImportValueDataBatchRow(List<? extends Object> columnValues, DataIndex dataIndex)
+		{
+			super();
+			this.columnValues = columnValues;
+			this.dataIndex = dataIndex;
+		}
+
+		public List<? extends Object> getColumnValues()
+		{
+			return columnValues;
+		}
+
+		public DataIndex getDataIndex()
+		{
+			return dataIndex;
+		}
+	}
 }
@@ -5,9 +5,11 @@
 package org.datagear.dataexchange;
 
 import java.sql.Connection;
-import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
+
+import org.datagear.util.JdbcSupport;
+import org.datagear.util.QueryResultSet;
+import org.datagear.util.Sql;
 
 /**
  * 抽象{@linkplain Query}。
@@ -17,6 +19,8 @@ import java.sql.Statement;
  */
 public abstract class AbstractQuery implements Query
 {
+	protected static final JdbcSupport JDBC_SUPPORT = new JdbcSupport();
+
 	public AbstractQuery()
 	{
 		super();
@@ -24,16 +28,34 @@ public abstract class AbstractQuery implements Query
 
 	/**
 	 * 执行SQL查询。
+	 * <p>
+	 * 查询结果通常会被全部读取（比如导出），所以这里采用流式查询，避免驱动程序将全部结果加载至内存。
+	 * </p>
+	 * <p>
+	 * 流式查询可能临时关闭连接的自动提交，调用方必须调用{@linkplain QueryResultSet#close()}关闭返回结果，才能恢复。
+	 * </p>
 	 * 
 	 * @param cn
 	 * @param sql
 	 * @return
 	 * @throws SQLException
 	 */
-	protected ResultSet executeQuery(Connection cn, String sql) throws SQLException
+	protected QueryResultSet executeQuery(Connection cn, String sql) throws SQLException
 	{
-		Statement st = cn.createStatement();
+		return executeQuery(cn, Sql.valueOf(sql));
+	}
 
-		return st.executeQuery(sql);
+	/**
+	 * 执行SQL查询。
+	 * 
+	 * @param cn
+	 * @param sql
+	 * @return
+	 * @throws SQLException
+	 * @see #executeQuery(Connection, String)
+	 */
+	protected QueryResultSet executeQuery(Connection cn, Sql sql) throws SQLException
+	{
+		return JDBC_SUPPORT.executeStreamingQuery(cn, sql);
 	}
 }
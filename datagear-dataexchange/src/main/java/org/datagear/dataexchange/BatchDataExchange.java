@@ -23,6 +23,12 @@ public abstract class BatchDataExchange extends DataExchange
 
 	private BatchDataExchangeResult result;
 
+	/** 调度所属者，用于在不同所属者之间轮流调度子数据交换，为{@code null}则以批量数据交换本身作为所属者 */
+	private Object scheduleOwner;
+
+	/** 调度分组，用于限定同一分组的子数据交换并发数，为{@code null}表示不限定 */
+	private Object scheduleGroup;
+
 	public BatchDataExchange()
 	{
 		super();
@@ -54,6 +60,26 @@ public abstract class BatchDataExchange extends DataExchange
 		this.result = result;
 	}
 
+	public Object getScheduleOwner()
+	{
+		return scheduleOwner;
+	}
+
+	public void setScheduleOwner(Object scheduleOwner)
+	{
+		this.scheduleOwner = scheduleOwner;
+	}
+
+	public Object getScheduleGroup()
+	{
+		return scheduleGroup;
+	}
+
+	public void setScheduleGroup(Object scheduleGroup)
+	{
+		this.scheduleGroup = scheduleGroup;
+	}
+
 	/**
 	 * 获取子数据交换集合。
 	 * 
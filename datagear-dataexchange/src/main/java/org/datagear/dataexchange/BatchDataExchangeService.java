@@ -5,8 +5,6 @@
 package org.datagear.dataexchange;
 
 import java.util.Set;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * 批量数据交换服务。
@@ -19,7 +17,7 @@ public class BatchDataExchangeService<T extends BatchDataExchange> extends Abstr
 {
 	private DataExchangeService<?> subDataExchangeService;
 
-	private ExecutorService executorService = Executors.newCachedThreadPool();
+	private SubDataExchangeScheduler scheduler = new SubDataExchangeScheduler();
 
 	public BatchDataExchangeService()
 	{
@@ -42,14 +40,14 @@ public class BatchDataExchangeService<T extends BatchDataExchange> extends Abstr
 		this.subDataExchangeService = subDataExchangeService;
 	}
 
-	public ExecutorService getExecutorService()
+	public SubDataExchangeScheduler getScheduler()
 	{
-		return executorService;
+		return scheduler;
 	}
 
-	public void setExecutorService(ExecutorService executorService)
+	public void setScheduler(SubDataExchangeScheduler scheduler)
 	{
-		this.executorService = executorService;
+		this.scheduler = scheduler;
 	}
 
 	@Override
@@ -86,7 +84,7 @@ public class BatchDataExchangeService<T extends BatchDataExchange> extends Abstr
 	 */
 	public void shutdown()
 	{
-		this.executorService.shutdown();
+		this.scheduler.shutdown();
 	}
 
 	/**
@@ -96,14 +94,18 @@ public class BatchDataExchangeService<T extends BatchDataExchange> extends Abstr
 	 */
 	public boolean isShutdown()
 	{
-		return this.executorService.isShutdown();
+		return this.scheduler.isShutdown();
 	}
 
 	protected BatchDataExchangeResult createBatchDataExchangeResult(T dataExchange,
 			Set<SubDataExchange> subDataExchanges)
 	{
+		Object scheduleOwner = dataExchange.getScheduleOwner();
+		if (scheduleOwner == null)
+			scheduleOwner = dataExchange;
+
 		DefaultBatchDataExchangeResult result = new DefaultBatchDataExchangeResult(subDataExchanges,
-				this.subDataExchangeService, this.executorService);
+				this.subDataExchangeService, this.scheduler, scheduleOwner, dataExchange.getScheduleGroup());
 		result.setListener(dataExchange.getListener());
 
 		return result;
@@ -4,11 +4,12 @@
 
 package org.datagear.dataexchange;
 
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.ExecutorService;
 import java.util.concurrent.FutureTask;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -17,6 +18,10 @@ import org.slf4j.LoggerFactory;
 
 /**
  * 默认{@linkplain BatchDataExchangeResult}实现类。
+ * <p>
+ * 子数据交换任务由{@linkplain SubDataExchangeScheduler}调度执行，被越多子数据交换（直接或间接）依赖的任务优先级越高，
+ * 使得依赖链能够尽早解锁后续任务。
+ * </p>
  * 
  * @author datagear@163.com
  *
@@ -27,7 +32,10 @@ public class DefaultBatchDataExchangeResult implements BatchDataExchangeResult
 
 	private final int subTotal;
 	private final DataExchangeService<?> subDataExchangeService;
-	private final ExecutorService executorService;
+	private final SubDataExchangeScheduler scheduler;
+	private final Object scheduleOwner;
+	private final Object scheduleGroup;
+	private final Map<SubDataExchange, Integer> priorities;
 	private BatchDataExchangeListener listener;
 
 	private Set<SubDataExchange> _unsubmits = new HashSet<SubDataExchange>();
@@ -43,13 +51,17 @@ public class DefaultBatchDataExchangeResult implements BatchDataExchangeResult
 	private final Object _subLock = new Object();
 
 	public DefaultBatchDataExchangeResult(Set<SubDataExchange> subDataExchanges,
-			DataExchangeService<?> subDataExchangeService, ExecutorService executorService)
+			DataExchangeService<?> subDataExchangeService, SubDataExchangeScheduler scheduler, Object scheduleOwner,
+			Object scheduleGroup)
 	{
 		super();
 		this.subTotal = subDataExchanges.size();
 		this._unsubmits.addAll(subDataExchanges);
 		this.subDataExchangeService = subDataExchangeService;
-		this.executorService = executorService;
+		this.scheduler = scheduler;
+		this.scheduleOwner = scheduleOwner;
+		this.scheduleGroup = scheduleGroup;
+		this.priorities = resolvePriorities(subDataExchanges);
 	}
 
 	public int getSubTotal()
@@ -62,9 +74,19 @@ public class DefaultBatchDataExchangeResult implements BatchDataExchangeResult
 		return subDataExchangeService;
 	}
 
-	public ExecutorService getExecutorService()
+	public SubDataExchangeScheduler getScheduler()
 	{
-		return executorService;
+		return scheduler;
+	}
+
+	public Object getScheduleOwner()
+	{
+		return scheduleOwner;
+	}
+
+	public Object getScheduleGroup()
+	{
+		return scheduleGroup;
 	}
 
 	public BatchDataExchangeListener getListener()
@@ -344,7 +366,9 @@ public class DefaultBatchDataExchangeResult implements BatchDataExchangeResult
 	{
 		try
 		{
-			this.executorService.submit(task);
+			Integer priority = this.priorities.get(task.getSubDataExchange());
+
+			this.scheduler.submit(this.scheduleOwner, this.scheduleGroup, (priority == null ? 0 : priority), task);
 			return true;
 		}
 		catch (Throwable t)
@@ -354,6 +378,64 @@ public class DefaultBatchDataExchangeResult implements BatchDataExchangeResult
 		}
 	}
 
+	/**
+	 * 解析子数据交换的调度优先级：直接或间接依赖它的子数据交换数目。
+	 * 
+	 * @param subDataExchanges
+	 * @return
+	 */
+	protected Map<SubDataExchange, Integer> resolvePriorities(Set<SubDataExchange> subDataExchanges)
+	{
+		Map<SubDataExchange, Set<SubDataExchange>> dependents = new HashMap<>();
+
+		for (SubDataExchange subDataExchange : subDataExchanges)
+		{
+			if (!subDataExchange.hasDependency())
+				continue;
+
+			for (SubDataExchange dependency : subDataExchange.getDependencies())
+			{
+				Set<SubDataExchange> myDependents = dependents.get(dependency);
+
+				if (myDependents == null)
+				{
+					myDependents = new HashSet<>();
+					dependents.put(dependency, myDependents);
+				}
+
+				myDependents.add(subDataExchange);
+			}
+		}
+
+		Map<SubDataExchange, Integer> priorities = new HashMap<>();
+
+		for (SubDataExchange subDataExchange : subDataExchanges)
+		{
+			Set<SubDataExchange> descendants = new HashSet<>();
+			collectDependents(dependents, subDataExchange, descendants);
+			descendants.remove(subDataExchange);
+
+			priorities.put(subDataExchange, descendants.size());
+		}
+
+		return priorities;
+	}
+
+	protected void collectDependents(Map<SubDataExchange, Set<SubDataExchange>> dependents,
+			SubDataExchange subDataExchange, Set<SubDataExchange> collecteds)
+	{
+		Set<SubDataExchange> myDependents = dependents.get(subDataExchange);
+
+		if (myDependents == null)
+			return;
+
+		for (SubDataExchange myDependent : myDependents)
+		{
+			if (collecteds.add(myDependent))
+				collectDependents(dependents, myDependent, collecteds);
+		}
+	}
+
 	protected SubDataExchangeFutureTask buildSubDataExchangeFutureTask(SubDataExchange subDataExchange)
 	{
 		SubDataExchangeFutureTask subDataExchangeFutureTask = new SubDataExchangeFutureTask(subDataExchange);
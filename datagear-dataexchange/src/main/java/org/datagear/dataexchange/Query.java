@@ -5,7 +5,8 @@
 package org.datagear.dataexchange;
 
 import java.sql.Connection;
-import java.sql.ResultSet;
+
+import org.datagear.util.QueryResultSet;
 
 /**
  * 查询。
@@ -17,10 +18,13 @@ public interface Query
 {
 	/**
 	 * 执行查询并返回结果。
+	 * <p>
+	 * 调用方在读取完成后应调用{@linkplain QueryResultSet#close()}关闭结果，以释放语句、恢复连接的自动提交等。
+	 * </p>
 	 * 
 	 * @param cn
 	 * @return
 	 * @throws Throwable
 	 */
-	ResultSet execute(Connection cn) throws Throwable;
+	QueryResultSet execute(Connection cn) throws Throwable;
 }
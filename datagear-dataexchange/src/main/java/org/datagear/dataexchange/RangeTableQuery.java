@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2018 datagear.org. All Rights Reserved.
+ */
+
+package org.datagear.dataexchange;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.Types;
+
+import org.datagear.util.QueryResultSet;
+import org.datagear.util.Sql;
+import org.datagear.util.SqlParamValue;
+
+/**
+ * 表整数列范围{@linkplain Query}。
+ * <p>
+ * 它查询表中指定整数列值位于{@code [lower, upper)}范围内的记录，用于将一个表划分为多个分区导出。
+ * </p>
+ *
+ * @author datagear@163.com
+ *
+ */
+public class RangeTableQuery extends TableQuery
+{
+	/** 范围列名 */
+	private String column;
+
+	/** 范围下限（包含），为{@code null}表示不限定 */
+	private Long lower;
+
+	/** 范围上限（不包含），为{@code null}表示不限定 */
+	private Long upper;
+
+	public RangeTableQuery()
+	{
+		super();
+	}
+
+	public RangeTableQuery(String table, String column, Long lower, Long upper)
+	{
+		super(table);
+		this.column = column;
+		this.lower = lower;
+		this.upper = upper;
+	}
+
+	public String getColumn()
+	{
+		return column;
+	}
+
+	public void setColumn(String column)
+	{
+		this.column = column;
+	}
+
+	public Long getLower()
+	{
+		return lower;
+	}
+
+	public void setLower(Long lower)
+	{
+		this.lower = lower;
+	}
+
+	public Long getUpper()
+	{
+		return upper;
+	}
+
+	public void setUpper(Long upper)
+	{
+		this.upper = upper;
+	}
+
+	@Override
+	public QueryResultSet execute(Connection cn) throws Throwable
+	{
+		DatabaseMetaData metaData = cn.getMetaData();
+
+		String quote = metaData.getIdentifierQuoteString();
+
+		Sql sql = Sql.valueOf().sql("SELECT * FROM " + quote + getTable() + quote);
+
+		if (this.lower != null || this.upper != null)
+		{
+			sql.sql(" WHERE ");
+
+			if (this.lower != null)
+				sql.sql(quote + this.column + quote + " >= ?", new SqlParamValue(this.lower, Types.BIGINT));
+
+			if (this.lower != null && this.upper != null)
+				sql.sql(" AND ");
+
+			if (this.upper != null)
+				sql.sql(quote + this.column + quote + " < ?", new SqlParamValue(this.upper, Types.BIGINT));
+		}
+
+		return executeQuery(cn, sql);
+	}
+
+	@Override
+	public String toString()
+	{
+		return getClass().getSimpleName() + " [table=" + getTable() + ", column=" + column + ", lower=" + lower
+				+ ", upper=" + upper + "]";
+	}
+}
@@ -5,7 +5,8 @@
 package org.datagear.dataexchange;
 
 import java.sql.Connection;
-import java.sql.ResultSet;
+
+import org.datagear.util.QueryResultSet;
 
 /**
  * SQL {@linkplain Query}。
@@ -39,7 +40,7 @@ public class SqlQuery extends AbstractQuery
 	}
 
 	@Override
-	public ResultSet execute(Connection cn) throws Throwable
+	public QueryResultSet execute(Connection cn) throws Throwable
 	{
 		return executeQuery(cn, this.sql);
 	}
@@ -0,0 +1,498 @@
+/*
+ * Copyright (c) 2018 datagear.org. All Rights Reserved.
+ */
+
+package org.datagear.dataexchange;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 子数据交换调度器。
+ * <p>
+ * 它限定所有子数据交换任务的最大并发数（{@linkplain #getMaxConcurrency()}）、同一分组（通常是同一数据库）的最大并发数（{@linkplain #getMaxGroupConcurrency()}），
+ * 超出限定的任务将排队等待。
+ * </p>
+ * <p>
+ * 排队任务按照所属者（通常是用户）轮流调度，避免某个所属者的大批量任务独占执行线程；同一所属者的任务按照优先级（值越大越优先）、提交顺序调度。
+ * </p>
+ * <p>
+ * 调用{@linkplain #shutdown()}后，仍在排队的任务将不再执行。
+ * </p>
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class SubDataExchangeScheduler
+{
+	private static final Logger LOGGER = LoggerFactory.getLogger(SubDataExchangeScheduler.class);
+
+	/** 当前线程正在执行的任务 */
+	private static final ThreadLocal<ScheduleRunnable> CURRENT_RUNNABLE = new ThreadLocal<>();
+
+	/** 默认最大并发数 */
+	public static final int DEFAULT_MAX_CONCURRENCY = 10;
+
+	/** 默认分组最大并发数 */
+	public static final int DEFAULT_MAX_GROUP_CONCURRENCY = 4;
+
+	private static final Comparator<ScheduleTask> TASK_COMPARATOR = new Comparator<ScheduleTask>()
+	{
+		@Override
+		public int compare(ScheduleTask o1, ScheduleTask o2)
+		{
+			int re = Integer.compare(o2.getPriority(), o1.getPriority());
+
+			if (re == 0)
+				re = Long.compare(o1.getSequence(), o2.getSequence());
+
+			return re;
+		}
+	};
+
+	private final int maxConcurrency;
+
+	private final int maxGroupConcurrency;
+
+	private final ExecutorService executorService;
+
+	/** 所属者排队任务，迭代顺序即为轮流调度顺序 */
+	private final LinkedHashMap<Object, TreeSet<ScheduleTask>> _ownerTasks = new LinkedHashMap<>();
+
+	private final Map<Object, Integer> _groupRunnings = new HashMap<>();
+
+	private int _runnings = 0;
+
+	private long _sequence = 0;
+
+	private boolean _shutdown = false;
+
+	private final Object _lock = new Object();
+
+	public SubDataExchangeScheduler()
+	{
+		this(DEFAULT_MAX_CONCURRENCY, DEFAULT_MAX_GROUP_CONCURRENCY);
+	}
+
+	/**
+	 * 创建实例。
+	 * 
+	 * @param maxConcurrency
+	 *            最大并发数，小于{@code 1}时将采用{@linkplain #DEFAULT_MAX_CONCURRENCY}
+	 * @param maxGroupConcurrency
+	 *            分组最大并发数，小于{@code 1}或者大于{@code maxConcurrency}时将采用{@code maxConcurrency}
+	 */
+	public SubDataExchangeScheduler(int maxConcurrency, int maxGroupConcurrency)
+	{
+		super();
+
+		if (maxConcurrency < 1)
+			maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+
+		if (maxGroupConcurrency < 1 || maxGroupConcurrency > maxConcurrency)
+			maxGroupConcurrency = maxConcurrency;
+
+		this.maxConcurrency = maxConcurrency;
+		this.maxGroupConcurrency = maxGroupConcurrency;
+		this.executorService = Executors.newFixedThreadPool(maxConcurrency);
+	}
+
+	public int getMaxConcurrency()
+	{
+		return maxConcurrency;
+	}
+
+	public int getMaxGroupConcurrency()
+	{
+		return maxGroupConcurrency;
+	}
+
+	/**
+	 * 提交任务。
+	 * <p>
+	 * 任务将在并发数允许时执行，如果任务是{@linkplain Future}且在执行前已完成（比如被取消），那么将不再执行。
+	 * </p>
+	 * 
+	 * @param owner
+	 *            所属者，不允许为{@code null}
+	 * @param group
+	 *            分组，为{@code null}表示不限定分组并发数
+	 * @param priority
+	 *            优先级，值越大越优先
+	 * @param task
+	 * @throws RejectedExecutionException
+	 *             已关闭时
+	 */
+	public void submit(Object owner, Object group, int priority, Runnable task) throws RejectedExecutionException
+	{
+		synchronized (this._lock)
+		{
+			if (this._shutdown)
+				throw new RejectedExecutionException("Scheduler has been shutdown");
+
+			TreeSet<ScheduleTask> tasks = this._ownerTasks.get(owner);
+
+			if (tasks == null)
+			{
+				tasks = new TreeSet<>(TASK_COMPARATOR);
+				this._ownerTasks.put(owner, tasks);
+			}
+
+			tasks.add(new ScheduleTask(group, priority, this._sequence++, task));
+		}
+
+		dispatch();
+	}
+
+	/**
+	 * 获取正在执行的任务数。
+	 * 
+	 * @return
+	 */
+	public int getRunningCount()
+	{
+		synchronized (this._lock)
+		{
+			return this._runnings;
+		}
+	}
+
+	/**
+	 * 获取排队等待的任务数。
+	 * 
+	 * @return
+	 */
+	public int getQueuedCount()
+	{
+		synchronized (this._lock)
+		{
+			int count = 0;
+
+			for (TreeSet<ScheduleTask> tasks : this._ownerTasks.values())
+				count += tasks.size();
+
+			return count;
+		}
+	}
+
+	/**
+	 * 关闭。
+	 */
+	public void shutdown()
+	{
+		synchronized (this._lock)
+		{
+			this._shutdown = true;
+			this._ownerTasks.clear();
+		}
+
+		this.executorService.shutdown();
+	}
+
+	/**
+	 * 是否已关闭。
+	 * 
+	 * @return
+	 */
+	public boolean isShutdown()
+	{
+		synchronized (this._lock)
+		{
+			return this._shutdown;
+		}
+	}
+
+	/**
+	 * 为当前线程正在执行的任务获取额外的并发数，用于任务内部的并行操作（比如分区并行导出）。
+	 * <p>
+	 * 获取的并发数同样计入最大并发数、分组最大并发数，因此可能少于{@code count}，使用完后应调用{@linkplain #releaseCurrent(int)}释放。
+	 * </p>
+	 * <p>
+	 * 如果当前线程不是在执行调度器的任务，将直接返回{@code count}。
+	 * </p>
+	 * 
+	 * @param count
+	 * @return 获取的并发数
+	 */
+	public static int tryAcquireCurrent(int count)
+	{
+		if (count <= 0)
+			return 0;
+
+		ScheduleRunnable current = CURRENT_RUNNABLE.get();
+
+		if (current == null)
+			return count;
+
+		return current.getScheduler().tryAcquire(current.getTask(), count);
+	}
+
+	/**
+	 * 释放{@linkplain #tryAcquireCurrent(int)}获取的并发数。
+	 * 
+	 * @param count
+	 */
+	public static void releaseCurrent(int count)
+	{
+		if (count <= 0)
+			return;
+
+		ScheduleRunnable current = CURRENT_RUNNABLE.get();
+
+		if (current == null)
+			return;
+
+		SubDataExchangeScheduler scheduler = current.getScheduler();
+		scheduler.release(current.getTask(), count);
+		scheduler.dispatch();
+	}
+
+	/**
+	 * 为正在执行的任务获取额外的并发数。
+	 * 
+	 * @param task
+	 * @param count
+	 * @return
+	 */
+	protected int tryAcquire(ScheduleTask task, int count)
+	{
+		synchronized (this._lock)
+		{
+			int acquired = Math.min(count, this.maxConcurrency - this._runnings);
+
+			if (task.getGroup() != null)
+				acquired = Math.min(acquired, this.maxGroupConcurrency - getGroupRunning(task.getGroup()));
+
+			if (acquired <= 0)
+				return 0;
+
+			this._runnings += acquired;
+			incrementGroupRunning(task.getGroup(), acquired);
+
+			return acquired;
+		}
+	}
+
+	/**
+	 * 执行并发数允许的排队任务。
+	 */
+	protected void dispatch()
+	{
+		List<ScheduleTask> dispatches = new ArrayList<>();
+
+		synchronized (this._lock)
+		{
+			ScheduleTask task = null;
+
+			while (this._runnings < this.maxConcurrency && (task = pollNext()) != null)
+			{
+				this._runnings++;
+				incrementGroupRunning(task.getGroup(), 1);
+
+				dispatches.add(task);
+			}
+		}
+
+		for (ScheduleTask task : dispatches)
+		{
+			try
+			{
+				this.executorService.execute(new ScheduleRunnable(task));
+			}
+			catch (Throwable t)
+			{
+				LOGGER.error("execute sub exchange task error", t);
+				release(task);
+			}
+		}
+	}
+
+	/**
+	 * 按照所属者轮流顺序取出下一个可执行任务，没有则返回{@code null}。
+	 * <p>
+	 * 此方法应在同步块内调用。
+	 * </p>
+	 * 
+	 * @return
+	 */
+	protected ScheduleTask pollNext()
+	{
+		Iterator<Map.Entry<Object, TreeSet<ScheduleTask>>> ownerIterator = this._ownerTasks.entrySet().iterator();
+
+		while (ownerIterator.hasNext())
+		{
+			Map.Entry<Object, TreeSet<ScheduleTask>> entry = ownerIterator.next();
+			TreeSet<ScheduleTask> tasks = entry.getValue();
+
+			ScheduleTask next = null;
+
+			Iterator<ScheduleTask> taskIterator = tasks.iterator();
+			while (taskIterator.hasNext())
+			{
+				ScheduleTask task = taskIterator.next();
+
+				// 已取消的任务直接丢弃
+				if (task.isDone())
+				{
+					taskIterator.remove();
+					continue;
+				}
+
+				if (getGroupRunning(task.getGroup()) < this.maxGroupConcurrency)
+				{
+					taskIterator.remove();
+					next = task;
+					break;
+				}
+			}
+
+			if (next != null || tasks.isEmpty())
+			{
+				ownerIterator.remove();
+
+				// 移至末尾，下次优先调度其他所属者
+				if (!tasks.isEmpty())
+					this._ownerTasks.put(entry.getKey(), tasks);
+			}
+
+			if (next != null)
+				return next;
+		}
+
+		return null;
+	}
+
+	protected void release(ScheduleTask task)
+	{
+		release(task, 1);
+	}
+
+	protected void release(ScheduleTask task, int count)
+	{
+		synchronized (this._lock)
+		{
+			this._runnings -= count;
+			incrementGroupRunning(task.getGroup(), -count);
+		}
+	}
+
+	protected int getGroupRunning(Object group)
+	{
+		if (group == null)
+			return 0;
+
+		Integer count = this._groupRunnings.get(group);
+
+		return (count == null ? 0 : count);
+	}
+
+	protected void incrementGroupRunning(Object group, int delta)
+	{
+		if (group == null)
+			return;
+
+		int count = getGroupRunning(group) + delta;
+
+		if (count <= 0)
+			this._groupRunnings.remove(group);
+		else
+			this._groupRunnings.put(group, count);
+	}
+
+	protected static class ScheduleTask
+	{
+		private final Object group;
+
+		private final int priority;
+
+		private final long sequence;
+
+		private final Runnable runnable;
+
+		public ScheduleTask(Object group, int priority, long sequence, Runnable runnable)
+		{
+			super();
+			this.group = group;
+			this.priority = priority;
+			this.sequence = sequence;
+			this.runnable = runnable;
+		}
+
+		public Object getGroup()
+		{
+			return group;
+		}
+
+		public int getPriority()
+		{
+			return priority;
+		}
+
+		public long getSequence()
+		{
+			return sequence;
+		}
+
+		public Runnable getRunnable()
+		{
+			return runnable;
+		}
+
+		public boolean isDone()
+		{
+			return (this.runnable instanceof Future<?> && ((Future<?>) this.runnable).isDone());
+		}
+	}
+
+	protected class ScheduleRunnable implements Runnable
+	{
+		private final ScheduleTask task;
+
+		public ScheduleRunnable(ScheduleTask task)
+		{
+			super();
+			this.task = task;
+		}
+
+		public SubDataExchangeScheduler getScheduler()
+		{
+			return SubDataExchangeScheduler.this;
+		}
+
+		public ScheduleTask getTask()
+		{
+			return task;
+		}
+
+		@Override
+		public void run()
+		{
+			CURRENT_RUNNABLE.set(this);
+
+			try
+			{
+				this.task.getRunnable().run();
+			}
+			finally
+			{
+				CURRENT_RUNNABLE.remove();
+
+				release(this.task);
+				dispatch();
+			}
+		}
+	}
+}
@@ -6,7 +6,8 @@ package org.datagear.dataexchange;
 
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
-import java.sql.ResultSet;
+
+import org.datagear.util.QueryResultSet;
 
 /**
  * 表{@linkplain Query}。
@@ -40,7 +41,7 @@ public class TableQuery extends AbstractQuery
 	}
 
 	@Override
-	public ResultSet execute(Connection cn) throws Throwable
+	public QueryResultSet execute(Connection cn) throws Throwable
 	{
 		DatabaseMetaData metaData = cn.getMetaData();
 
@@ -19,6 +19,9 @@ public class TextDataExportOption implements Serializable
 	/** 列值非法时设置为null */
 	private boolean nullForIllegalColumnValue = false;
 
+	/** 表导出的分区数，大于1时将按照整数主键范围分区并行导出，各分区在不同事务中查询，导出结果不是一致快照 */
+	private int partitionCount = 0;
+
 	public TextDataExportOption()
 	{
 		super();
@@ -39,4 +42,14 @@ public class TextDataExportOption implements Serializable
 	{
 		this.nullForIllegalColumnValue = nullForIllegalColumnValue;
 	}
+
+	public int getPartitionCount()
+	{
+		return partitionCount;
+	}
+
+	public void setPartitionCount(int partitionCount)
+	{
+		this.partitionCount = partitionCount;
+	}
 }
@@ -20,6 +20,9 @@ public class ValueDataImportOption extends DataImportOption
 	/** 当列值非法时设置为null */
 	private boolean nullForIllegalColumnValue;
 
+	/** 批量导入条数，小于等于1表示逐条导入 */
+	private int batchSize = 0;
+
 	public ValueDataImportOption()
 	{
 		super();
@@ -53,11 +56,22 @@ public class ValueDataImportOption extends DataImportOption
 		this.nullForIllegalColumnValue = nullForIllegalColumnValue;
 	}
 
+	public int getBatchSize()
+	{
+		return batchSize;
+	}
+
+	public void setBatchSize(int batchSize)
+	{
+		this.batchSize = batchSize;
+	}
+
 	@Override
 	public String toString()
 	{
 		return getClass().getSimpleName() + " [exceptionResolve=" + getExceptionResolve() + ", ignoreInexistentColumn="
-				+ ignoreInexistentColumn + ", nullForIllegalColumnValue=" + nullForIllegalColumnValue + "]";
+				+ ignoreInexistentColumn + ", nullForIllegalColumnValue=" + nullForIllegalColumnValue + ", batchSize="
+				+ batchSize + "]";
 	}
 
 }
@@ -16,12 +16,14 @@ import org.datagear.dataexchange.AbstractDevotedDBMetaDataExchangeService;
 import org.datagear.dataexchange.DataExchangeContext;
 import org.datagear.dataexchange.DataExchangeException;
 import org.datagear.dataexchange.IndexFormatDataExchangeContext;
+import org.datagear.dataexchange.RangeTableQuery;
 import org.datagear.dataexchange.RowDataIndex;
 import org.datagear.dataexchange.TextDataExportListener;
 import org.datagear.dataexchange.TextDataExportOption;
 import org.datagear.meta.Column;
 import org.datagear.meta.resolver.DBMetaResolver;
 import org.datagear.util.JdbcUtil;
+import org.datagear.util.QueryResultSet;
 
 /**
  * CSV导出服务。
@@ -52,22 +54,97 @@ public class CsvDataExportService extends AbstractDevotedDBMetaDataExchangeServi
 	{
 		IndexFormatDataExchangeContext exportContext = IndexFormatDataExchangeContext.cast(context);
 
-		TextDataExportListener listener = dataExchange.getListener();
-		TextDataExportOption exportOption = dataExchange.getExportOption();
-
 		Writer csvWriter = getResource(dataExchange.getWriterFactory(), exportContext);
 
 		Connection cn = exportContext.getConnection();
 		JdbcUtil.setReadonlyIfSupports(cn, true);
 
-		ResultSet rs = dataExchange.getQuery().execute(cn);
+		List<RangeTableQuery> partitionQueries = resolvePartitionQueries(cn, dataExchange);
 
-		List<Column> columns = getColumns(cn, rs);
-		int columnCount = columns.size();
+		if (partitionQueries != null)
+		{
+			exchangePartitions(dataExchange, partitionQueries, csvWriter);
+			return;
+		}
+
+		QueryResultSet qrs = dataExchange.getQuery().execute(cn);
+
+		try
+		{
+			ResultSet rs = qrs.getResultSet();
+
+			List<Column> columns = getColumns(cn, rs);
 
+			CSVPrinter csvPrinter = buildCSVPrinter(csvWriter);
+
+			writeColumns(csvPrinter, columns);
+
+			writeRecords(dataExchange, cn, columns, rs, csvPrinter, exportContext, dataExchange.getListener());
+		}
+		finally
+		{
+			QueryResultSet.close(qrs);
+		}
+	}
+
+	/**
+	 * 分区并行导出。
+	 * 
+	 * @param dataExchange
+	 * @param partitionQueries
+	 * @param csvWriter
+	 * @throws Throwable
+	 */
+	protected void exchangePartitions(CsvDataExport dataExchange, List<RangeTableQuery> partitionQueries,
+			Writer csvWriter) throws Throwable
+	{
 		CSVPrinter csvPrinter = buildCSVPrinter(csvWriter);
 
-		writeColumns(csvPrinter, columns);
+		exportPartitions(dataExchange, partitionQueries, new PartitionWriter()
+		{
+			@Override
+			public void write(Connection cn, ResultSet rs, List<Column> columns, Writer out,
+					IndexFormatDataExchangeContext context, TextDataExportListener listener) throws Throwable
+			{
+				CSVPrinter partitionPrinter = buildCSVPrinter(out);
+				writeRecords(dataExchange, cn, columns, rs, partitionPrinter, context, listener);
+				partitionPrinter.flush();
+			}
+		}, new PartitionConsumer()
+		{
+			@Override
+			public Writer start(int index, List<Column> columns) throws Throwable
+			{
+				if (index == 0)
+				{
+					writeColumns(csvPrinter, columns);
+					csvPrinter.flush();
+				}
+
+				return csvWriter;
+			}
+		});
+	}
+
+	/**
+	 * 写入结果集的所有记录。
+	 * 
+	 * @param dataExchange
+	 * @param cn
+	 * @param columns
+	 * @param rs
+	 * @param csvPrinter
+	 * @param exportContext
+	 * @param listener
+	 *            允许为{@code null}
+	 * @throws Throwable
+	 */
+	protected void writeRecords(CsvDataExport dataExchange, Connection cn, List<Column> columns, ResultSet rs,
+			CSVPrinter csvPrinter, IndexFormatDataExchangeContext exportContext, TextDataExportListener listener)
+			throws Throwable
+	{
+		TextDataExportOption exportOption = dataExchange.getExportOption();
+		int columnCount = columns.size();
 
 		long row = 0;
 
@@ -60,7 +60,7 @@ public class CsvDataImportService extends AbstractDevotedDBMetaDataExchangeServi
 		JdbcUtil.setAutoCommitIfSupports(cn, false);
 		JdbcUtil.setReadonlyIfSupports(cn, false);
 
-		PreparedStatement st = null;
+		ImportValueDataBatch batch = null;
 
 		List<Column> rawColumns = null;
 		List<Column> noNullColumns = null;
@@ -83,20 +83,23 @@ public class CsvDataImportService extends AbstractDevotedDBMetaDataExchangeServi
 					throw new TableMismatchException(dataExchange.getTable());
 
 				String sql = buildInsertPreparedSql(cn, dataExchange.getTable(), noNullColumns);
-				st = cn.prepareStatement(sql);
+				PreparedStatement st = cn.prepareStatement(sql);
+				batch = createImportValueDataBatch(st, noNullColumns, importOption,
+						importContext.getDataFormatContext(), dataExchange.getListener());
 			}
 			else
 			{
 				List<String> columnValues = resolveCSVRecordValues(dataExchange, csvRecord, rawColumns, noNullColumns);
 
-				importValueData(cn, st, noNullColumns, columnValues, importContext.getDataIndex(),
-						importOption.isNullForIllegalColumnValue(), importOption.getExceptionResolve(),
-						importContext.getDataFormatContext(), dataExchange.getListener());
+				importValueData(cn, batch, columnValues, importContext.getDataIndex());
 			}
 
 			row++;
 		}
 
+		if (batch != null)
+			flushImportValueDataBatch(cn, batch);
+
 		commit(cn);
 	}
 
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2018 datagear.tech. All Rights Reserved.
+ */
+
+package org.datagear.dataexchange.support;
+
+import org.datagear.dataexchange.DataFormat;
+import org.datagear.dataexchange.Query;
+import org.datagear.dataexchange.TableTextValueDataImport;
+import org.datagear.dataexchange.ValueDataImportOption;
+import org.datagear.util.resource.ConnectionFactory;
+
+/**
+ * 数据库导入。
+ * <p>
+ * 它将源数据库{@linkplain #getSourceQuery()}的结果直接导入目标数据库（{@linkplain #getConnectionFactory()}）的
+ * {@linkplain #getTable()}表，结果集列按照名称与目标表列对应。
+ * </p>
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class DbDataImport extends TableTextValueDataImport
+{
+	/** 默认读写缓冲记录数 */
+	public static final int DEFAULT_BUFFER_SIZE = 1024;
+
+	/** 源数据库连接工厂 */
+	private ConnectionFactory sourceConnectionFactory;
+
+	/** 源数据查询 */
+	private Query sourceQuery;
+
+	/** 读取线程与写入线程之间的缓冲记录数 */
+	private int bufferSize = DEFAULT_BUFFER_SIZE;
+
+	public DbDataImport()
+	{
+		super();
+	}
+
+	public DbDataImport(ConnectionFactory connectionFactory, DataFormat dataFormat,
+			ValueDataImportOption importOption, String table, ConnectionFactory sourceConnectionFactory,
+			Query sourceQuery)
+	{
+		super(connectionFactory, dataFormat, importOption, table);
+		this.sourceConnectionFactory = sourceConnectionFactory;
+		this.sourceQuery = sourceQuery;
+	}
+
+	public ConnectionFactory getSourceConnectionFactory()
+	{
+		return sourceConnectionFactory;
+	}
+
+	public void setSourceConnectionFactory(ConnectionFactory sourceConnectionFactory)
+	{
+		this.sourceConnectionFactory = sourceConnectionFactory;
+	}
+
+	public Query getSourceQuery()
+	{
+		return sourceQuery;
+	}
+
+	public void setSourceQuery(Query sourceQuery)
+	{
+		this.sourceQuery = sourceQuery;
+	}
+
+	public int getBufferSize()
+	{
+		return bufferSize;
+	}
+
+	public void setBufferSize(int bufferSize)
+	{
+		this.bufferSize = bufferSize;
+	}
+}
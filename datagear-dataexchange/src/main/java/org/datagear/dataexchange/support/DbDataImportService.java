@@ -0,0 +1,333 @@
+/*
+ * Copyright (c) 2018 datagear.tech. All Rights Reserved.
+ */
+
+package org.datagear.dataexchange.support;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.datagear.dataexchange.AbstractDevotedDBMetaDataExchangeService;
+import org.datagear.dataexchange.DataExchangeContext;
+import org.datagear.dataexchange.DataExchangeException;
+import org.datagear.dataexchange.IndexFormatDataExchangeContext;
+import org.datagear.dataexchange.RowDataIndex;
+import org.datagear.dataexchange.ValueDataImportOption;
+import org.datagear.meta.Column;
+import org.datagear.meta.resolver.DBMetaResolver;
+import org.datagear.util.JdbcUtil;
+import org.datagear.util.QueryResultSet;
+
+/**
+ * 数据库导入服务。
+ * <p>
+ * 它使用一个读取线程从源数据库结果集中读取记录（按照源列类型读取值），放入有界缓冲队列，
+ * 当前线程则从队列中取出记录，按照目标表列类型设置参数并批量插入，源数据不会写入任何中间文件。
+ * </p>
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class DbDataImportService extends AbstractDevotedDBMetaDataExchangeService<DbDataImport>
+{
+	/** 读取结束标记 */
+	protected static final Object[] END_OF_ROWS = new Object[0];
+
+	public DbDataImportService()
+	{
+		super();
+	}
+
+	public DbDataImportService(DBMetaResolver dbMetaResolver)
+	{
+		super(dbMetaResolver);
+	}
+
+	@Override
+	protected DataExchangeContext createDataExchangeContext(DbDataImport dataExchange)
+	{
+		return IndexFormatDataExchangeContext.valueOf(dataExchange);
+	}
+
+	@Override
+	protected void exchange(DbDataImport dataExchange, DataExchangeContext context) throws Throwable
+	{
+		IndexFormatDataExchangeContext importContext = IndexFormatDataExchangeContext.cast(context);
+
+		Connection sourceCn = getResource(dataExchange.getSourceConnectionFactory(), importContext);
+		JdbcUtil.setReadonlyIfSupports(sourceCn, true);
+
+		Connection cn = context.getConnection();
+		JdbcUtil.setAutoCommitIfSupports(cn, false);
+		JdbcUtil.setReadonlyIfSupports(cn, false);
+
+		QueryResultSet qrs = dataExchange.getSourceQuery().execute(sourceCn);
+
+		try
+		{
+			exchange(dataExchange, importContext, sourceCn, qrs.getResultSet(), cn);
+		}
+		finally
+		{
+			QueryResultSet.close(qrs);
+		}
+
+		commit(cn);
+	}
+
+	protected void exchange(DbDataImport dataExchange, IndexFormatDataExchangeContext importContext,
+			Connection sourceCn, ResultSet rs, Connection cn) throws Throwable
+	{
+		ValueDataImportOption importOption = dataExchange.getImportOption();
+
+		List<Column> sourceColumns = getColumns(sourceCn, rs);
+		List<Column> rawColumns = resolveColumns(dataExchange, cn, sourceColumns);
+		List<Column> noNullColumns = removeNullColumns(rawColumns);
+
+		// 表不匹配
+		if (noNullColumns == null || noNullColumns.isEmpty())
+			throw new TableMismatchException(dataExchange.getTable());
+
+		String sql = buildInsertPreparedSql(cn, dataExchange.getTable(), noNullColumns);
+		PreparedStatement st = cn.prepareStatement(sql);
+		ImportValueDataBatch batch = createImportValueDataBatch(st, noNullColumns, importOption,
+				importContext.getDataFormatContext(), dataExchange.getListener());
+
+		int bufferSize = dataExchange.getBufferSize();
+		if (bufferSize < 1)
+			bufferSize = DbDataImport.DEFAULT_BUFFER_SIZE;
+
+		SourceReader sourceReader = new SourceReader(sourceCn, rs, sourceColumns, rawColumns,
+				new ArrayBlockingQueue<>(bufferSize));
+		Thread readerThread = new Thread(sourceReader, DbDataImportService.class.getSimpleName() + "-reader");
+		readerThread.setDaemon(true);
+		readerThread.start();
+
+		try
+		{
+			long row = 0;
+
+			while (true)
+			{
+				Object[] values = sourceReader.take();
+
+				if (values == END_OF_ROWS)
+					break;
+
+				importContext.setDataIndex(RowDataIndex.valueOf(row));
+
+				importValueData(cn, batch, Arrays.asList(values), importContext.getDataIndex());
+
+				row++;
+			}
+
+			flushImportValueDataBatch(cn, batch);
+		}
+		finally
+		{
+			sourceReader.abort();
+			readerThread.join();
+
+			JdbcUtil.closeStatement(st);
+		}
+	}
+
+	@Override
+	protected void onException(DbDataImport dataExchange, DataExchangeContext context, DataExchangeException e)
+			throws DataExchangeException
+	{
+		processTransactionForDataExchangeException(context, e, dataExchange.getImportOption().getExceptionResolve());
+
+		super.onException(dataExchange, context, e);
+	}
+
+	/**
+	 * 解析与源列一一对应的目标表列。
+	 * <p>
+	 * 当目标表没有对应名称的列时，如果{@linkplain ValueDataImportOption#isIgnoreInexistentColumn()}为{@code true}，
+	 * 返回列表对应位置将为{@code null}，否则，将立刻抛出{@linkplain org.datagear.dataexchange.ColumnNotFoundException}。
+	 * </p>
+	 * 
+	 * @param dataExchange
+	 * @param cn
+	 * @param sourceColumns
+	 * @return
+	 */
+	protected List<Column> resolveColumns(DbDataImport dataExchange, Connection cn, List<Column> sourceColumns)
+	{
+		List<String> columnNames = new ArrayList<>(sourceColumns.size());
+
+		for (Column column : sourceColumns)
+			columnNames.add(column.getName());
+
+		return getColumns(cn, dataExchange.getTable(), columnNames,
+				dataExchange.getImportOption().isIgnoreInexistentColumn());
+	}
+
+	/**
+	 * 源数据读取器。
+	 * <p>
+	 * 它在单独的线程中按照源列类型读取记录值，并放入有界缓冲队列，队列满时等待写入线程取出。
+	 * </p>
+	 * <p>
+	 * 它只读取有对应目标表列的源列，没有对应目标表列的源列将被忽略，不会读取其值。
+	 * </p>
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	protected class SourceReader implements Runnable
+	{
+		private final Connection cn;
+
+		private final ResultSet rs;
+
+		private final List<Column> columns;
+
+		private final List<Column> targetColumns;
+
+		private final BlockingQueue<Object[]> queue;
+
+		private volatile boolean aborted = false;
+
+		private volatile boolean finished = false;
+
+		private volatile Throwable exception = null;
+
+		/**
+		 * 创建实例。
+		 * 
+		 * @param cn
+		 * @param rs
+		 * @param columns
+		 *            源列
+		 * @param targetColumns
+		 *            与源列一一对应的目标表列，元素为{@code null}表示对应的源列没有目标表列
+		 * @param queue
+		 */
+		public SourceReader(Connection cn, ResultSet rs, List<Column> columns, List<Column> targetColumns,
+				BlockingQueue<Object[]> queue)
+		{
+			super();
+			this.cn = cn;
+			this.rs = rs;
+			this.columns = columns;
+			this.targetColumns = targetColumns;
+			this.queue = queue;
+		}
+
+		@Override
+		public void run()
+		{
+			int[] columnIndexes = getReadColumnIndexes();
+
+			try
+			{
+				while (!this.aborted && this.rs.next())
+				{
+					Object[] values = new Object[columnIndexes.length];
+
+					for (int i = 0; i < columnIndexes.length; i++)
+					{
+						int columnIndex = columnIndexes[i];
+						int sqlType = this.columns.get(columnIndex).getType();
+
+						values[i] = getValue(this.cn, this.rs, columnIndex + 1, sqlType);
+					}
+
+					if (!put(values))
+						return;
+				}
+			}
+			catch (Throwable t)
+			{
+				this.exception = t;
+			}
+			finally
+			{
+				this.finished = true;
+			}
+		}
+
+		/**
+		 * 取出下一条记录，读取结束时返回{@linkplain DbDataImportService#END_OF_ROWS}。
+		 * 
+		 * @return
+		 * @throws Throwable
+		 *             读取线程出现的异常
+		 */
+		public Object[] take() throws Throwable
+		{
+			while (true)
+			{
+				Object[] values = this.queue.poll(100, TimeUnit.MILLISECONDS);
+
+				if (values != null)
+					return values;
+
+				// 读取线程结束后再检查一次，避免遗漏其结束前放入的记录
+				if (this.finished)
+				{
+					values = this.queue.poll();
+
+					if (values != null)
+						return values;
+
+					if (this.exception != null)
+						throw this.exception;
+
+					return END_OF_ROWS;
+				}
+			}
+		}
+
+		/**
+		 * 中止读取。
+		 */
+		public void abort()
+		{
+			this.aborted = true;
+		}
+
+		/**
+		 * 获取需要读取的源列索引（以{@code 0}开始）。
+		 * 
+		 * @return
+		 */
+		protected int[] getReadColumnIndexes()
+		{
+			List<Integer> indexes = new ArrayList<>(this.columns.size());
+
+			for (int i = 0, len = this.columns.size(); i < len; i++)
+			{
+				if (this.targetColumns.get(i) != null)
+					indexes.add(i);
+			}
+
+			int[] re = new int[indexes.size()];
+
+			for (int i = 0; i < re.length; i++)
+				re[i] = indexes.get(i);
+
+			return re;
+		}
+
+		protected boolean put(Object[] values) throws InterruptedException
+		{
+			while (!this.aborted)
+			{
+				if (this.queue.offer(values, 100, TimeUnit.MILLISECONDS))
+					return true;
+			}
+
+			return false;
+		}
+	}
+}
@@ -32,6 +32,7 @@ import org.datagear.dataexchange.TextDataExportOption;
 import org.datagear.meta.Column;
 import org.datagear.meta.resolver.DBMetaResolver;
 import org.datagear.util.JdbcUtil;
+import org.datagear.util.QueryResultSet;
 import org.datagear.util.resource.ConnectionFactory;
 
 /**
@@ -69,10 +70,19 @@ public class ExcelDataExportService extends AbstractDevotedDBMetaDataExchangeSer
 		Connection cn = context.getConnection();
 		JdbcUtil.setReadonlyIfSupports(cn, true);
 
-		ResultSet rs = dataExchange.getQuery().execute(cn);
-		List<Column> columns = getColumns(cn, rs);
+		QueryResultSet qrs = dataExchange.getQuery().execute(cn);
 
-		writeRecords(dataExchange, cn, columns, rs, out, exportContext);
+		try
+		{
+			ResultSet rs = qrs.getResultSet();
+			List<Column> columns = getColumns(cn, rs);
+
+			writeRecords(dataExchange, cn, columns, rs, out, exportContext);
+		}
+		finally
+		{
+			QueryResultSet.close(qrs);
+		}
 	}
 
 	/**
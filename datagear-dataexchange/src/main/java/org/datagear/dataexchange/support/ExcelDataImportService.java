@@ -46,7 +46,6 @@ import org.datagear.meta.resolver.DBMetaResolver;
 import org.datagear.util.IOUtil;
 import org.datagear.util.JdbcUtil;
 import org.xml.sax.Attributes;
-import org.xml.sax.ContentHandler;
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 import org.xml.sax.XMLReader;
@@ -116,11 +115,13 @@ public class ExcelDataImportService extends AbstractDevotedDBMetaDataExchangeSer
 		POIFSFileSystem poifs = new POIFSFileSystem(dataExchange.getFile(), true);
 
 		HSSFRequest req = new HSSFRequest();
-		req.addListenerForAllRecords(
-				new MissingRecordAwareHSSFListener(new XlsEventListener(dataExchange, importContext, cn)));
+		XlsEventListener listener = new XlsEventListener(dataExchange, importContext, cn);
+		req.addListenerForAllRecords(new MissingRecordAwareHSSFListener(listener));
 
 		HSSFEventFactory factory = new HSSFEventFactory();
 		factory.processWorkbookEvents(req, poifs);
+
+		listener.flushBatch();
 	}
 
 	/**
@@ -184,10 +185,12 @@ public class ExcelDataImportService extends AbstractDevotedDBMetaDataExchangeSer
 		InputSource sheetSource = new InputSource(sheetInputStream);
 
 		XMLReader sheetParser = SAXHelper.newXMLReader();
-		ContentHandler handler = new XlsxSheetHandler(dataExchange, importContext, cn, stylesTable, sharedStringsTable,
-				sheetName, sheetIndex);
+		XlsxSheetHandler handler = new XlsxSheetHandler(dataExchange, importContext, cn, stylesTable,
+				sharedStringsTable, sheetName, sheetIndex);
 		sheetParser.setContentHandler(handler);
 		sheetParser.parse(sheetSource);
+
+		handler.flushBatch();
 	}
 
 	protected <T> List<T> createListWithNullElements(int size)
@@ -247,6 +250,7 @@ public class ExcelDataImportService extends AbstractDevotedDBMetaDataExchangeSer
 		private List<Column> _columns = null;
 		private List<Column> _noNullColumns = null;
 		private PreparedStatement _statement = null;
+		private ImportValueDataBatch _batch = null;
 
 		public XlsEventListener()
 		{
@@ -455,8 +459,14 @@ public class ExcelDataImportService extends AbstractDevotedDBMetaDataExchangeSer
 					if (this._noNullColumns == null || this._noNullColumns.isEmpty())
 						throw new TableMismatchException(tableName);
 
+					// 上一个sheet的剩余批处理数据
+					flushBatch();
+
 					String sql = buildInsertPreparedSqlUnchecked(this.connection, tableName, this._noNullColumns);
 					this._statement = createPreparedStatementUnchecked(this.connection, sql);
+					this._batch = createImportValueDataBatch(this._statement, this._noNullColumns,
+							this.excelDataImport.getImportOption(), this.importContext.getDataFormatContext(),
+							this.excelDataImport.getListener());
 				}
 				// 导入数据
 				else
@@ -471,11 +481,8 @@ public class ExcelDataImportService extends AbstractDevotedDBMetaDataExchangeSer
 
 						this.importContext.setDataIndex(ExcelDataIndex.valueOf(this._sheetIndex, this._rowIndex));
 
-						ExcelDataImportService.this.importValueData(this.connection, this._statement,
-								this._noNullColumns, columnValues, this.importContext.getDataIndex(),
-								this.excelDataImport.getImportOption().isNullForIllegalColumnValue(),
-								this.excelDataImport.getImportOption().getExceptionResolve(),
-								this.importContext.getDataFormatContext(), this.excelDataImport.getListener());
+						ExcelDataImportService.this.importValueData(this.connection, this._batch, columnValues,
+								this.importContext.getDataIndex());
 					}
 				}
 
@@ -483,6 +490,17 @@ public class ExcelDataImportService extends AbstractDevotedDBMetaDataExchangeSer
 				this._rowIndex++;
 			}
 		}
+
+		/**
+		 * 执行剩余的批处理数据。
+		 * 
+		 * @throws DataExchangeException
+		 */
+		public void flushBatch() throws DataExchangeException
+		{
+			if (this._batch != null)
+				flushImportValueDataBatch(this.connection, this._batch);
+		}
 	}
 
 	/**
@@ -532,6 +550,7 @@ public class ExcelDataImportService extends AbstractDevotedDBMetaDataExchangeSer
 		private List<Column> _columns = null;
 		private List<Column> _noNullColumns = null;
 		private PreparedStatement _statement = null;
+		private ImportValueDataBatch _batch = null;
 
 		public XlsxSheetHandler()
 		{
@@ -771,6 +790,9 @@ public class ExcelDataImportService extends AbstractDevotedDBMetaDataExchangeSer
 
 					String sql = buildInsertPreparedSqlUnchecked(this.connection, tableName, this._noNullColumns);
 					this._statement = createPreparedStatementUnchecked(this.connection, sql);
+					this._batch = createImportValueDataBatch(this._statement, this._noNullColumns,
+							this.excelDataImport.getImportOption(), this.importContext.getDataFormatContext(),
+							this.excelDataImport.getListener());
 				}
 				// 导入数据
 				else
@@ -785,11 +807,8 @@ public class ExcelDataImportService extends AbstractDevotedDBMetaDataExchangeSer
 
 						this.importContext.setDataIndex(ExcelDataIndex.valueOf(this.sheetIndex, this._rowIndex));
 
-						ExcelDataImportService.this.importValueData(this.connection, this._statement,
-								this._noNullColumns, columnValues, this.importContext.getDataIndex(),
-								this.excelDataImport.getImportOption().isNullForIllegalColumnValue(),
-								this.excelDataImport.getImportOption().getExceptionResolve(),
-								this.importContext.getDataFormatContext(), this.excelDataImport.getListener());
+						ExcelDataImportService.this.importValueData(this.connection, this._batch, columnValues,
+								this.importContext.getDataIndex());
 					}
 				}
 
@@ -806,6 +825,17 @@ public class ExcelDataImportService extends AbstractDevotedDBMetaDataExchangeSer
 				this._cellContents.append(new String(ch, start, length));
 		}
 
+		/**
+		 * 执行剩余的批处理数据。
+		 * 
+		 * @throws DataExchangeException
+		 */
+		public void flushBatch() throws DataExchangeException
+		{
+			if (this._batch != null)
+				flushImportValueDataBatch(this.connection, this._batch);
+		}
+
 		/**
 		 * 参考{@code org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler.isTextTag(String)}。
 		 * 
@@ -4,6 +4,9 @@
 
 package org.datagear.dataexchange.support;
 
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.StringWriter;
 import java.io.Writer;
 import java.math.BigDecimal;
 import java.math.BigInteger;
@@ -25,11 +28,13 @@ import org.datagear.dataexchange.DataExchangeContext;
 import org.datagear.dataexchange.DataExchangeException;
 import org.datagear.dataexchange.DataFormatContext;
 import org.datagear.dataexchange.IndexFormatDataExchangeContext;
+import org.datagear.dataexchange.RangeTableQuery;
 import org.datagear.dataexchange.RowDataIndex;
 import org.datagear.dataexchange.TextDataExportListener;
 import org.datagear.meta.Column;
 import org.datagear.meta.resolver.DBMetaResolver;
 import org.datagear.util.JdbcUtil;
+import org.datagear.util.QueryResultSet;
 
 /**
  * JSON导出服务。
@@ -76,10 +81,164 @@ public class JsonDataExportService extends AbstractDevotedDBMetaDataExchangeServ
 		Connection cn = context.getConnection();
 		JdbcUtil.setReadonlyIfSupports(cn, true);
 
-		ResultSet rs = dataExchange.getQuery().execute(cn);
-		List<Column> columns = getColumns(cn, rs);
+		List<RangeTableQuery> partitionQueries = resolvePartitionQueries(cn, dataExchange);
 
-		writeRecords(dataExchange, cn, columns, rs, jsonWriter, exportContext);
+		if (partitionQueries != null)
+		{
+			exchangePartitions(dataExchange, partitionQueries, jsonWriter);
+			return;
+		}
+
+		QueryResultSet qrs = dataExchange.getQuery().execute(cn);
+
+		try
+		{
+			ResultSet rs = qrs.getResultSet();
+			List<Column> columns = getColumns(cn, rs);
+
+			writeRecords(dataExchange, cn, columns, rs, jsonWriter, exportContext);
+		}
+		finally
+		{
+			QueryResultSet.close(qrs);
+		}
+	}
+
+	/**
+	 * 分区并行导出。
+	 * <p>
+	 * 每个分区写入以{@code ,}分隔的记录对象片段，再按照分区顺序拼接至数组内。
+	 * </p>
+	 * 
+	 * @param dataExchange
+	 * @param partitionQueries
+	 * @param jsonWriter
+	 * @throws Throwable
+	 */
+	protected void exchangePartitions(JsonDataExport dataExchange, List<RangeTableQuery> partitionQueries,
+			Writer jsonWriter) throws Throwable
+	{
+		JsonDataExportOption exportOption = dataExchange.getExportOption();
+		JsonDataFormat jsonDataFormat = exportOption.getJsonDataFormat();
+		boolean tableObject = JsonDataFormat.TABLE_OBJECT.equals(jsonDataFormat);
+
+		if (tableObject && !dataExchange.hasTableName())
+			throw new DataExchangeException("[JsonDataExport.tableName] must be set");
+
+		StringWriter head = new StringWriter();
+		JsonGenerator headGenerator = FACTORY.createGenerator(head);
+
+		if (tableObject)
+		{
+			headGenerator.writeStartObject();
+			headGenerator.writeStartArray(dataExchange.getTableName());
+		}
+		else
+			headGenerator.writeStartArray();
+
+		headGenerator.flush();
+
+		jsonWriter.write(head.toString());
+
+		boolean[] hasRecord = new boolean[] { false };
+
+		exportPartitions(dataExchange, partitionQueries, new PartitionWriter()
+		{
+			@Override
+			public void write(Connection cn, ResultSet rs, List<Column> columns, Writer out,
+					IndexFormatDataExchangeContext context, TextDataExportListener listener) throws Throwable
+			{
+				long row = 0;
+
+				while (rs.next())
+				{
+					context.setDataIndex(RowDataIndex.valueOf(row));
+
+					if (row > 0)
+						out.write(',');
+
+					// 分区片段不是完整的JSON，因此每条记录使用单独的生成器写入
+					JsonGenerator generator = createGenerator(exportOption, out);
+					writeRecord(dataExchange, cn, columns, rs, context, generator, exportOption, jsonDataFormat,
+							listener);
+					generator.flush();
+
+					if (listener != null)
+						listener.onSuccess(context.getDataIndex());
+
+					row++;
+				}
+			}
+		}, new PartitionConsumer()
+		{
+			@Override
+			public Writer start(int index, List<Column> columns) throws Throwable
+			{
+				// 仅在分区有记录时才需写入分隔符
+				return new FilterWriter(jsonWriter)
+				{
+					private boolean started = false;
+
+					@Override
+					public void write(int c) throws IOException
+					{
+						writeSeparator();
+						super.write(c);
+					}
+
+					@Override
+					public void write(char[] cbuf, int off, int len) throws IOException
+					{
+						if (len > 0)
+							writeSeparator();
+
+						super.write(cbuf, off, len);
+					}
+
+					@Override
+					public void write(String str, int off, int len) throws IOException
+					{
+						if (len > 0)
+							writeSeparator();
+
+						super.write(str, off, len);
+					}
+
+					@Override
+					public void close() throws IOException
+					{
+					}
+
+					protected void writeSeparator() throws IOException
+					{
+						if (this.started)
+							return;
+
+						if (hasRecord[0])
+							this.out.write(',');
+
+						this.started = true;
+						hasRecord[0] = true;
+					}
+				};
+			}
+		});
+
+		jsonWriter.write(tableObject ? "]}" : "]");
+		jsonWriter.flush();
+	}
+
+	/**
+	 * 创建{@linkplain JsonGenerator}。
+	 * 
+	 * @param exportOption
+	 * @param out
+	 * @return
+	 */
+	protected JsonGenerator createGenerator(JsonDataExportOption exportOption, Writer out)
+	{
+		return (exportOption.isPrettyPrint() ? FACTORY_PRETTY_PRINT.createGenerator(out)
+				: FACTORY.createGenerator(out));
 	}
 
 	/**
@@ -99,10 +258,7 @@ public class JsonDataExportService extends AbstractDevotedDBMetaDataExchangeServ
 		JsonDataExportOption exportOption = dataExchange.getExportOption();
 		JsonDataFormat jsonDataFormat = exportOption.getJsonDataFormat();
 
-		int columnCount = columns.size();
-
-		JsonGenerator generator = (exportOption.isPrettyPrint() ? FACTORY_PRETTY_PRINT.createGenerator(out)
-				: FACTORY.createGenerator(out));
+		JsonGenerator generator = createGenerator(exportOption, out);
 
 		if (JsonDataFormat.TABLE_OBJECT.equals(jsonDataFormat))
 		{
@@ -123,17 +279,8 @@ public class JsonDataExportService extends AbstractDevotedDBMetaDataExchangeServ
 		{
 			exportContext.setDataIndex(RowDataIndex.valueOf(row));
 
-			generator.writeStartObject();
-
-			for (int i = 0; i < columnCount; i++)
-			{
-				Column column = columns.get(i);
-
-				writeJsonValue(dataExchange, cn, columns, rs, exportContext, generator, i + 1, column, exportOption,
-						jsonDataFormat, listener);
-			}
-
-			generator.writeEnd();
+			writeRecord(dataExchange, cn, columns, rs, exportContext, generator, exportOption, jsonDataFormat,
+					listener);
 
 			if (listener != null)
 				listener.onSuccess(exportContext.getDataIndex());
@@ -154,6 +301,37 @@ public class JsonDataExportService extends AbstractDevotedDBMetaDataExchangeServ
 		generator.flush();
 	}
 
+	/**
+	 * 写一条记录对象。
+	 * 
+	 * @param dataExchange
+	 * @param cn
+	 * @param columns
+	 * @param rs
+	 * @param exportContext
+	 * @param generator
+	 * @param exportOption
+	 * @param jsonDataFormat
+	 * @param listener
+	 * @throws Throwable
+	 */
+	protected void writeRecord(JsonDataExport dataExchange, Connection cn, List<Column> columns, ResultSet rs,
+			IndexFormatDataExchangeContext exportContext, JsonGenerator generator, JsonDataExportOption exportOption,
+			JsonDataFormat jsonDataFormat, TextDataExportListener listener) throws Throwable
+	{
+		generator.writeStartObject();
+
+		for (int i = 0, len = columns.size(); i < len; i++)
+		{
+			Column column = columns.get(i);
+
+			writeJsonValue(dataExchange, cn, columns, rs, exportContext, generator, i + 1, column, exportOption,
+					jsonDataFormat, listener);
+		}
+
+		generator.writeEnd();
+	}
+
 	/**
 	 * 写JSON值。
 	 * 
@@ -178,6 +178,7 @@ public class JsonDataImportService extends AbstractDevotedDBMetaDataExchangeServ
 
 		PreparedStatement prevSt = null;
 		List<Column> prevColumns = null;
+		ImportValueDataBatch prevBatch = null;
 
 		while (p.hasNext())
 		{
@@ -212,20 +213,26 @@ public class JsonDataImportService extends AbstractDevotedDBMetaDataExchangeServ
 
 				if (newSql)
 				{
+					if (prevBatch != null)
+						flushImportValueDataBatch(cn, prevBatch);
+
 					JdbcUtil.closeStatement(prevSt);
 
 					String sql = buildInsertPreparedSql(cn, table, myColumns);
 
 					prevSt = cn.prepareStatement(sql);
 					prevColumns = myColumns;
+					prevBatch = createImportValueDataBatch(prevSt, prevColumns, importOption,
+							context.getDataFormatContext(), dataExchange.getListener());
 				}
 
-				importValueData(cn, prevSt, prevColumns, myColumnValues, context.getDataIndex(),
-						importOption.isNullForIllegalColumnValue(), importOption.getExceptionResolve(),
-						context.getDataFormatContext(), dataExchange.getListener());
+				importValueData(cn, prevBatch, myColumnValues, context.getDataIndex());
 			}
 		}
 
+		if (prevBatch != null)
+			flushImportValueDataBatch(cn, prevBatch);
+
 		JdbcUtil.closeStatement(prevSt);
 	}
 
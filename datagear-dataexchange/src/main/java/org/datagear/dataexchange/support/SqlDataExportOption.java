@@ -18,6 +18,9 @@ public class SqlDataExportOption extends TextDataExportOption
 
 	private boolean exportCreationSql = false;
 
+	/** 每条INSERT语句包含的行数，大于1时将导出多行VALUES语句 */
+	private int rowsPerStatement = 1;
+
 	public SqlDataExportOption()
 	{
 		super();
@@ -38,4 +41,14 @@ public class SqlDataExportOption extends TextDataExportOption
 	{
 		this.exportCreationSql = exportCreationSql;
 	}
+
+	public int getRowsPerStatement()
+	{
+		return rowsPerStatement;
+	}
+
+	public void setRowsPerStatement(int rowsPerStatement)
+	{
+		this.rowsPerStatement = rowsPerStatement;
+	}
 }
@@ -21,6 +21,7 @@ import org.datagear.meta.Column;
 import org.datagear.meta.PrimaryKey;
 import org.datagear.meta.resolver.DBMetaResolver;
 import org.datagear.util.JdbcUtil;
+import org.datagear.util.QueryResultSet;
 
 /**
  * SQL导出服务。
@@ -58,14 +59,27 @@ public class SqlDataExportService extends AbstractDevotedDBMetaDataExchangeServi
 		Connection cn = context.getConnection();
 		JdbcUtil.setReadonlyIfSupports(cn, true);
 
-		ResultSet rs = dataExchange.getQuery().execute(cn);
-		List<Column> columns = getColumns(cn, rs);
+		QueryResultSet qrs = dataExchange.getQuery().execute(cn);
 
-		writeRecords(dataExchange, cn, columns, rs, sqlWriter, exportContext);
+		try
+		{
+			ResultSet rs = qrs.getResultSet();
+			List<Column> columns = getColumns(cn, rs);
+
+			writeRecords(dataExchange, cn, columns, rs, sqlWriter, exportContext);
+		}
+		finally
+		{
+			QueryResultSet.close(qrs);
+		}
 	}
 
 	/**
 	 * 写记录。
+	 * <p>
+	 * 如果{@linkplain SqlDataExportOption#getRowsPerStatement()}大于{@code 1}，将写入多行{@code VALUES (...),(...)}语句，
+	 * 否则，每行写入一条{@code INSERT}语句。
+	 * </p>
 	 * 
 	 * @param dataExchange
 	 * @param cn
@@ -87,31 +101,41 @@ public class SqlDataExportService extends AbstractDevotedDBMetaDataExchangeServi
 		if (exportOption.isExportCreationSql())
 			writeCreationSql(dataExchange, cn, columns, rs, quote, out, exportContext);
 
+		int rowsPerStatement = exportOption.getRowsPerStatement();
+		String insertPrefix = buildInsertPrefix(dataExchange.getTableName(), columns, quote);
+		boolean[] stringTypes = new boolean[columnCount];
+		for (int i = 0; i < columnCount; i++)
+			stringTypes[i] = isSqlStringType(columns.get(i).getType());
+
+		// 行值先写入此缓冲，再一次性写出
+		StringBuilder sb = new StringBuilder();
+
 		long row = 0;
+		int rowInStatement = 0;
 
 		while (rs.next())
 		{
 			exportContext.setDataIndex(RowDataIndex.valueOf(row));
 
-			out.write("INSERT INTO ");
-			out.write(quote);
-			out.write(dataExchange.getTableName());
-			out.write(quote);
-			out.write(" (");
+			sb.setLength(0);
 
-			for (int i = 0; i < columnCount; i++)
+			if (rowsPerStatement <= 1)
 			{
-				Column column = columns.get(i);
-
-				if (i > 0)
-					out.write(",");
-
-				out.write(quote);
-				out.write(column.getName());
-				out.write(quote);
+				sb.append(insertPrefix);
+				sb.append('(');
+			}
+			else if (rowInStatement == 0)
+			{
+				sb.append(insertPrefix);
+				sb.append(LINE_SEPARATOR);
+				sb.append('(');
+			}
+			else
+			{
+				sb.append(',');
+				sb.append(LINE_SEPARATOR);
+				sb.append('(');
 			}
-
-			out.write(") VALUES(");
 
 			for (int i = 0; i < columnCount; i++)
 			{
@@ -138,31 +162,81 @@ public class SqlDataExportService extends AbstractDevotedDBMetaDataExchangeServi
 				}
 
 				if (i > 0)
-					out.write(",");
+					sb.append(',');
 
 				if (value == null)
 				{
-					out.write("NULL");
+					sb.append("NULL");
 				}
-				else if (isSqlStringType(column.getType()))
+				else if (stringTypes[i])
 				{
-					out.write('\'');
-					out.write(escapeSqlStringValue(value));
-					out.write('\'');
+					sb.append('\'');
+					appendEscapedSqlStringValue(sb, value);
+					sb.append('\'');
 				}
 				else
-					out.write(value);
+					sb.append(value);
 			}
 
-			out.write(");");
+			sb.append(')');
 
-			out.write(LINE_SEPARATOR);
+			rowInStatement++;
+
+			if (rowInStatement >= rowsPerStatement)
+			{
+				sb.append(';');
+				sb.append(LINE_SEPARATOR);
+
+				rowInStatement = 0;
+			}
+
+			out.write(sb.toString());
 
 			if (listener != null)
 				listener.onSuccess(exportContext.getDataIndex());
 
 			row++;
 		}
+
+		// 结束未完成的多行语句
+		if (rowInStatement > 0)
+		{
+			out.write(';');
+			out.write(LINE_SEPARATOR);
+		}
+	}
+
+	/**
+	 * 构建{@code INSERT INTO "TABLE" ("A","B") VALUES}语句前缀。
+	 * 
+	 * @param tableName
+	 * @param columns
+	 * @param quote
+	 * @return
+	 */
+	protected String buildInsertPrefix(String tableName, List<Column> columns, String quote)
+	{
+		StringBuilder sb = new StringBuilder();
+
+		sb.append("INSERT INTO ");
+		sb.append(quote);
+		sb.append(tableName);
+		sb.append(quote);
+		sb.append(" (");
+
+		for (int i = 0, len = columns.size(); i < len; i++)
+		{
+			if (i > 0)
+				sb.append(',');
+
+			sb.append(quote);
+			sb.append(columns.get(i).getName());
+			sb.append(quote);
+		}
+
+		sb.append(") VALUES");
+
+		return sb.toString();
 	}
 
 	/**
@@ -290,19 +364,32 @@ public class SqlDataExportService extends AbstractDevotedDBMetaDataExchangeServi
 
 	protected String escapeSqlStringValue(String value)
 	{
+		if (value.indexOf('\'') < 0)
+			return value;
+
 		StringBuilder sb = new StringBuilder();
+		appendEscapedSqlStringValue(sb, value);
 
-		char[] cs = value.toCharArray();
+		return sb.toString();
+	}
 
-		for (char c : cs)
+	/**
+	 * 将转义后的SQL字符串值追加至{@code sb}。
+	 * 
+	 * @param sb
+	 * @param value
+	 */
+	protected void appendEscapedSqlStringValue(StringBuilder sb, String value)
+	{
+		for (int i = 0, len = value.length(); i < len; i++)
 		{
+			char c = value.charAt(i);
+
 			if (c == '\'')
 				sb.append("''");
 			else
 				sb.append(c);
 		}
-
-		return sb.toString();
 	}
 
 	/**
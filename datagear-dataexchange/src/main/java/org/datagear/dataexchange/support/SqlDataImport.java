@@ -8,7 +8,6 @@ import java.io.Reader;
 
 import org.datagear.dataexchange.DataExchange;
 import org.datagear.dataexchange.DataImportListener;
-import org.datagear.dataexchange.DataImportOption;
 import org.datagear.util.resource.ConnectionFactory;
 import org.datagear.util.resource.ResourceFactory;
 
@@ -20,7 +19,7 @@ import org.datagear.util.resource.ResourceFactory;
  */
 public class SqlDataImport extends DataExchange
 {
-	private DataImportOption importOption;
+	private SqlDataImportOption importOption;
 
 	private ResourceFactory<Reader> readerFactory;
 
@@ -31,7 +30,7 @@ public class SqlDataImport extends DataExchange
 		super();
 	}
 
-	public SqlDataImport(ConnectionFactory connectionFactory, DataImportOption importOption,
+	public SqlDataImport(ConnectionFactory connectionFactory, SqlDataImportOption importOption,
 			ResourceFactory<Reader> readerFactory)
 	{
 		super(connectionFactory);
@@ -39,12 +38,12 @@ public class SqlDataImport extends DataExchange
 		this.readerFactory = readerFactory;
 	}
 
-	public DataImportOption getImportOption()
+	public SqlDataImportOption getImportOption()
 	{
 		return importOption;
 	}
 
-	public void setImportOption(DataImportOption importOption)
+	public void setImportOption(SqlDataImportOption importOption)
 	{
 		this.importOption = importOption;
 	}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2018 datagear.tech. All Rights Reserved.
+ */
+
+/**
+ *
+ */
+package org.datagear.dataexchange.support;
+
+import org.datagear.dataexchange.DataImportOption;
+import org.datagear.dataexchange.ExceptionResolve;
+
+/**
+ * SQL数据导入设置项。
+ *
+ * @author datagear@163.com
+ *
+ */
+public class SqlDataImportOption extends DataImportOption
+{
+	private static final long serialVersionUID = 1L;
+
+	/** 连续数据修改语句的批量执行条数，小于等于1表示逐条执行 */
+	private int batchSize = 0;
+
+	public SqlDataImportOption()
+	{
+		super();
+	}
+
+	public SqlDataImportOption(ExceptionResolve exceptionResolve)
+	{
+		super(exceptionResolve);
+	}
+
+	public SqlDataImportOption(ExceptionResolve exceptionResolve, int batchSize)
+	{
+		super(exceptionResolve);
+		this.batchSize = batchSize;
+	}
+
+	public int getBatchSize()
+	{
+		return batchSize;
+	}
+
+	public void setBatchSize(int batchSize)
+	{
+		this.batchSize = batchSize;
+	}
+
+	@Override
+	public String toString()
+	{
+		return getClass().getSimpleName() + " [exceptionResolve=" + getExceptionResolve() + ", batchSize="
+				+ batchSize + "]";
+	}
+}
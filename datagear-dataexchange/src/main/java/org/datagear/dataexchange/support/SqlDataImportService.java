@@ -7,7 +7,10 @@ package org.datagear.dataexchange.support;
 import java.io.Reader;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.Savepoint;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.datagear.dataexchange.AbstractDevotedDataExchangeService;
 import org.datagear.dataexchange.DataExchangeContext;
@@ -50,6 +53,10 @@ public class SqlDataImportService extends AbstractDevotedDataExchangeService<Sql
 
 	/**
 	 * 执行输入流的SQL语句。
+	 * <p>
+	 * 如果{@linkplain SqlDataImportOption#getBatchSize()}大于{@code 1}，并且连接支持
+	 * {@linkplain JdbcUtil#supportsBatchWithSavepointIfSupports(Connection)}，连续的数据修改语句将以批处理方式执行。
+	 * </p>
 	 * 
 	 * @param cn
 	 * @param st
@@ -61,15 +68,121 @@ public class SqlDataImportService extends AbstractDevotedDataExchangeService<Sql
 	{
 		SqlScriptParser sqlScriptParser = createSqlScriptParser(sqlReader);
 
+		int batchSize = getBatchSize(dataExchange, cn);
+		List<SqlStatement> batch = (batchSize > 1 ? new ArrayList<>(batchSize) : null);
+		int batchStartIndex = 0;
+
 		SqlStatement sqlStatement = null;
 
 		int index = 0;
 		while ((sqlStatement = sqlScriptParser.parseNext()) != null)
 		{
-			executeSqlStatement(dataExchange, cn, st, sqlStatement, index);
+			if (batch != null && isBatchableSql(sqlStatement.getSql()))
+			{
+				if (batch.isEmpty())
+					batchStartIndex = index;
+
+				st.addBatch(sqlStatement.getSql());
+				batch.add(sqlStatement);
+
+				if (batch.size() >= batchSize)
+					executeSqlStatementBatch(dataExchange, cn, st, batch, batchStartIndex);
+			}
+			else
+			{
+				// 先执行之前的批处理，保持执行顺序
+				if (batch != null)
+					executeSqlStatementBatch(dataExchange, cn, st, batch, batchStartIndex);
+
+				executeSqlStatement(dataExchange, cn, st, sqlStatement, index);
+			}
 
 			index++;
 		}
+
+		if (batch != null)
+			executeSqlStatementBatch(dataExchange, cn, st, batch, batchStartIndex);
+	}
+
+	/**
+	 * 获取批处理执行条数。
+	 * 
+	 * @param dataExchange
+	 * @param cn
+	 * @return 小于等于{@code 1}表示逐条执行
+	 */
+	protected int getBatchSize(SqlDataImport dataExchange, Connection cn)
+	{
+		SqlDataImportOption importOption = dataExchange.getImportOption();
+
+		if (importOption == null || importOption.getBatchSize() <= 1)
+			return 0;
+
+		if (!JdbcUtil.supportsBatchWithSavepointIfSupports(cn))
+			return 0;
+
+		return importOption.getBatchSize();
+	}
+
+	/**
+	 * 批处理执行已加入{@code st}的SQL语句，并清空{@code sqlStatements}。
+	 * <p>
+	 * 执行前会设置{@linkplain Savepoint}，如果批处理执行出错，将回滚至此并逐条重新执行这些SQL语句，
+	 * 使得{@linkplain DataImportListener}仍能得到每一条SQL语句的执行结果，且与逐条执行时的处理方式一致。
+	 * </p>
+	 * 
+	 * @param dataExchange
+	 * @param cn
+	 * @param st
+	 * @param sqlStatements
+	 * @param startIndex
+	 *            第一条SQL语句的索引
+	 * @throws Throwable
+	 */
+	protected void executeSqlStatementBatch(SqlDataImport dataExchange, Connection cn, Statement st,
+			List<SqlStatement> sqlStatements, int startIndex) throws Throwable
+	{
+		if (sqlStatements.isEmpty())
+			return;
+
+		try
+		{
+			Savepoint savepoint = cn.setSavepoint();
+			boolean success = false;
+
+			try
+			{
+				st.executeBatch();
+				success = true;
+			}
+			catch (SQLException e)
+			{
+				clearBatchSilently(st);
+				cn.rollback(savepoint);
+			}
+
+			if (success)
+			{
+				JdbcUtil.releaseSavepointSilently(cn, savepoint);
+
+				DataImportListener listener = dataExchange.getListener();
+
+				if (listener != null)
+				{
+					for (SqlStatement sqlStatement : sqlStatements)
+						listener.onSuccess(SqlDataIndex.valueOf(sqlStatement));
+				}
+			}
+			else
+			{
+				for (int i = 0, len = sqlStatements.size(); i < len; i++)
+					executeSqlStatement(dataExchange, cn, st, sqlStatements.get(i), startIndex + i);
+			}
+		}
+		finally
+		{
+			sqlStatements.clear();
+		}
 	}
 
 	/**
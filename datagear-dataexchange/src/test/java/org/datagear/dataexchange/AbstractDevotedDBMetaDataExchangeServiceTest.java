@@ -0,0 +1,510 @@
+/*
+ * Copyright 2018 datagear.tech. All Rights Reserved.
+ */
+
+package org.datagear.dataexchange;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringWriter;
+import java.io.Writer;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.derby.jdbc.EmbeddedDataSource;
+import org.datagear.dataexchange.support.CsvDataExport;
+import org.datagear.dataexchange.support.CsvDataExportService;
+import org.datagear.dataexchange.support.JsonDataExport;
+import org.datagear.dataexchange.support.JsonDataExportOption;
+import org.datagear.dataexchange.support.JsonDataExportService;
+import org.datagear.meta.Column;
+import org.datagear.meta.resolver.GenericDBMetaResolver;
+import org.datagear.util.JdbcUtil;
+import org.datagear.util.resource.ConnectionFactory;
+import org.datagear.util.resource.DataSourceConnectionFactory;
+import org.datagear.util.resource.SimpleClosableFactory;
+import org.datagear.util.resource.SimpleConnectionFactory;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * {@linkplain AbstractDevotedDBMetaDataExchangeService}分区导出单元测试类。
+ *
+ * @author datagear@163.com
+ *
+ */
+public class AbstractDevotedDBMetaDataExchangeServiceTest
+{
+	private static final String DATABASE_NAME = "memory:abstractDevotedDBMetaDataExchangeServiceTest";
+
+	private static final String TABLE_NAME = "T_PARTITION";
+
+	private static final int ROW_COUNT = 10;
+
+	private static EmbeddedDataSource dataSource;
+
+	private ExecutorService partitionExecutor;
+
+	@BeforeClass
+	public static void initTable() throws SQLException
+	{
+		dataSource = new EmbeddedDataSource();
+		dataSource.setDatabaseName(DATABASE_NAME);
+		dataSource.setCreateDatabase("create");
+
+		Connection cn = dataSource.getConnection();
+		Statement st = null;
+
+		try
+		{
+			st = cn.createStatement();
+			st.executeUpdate("CREATE TABLE " + TABLE_NAME + " (ID INTEGER NOT NULL PRIMARY KEY, NAME VARCHAR(20))");
+
+			for (int i = 1; i <= ROW_COUNT; i++)
+				st.executeUpdate("INSERT INTO " + TABLE_NAME + " VALUES (" + i + ", 'name-" + i + "')");
+		}
+		finally
+		{
+			JdbcUtil.closeStatement(st);
+			JdbcUtil.closeConnection(cn);
+		}
+	}
+
+	@AfterClass
+	public static void dropDatabase()
+	{
+		try
+		{
+			DriverManager.getConnection("jdbc:derby:" + DATABASE_NAME + ";drop=true");
+		}
+		catch (SQLException e)
+		{
+			// 删除内存数据库总是抛出异常
+		}
+	}
+
+	@Before
+	public void init()
+	{
+		// 线程数少于分区数，部分分区需排队执行
+		this.partitionExecutor = Executors.newFixedThreadPool(2);
+	}
+
+	@After
+	public void destroy()
+	{
+		this.partitionExecutor.shutdownNow();
+	}
+
+	@Test
+	public void resolvePartitionQueriesTest() throws Throwable
+	{
+		CsvDataExportService service = createCsvDataExportService();
+
+		Connection cn = dataSource.getConnection();
+
+		try
+		{
+			List<RangeTableQuery> queries = service.resolvePartitionQueries(cn, createCsvDataExport(3, null));
+
+			assertEquals(3, queries.size());
+			assertRange(queries.get(0), null, 5L);
+			assertRange(queries.get(1), 5L, 9L);
+			assertRange(queries.get(2), 9L, null);
+
+			// 分区数不超过最大分区数
+			service.setMaxPartitionCount(2);
+			queries = service.resolvePartitionQueries(cn, createCsvDataExport(3, null));
+
+			assertEquals(2, queries.size());
+			assertRange(queries.get(0), null, 6L);
+			assertRange(queries.get(1), 6L, null);
+
+			// 分区数不超过主键值范围
+			service.setMaxPartitionCount(100);
+			queries = service.resolvePartitionQueries(cn, createCsvDataExport(100, null));
+
+			assertEquals(ROW_COUNT, queries.size());
+		}
+		finally
+		{
+			JdbcUtil.closeConnection(cn);
+		}
+	}
+
+	@Test
+	public void resolvePartitionQueriesTest_notPartitioned() throws Throwable
+	{
+		CsvDataExportService service = createCsvDataExportService();
+
+		Connection cn = dataSource.getConnection();
+
+		try
+		{
+			assertNull(service.resolvePartitionQueries(cn, createCsvDataExport(1, null)));
+
+			// 连接工厂不是每次都返回新的连接
+			CsvDataExport dataExport = createCsvDataExport(3, null);
+			dataExport.setConnectionFactory(new SimpleConnectionFactory(cn, false));
+			assertNull(service.resolvePartitionQueries(cn, dataExport));
+
+			// 没有分区线程池
+			service.setPartitionExecutor(null);
+			assertNull(service.resolvePartitionQueries(cn, createCsvDataExport(3, null)));
+		}
+		finally
+		{
+			JdbcUtil.closeConnection(cn);
+		}
+	}
+
+	@Test
+	public void exchangeTest_csv() throws Throwable
+	{
+		StringWriter sequential = new StringWriter();
+		createCsvDataExportService().exchange(createCsvDataExport(1, sequential));
+
+		StringWriter partitioned = new StringWriter();
+		RecordTextDataExportListener listener = new RecordTextDataExportListener(partitioned);
+		CsvDataExport dataExport = createCsvDataExport(3, partitioned);
+		dataExport.setListener(listener);
+
+		createCsvDataExportService().exchange(dataExport);
+
+		String csv = partitioned.toString();
+
+		// 表头只写入一次，记录按照分区顺序拼接
+		assertEquals(sequential.toString(), csv);
+		assertTrue(csv.startsWith("ID,NAME"));
+		assertEquals(ROW_COUNT + 1, csv.split("\r\n").length);
+
+		assertListenerRows(listener, csv);
+	}
+
+	@Test
+	public void exchangeTest_csv_rejected() throws Throwable
+	{
+		StringWriter sequential = new StringWriter();
+		createCsvDataExportService().exchange(createCsvDataExport(1, sequential));
+
+		// 线程池拒绝执行时，所有分区都在导出线程中直接执行
+		this.partitionExecutor.shutdown();
+
+		StringWriter partitioned = new StringWriter();
+		RecordTextDataExportListener listener = new RecordTextDataExportListener(partitioned);
+		CsvDataExport dataExport = createCsvDataExport(3, partitioned);
+		dataExport.setListener(listener);
+
+		createCsvDataExportService().exchange(dataExport);
+
+		assertEquals(sequential.toString(), partitioned.toString());
+		assertListenerRows(listener, partitioned.toString());
+	}
+
+	@Test
+	public void exchangeTest_csv_callerRuns() throws Throwable
+	{
+		StringWriter sequential = new StringWriter();
+		createCsvDataExportService().exchange(createCsvDataExport(1, sequential));
+
+		// 线程池繁忙时由提交线程执行，这些分区应留待轮到时再执行，而不是在提交时阻塞导出线程
+		this.partitionExecutor.shutdownNow();
+		this.partitionExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+				new SynchronousQueue<Runnable>(), new ThreadPoolExecutor.CallerRunsPolicy());
+
+		StringWriter partitioned = new StringWriter();
+		RecordTextDataExportListener listener = new RecordTextDataExportListener(partitioned);
+		CsvDataExport dataExport = createCsvDataExport(5, partitioned);
+		dataExport.setListener(listener);
+
+		createCsvDataExportService().exchange(dataExport);
+
+		assertEquals(sequential.toString(), partitioned.toString());
+		assertListenerRows(listener, partitioned.toString());
+	}
+
+	@Test
+	public void exchangeTest_json() throws Throwable
+	{
+		StringWriter sequential = new StringWriter();
+		createJsonDataExportService().exchange(createJsonDataExport(1, sequential));
+
+		StringWriter partitioned = new StringWriter();
+		RecordTextDataExportListener listener = new RecordTextDataExportListener(null);
+		JsonDataExport dataExport = createJsonDataExport(3, partitioned);
+		dataExport.setListener(listener);
+
+		createJsonDataExportService().exchange(dataExport);
+
+		String json = partitioned.toString();
+
+		assertEquals(sequential.toString(), json);
+		assertTrue(json.startsWith("{\"" + TABLE_NAME + "\":[{"));
+		assertTrue(json.endsWith("}]}"));
+		assertTrue(json.indexOf("\"name-4\"") < json.indexOf("\"name-5\""));
+		assertTrue(json.indexOf("\"name-8\"") < json.indexOf("\"name-9\""));
+
+		assertNull(listener.exception);
+		assertEquals(ROW_COUNT, listener.rows.size());
+	}
+
+	@Test
+	public void exportPartitionsTest_abort() throws Throwable
+	{
+		TestCsvDataExportService service = new TestCsvDataExportService();
+		service.setPartitionExecutor(this.partitionExecutor);
+
+		List<RangeTableQuery> queries = resolvePartitionQueries(service, 3);
+		StringWriter out = new StringWriter();
+
+		DataExchangeException exception = Assert.assertThrows(DataExchangeException.class, () ->
+		{
+			service.exportPartitionsWithError(createCsvDataExport(3, null), queries, 6, 9, out);
+		});
+
+		assertEquals("error at 6", exception.getCause().getMessage());
+
+		// 出错分区及其之后的分区内容都不会写入
+		assertEquals("1\n2\n3\n4\n", out.toString());
+
+		// 暂存已满而等待的分区也应被中止
+		this.partitionExecutor.shutdown();
+		assertTrue(this.partitionExecutor.awaitTermination(10, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void exportPartitionsTest_abortDirect() throws Throwable
+	{
+		TestCsvDataExportService service = new TestCsvDataExportService();
+		service.setPartitionExecutor(this.partitionExecutor);
+
+		List<RangeTableQuery> queries = resolvePartitionQueries(service, 3);
+		StringWriter out = new StringWriter();
+
+		this.partitionExecutor.shutdown();
+
+		DataExchangeException exception = Assert.assertThrows(DataExchangeException.class, () ->
+		{
+			service.exportPartitionsWithError(createCsvDataExport(3, null), queries, 6, 9, out);
+		});
+
+		assertEquals("error at 6", exception.getCause().getMessage());
+		assertFalse(out.toString().contains("9\n"));
+	}
+
+	protected List<RangeTableQuery> resolvePartitionQueries(CsvDataExportService service, int partitionCount)
+			throws Throwable
+	{
+		Connection cn = dataSource.getConnection();
+
+		try
+		{
+			return service.resolvePartitionQueries(cn, createCsvDataExport(partitionCount, null));
+		}
+		finally
+		{
+			JdbcUtil.closeConnection(cn);
+		}
+	}
+
+	/**
+	 * 断言监听器按照顺序收到了所有记录，且收到时记录已写入输出流。
+	 * 
+	 * @param listener
+	 * @param csv
+	 */
+	protected void assertListenerRows(RecordTextDataExportListener listener, String csv)
+	{
+		assertNull(listener.exception);
+		assertEquals(ROW_COUNT, listener.rows.size());
+
+		for (int i = 0; i < ROW_COUNT; i++)
+		{
+			assertEquals(i, listener.rows.get(i).longValue());
+
+			String written = csv.substring(0, listener.writtenLengths.get(i));
+			assertTrue(written.contains("\r\n" + (i + 1) + ",name-" + (i + 1) + "\r\n"));
+		}
+	}
+
+	protected void assertRange(RangeTableQuery query, Long lower, Long upper)
+	{
+		assertEquals(TABLE_NAME, query.getTable());
+		assertEquals("ID", query.getColumn());
+		assertEquals(lower, query.getLower());
+		assertEquals(upper, query.getUpper());
+	}
+
+	protected CsvDataExportService createCsvDataExportService()
+	{
+		CsvDataExportService service = new CsvDataExportService(new GenericDBMetaResolver());
+		service.setPartitionExecutor(this.partitionExecutor);
+
+		return service;
+	}
+
+	protected JsonDataExportService createJsonDataExportService()
+	{
+		JsonDataExportService service = new JsonDataExportService(new GenericDBMetaResolver());
+		service.setPartitionExecutor(this.partitionExecutor);
+
+		return service;
+	}
+
+	protected CsvDataExport createCsvDataExport(int partitionCount, Writer writer)
+	{
+		TextDataExportOption exportOption = new TextDataExportOption(true);
+		exportOption.setPartitionCount(partitionCount);
+
+		return new CsvDataExport(createConnectionFactory(), new DataFormat(), exportOption,
+				new TableQuery(TABLE_NAME), SimpleClosableFactory.valueOf(writer));
+	}
+
+	protected JsonDataExport createJsonDataExport(int partitionCount, Writer writer)
+	{
+		JsonDataExportOption exportOption = new JsonDataExportOption();
+		exportOption.setNullForIllegalColumnValue(true);
+		exportOption.setPrettyPrint(false);
+		exportOption.setPartitionCount(partitionCount);
+
+		return new JsonDataExport(createConnectionFactory(), new DataFormat(), exportOption,
+				new TableQuery(TABLE_NAME), SimpleClosableFactory.valueOf(writer), TABLE_NAME);
+	}
+
+	protected ConnectionFactory createConnectionFactory()
+	{
+		return new DataSourceConnectionFactory(dataSource);
+	}
+
+	protected static class TestCsvDataExportService extends CsvDataExportService
+	{
+		public TestCsvDataExportService()
+		{
+			super(new GenericDBMetaResolver());
+		}
+
+		/**
+		 * 导出分区，在{@code errorId}记录处出错，{@code floodId}记录写入的内容块数超过暂存容量。
+		 * 
+		 * @param dataExchange
+		 * @param queries
+		 * @param errorId
+		 * @param floodId
+		 * @param result
+		 * @throws Throwable
+		 */
+		public void exportPartitionsWithError(CsvDataExport dataExchange, List<RangeTableQuery> queries,
+				final int errorId, final int floodId, final Writer result) throws Throwable
+		{
+			final char[] chunk = new char[PARTITION_CHUNK_SIZE];
+
+			exportPartitions(dataExchange, queries, new PartitionWriter()
+			{
+				@Override
+				public void write(Connection cn, ResultSet rs, List<Column> columns, Writer out,
+						IndexFormatDataExchangeContext context, TextDataExportListener listener) throws Throwable
+				{
+					long row = 0;
+
+					while (rs.next())
+					{
+						int id = rs.getInt("ID");
+
+						if (id == errorId)
+							throw new IllegalStateException("error at " + id);
+
+						out.write(id + "\n");
+						listener.onSuccess(RowDataIndex.valueOf(row++));
+
+						if (id == floodId)
+						{
+							for (int i = 0; i <= PARTITION_CHANNEL_CAPACITY; i++)
+							{
+								out.write(chunk);
+								listener.onSuccess(RowDataIndex.valueOf(row++));
+							}
+						}
+					}
+				}
+			}, new PartitionConsumer()
+			{
+				@Override
+				public Writer start(int index, List<Column> columns) throws Throwable
+				{
+					return result;
+				}
+			});
+		}
+	}
+
+	protected static class RecordTextDataExportListener implements TextDataExportListener
+	{
+		/** 导出输出流，允许为{@code null} */
+		private final StringWriter out;
+
+		public final List<Long> rows = new ArrayList<>();
+
+		/** 收到各记录时输出流已写入的长度 */
+		public final List<Integer> writtenLengths = new ArrayList<>();
+
+		public DataExchangeException exception = null;
+
+		public RecordTextDataExportListener(StringWriter out)
+		{
+			super();
+			this.out = out;
+		}
+
+		@Override
+		public void onStart()
+		{
+		}
+
+		@Override
+		public void onException(DataExchangeException e)
+		{
+			this.exception = e;
+		}
+
+		@Override
+		public void onSuccess()
+		{
+		}
+
+		@Override
+		public void onFinish()
+		{
+		}
+
+		@Override
+		public void onSuccess(DataIndex dataIndex)
+		{
+			this.rows.add(((RowDataIndex) dataIndex).getRow());
+
+			if (this.out != null)
+				this.writtenLengths.add(this.out.getBuffer().length());
+		}
+
+		@Override
+		public void onSetNullTextValue(DataIndex dataIndex, String columnName, DataExchangeException e)
+		{
+		}
+	}
+}
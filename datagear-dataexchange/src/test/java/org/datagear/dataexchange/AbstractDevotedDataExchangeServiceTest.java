@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2018 datagear.tech. All Rights Reserved.
+ */
+
+package org.datagear.dataexchange;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.BatchUpdateException;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.datagear.dataexchange.AbstractDevotedDataExchangeService.ImportValueDataBatch;
+import org.datagear.meta.Column;
+import org.junit.Test;
+
+/**
+ * {@linkplain AbstractDevotedDataExchangeService}单元测试类。
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class AbstractDevotedDataExchangeServiceTest
+{
+	private static final String ILLEGAL_VALUE = "illegal";
+
+	private TestDataExchangeService dataExchangeService = new TestDataExchangeService();
+
+	@Test
+	public void importValueDataTest_batch_ignore_stopOnError()
+	{
+		importValueDataTest_batch_ignore(false);
+	}
+
+	@Test
+	public void importValueDataTest_batch_ignore_continueOnError()
+	{
+		importValueDataTest_batch_ignore(true);
+	}
+
+	@Test
+	public void importValueDataTest_batch_abort()
+	{
+		MockBatchStatement mockStatement = new MockBatchStatement(false);
+		RecordListener listener = new RecordListener();
+		ImportValueDataBatch batch = createBatch(mockStatement, ExceptionResolve.ABORT, listener);
+
+		String[] values = { "0", "1", ILLEGAL_VALUE, "3" };
+
+		try
+		{
+			for (int i = 0; i < values.length; i++)
+				dataExchangeService.importValueData(null, batch, Arrays.asList(values[i]),
+						RowDataIndex.valueOf(i));
+
+			dataExchangeService.flushImportValueDataBatch(null, batch);
+
+			fail();
+		}
+		catch (ExecuteDataImportSqlException e)
+		{
+			assertEquals(2L, ((RowDataIndex) e.getDataIndex()).getRow());
+		}
+
+		assertEquals(Arrays.asList("0", "1"), mockStatement.executedValues);
+		assertEquals(Arrays.asList(0L, 1L), listener.successes);
+		assertTrue(listener.ignores.isEmpty());
+	}
+
+	protected void importValueDataTest_batch_ignore(boolean continueOnError)
+	{
+		MockBatchStatement mockStatement = new MockBatchStatement(continueOnError);
+		RecordListener listener = new RecordListener();
+		ImportValueDataBatch batch = createBatch(mockStatement, ExceptionResolve.IGNORE, listener);
+
+		String[] values = { "0", "1", ILLEGAL_VALUE, "3", ILLEGAL_VALUE, "5", "6" };
+
+		for (int i = 0; i < values.length; i++)
+			dataExchangeService.importValueData(null, batch, Arrays.asList(values[i]), RowDataIndex.valueOf(i));
+
+		dataExchangeService.flushImportValueDataBatch(null, batch);
+
+		assertEquals(Arrays.asList("0", "1", "3", "5", "6"), mockStatement.executedValues);
+		assertEquals(Arrays.asList(0L, 1L, 3L, 5L, 6L), listener.successes);
+		assertEquals(Arrays.asList(2L, 4L), listener.ignores);
+	}
+
+	protected ImportValueDataBatch createBatch(MockBatchStatement mockStatement,
+			ExceptionResolve exceptionResolve, ValueDataImportListener listener)
+	{
+		PreparedStatement st = (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { PreparedStatement.class }, mockStatement);
+
+		ValueDataImportOption importOption = new ValueDataImportOption(exceptionResolve, false, false);
+		importOption.setBatchSize(5);
+
+		List<Column> columns = Arrays.asList(new Column("NAME", Types.VARCHAR));
+
+		return dataExchangeService.createImportValueDataBatch(st, columns, importOption,
+				new DataFormatContext(new DataFormat()), listener);
+	}
+
+	/**
+	 * 模拟批处理的{@linkplain PreparedStatement}，值为{@linkplain #ILLEGAL_VALUE}的数据执行失败。
+	 */
+	protected static class MockBatchStatement implements InvocationHandler
+	{
+		/** 出错后是否继续执行后续数据 */
+		private final boolean continueOnError;
+
+		private String currentValue = null;
+
+		private List<String> batchValues = new ArrayList<>();
+
+		public final List<String> executedValues = new ArrayList<>();
+
+		public MockBatchStatement(boolean continueOnError)
+		{
+			super();
+			this.continueOnError = continueOnError;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+		{
+			String name = method.getName();
+
+			if ("setString".equals(name))
+				this.currentValue = (String) args[1];
+			else if ("addBatch".equals(name))
+				this.batchValues.add(this.currentValue);
+			else if ("clearBatch".equals(name))
+				this.batchValues.clear();
+			else if ("executeBatch".equals(name))
+				return executeBatch();
+
+			return null;
+		}
+
+		protected int[] executeBatch() throws BatchUpdateException
+		{
+			List<String> values = this.batchValues;
+			this.batchValues = new ArrayList<>();
+
+			List<Integer> counts = new ArrayList<>();
+			boolean error = false;
+
+			for (String value : values)
+			{
+				if (ILLEGAL_VALUE.equals(value))
+				{
+					error = true;
+
+					if (this.continueOnError)
+						counts.add(Statement.EXECUTE_FAILED);
+					else
+						break;
+				}
+				else
+				{
+					this.executedValues.add(value);
+					counts.add(1);
+				}
+			}
+
+			int[] re = new int[counts.size()];
+			for (int i = 0; i < re.length; i++)
+				re[i] = counts.get(i);
+
+			if (error)
+				throw new BatchUpdateException(re);
+
+			return re;
+		}
+	}
+
+	protected static class RecordListener implements ValueDataImportListener
+	{
+		public final List<Long> successes = new ArrayList<>();
+
+		public final List<Long> ignores = new ArrayList<>();
+
+		@Override
+		public void onStart()
+		{
+		}
+
+		@Override
+		public void onException(DataExchangeException e)
+		{
+		}
+
+		@Override
+		public void onSuccess()
+		{
+		}
+
+		@Override
+		public void onFinish()
+		{
+		}
+
+		@Override
+		public void onSuccess(DataIndex dataIndex)
+		{
+			this.successes.add(((RowDataIndex) dataIndex).getRow());
+		}
+
+		@Override
+		public void onIgnore(DataIndex dataIndex, DataExchangeException e)
+		{
+			this.ignores.add(((RowDataIndex) dataIndex).getRow());
+		}
+
+		@Override
+		public void onSetNullColumnValue(DataIndex dataIndex, String columnName, Object columnValue,
+				DataExchangeException e)
+		{
+		}
+	}
+
+	protected static class TestDataExchangeService extends AbstractDevotedDataExchangeService<DataExchange>
+	{
+		@Override
+		protected void exchange(DataExchange dataExchange, DataExchangeContext context) throws Throwable
+		{
+		}
+	}
+}
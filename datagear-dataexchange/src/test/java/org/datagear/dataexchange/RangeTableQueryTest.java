@@ -0,0 +1,125 @@
+/*
+ * Copyright 2018 datagear.tech. All Rights Reserved.
+ */
+
+package org.datagear.dataexchange;
+
+import static org.junit.Assert.assertEquals;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.datagear.util.JdbcUtil;
+import org.datagear.util.QueryResultSet;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * {@linkplain RangeTableQuery}单元测试类。
+ *
+ * @author datagear@163.com
+ *
+ */
+public class RangeTableQueryTest
+{
+	private static final String URL = "jdbc:derby:memory:rangeTableQueryTest";
+
+	@BeforeClass
+	public static void initTable() throws SQLException
+	{
+		Connection cn = DriverManager.getConnection(URL + ";create=true");
+		Statement st = null;
+
+		try
+		{
+			st = cn.createStatement();
+			st.executeUpdate("CREATE TABLE T_RANGE (ID BIGINT NOT NULL PRIMARY KEY)");
+
+			for (int i = -2; i <= 5; i++)
+				st.executeUpdate("INSERT INTO T_RANGE VALUES (" + i + ")");
+		}
+		finally
+		{
+			JdbcUtil.closeStatement(st);
+			JdbcUtil.closeConnection(cn);
+		}
+	}
+
+	@AfterClass
+	public static void dropDatabase()
+	{
+		try
+		{
+			DriverManager.getConnection(URL + ";drop=true");
+		}
+		catch (SQLException e)
+		{
+			// 删除内存数据库总是抛出异常
+		}
+	}
+
+	@Test
+	public void executeTest() throws Throwable
+	{
+		// 下限包含、上限不包含
+		assertEquals(Arrays.asList(0L, 1L, 2L), queryIds(0L, 3L));
+
+		// 不限定下限
+		assertEquals(Arrays.asList(-2L, -1L, 0L), queryIds(null, 1L));
+
+		// 不限定上限
+		assertEquals(Arrays.asList(4L, 5L), queryIds(4L, null));
+
+		// 都不限定
+		assertEquals(Arrays.asList(-2L, -1L, 0L, 1L, 2L, 3L, 4L, 5L), queryIds(null, null));
+
+		// 空范围
+		assertEquals(Arrays.asList(), queryIds(3L, 3L));
+	}
+
+	@Test
+	public void executeTest_adjacentRangesNotOverlap() throws Throwable
+	{
+		List<Long> ids = new ArrayList<>();
+
+		ids.addAll(queryIds(null, 0L));
+		ids.addAll(queryIds(0L, 3L));
+		ids.addAll(queryIds(3L, null));
+
+		assertEquals(queryIds(null, null), ids);
+	}
+
+	protected List<Long> queryIds(Long lower, Long upper) throws Throwable
+	{
+		Connection cn = DriverManager.getConnection(URL);
+		QueryResultSet qrs = null;
+
+		try
+		{
+			qrs = new RangeTableQuery("T_RANGE", "ID", lower, upper).execute(cn);
+			ResultSet rs = qrs.getResultSet();
+
+			List<Long> ids = new ArrayList<>();
+
+			while (rs.next())
+				ids.add(rs.getLong(1));
+
+			Collections.sort(ids);
+
+			return ids;
+		}
+		finally
+		{
+			QueryResultSet.close(qrs);
+			JdbcUtil.closeConnection(cn);
+		}
+	}
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2018 datagear.tech. All Rights Reserved.
+ */
+
+package org.datagear.dataexchange;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import org.datagear.util.QueryResultSet;
+import org.junit.Test;
+
+/**
+ * {@linkplain SqlQuery}单元测试类。
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class SqlQueryTest
+{
+	@Test
+	public void executeTest_postgresql_restoreAutoCommit() throws Throwable
+	{
+		MockConnection mockConnection = new MockConnection("jdbc:postgresql://localhost:5432/test");
+		Connection cn = mockConnection.getProxy();
+
+		SqlQuery query = new SqlQuery("SELECT * FROM T_TEST");
+		QueryResultSet qrs = query.execute(cn);
+
+		// PostgreSQL流式查询需关闭自动提交
+		assertFalse(mockConnection.autoCommit);
+
+		QueryResultSet.close(qrs);
+
+		assertTrue(mockConnection.autoCommit);
+		assertTrue(mockConnection.statementClosed);
+		assertTrue(mockConnection.resultSetClosed);
+	}
+
+	@Test
+	public void executeTest_other_keepAutoCommit() throws Throwable
+	{
+		MockConnection mockConnection = new MockConnection("jdbc:oracle:thin:@localhost:1521:test");
+		Connection cn = mockConnection.getProxy();
+
+		SqlQuery query = new SqlQuery("SELECT * FROM T_TEST");
+		QueryResultSet qrs = query.execute(cn);
+
+		assertTrue(mockConnection.autoCommit);
+
+		QueryResultSet.close(qrs);
+
+		assertTrue(mockConnection.autoCommit);
+		assertTrue(mockConnection.statementClosed);
+	}
+
+	/**
+	 * 模拟{@linkplain Connection}，记录自动提交状态以及语句、结果集的关闭状态。
+	 */
+	protected static class MockConnection implements InvocationHandler
+	{
+		private final String url;
+
+		public boolean autoCommit = true;
+
+		public boolean statementClosed = false;
+
+		public boolean resultSetClosed = false;
+
+		public MockConnection(String url)
+		{
+			super();
+			this.url = url;
+		}
+
+		public Connection getProxy()
+		{
+			return (Connection) newProxy(Connection.class, this);
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+		{
+			String name = method.getName();
+
+			if ("getAutoCommit".equals(name))
+				return this.autoCommit;
+			else if ("setAutoCommit".equals(name))
+				this.autoCommit = (Boolean) args[0];
+			else if ("getMetaData".equals(name))
+				return newProxy(DatabaseMetaData.class, new InvocationHandler()
+				{
+					@Override
+					public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+					{
+						if ("getURL".equals(method.getName()))
+							return MockConnection.this.url;
+
+						return defaultValue(method);
+					}
+				});
+			else if ("createStatement".equals(name))
+				return newProxy(Statement.class, new InvocationHandler()
+				{
+					@Override
+					public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+					{
+						String name = method.getName();
+
+						if ("getResultSetType".equals(name))
+							return ResultSet.TYPE_FORWARD_ONLY;
+						else if ("executeQuery".equals(name))
+							return newProxy(ResultSet.class, new InvocationHandler()
+							{
+								@Override
+								public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+								{
+									if ("close".equals(method.getName()))
+										MockConnection.this.resultSetClosed = true;
+
+									return defaultValue(method);
+								}
+							});
+						else if ("close".equals(name))
+							MockConnection.this.statementClosed = true;
+
+						return defaultValue(method);
+					}
+				});
+
+			return defaultValue(method);
+		}
+	}
+
+	protected static Object newProxy(Class<?> type, InvocationHandler handler)
+	{
+		return Proxy.newProxyInstance(SqlQueryTest.class.getClassLoader(), new Class<?>[] { type }, handler);
+	}
+
+	protected static Object defaultValue(Method method)
+	{
+		Class<?> returnType = method.getReturnType();
+
+		if (boolean.class.equals(returnType))
+			return false;
+		else if (int.class.equals(returnType))
+			return 0;
+		else if (long.class.equals(returnType))
+			return 0L;
+		else
+			return null;
+	}
+}
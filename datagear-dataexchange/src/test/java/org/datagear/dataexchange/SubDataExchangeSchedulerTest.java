@@ -0,0 +1,305 @@
+/*
+ * Copyright 2018 datagear.tech. All Rights Reserved.
+ */
+
+package org.datagear.dataexchange;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * {@linkplain SubDataExchangeScheduler}单元测试类。
+ *
+ * @author datagear@163.com
+ *
+ */
+public class SubDataExchangeSchedulerTest
+{
+	private SubDataExchangeScheduler scheduler;
+
+	private final List<String> records = Collections.synchronizedList(new ArrayList<String>());
+
+	private final CountDownLatch release = new CountDownLatch(1);
+
+	@After
+	public void destroy()
+	{
+		this.release.countDown();
+
+		if (this.scheduler != null)
+			this.scheduler.shutdown();
+	}
+
+	@Test
+	public void constructorTest()
+	{
+		this.scheduler = new SubDataExchangeScheduler(0, 0);
+		assertEquals(SubDataExchangeScheduler.DEFAULT_MAX_CONCURRENCY, this.scheduler.getMaxConcurrency());
+		assertEquals(SubDataExchangeScheduler.DEFAULT_MAX_CONCURRENCY, this.scheduler.getMaxGroupConcurrency());
+		this.scheduler.shutdown();
+
+		// 分组最大并发数不超过最大并发数
+		this.scheduler = new SubDataExchangeScheduler(3, 5);
+		assertEquals(3, this.scheduler.getMaxConcurrency());
+		assertEquals(3, this.scheduler.getMaxGroupConcurrency());
+	}
+
+	@Test
+	public void submitTest_maxConcurrency() throws Exception
+	{
+		this.scheduler = new SubDataExchangeScheduler(2, 2);
+
+		CountDownLatch finish = new CountDownLatch(4);
+
+		for (int i = 0; i < 4; i++)
+			this.scheduler.submit("owner" + i, null, 0, new RecordTask("t" + i, this.release, finish));
+
+		assertEquals(2, this.scheduler.getRunningCount());
+		assertEquals(2, this.scheduler.getQueuedCount());
+
+		this.release.countDown();
+
+		assertTrue(finish.await(10, TimeUnit.SECONDS));
+		assertEquals(4, this.records.size());
+		assertEquals(0, this.scheduler.getQueuedCount());
+	}
+
+	@Test
+	public void submitTest_maxGroupConcurrency() throws Exception
+	{
+		this.scheduler = new SubDataExchangeScheduler(4, 2);
+
+		CountDownLatch finish = new CountDownLatch(6);
+
+		for (int i = 0; i < 4; i++)
+			this.scheduler.submit("owner" + i, "db1", 0, new RecordTask("db1-" + i, this.release, finish));
+
+		// 其他分组、不限定分组的任务不受已满分组的影响
+		this.scheduler.submit("owner0", "db2", 0, new RecordTask("db2-0", this.release, finish));
+		this.scheduler.submit("owner0", null, 0, new RecordTask("none-0", this.release, finish));
+
+		assertEquals(4, this.scheduler.getRunningCount());
+		assertEquals(2, this.scheduler.getQueuedCount());
+
+		this.release.countDown();
+
+		assertTrue(finish.await(10, TimeUnit.SECONDS));
+		assertEquals(6, this.records.size());
+	}
+
+	@Test
+	public void submitTest_roundRobin() throws Exception
+	{
+		this.scheduler = new SubDataExchangeScheduler(1, 1);
+
+		CountDownLatch finish = new CountDownLatch(7);
+
+		// 先执行一个阻塞任务，使后续任务都排队等待
+		this.scheduler.submit("blocker", null, 0, new RecordTask("blocker", this.release, finish));
+
+		this.scheduler.submit("A", null, 0, new RecordTask("a1", null, finish));
+		this.scheduler.submit("A", null, 0, new RecordTask("a2", null, finish));
+		this.scheduler.submit("A", null, 0, new RecordTask("a3", null, finish));
+		this.scheduler.submit("B", null, 0, new RecordTask("b1", null, finish));
+		this.scheduler.submit("B", null, 0, new RecordTask("b2", null, finish));
+		this.scheduler.submit("C", null, 0, new RecordTask("c1", null, finish));
+
+		assertEquals(6, this.scheduler.getQueuedCount());
+
+		this.release.countDown();
+
+		assertTrue(finish.await(10, TimeUnit.SECONDS));
+		assertEquals(Arrays.asList("blocker", "a1", "b1", "c1", "a2", "b2", "a3"), this.records);
+	}
+
+	@Test
+	public void submitTest_priority() throws Exception
+	{
+		this.scheduler = new SubDataExchangeScheduler(1, 1);
+
+		CountDownLatch finish = new CountDownLatch(5);
+
+		this.scheduler.submit("blocker", null, 0, new RecordTask("blocker", this.release, finish));
+
+		this.scheduler.submit("A", null, 0, new RecordTask("p0-1", null, finish));
+		this.scheduler.submit("A", null, 5, new RecordTask("p5", null, finish));
+		this.scheduler.submit("A", null, 0, new RecordTask("p0-2", null, finish));
+		this.scheduler.submit("A", null, 9, new RecordTask("p9", null, finish));
+
+		this.release.countDown();
+
+		// 优先级高的先执行，优先级相同的按照提交顺序执行
+		assertTrue(finish.await(10, TimeUnit.SECONDS));
+		assertEquals(Arrays.asList("blocker", "p9", "p5", "p0-1", "p0-2"), this.records);
+	}
+
+	@Test
+	public void submitTest_cancelled() throws Exception
+	{
+		this.scheduler = new SubDataExchangeScheduler(1, 1);
+
+		CountDownLatch finish = new CountDownLatch(2);
+
+		this.scheduler.submit("blocker", null, 0, new RecordTask("blocker", this.release, finish));
+
+		RecordFutureTask cancelled = new RecordFutureTask("cancelled");
+		this.scheduler.submit("A", null, 0, cancelled);
+		this.scheduler.submit("A", null, 0, new RecordTask("a1", null, finish));
+
+		assertTrue(cancelled.cancel(false));
+		assertEquals(2, this.scheduler.getQueuedCount());
+
+		this.release.countDown();
+
+		// 已取消的排队任务被丢弃，不会占用执行线程
+		assertTrue(finish.await(10, TimeUnit.SECONDS));
+		assertEquals(Arrays.asList("blocker", "a1"), this.records);
+		assertEquals(0, this.scheduler.getQueuedCount());
+	}
+
+	@Test
+	public void shutdownTest() throws Exception
+	{
+		this.scheduler = new SubDataExchangeScheduler(1, 1);
+
+		CountDownLatch finish = new CountDownLatch(2);
+
+		this.scheduler.submit("blocker", null, 0, new RecordTask("blocker", this.release, finish));
+		this.scheduler.submit("A", null, 0, new RecordTask("a1", null, finish));
+
+		this.scheduler.shutdown();
+
+		assertTrue(this.scheduler.isShutdown());
+		assertEquals(0, this.scheduler.getQueuedCount());
+
+		Assert.assertThrows(RejectedExecutionException.class, () ->
+		{
+			this.scheduler.submit("A", null, 0, new RecordTask("a2", null, finish));
+		});
+
+		this.release.countDown();
+
+		// 关闭时仍在排队的任务不再执行
+		assertFalse(finish.await(1, TimeUnit.SECONDS));
+		assertEquals(Arrays.asList("blocker"), this.records);
+	}
+
+	@Test
+	public void tryAcquireCurrentTest() throws Exception
+	{
+		// 不在调度线程中时不受限
+		assertEquals(3, SubDataExchangeScheduler.tryAcquireCurrent(3));
+		SubDataExchangeScheduler.releaseCurrent(3);
+
+		this.scheduler = new SubDataExchangeScheduler(4, 3);
+
+		CountDownLatch finish = new CountDownLatch(1);
+		CountDownLatch acquired = new CountDownLatch(1);
+		final int[] results = new int[3];
+
+		this.scheduler.submit("blocker", "db1", 0, new RecordTask("blocker", this.release, finish));
+		this.scheduler.submit("A", "db1", 0, new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				try
+				{
+					// 分组中已有两个任务，最多只能再获取一个
+					results[0] = SubDataExchangeScheduler.tryAcquireCurrent(5);
+					results[1] = scheduler.getRunningCount();
+
+					SubDataExchangeScheduler.releaseCurrent(results[0]);
+					results[2] = scheduler.getRunningCount();
+				}
+				finally
+				{
+					acquired.countDown();
+				}
+			}
+		});
+
+		assertTrue(acquired.await(10, TimeUnit.SECONDS));
+		assertArrayEquals(new int[] { 1, 3, 2 }, results);
+
+		this.release.countDown();
+		assertTrue(finish.await(10, TimeUnit.SECONDS));
+	}
+
+	protected class RecordTask implements Runnable
+	{
+		private final String name;
+
+		private final CountDownLatch release;
+
+		private final CountDownLatch finish;
+
+		public RecordTask(String name, CountDownLatch release, CountDownLatch finish)
+		{
+			super();
+			this.name = name;
+			this.release = release;
+			this.finish = finish;
+		}
+
+		@Override
+		public void run()
+		{
+			records.add(this.name);
+
+			try
+			{
+				if (this.release != null)
+					this.release.await(10, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+			}
+			finally
+			{
+				this.finish.countDown();
+			}
+		}
+	}
+
+	protected class RecordFutureTask extends FutureTask<Void>
+	{
+		private final String name;
+
+		public RecordFutureTask(String name)
+		{
+			super(new Runnable()
+			{
+				@Override
+				public void run()
+				{
+				}
+			}, null);
+
+			this.name = name;
+		}
+
+		@Override
+		public void run()
+		{
+			records.add(this.name);
+			super.run();
+		}
+	}
+}
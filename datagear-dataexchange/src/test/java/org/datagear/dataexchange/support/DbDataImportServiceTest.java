@@ -0,0 +1,335 @@
+/*
+ * Copyright 2018 datagear.tech. All Rights Reserved.
+ */
+
+package org.datagear.dataexchange.support;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.derby.jdbc.EmbeddedDataSource;
+import org.datagear.dataexchange.ColumnNotFoundException;
+import org.datagear.dataexchange.DataExchangeException;
+import org.datagear.dataexchange.DataFormat;
+import org.datagear.dataexchange.DataIndex;
+import org.datagear.dataexchange.ExceptionResolve;
+import org.datagear.dataexchange.RowDataIndex;
+import org.datagear.dataexchange.SqlQuery;
+import org.datagear.dataexchange.UnsupportedSqlTypeException;
+import org.datagear.dataexchange.ValueDataImportListener;
+import org.datagear.dataexchange.ValueDataImportOption;
+import org.datagear.meta.resolver.GenericDBMetaResolver;
+import org.datagear.util.JdbcUtil;
+import org.datagear.util.resource.DataSourceConnectionFactory;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * {@linkplain DbDataImportService}单元测试类。
+ *
+ * @author datagear@163.com
+ *
+ */
+public class DbDataImportServiceTest
+{
+	private static final String DATABASE_NAME = "memory:dbDataImportServiceTest";
+
+	private static final String SOURCE_TABLE = "T_DB_SOURCE";
+
+	private static final String TARGET_TABLE = "T_DB_TARGET";
+
+	private static final String SOURCE_SQL = "SELECT ID, NAME, SCORE FROM " + SOURCE_TABLE + " ORDER BY ID";
+
+	private static final int ROW_COUNT = 20;
+
+	private static EmbeddedDataSource dataSource;
+
+	@BeforeClass
+	public static void initTable() throws SQLException
+	{
+		dataSource = new EmbeddedDataSource();
+		dataSource.setDatabaseName(DATABASE_NAME);
+		dataSource.setCreateDatabase("create");
+
+		executeUpdate("CREATE TABLE " + SOURCE_TABLE
+				+ " (ID INTEGER NOT NULL PRIMARY KEY, NAME VARCHAR(20), SCORE INTEGER, EXTRA VARCHAR(20))");
+		executeUpdate("CREATE TABLE " + TARGET_TABLE
+				+ " (ID INTEGER NOT NULL PRIMARY KEY, NAME VARCHAR(20), SCORE INTEGER)");
+
+		for (int i = 1; i <= ROW_COUNT; i++)
+		{
+			// 部分记录的列值为null
+			String name = (i % 5 == 0 ? "NULL" : "'name-" + i + "'");
+			executeUpdate("INSERT INTO " + SOURCE_TABLE + " VALUES (" + i + ", " + name + ", " + (i * 10) + ", 'extra-"
+					+ i + "')");
+		}
+	}
+
+	@AfterClass
+	public static void dropDatabase()
+	{
+		try
+		{
+			DriverManager.getConnection("jdbc:derby:" + DATABASE_NAME + ";drop=true");
+		}
+		catch (SQLException e)
+		{
+			// 删除内存数据库总是抛出异常
+		}
+	}
+
+	@Before
+	public void init() throws SQLException
+	{
+		executeUpdate("DELETE FROM " + TARGET_TABLE);
+	}
+
+	@Test
+	public void exchangeTest_copy() throws Exception
+	{
+		ValueDataImportOption importOption = new ValueDataImportOption(ExceptionResolve.ABORT, false, false);
+		importOption.setBatchSize(4);
+
+		// 缓冲记录数少于记录数，读取线程需等待写入线程
+		DbDataImport impt = createDbDataImport(importOption, SOURCE_SQL, 3);
+		RecordDataImportListener listener = exchange(new TestDbDataImportService(), impt);
+
+		assertTrue(listener.exceptions.isEmpty());
+		assertEquals(ROW_COUNT, listener.successes.size());
+		assertEquals(queryRows(SOURCE_TABLE), queryRows(TARGET_TABLE));
+	}
+
+	@Test
+	public void exchangeTest_columnMapping() throws Exception
+	{
+		ValueDataImportOption importOption = new ValueDataImportOption(ExceptionResolve.ABORT, true, false);
+
+		// 源列顺序与目标表不同，且EXTRA列在目标表中不存在
+		DbDataImport impt = createDbDataImport(importOption,
+				"SELECT SCORE, EXTRA, NAME, ID FROM " + SOURCE_TABLE + " ORDER BY ID", 0);
+
+		// 没有对应目标表列的源列不应被读取
+		TestDbDataImportService service = new TestDbDataImportService();
+		service.unsupportedColumnIndex = 2;
+
+		RecordDataImportListener listener = exchange(service, impt);
+
+		assertTrue(listener.exceptions.isEmpty());
+		assertEquals(ROW_COUNT, listener.successes.size());
+		assertEquals(queryRows(SOURCE_TABLE), queryRows(TARGET_TABLE));
+	}
+
+	@Test
+	public void exchangeTest_columnMapping_inexistentColumn() throws Exception
+	{
+		ValueDataImportOption importOption = new ValueDataImportOption(ExceptionResolve.ABORT, false, false);
+
+		DbDataImport impt = createDbDataImport(importOption, "SELECT ID, EXTRA FROM " + SOURCE_TABLE, 0);
+		RecordDataImportListener listener = exchange(new TestDbDataImportService(), impt);
+
+		assertEquals(1, listener.exceptions.size());
+		assertTrue(listener.exceptions.get(0) instanceof ColumnNotFoundException);
+		assertEquals(0, queryRows(TARGET_TABLE).size());
+	}
+
+	@Test
+	public void exchangeTest_readerError() throws Exception
+	{
+		ValueDataImportOption importOption = new ValueDataImportOption(ExceptionResolve.IGNORE, false, false);
+
+		DbDataImport impt = createDbDataImport(importOption, SOURCE_SQL, 0);
+
+		TestDbDataImportService service = new TestDbDataImportService();
+		service.unsupportedColumnIndex = 2;
+
+		RecordDataImportListener listener = exchange(service, impt);
+
+		// 读取线程的异常将中止导入
+		assertEquals(1, listener.exceptions.size());
+		assertTrue(listener.exceptions.get(0).getCause() instanceof UnsupportedSqlTypeException);
+		assertTrue(listener.successes.isEmpty());
+		assertEquals(0, queryRows(TARGET_TABLE).size());
+	}
+
+	@Test
+	public void exchangeTest_abort() throws Exception
+	{
+		executeUpdate("INSERT INTO " + TARGET_TABLE + " VALUES (6, 'exists', 0)");
+
+		ValueDataImportOption importOption = new ValueDataImportOption(ExceptionResolve.ABORT, false, false);
+
+		// 缓冲记录数很少，中止时读取线程正在等待放入记录
+		DbDataImport impt = createDbDataImport(importOption, SOURCE_SQL, 2);
+		RecordDataImportListener listener = exchange(new TestDbDataImportService(), impt);
+
+		assertEquals(1, listener.exceptions.size());
+		assertEquals(5, listener.successes.size());
+		assertTrue(listener.ignores.isEmpty());
+
+		// 中止前导入的记录已提交
+		assertEquals(6, queryRows(TARGET_TABLE).size());
+	}
+
+	@Test
+	public void exchangeTest_ignore() throws Exception
+	{
+		executeUpdate("INSERT INTO " + TARGET_TABLE + " VALUES (6, 'exists', 0)");
+
+		ValueDataImportOption importOption = new ValueDataImportOption(ExceptionResolve.IGNORE, false, false);
+
+		DbDataImport impt = createDbDataImport(importOption, SOURCE_SQL, 2);
+		RecordDataImportListener listener = exchange(new TestDbDataImportService(), impt);
+
+		assertTrue(listener.exceptions.isEmpty());
+		assertEquals(ROW_COUNT - 1, listener.successes.size());
+		assertEquals(1, listener.ignores.size());
+		assertEquals(5, listener.ignores.get(0).getRow());
+		assertEquals(ROW_COUNT, queryRows(TARGET_TABLE).size());
+	}
+
+	protected DbDataImport createDbDataImport(ValueDataImportOption importOption, String sourceSql, int bufferSize)
+	{
+		DataSourceConnectionFactory connectionFactory = new DataSourceConnectionFactory(dataSource);
+
+		DbDataImport impt = new DbDataImport(connectionFactory, new DataFormat(), importOption, TARGET_TABLE,
+				connectionFactory, new SqlQuery(sourceSql));
+
+		if (bufferSize > 0)
+			impt.setBufferSize(bufferSize);
+
+		return impt;
+	}
+
+	protected RecordDataImportListener exchange(DbDataImportService service, DbDataImport impt)
+	{
+		RecordDataImportListener listener = new RecordDataImportListener();
+		impt.setListener(listener);
+
+		service.exchange(impt);
+
+		return listener;
+	}
+
+	protected static List<String> queryRows(String table) throws SQLException
+	{
+		Connection cn = dataSource.getConnection();
+		Statement st = null;
+		ResultSet rs = null;
+
+		try
+		{
+			st = cn.createStatement();
+			rs = st.executeQuery("SELECT ID, NAME, SCORE FROM " + table + " ORDER BY ID");
+
+			List<String> rows = new ArrayList<>();
+
+			while (rs.next())
+				rows.add(rs.getInt(1) + "," + rs.getString(2) + "," + rs.getObject(3));
+
+			return rows;
+		}
+		finally
+		{
+			JdbcUtil.closeResultSet(rs);
+			JdbcUtil.closeStatement(st);
+			JdbcUtil.closeConnection(cn);
+		}
+	}
+
+	protected static void executeUpdate(String sql) throws SQLException
+	{
+		Connection cn = dataSource.getConnection();
+		Statement st = null;
+
+		try
+		{
+			st = cn.createStatement();
+			st.executeUpdate(sql);
+		}
+		finally
+		{
+			JdbcUtil.closeStatement(st);
+			JdbcUtil.closeConnection(cn);
+		}
+	}
+
+	protected static class TestDbDataImportService extends DbDataImportService
+	{
+		/** 读取时抛出UnsupportedSqlTypeException的源列索引（以1开始），模拟不支持的源列类型 */
+		public volatile int unsupportedColumnIndex = -1;
+
+		public TestDbDataImportService()
+		{
+			super(new GenericDBMetaResolver());
+		}
+
+		@Override
+		protected Object getValue(Connection cn, ResultSet rs, int columnIndex, int sqlType)
+				throws SQLException, IOException, UnsupportedSqlTypeException
+		{
+			if (columnIndex == this.unsupportedColumnIndex)
+				throw new UnsupportedSqlTypeException(sqlType);
+
+			return super.getValue(cn, rs, columnIndex, sqlType);
+		}
+	}
+
+	protected static class RecordDataImportListener implements ValueDataImportListener
+	{
+		public final List<RowDataIndex> successes = new ArrayList<>();
+
+		public final List<RowDataIndex> ignores = new ArrayList<>();
+
+		public final List<DataExchangeException> exceptions = new ArrayList<>();
+
+		@Override
+		public void onStart()
+		{
+		}
+
+		@Override
+		public void onException(DataExchangeException e)
+		{
+			this.exceptions.add(e);
+		}
+
+		@Override
+		public void onSuccess()
+		{
+		}
+
+		@Override
+		public void onFinish()
+		{
+		}
+
+		@Override
+		public void onSuccess(DataIndex dataIndex)
+		{
+			this.successes.add((RowDataIndex) dataIndex);
+		}
+
+		@Override
+		public void onIgnore(DataIndex dataIndex, DataExchangeException e)
+		{
+			this.ignores.add((RowDataIndex) dataIndex);
+		}
+
+		@Override
+		public void onSetNullColumnValue(DataIndex dataIndex, String columnName, Object columnValue,
+				DataExchangeException e)
+		{
+		}
+	}
+}
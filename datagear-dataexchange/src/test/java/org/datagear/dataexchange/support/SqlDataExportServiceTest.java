@@ -0,0 +1,227 @@
+/*
+ * Copyright 2018 datagear.tech. All Rights Reserved.
+ */
+
+package org.datagear.dataexchange.support;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.derby.jdbc.EmbeddedDataSource;
+import org.datagear.dataexchange.DataFormat;
+import org.datagear.dataexchange.ExceptionResolve;
+import org.datagear.dataexchange.SqlQuery;
+import org.datagear.meta.resolver.GenericDBMetaResolver;
+import org.datagear.util.JdbcUtil;
+import org.datagear.util.resource.DataSourceConnectionFactory;
+import org.datagear.util.resource.SimpleClosableFactory;
+import org.datagear.util.resource.SimpleConnectionFactory;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * {@linkplain SqlDataExportService}单元测试类。
+ * <p>
+ * 导出的SQL将通过{@linkplain SqlDataImportService}重新导入，以校验其可被数据库执行且数据一致。
+ * </p>
+ *
+ * @author datagear@163.com
+ *
+ */
+public class SqlDataExportServiceTest
+{
+	private static final String DATABASE_NAME = "memory:sqlDataExportServiceTest";
+
+	private static final String SOURCE_TABLE = "T_SQL_EXPORT_SOURCE";
+
+	private static final String TARGET_TABLE = "T_SQL_EXPORT_TARGET";
+
+	/** 记录数不是每条语句行数的整数倍，最后一条多行语句不满 */
+	private static final int ROW_COUNT = 11;
+
+	private static EmbeddedDataSource dataSource;
+
+	private SqlDataExportService sqlDataExportService = new SqlDataExportService(new GenericDBMetaResolver());
+
+	private SqlDataImportService sqlDataImportService = new SqlDataImportService();
+
+	@BeforeClass
+	public static void initTable() throws SQLException
+	{
+		dataSource = new EmbeddedDataSource();
+		dataSource.setDatabaseName(DATABASE_NAME);
+		dataSource.setCreateDatabase("create");
+
+		executeUpdate("CREATE TABLE " + SOURCE_TABLE
+				+ " (ID INTEGER NOT NULL PRIMARY KEY, NAME VARCHAR(20), SCORE INTEGER)");
+		executeUpdate("CREATE TABLE " + TARGET_TABLE
+				+ " (ID INTEGER NOT NULL PRIMARY KEY, NAME VARCHAR(20), SCORE INTEGER)");
+
+		for (int i = 1; i <= ROW_COUNT; i++)
+		{
+			// 部分记录的列值包含单引号或为null
+			String name = (i % 3 == 0 ? "'it''s-" + i + "'" : (i % 5 == 0 ? "NULL" : "'name-" + i + "'"));
+			String score = (i % 4 == 0 ? "NULL" : Integer.toString(i * 10));
+			executeUpdate("INSERT INTO " + SOURCE_TABLE + " VALUES (" + i + ", " + name + ", " + score + ")");
+		}
+	}
+
+	@AfterClass
+	public static void dropDatabase()
+	{
+		try
+		{
+			DriverManager.getConnection("jdbc:derby:" + DATABASE_NAME + ";drop=true");
+		}
+		catch (SQLException e)
+		{
+			// 删除内存数据库总是抛出异常
+		}
+	}
+
+	@Before
+	public void init() throws SQLException
+	{
+		executeUpdate("DELETE FROM " + TARGET_TABLE);
+	}
+
+	@Test
+	public void exchangeTest() throws Exception
+	{
+		String sql = export(1);
+
+		assertEquals(ROW_COUNT, countInserts(sql));
+
+		importSql(sql, 4);
+
+		assertEquals(queryRows(SOURCE_TABLE), queryRows(TARGET_TABLE));
+	}
+
+	@Test
+	public void exchangeTest_rowsPerStatement() throws Exception
+	{
+		String sql = export(4);
+
+		assertEquals(3, countInserts(sql));
+		assertTrue(sql.endsWith(");" + SqlDataExportService.LINE_SEPARATOR));
+
+		importSql(sql, 2);
+
+		assertEquals(queryRows(SOURCE_TABLE), queryRows(TARGET_TABLE));
+	}
+
+	@Test
+	public void exchangeTest_rowsPerStatement_rowCount() throws Exception
+	{
+		// 行数恰好是每条语句行数的整数倍
+		String sql = export(ROW_COUNT);
+
+		assertEquals(1, countInserts(sql));
+
+		importSql(sql, 2);
+
+		assertEquals(queryRows(SOURCE_TABLE), queryRows(TARGET_TABLE));
+	}
+
+	protected String export(int rowsPerStatement) throws Exception
+	{
+		SqlDataExportOption exportOption = new SqlDataExportOption(false, false);
+		exportOption.setRowsPerStatement(rowsPerStatement);
+
+		StringWriter writer = new StringWriter();
+
+		SqlQuery query = new SqlQuery("SELECT ID, NAME, SCORE FROM " + SOURCE_TABLE + " ORDER BY ID");
+
+		SqlDataExport expt = new SqlDataExport(new DataSourceConnectionFactory(dataSource), new DataFormat(),
+				exportOption, query, TARGET_TABLE, SimpleClosableFactory.<Writer> valueOf(writer));
+
+		this.sqlDataExportService.exchange(expt);
+
+		return writer.toString();
+	}
+
+	protected void importSql(String sql, int batchSize) throws Exception
+	{
+		Connection cn = dataSource.getConnection();
+
+		try
+		{
+			SqlDataImport impt = new SqlDataImport(new SimpleConnectionFactory(cn, false),
+					new SqlDataImportOption(ExceptionResolve.ABORT, batchSize),
+					SimpleClosableFactory.<Reader> valueOf(new StringReader(sql)));
+
+			this.sqlDataImportService.exchange(impt);
+		}
+		finally
+		{
+			JdbcUtil.closeConnection(cn);
+		}
+	}
+
+	protected int countInserts(String sql)
+	{
+		int count = 0;
+
+		for (int index = sql.indexOf("INSERT INTO "); index >= 0; index = sql.indexOf("INSERT INTO ", index + 1))
+			count++;
+
+		return count;
+	}
+
+	protected static List<String> queryRows(String table) throws SQLException
+	{
+		Connection cn = dataSource.getConnection();
+		Statement st = null;
+		ResultSet rs = null;
+
+		try
+		{
+			st = cn.createStatement();
+			rs = st.executeQuery("SELECT ID, NAME, SCORE FROM " + table + " ORDER BY ID");
+
+			List<String> rows = new ArrayList<>();
+
+			while (rs.next())
+				rows.add(rs.getInt(1) + "," + rs.getString(2) + "," + rs.getObject(3));
+
+			return rows;
+		}
+		finally
+		{
+			JdbcUtil.closeResultSet(rs);
+			JdbcUtil.closeStatement(st);
+			JdbcUtil.closeConnection(cn);
+		}
+	}
+
+	protected static void executeUpdate(String sql) throws SQLException
+	{
+		Connection cn = dataSource.getConnection();
+		Statement st = null;
+
+		try
+		{
+			st = cn.createStatement();
+			st.executeUpdate(sql);
+		}
+		finally
+		{
+			JdbcUtil.closeStatement(st);
+			JdbcUtil.closeConnection(cn);
+		}
+	}
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright 2018 datagear.tech. All Rights Reserved.
+ */
+
+package org.datagear.dataexchange.support;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.datagear.dataexchange.DataExchangeException;
+import org.datagear.dataexchange.DataImportListener;
+import org.datagear.dataexchange.DataIndex;
+import org.datagear.dataexchange.ExceptionResolve;
+import org.datagear.dataexchange.ExecuteDataImportSqlException;
+import org.datagear.util.JdbcUtil;
+import org.datagear.util.resource.SimpleClosableFactory;
+import org.datagear.util.resource.SimpleConnectionFactory;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * {@linkplain SqlDataImportService}批处理执行单元测试类。
+ *
+ * @author datagear@163.com
+ *
+ */
+public class SqlDataImportServiceTest
+{
+	private static final String URL = "jdbc:derby:memory:sqlDataImportServiceTest";
+
+	private static final String DUPLICATE_SQL = "INSERT INTO T_SQL_IMPORT (ID) VALUES (1)";
+
+	private static final String SQL_WITH_DUPLICATE = "INSERT INTO T_SQL_IMPORT VALUES (1);\n"
+			+ "INSERT INTO T_SQL_IMPORT VALUES (2);\n" + DUPLICATE_SQL + ";\n"
+			+ "INSERT INTO T_SQL_IMPORT VALUES (3);\n";
+
+	private Connection connection;
+
+	private SqlDataImportService sqlDataImportService = new SqlDataImportService();
+
+	@Before
+	public void init() throws SQLException
+	{
+		this.connection = DriverManager.getConnection(URL + ";create=true");
+		this.connection.setAutoCommit(false);
+
+		executeUpdate("CREATE TABLE T_SQL_IMPORT (ID INTEGER NOT NULL PRIMARY KEY)");
+		this.connection.commit();
+	}
+
+	@After
+	public void destroy() throws SQLException
+	{
+		try
+		{
+			this.connection.rollback();
+			executeUpdate("DROP TABLE T_SQL_IMPORT");
+			this.connection.commit();
+		}
+		finally
+		{
+			JdbcUtil.closeConnection(this.connection);
+		}
+	}
+
+	@AfterClass
+	public static void dropDatabase()
+	{
+		try
+		{
+			DriverManager.getConnection(URL + ";drop=true");
+		}
+		catch (SQLException e)
+		{
+			// 删除内存数据库总是抛出异常
+		}
+	}
+
+	@Test
+	public void exchangeTest_batch() throws Exception
+	{
+		String sql = "";
+		for (int i = 1; i <= 5; i++)
+			sql += "INSERT INTO T_SQL_IMPORT VALUES (" + i + ");\n";
+
+		// 查询等不可批处理的语句会先执行之前的批处理
+		sql += "SELECT COUNT(*) FROM T_SQL_IMPORT;\n";
+
+		RecordDataImportListener listener = exchange(sql, ExceptionResolve.ABORT, 3);
+
+		assertEquals(6, listener.successes.size());
+		assertTrue(listener.ignores.isEmpty());
+		assertTrue(listener.exceptions.isEmpty());
+		assertEquals(5, getCount());
+
+		for (int i = 0; i < listener.successes.size(); i++)
+			assertEquals(i, listener.successes.get(i).getSqlStatement().getStartRow());
+	}
+
+	@Test
+	public void exchangeTest_batchFallback_ignore() throws Exception
+	{
+		RecordDataImportListener listener = exchange(SQL_WITH_DUPLICATE, ExceptionResolve.IGNORE, 10);
+
+		// 批处理出错后回滚至保存点，并逐条执行，每条语句都有各自的执行结果
+		assertEquals(3, listener.successes.size());
+		assertEquals(0, listener.successes.get(0).getSqlStatement().getStartRow());
+		assertEquals(1, listener.successes.get(1).getSqlStatement().getStartRow());
+		assertEquals(3, listener.successes.get(2).getSqlStatement().getStartRow());
+
+		assertEquals(1, listener.ignores.size());
+		assertEquals(DUPLICATE_SQL, listener.ignores.get(0).getSqlStatement().getSql());
+		assertEquals(2, listener.ignores.get(0).getSqlStatement().getStartRow());
+
+		assertTrue(listener.exceptions.isEmpty());
+		assertEquals(3, getCount());
+	}
+
+	@Test
+	public void exchangeTest_batchFallback_abort() throws Exception
+	{
+		RecordDataImportListener listener = exchange(SQL_WITH_DUPLICATE, ExceptionResolve.ABORT, 10);
+
+		assertEquals(2, listener.successes.size());
+		assertTrue(listener.ignores.isEmpty());
+		assertEquals(1, listener.exceptions.size());
+		assertTrue(listener.exceptions.get(0) instanceof ExecuteDataImportSqlException);
+		assertEquals(DUPLICATE_SQL,
+				((SqlDataIndex) ((ExecuteDataImportSqlException) listener.exceptions.get(0)).getDataIndex())
+						.getSqlStatement().getSql());
+	}
+
+	protected RecordDataImportListener exchange(String sql, ExceptionResolve exceptionResolve, int batchSize)
+			throws Exception
+	{
+		SqlDataImport impt = new SqlDataImport(new SimpleConnectionFactory(this.connection, false),
+				new SqlDataImportOption(exceptionResolve, batchSize),
+				SimpleClosableFactory.<Reader> valueOf(new StringReader(sql)));
+
+		RecordDataImportListener listener = new RecordDataImportListener();
+		impt.setListener(listener);
+
+		this.sqlDataImportService.exchange(impt);
+
+		return listener;
+	}
+
+	protected int getCount() throws SQLException
+	{
+		Statement st = null;
+		ResultSet rs = null;
+
+		try
+		{
+			st = this.connection.createStatement();
+			rs = st.executeQuery("SELECT COUNT(*) FROM T_SQL_IMPORT");
+			rs.next();
+
+			return rs.getInt(1);
+		}
+		finally
+		{
+			JdbcUtil.closeResultSet(rs);
+			JdbcUtil.closeStatement(st);
+		}
+	}
+
+	protected void executeUpdate(String sql) throws SQLException
+	{
+		Statement st = null;
+
+		try
+		{
+			st = this.connection.createStatement();
+			st.executeUpdate(sql);
+		}
+		finally
+		{
+			JdbcUtil.closeStatement(st);
+		}
+	}
+
+	protected static class RecordDataImportListener implements DataImportListener
+	{
+		public final List<SqlDataIndex> successes = new ArrayList<>();
+
+		public final List<SqlDataIndex> ignores = new ArrayList<>();
+
+		public final List<DataExchangeException> exceptions = new ArrayList<>();
+
+		@Override
+		public void onStart()
+		{
+		}
+
+		@Override
+		public void onException(DataExchangeException e)
+		{
+			this.exceptions.add(e);
+		}
+
+		@Override
+		public void onSuccess()
+		{
+		}
+
+		@Override
+		public void onFinish()
+		{
+		}
+
+		@Override
+		public void onSuccess(DataIndex dataIndex)
+		{
+			this.successes.add((SqlDataIndex) dataIndex);
+		}
+
+		@Override
+		public void onIgnore(DataIndex dataIndex, DataExchangeException e)
+		{
+			this.ignores.add((SqlDataIndex) dataIndex);
+		}
+	}
+}
@@ -195,7 +195,11 @@ public class DbVersionManager extends AbstractVersionContentReader
 			LOGGER.info("Start upgrade database version from [" + current + "] to the latest");
 
 		Version target = updateSchema(cn, current);
-		target = Version.valueOf(Global.VERSION);
+		Version globalVersion = Version.valueOf(Global.VERSION);
+
+		// 升级脚本可能已包含下一版本的内容，此时应记录已执行的最高版本，避免每次启动时重复执行
+		if (target == null || globalVersion.isHigherThan(target))
+			target = globalVersion;
 
 		if (target.isHigherThan(current))
 			updateVersion(cn, target);
@@ -92,4 +92,18 @@ public interface DataSetEntity
 	 * @param createTime
 	 */
 	void setCreateTime(Date createTime);
+
+	/**
+	 * 获取结果缓存秒数，小于等于{@code 0}表示不缓存。
+	 * 
+	 * @return
+	 */
+	int getResultCacheSeconds();
+
+	/**
+	 * 设置结果缓存秒数。
+	 * 
+	 * @param resultCacheSeconds
+	 */
+	void setResultCacheSeconds(int resultCacheSeconds);
 }
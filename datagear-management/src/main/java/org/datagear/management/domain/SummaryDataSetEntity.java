@@ -39,6 +39,8 @@ public class SummaryDataSetEntity extends AbstractDataSet implements DataSetEnti
 
 	private AnalysisProject analysisProject = null;
 
+	private int resultCacheSeconds = 0;
+
 	public SummaryDataSetEntity()
 	{
 		super();
@@ -114,6 +116,18 @@ public class SummaryDataSetEntity extends AbstractDataSet implements DataSetEnti
 		this.analysisProject = analysisProject;
 	}
 
+	@Override
+	public int getResultCacheSeconds()
+	{
+		return resultCacheSeconds;
+	}
+
+	@Override
+	public void setResultCacheSeconds(int resultCacheSeconds)
+	{
+		this.resultCacheSeconds = resultCacheSeconds;
+	}
+
 	@Override
 	public DataSetResult getResult(Map<String, ?> paramValues) throws DataSetException
 	{
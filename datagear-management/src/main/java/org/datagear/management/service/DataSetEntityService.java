@@ -11,6 +11,7 @@ import java.io.File;
 
 import org.apache.hc.client5.http.classic.HttpClient;
 import org.datagear.analysis.DataSet;
+import org.datagear.analysis.support.MaxRowsQuerySqlResolver;
 import org.datagear.analysis.support.ProfileDataSet;
 import org.datagear.management.domain.DataSetEntity;
 import org.datagear.management.domain.User;
@@ -26,6 +27,9 @@ public interface DataSetEntityService extends DataPermissionEntityService<String
 {
 	/**
 	 * 获取可用于执行分析的{@linkplain DataSet}。
+	 * <p>
+	 * 返回值可能是多个调用方共享的缓存值，调用方不应修改它。
+	 * </p>
 	 * 
 	 * @param id
 	 * @return
@@ -55,4 +59,11 @@ public interface DataSetEntityService extends DataPermissionEntityService<String
 	 * @return
 	 */
 	HttpClient getHttpClient();
+
+	/**
+	 * 获取SQL数据集限定结果数目时使用的{@linkplain MaxRowsQuerySqlResolver}。
+	 * 
+	 * @return 可能为{@code null}
+	 */
+	MaxRowsQuerySqlResolver getMaxRowsQuerySqlResolver();
 }
@@ -0,0 +1,400 @@
+/*
+ * Copyright (c) 2018 datagear.tech. All Rights Reserved.
+ */
+
+package org.datagear.management.service.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+
+/**
+ * 数据分析实体缓存。
+ * <p>
+ * 它缓存用于展示的、已完整组装的图表部件、数据集（包括数据源）对象图，使展示看板时不必每次都重新查询它们。
+ * </p>
+ * <p>
+ * 缓存值可声明它所依赖的其他缓存键（比如数据集依赖数据源，图表部件依赖数据集），相关服务在更新、删除时调用
+ * {@linkplain #invalidate(String, String...)}，仅使此实体及依赖它的缓存值失效。
+ * </p>
+ * <p>
+ * 每次失效都会递增版本号，加载期间版本号已变化的值不会被缓存；如果在事务中调用，事务完成后还会再次使之失效，
+ * 避免事务提交前其他线程加载的旧值被缓存。
+ * </p>
+ * <p>
+ * 缓存值是共享的，调用方不应修改它们：相关服务应仅以只读接口（比如{@linkplain org.datagear.analysis.DataSet}）返回缓存值，
+ * 或者返回它们的副本。
+ * </p>
+ * <p>
+ * 此类是线程安全的。
+ * </p>
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class AnalysisEntityCache
+{
+	/** 缓存值的最大数 */
+	private int maximumSize = 1000;
+
+	private final AtomicLong version = new AtomicLong(0);
+
+	private final AtomicLong hitCount = new AtomicLong(0);
+
+	private final AtomicLong missCount = new AtomicLong(0);
+
+	private volatile Cache<CacheKey, VersionedValue> _cache = null;
+
+	/** 缓存键 -> 依赖它的缓存键 */
+	private final ConcurrentMap<CacheKey, Set<CacheKey>> _dependents = new ConcurrentHashMap<>();
+
+	public AnalysisEntityCache()
+	{
+		super();
+	}
+
+	public int getMaximumSize()
+	{
+		return maximumSize;
+	}
+
+	public void setMaximumSize(int maximumSize)
+	{
+		this.maximumSize = maximumSize;
+	}
+
+	/**
+	 * 获取当前版本号。
+	 * <p>
+	 * 加载缓存值前应先获取版本号，并在{@linkplain #put(String, String, Object, long, CacheKey...)}时传入。
+	 * </p>
+	 * 
+	 * @return
+	 */
+	public long getVersion()
+	{
+		return this.version.get();
+	}
+
+	/**
+	 * 获取缓存值，没有或者已失效则返回{@code null}。
+	 * 
+	 * @param type
+	 * @param id
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T get(String type, String id)
+	{
+		VersionedValue value = getCache().getIfPresent(new CacheKey(type, id));
+
+		if (value == null)
+		{
+			this.missCount.incrementAndGet();
+			return null;
+		}
+
+		this.hitCount.incrementAndGet();
+
+		return (T) value.getValue();
+	}
+
+	/**
+	 * 添加缓存值。
+	 * 
+	 * @param type
+	 * @param id
+	 * @param value
+	 * @param version
+	 *            加载此值前的{@linkplain #getVersion()}
+	 * @param dependencies
+	 *            此值依赖的缓存键，它们失效时此值也将失效
+	 */
+	public void put(String type, String id, Object value, long version, CacheKey... dependencies)
+	{
+		if (value == null || version != this.version.get())
+			return;
+
+		CacheKey key = new CacheKey(type, id);
+
+		for (CacheKey dependency : dependencies)
+			this._dependents.computeIfAbsent(dependency, k -> ConcurrentHashMap.newKeySet()).add(key);
+
+		getCache().put(key, new VersionedValue(value, version, dependencies));
+
+		// 依赖关系登记期间失效的，也应使此值失效
+		if (version != this.version.get())
+			getCache().invalidate(key);
+	}
+
+	/**
+	 * 使指定实体及依赖它们的缓存值失效。
+	 * 
+	 * @param type
+	 * @param ids
+	 */
+	public void invalidate(String type, String... ids)
+	{
+		List<CacheKey> keys = new ArrayList<>(ids.length);
+
+		for (String id : ids)
+			keys.add(new CacheKey(type, id));
+
+		invalidate(keys);
+	}
+
+	/**
+	 * 使所有缓存值失效。
+	 * <p>
+	 * 仅用于无法确定失效实体的场景，比如按照用户批量删除。
+	 * </p>
+	 */
+	public void invalidateAll()
+	{
+		this.version.incrementAndGet();
+		getCache().invalidateAll();
+
+		if (TransactionSynchronizationManager.isSynchronizationActive())
+		{
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter()
+			{
+				@Override
+				public void afterCompletion(int status)
+				{
+					version.incrementAndGet();
+					getCache().invalidateAll();
+				}
+			});
+		}
+	}
+
+	protected void invalidate(Collection<CacheKey> keys)
+	{
+		invalidateWithDependents(keys);
+
+		if (TransactionSynchronizationManager.isSynchronizationActive())
+		{
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter()
+			{
+				@Override
+				public void afterCompletion(int status)
+				{
+					invalidateWithDependents(keys);
+				}
+			});
+		}
+	}
+
+	protected void invalidateWithDependents(Collection<CacheKey> keys)
+	{
+		this.version.incrementAndGet();
+
+		Set<CacheKey> invalidateds = new HashSet<>();
+		List<CacheKey> queue = new ArrayList<>(keys);
+
+		for (int i = 0; i < queue.size(); i++)
+		{
+			CacheKey key = queue.get(i);
+
+			if (!invalidateds.add(key))
+				continue;
+
+			getCache().invalidate(key);
+
+			Set<CacheKey> dependents = this._dependents.remove(key);
+
+			if (dependents != null)
+				queue.addAll(dependents);
+		}
+	}
+
+	/**
+	 * 获取命中次数。
+	 * 
+	 * @return
+	 */
+	public long getHitCount()
+	{
+		return this.hitCount.get();
+	}
+
+	/**
+	 * 获取未命中次数。
+	 * 
+	 * @return
+	 */
+	public long getMissCount()
+	{
+		return this.missCount.get();
+	}
+
+	/**
+	 * 获取命中率，没有请求时返回{@code 1}。
+	 * 
+	 * @return
+	 */
+	public double getHitRate()
+	{
+		long hit = this.hitCount.get();
+		long total = hit + this.missCount.get();
+
+		return (total == 0 ? 1.0 : (double) hit / total);
+	}
+
+	protected Cache<CacheKey, VersionedValue> getCache()
+	{
+		if (this._cache == null)
+		{
+			synchronized (this)
+			{
+				if (this._cache == null)
+				{
+					this._cache = CacheBuilder.newBuilder().maximumSize(this.maximumSize)
+							.<CacheKey, VersionedValue> removalListener(n ->
+							{
+								if (n.getCause() != RemovalCause.REPLACED)
+									removeDependent(n.getKey(), n.getValue());
+							}).build();
+				}
+			}
+		}
+
+		return this._cache;
+	}
+
+	/**
+	 * 移除已不存在的缓存值的依赖关系。
+	 * 
+	 * @param key
+	 * @param value
+	 */
+	protected void removeDependent(CacheKey key, VersionedValue value)
+	{
+		for (CacheKey dependency : value.getDependencies())
+		{
+			this._dependents.computeIfPresent(dependency, (k, dependents) ->
+			{
+				dependents.remove(key);
+				return (dependents.isEmpty() ? null : dependents);
+			});
+		}
+	}
+
+	@Override
+	public String toString()
+	{
+		return getClass().getSimpleName() + " [version=" + version + ", hitCount=" + hitCount + ", missCount="
+				+ missCount + "]";
+	}
+
+	/**
+	 * 缓存键。
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	public static class CacheKey
+	{
+		private final String type;
+
+		private final String id;
+
+		public CacheKey(String type, String id)
+		{
+			super();
+			this.type = type;
+			this.id = id;
+		}
+
+		public String getType()
+		{
+			return type;
+		}
+
+		public String getId()
+		{
+			return id;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			final int prime = 31;
+			int result = 1;
+			result = prime * result + ((type == null) ? 0 : type.hashCode());
+			result = prime * result + ((id == null) ? 0 : id.hashCode());
+			return result;
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (this == obj)
+				return true;
+			if (obj == null)
+				return false;
+			if (getClass() != obj.getClass())
+				return false;
+			CacheKey other = (CacheKey) obj;
+			if (type == null)
+			{
+				if (other.type != null)
+					return false;
+			}
+			else if (!type.equals(other.type))
+				return false;
+			if (id == null)
+			{
+				if (other.id != null)
+					return false;
+			}
+			else if (!id.equals(other.id))
+				return false;
+			return true;
+		}
+	}
+
+	protected static class VersionedValue
+	{
+		private final Object value;
+
+		private final long version;
+
+		private final CacheKey[] dependencies;
+
+		public VersionedValue(Object value, long version, CacheKey[] dependencies)
+		{
+			super();
+			this.value = value;
+			this.version = version;
+			this.dependencies = dependencies;
+		}
+
+		public Object getValue()
+		{
+			return value;
+		}
+
+		public long getVersion()
+		{
+			return version;
+		}
+
+		public CacheKey[] getDependencies()
+		{
+			return dependencies;
+		}
+	}
+}
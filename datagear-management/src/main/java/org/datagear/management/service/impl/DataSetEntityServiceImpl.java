@@ -17,6 +17,10 @@ import org.apache.ibatis.session.SqlSessionFactory;
 import org.datagear.analysis.DataSet;
 import org.datagear.analysis.DataSetParam;
 import org.datagear.analysis.DataSetProperty;
+import org.datagear.analysis.support.AbstractResolvableDataSet;
+import org.datagear.analysis.support.DataSetResultCache;
+import org.datagear.analysis.support.HttpDataSetResponseCache;
+import org.datagear.analysis.support.MaxRowsQuerySqlResolver;
 import org.datagear.analysis.support.ProfileDataSet;
 import org.datagear.connection.ConnectionSource;
 import org.datagear.management.domain.AnalysisProject;
@@ -28,6 +32,7 @@ import org.datagear.management.domain.ExcelDataSetEntity;
 import org.datagear.management.domain.HttpDataSetEntity;
 import org.datagear.management.domain.JsonFileDataSetEntity;
 import org.datagear.management.domain.JsonValueDataSetEntity;
+import org.datagear.management.domain.Schema;
 import org.datagear.management.domain.SchemaConnectionFactory;
 import org.datagear.management.domain.SqlDataSetEntity;
 import org.datagear.management.domain.SummaryDataSetEntity;
@@ -36,6 +41,7 @@ import org.datagear.management.service.AuthorizationService;
 import org.datagear.management.service.DataSetEntityService;
 import org.datagear.management.service.PermissionDeniedException;
 import org.datagear.management.service.SchemaService;
+import org.datagear.management.service.impl.AnalysisEntityCache.CacheKey;
 import org.datagear.persistence.PagingData;
 import org.datagear.persistence.PagingQuery;
 import org.datagear.util.FileUtil;
@@ -63,6 +69,18 @@ public class DataSetEntityServiceImpl extends AbstractMybatisDataPermissionEntit
 
 	private HttpClient httpClient;
 
+	/** 数据集结果缓存，为{@code null}表示不缓存 */
+	private DataSetResultCache dataSetResultCache = null;
+
+	/** HTTP数据集响应缓存，为{@code null}表示不发送条件请求 */
+	private HttpDataSetResponseCache httpDataSetResponseCache = null;
+
+	/** 数据分析实体缓存，为{@code null}则不缓存 */
+	private AnalysisEntityCache analysisEntityCache = null;
+
+	/** SQL数据集限定结果数目时使用的限定行数SQL解析器，为null表示仅设置Statement.setMaxRows() */
+	private MaxRowsQuerySqlResolver maxRowsQuerySqlResolver = null;
+
 	public DataSetEntityServiceImpl()
 	{
 		super();
@@ -143,27 +161,88 @@ public class DataSetEntityServiceImpl extends AbstractMybatisDataPermissionEntit
 		this.httpClient = httpClient;
 	}
 
+	public DataSetResultCache getDataSetResultCache()
+	{
+		return dataSetResultCache;
+	}
+
+	public void setDataSetResultCache(DataSetResultCache dataSetResultCache)
+	{
+		this.dataSetResultCache = dataSetResultCache;
+	}
+
+	public HttpDataSetResponseCache getHttpDataSetResponseCache()
+	{
+		return httpDataSetResponseCache;
+	}
+
+	public void setHttpDataSetResponseCache(HttpDataSetResponseCache httpDataSetResponseCache)
+	{
+		this.httpDataSetResponseCache = httpDataSetResponseCache;
+	}
+
 	@Override
 	public File getDataSetDirectory(String dataSetId)
 	{
 		return FileUtil.getDirectory(getDataSetRootDirectory(), dataSetId);
 	}
 
+	public AnalysisEntityCache getAnalysisEntityCache()
+	{
+		return analysisEntityCache;
+	}
+
+	public void setAnalysisEntityCache(AnalysisEntityCache analysisEntityCache)
+	{
+		this.analysisEntityCache = analysisEntityCache;
+	}
+
+	@Override
+	public MaxRowsQuerySqlResolver getMaxRowsQuerySqlResolver()
+	{
+		return maxRowsQuerySqlResolver;
+	}
+
+	public void setMaxRowsQuerySqlResolver(MaxRowsQuerySqlResolver maxRowsQuerySqlResolver)
+	{
+		this.maxRowsQuerySqlResolver = maxRowsQuerySqlResolver;
+	}
+
 	@Override
 	public DataSet getDataSet(String id)
 	{
+		if (this.analysisEntityCache != null)
+		{
+			DataSet dataSet = this.analysisEntityCache.get(DataSetEntity.class.getName(), id);
+
+			if (dataSet != null)
+				return dataSet;
+		}
+
+		long version = (this.analysisEntityCache == null ? 0 : this.analysisEntityCache.getVersion());
+
 		DataSetEntity entity = getById(id);
+		CacheKey[] dependencies = new CacheKey[0];
 
 		if (entity instanceof SqlDataSetEntity)
 		{
 			SqlDataSetEntity sqlDataSetEntity = (SqlDataSetEntity) entity;
 
 			SchemaConnectionFactory connectionFactory = sqlDataSetEntity.getConnectionFactory();
+			String schemaId = connectionFactory.getSchema().getId();
+			dependencies = new CacheKey[] { new CacheKey(Schema.class.getName(), schemaId) };
 
-			connectionFactory.setSchema(this.schemaService.getById(connectionFactory.getSchema().getId()));
+			connectionFactory.setSchema(this.schemaService.getById(schemaId));
 			connectionFactory.setConnectionSource(this.connectionSource);
+			sqlDataSetEntity.setMaxRowsQuerySqlResolver(this.maxRowsQuerySqlResolver);
 		}
 
+		if (this.dataSetResultCache != null && entity instanceof AbstractResolvableDataSet)
+			((AbstractResolvableDataSet) entity).setResultCache(this.dataSetResultCache);
+
+		if (this.analysisEntityCache != null)
+			this.analysisEntityCache.put(DataSetEntity.class.getName(), id, entity, version, dependencies);
+
 		return entity;
 	}
 
@@ -315,6 +394,12 @@ public class DataSetEntityServiceImpl extends AbstractMybatisDataPermissionEntit
 		if (success)
 			saveDataSetChildren(entity);
 
+		if (success)
+		{
+			invalidateDataSetResultCache(entity.getId());
+			invalidateAnalysisEntityCache(entity.getId());
+		}
+
 		return success;
 	}
 
@@ -394,11 +479,38 @@ public class DataSetEntityServiceImpl extends AbstractMybatisDataPermissionEntit
 		if (deleted)
 		{
 			this.authorizationService.deleteByResource(SqlDataSetEntity.AUTHORIZATION_RESOURCE_TYPE, id);
+			invalidateDataSetResultCache(id);
+			invalidateAnalysisEntityCache(id);
 		}
 
 		return deleted;
 	}
 
+	/**
+	 * 清除指定数据集的结果缓存、HTTP响应缓存。
+	 * 
+	 * @param id
+	 */
+	protected void invalidateDataSetResultCache(String id)
+	{
+		if (this.dataSetResultCache != null)
+			this.dataSetResultCache.invalidate(id);
+
+		if (this.httpDataSetResponseCache != null)
+			this.httpDataSetResponseCache.invalidate(id);
+	}
+
+	/**
+	 * 使数据集及依赖它的图表部件缓存值失效。
+	 * 
+	 * @param id
+	 */
+	protected void invalidateAnalysisEntityCache(String id)
+	{
+		if (this.analysisEntityCache != null)
+			this.analysisEntityCache.invalidate(DataSetEntity.class.getName(), id);
+	}
+
 	@Override
 	protected void postProcessSelects(List<DataSetEntity> list)
 	{
@@ -534,7 +646,10 @@ public class DataSetEntityServiceImpl extends AbstractMybatisDataPermissionEntit
 		HttpDataSetEntity entity = selectOneMybatis("getHttpDataSetEntityById", params);
 
 		if (entity != null)
+		{
 			entity.setHttpClient(this.httpClient);
+			entity.setResponseCache(this.httpDataSetResponseCache);
+		}
 
 		return entity;
 	}
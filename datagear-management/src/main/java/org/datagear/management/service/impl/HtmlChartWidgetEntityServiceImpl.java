@@ -18,6 +18,7 @@ import java.util.Set;
 
 import org.apache.ibatis.session.SqlSessionFactory;
 import org.datagear.analysis.ChartDataSet;
+import org.datagear.analysis.ChartDefinition;
 import org.datagear.analysis.ChartPluginManager;
 import org.datagear.analysis.DataSet;
 import org.datagear.analysis.support.ChartWidget;
@@ -25,13 +26,16 @@ import org.datagear.analysis.support.JsonSupport;
 import org.datagear.analysis.support.html.HtmlChartPlugin;
 import org.datagear.management.domain.AnalysisProject;
 import org.datagear.management.domain.AnalysisProjectAwareEntity;
+import org.datagear.management.domain.Authorization;
 import org.datagear.management.domain.ChartDataSetVO;
+import org.datagear.management.domain.DataSetEntity;
 import org.datagear.management.domain.HtmlChartWidgetEntity;
 import org.datagear.management.domain.User;
 import org.datagear.management.service.AuthorizationService;
 import org.datagear.management.service.DataSetEntityService;
 import org.datagear.management.service.HtmlChartWidgetEntityService;
 import org.datagear.management.service.PermissionDeniedException;
+import org.datagear.management.service.impl.AnalysisEntityCache.CacheKey;
 import org.datagear.persistence.PagingData;
 import org.datagear.persistence.PagingQuery;
 import org.datagear.util.StringUtil;
@@ -55,6 +59,9 @@ public class HtmlChartWidgetEntityServiceImpl
 
 	private AuthorizationService authorizationService;
 
+	/** 数据分析实体缓存，为{@code null}则不缓存 */
+	private AnalysisEntityCache analysisEntityCache = null;
+
 	public HtmlChartWidgetEntityServiceImpl()
 	{
 		super();
@@ -109,17 +116,38 @@ public class HtmlChartWidgetEntityServiceImpl
 		this.authorizationService = authorizationService;
 	}
 
+	public AnalysisEntityCache getAnalysisEntityCache()
+	{
+		return analysisEntityCache;
+	}
+
+	public void setAnalysisEntityCache(AnalysisEntityCache analysisEntityCache)
+	{
+		this.analysisEntityCache = analysisEntityCache;
+	}
+
 	@Override
 	public ChartWidget getChartWidget(String id) throws Throwable
 	{
 		ChartWidgetSourceContext context = ChartWidgetSourceContext.get();
 
-		HtmlChartWidgetEntity entity = null;
-
+		// 权限不缓存，每次都校验
 		if (context.hasUser())
-			entity = getById(context.getUser(), id);
-		else
-			entity = getById(id);
+		{
+			int permission = getPermission(context.getUser(), id);
+
+			if (!Authorization.canRead(permission))
+				throw new PermissionDeniedException();
+		}
+
+		HtmlChartWidgetEntity entity = getCachedChartWidget(id);
+
+		if (entity != null)
+			return copyForAnalysis(entity);
+
+		long version = (this.analysisEntityCache == null ? 0 : this.analysisEntityCache.getVersion());
+
+		entity = getById(id, buildParamMap(), false);
 
 		if (entity == null)
 			return null;
@@ -127,6 +155,85 @@ public class HtmlChartWidgetEntityServiceImpl
 		setHtmlChartPlugin(entity, true);
 		setChartDataSets(entity, true);
 
+		if (this.analysisEntityCache != null)
+		{
+			ChartDataSetVO[] chartDataSets = entity.getChartDataSetVOs();
+			CacheKey[] dependencies = new CacheKey[chartDataSets.length];
+
+			for (int i = 0; i < chartDataSets.length; i++)
+				dependencies[i] = new CacheKey(DataSetEntity.class.getName(), chartDataSets[i].getDataSet().getId());
+
+			this.analysisEntityCache.put(HtmlChartWidgetEntity.class.getName(), id, entity, version, dependencies);
+
+			entity = copyForAnalysis(entity);
+		}
+
+		return entity;
+	}
+
+	/**
+	 * 拷贝用于展示的{@linkplain HtmlChartWidgetEntity}，使调用方对它的修改不会影响缓存值。
+	 * <p>
+	 * {@linkplain ChartDataSetVO}也将被拷贝，它们的{@linkplain DataSet}则仍是共享的、只读的缓存值。
+	 * </p>
+	 * 
+	 * @param entity
+	 * @return
+	 */
+	protected HtmlChartWidgetEntity copyForAnalysis(HtmlChartWidgetEntity entity)
+	{
+		ChartDataSetVO[] chartDataSets = entity.getChartDataSetVOs();
+		ChartDataSetVO[] copyChartDataSets = new ChartDataSetVO[chartDataSets.length];
+
+		for (int i = 0; i < chartDataSets.length; i++)
+		{
+			ChartDataSetVO chartDataSet = chartDataSets[i];
+
+			ChartDataSetVO copyChartDataSet = new ChartDataSetVO(chartDataSet.getDataSet());
+			copyChartDataSet.setPropertySigns(chartDataSet.getPropertySigns());
+			copyChartDataSet.setAlias(chartDataSet.getAlias());
+			copyChartDataSet.setParamValues(chartDataSet.getParamValues());
+
+			copyChartDataSets[i] = copyChartDataSet;
+		}
+
+		HtmlChartWidgetEntity copy = new HtmlChartWidgetEntity();
+		ChartDefinition.copy(entity, copy);
+		copy.setChartDataSetVOs(copyChartDataSets);
+		copy.setHtmlChartPlugin(entity.getHtmlChartPlugin());
+		copy.setCreateUser(entity.getCreateUser());
+		copy.setCreateTime(entity.getCreateTime());
+		copy.setDataPermission(entity.getDataPermission());
+		copy.setAnalysisProject(entity.getAnalysisProject());
+		copy.setChartPluginName(entity.getChartPluginName());
+
+		return copy;
+	}
+
+	/**
+	 * 获取缓存的已完整加载的{@linkplain HtmlChartWidgetEntity}，没有则返回{@code null}。
+	 * <p>
+	 * 如果图表插件已不是{@linkplain #getChartPluginManager()}中的那个（比如图表插件已重新上传），也将返回{@code null}。
+	 * </p>
+	 * 
+	 * @param id
+	 * @return
+	 */
+	protected HtmlChartWidgetEntity getCachedChartWidget(String id)
+	{
+		if (this.analysisEntityCache == null)
+			return null;
+
+		HtmlChartWidgetEntity entity = this.analysisEntityCache.get(HtmlChartWidgetEntity.class.getName(), id);
+
+		if (entity == null)
+			return null;
+
+		HtmlChartPlugin htmlChartPlugin = entity.getHtmlChartPlugin();
+
+		if (htmlChartPlugin == null || htmlChartPlugin != getHtmlChartPlugin(htmlChartPlugin.getId()))
+			return null;
+
 		return entity;
 	}
 
@@ -177,7 +284,10 @@ public class HtmlChartWidgetEntityServiceImpl
 		boolean success = super.update(entity, params);
 
 		if (success)
+		{
 			saveWidgetDataSetRelations(entity);
+			invalidateAnalysisEntityCache(entity.getId());
+		}
 
 		return success;
 	}
@@ -188,11 +298,20 @@ public class HtmlChartWidgetEntityServiceImpl
 		boolean deleted = super.deleteById(id, params);
 
 		if (deleted)
+		{
 			this.authorizationService.deleteByResource(HtmlChartWidgetEntity.AUTHORIZATION_RESOURCE_TYPE, id);
+			invalidateAnalysisEntityCache(id);
+		}
 
 		return deleted;
 	}
 
+	protected void invalidateAnalysisEntityCache(String id)
+	{
+		if (this.analysisEntityCache != null)
+			this.analysisEntityCache.invalidate(HtmlChartWidgetEntity.class.getName(), id);
+	}
+
 	protected void saveWidgetDataSetRelations(HtmlChartWidgetEntity entity)
 	{
 		deleteMybatis("deleteDataSetRelationById", entity.getId());
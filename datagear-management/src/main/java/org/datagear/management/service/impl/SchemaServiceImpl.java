@@ -31,6 +31,9 @@ public class SchemaServiceImpl extends AbstractMybatisDataPermissionEntityServic
 
 	private AuthorizationService authorizationService;
 
+	/** 数据分析实体缓存，数据集缓存值包含数据源，因此数据源更新时也应使之失效 */
+	private AnalysisEntityCache analysisEntityCache = null;
+
 	public SchemaServiceImpl()
 	{
 		super();
@@ -72,6 +75,16 @@ public class SchemaServiceImpl extends AbstractMybatisDataPermissionEntityServic
 		this.authorizationService = authorizationService;
 	}
 
+	public AnalysisEntityCache getAnalysisEntityCache()
+	{
+		return analysisEntityCache;
+	}
+
+	public void setAnalysisEntityCache(AnalysisEntityCache analysisEntityCache)
+	{
+		this.analysisEntityCache = analysisEntityCache;
+	}
+
 	@Override
 	public String getResourceType()
 	{
@@ -100,13 +113,27 @@ public class SchemaServiceImpl extends AbstractMybatisDataPermissionEntityServic
 		return super.getById(user, id);
 	}
 
+	@Override
+	protected boolean update(Schema entity, Map<String, Object> params)
+	{
+		boolean success = super.update(entity, params);
+
+		if (success)
+			invalidateAnalysisEntityCache(entity.getId());
+
+		return success;
+	}
+
 	@Override
 	protected boolean deleteById(String id, Map<String, Object> params)
 	{
 		boolean deleted = super.deleteById(id, params);
 
 		if (deleted)
+		{
 			this.authorizationService.deleteByResource(Schema.AUTHORIZATION_RESOURCE_TYPE, id);
+			invalidateAnalysisEntityCache(id);
+		}
 
 		return deleted;
 	}
@@ -129,7 +156,24 @@ public class SchemaServiceImpl extends AbstractMybatisDataPermissionEntityServic
 		addIdentifierQuoteParameter(params);
 		params.put("userIds", userIds);
 
-		return updateMybatis("deleteByUserId", params);
+		int count = updateMybatis("deleteByUserId", params);
+
+		// 无法确定删除了哪些数据源，因此使所有缓存值失效
+		if (count > 0 && this.analysisEntityCache != null)
+			this.analysisEntityCache.invalidateAll();
+
+		return count;
+	}
+
+	/**
+	 * 使数据源及依赖它的数据集、图表部件缓存值失效。
+	 * 
+	 * @param id
+	 */
+	protected void invalidateAnalysisEntityCache(String id)
+	{
+		if (this.analysisEntityCache != null)
+			this.analysisEntityCache.invalidate(Schema.class.getName(), id);
 	}
 
 	@Override
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2018 datagear.tech. All Rights Reserved.
+ */
+
+package org.datagear.management.util;
+
+import java.sql.Connection;
+
+import org.datagear.analysis.support.MaxRowsQuerySqlResolver;
+import org.datagear.persistence.Dialect;
+import org.datagear.persistence.DialectException;
+import org.datagear.persistence.DialectSource;
+import org.datagear.util.Sql;
+
+/**
+ * 基于{@linkplain Dialect#toMaxRowsQuerySql(Sql, int)}的{@linkplain MaxRowsQuerySqlResolver}。
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class DialectMaxRowsQuerySqlResolver implements MaxRowsQuerySqlResolver
+{
+	private DialectSource dialectSource;
+
+	public DialectMaxRowsQuerySqlResolver()
+	{
+		super();
+	}
+
+	public DialectMaxRowsQuerySqlResolver(DialectSource dialectSource)
+	{
+		super();
+		this.dialectSource = dialectSource;
+	}
+
+	public DialectSource getDialectSource()
+	{
+		return dialectSource;
+	}
+
+	public void setDialectSource(DialectSource dialectSource)
+	{
+		this.dialectSource = dialectSource;
+	}
+
+	@Override
+	public Sql resolve(Connection cn, Sql query, int maxRows)
+	{
+		Dialect dialect = null;
+
+		try
+		{
+			dialect = this.dialectSource.getDialect(cn);
+		}
+		catch (DialectException e)
+		{
+			return null;
+		}
+
+		return dialect.toMaxRowsQuerySql(query, maxRows);
+	}
+}
@@ -56,4 +56,35 @@ public class SchemaConnectionSupport
 
 		return cn;
 	}
+
+	/**
+	 * 获取指定{@linkplain Schema}的不占用连接池的独立{@linkplain Connection}。
+	 * 
+	 * @param connectionSource
+	 * @param schema
+	 * @return
+	 * @throws ConnectionSourceException
+	 * @see ConnectionSource#getDedicatedConnection(ConnectionOption)
+	 */
+	public Connection getSchemaDedicatedConnection(ConnectionSource connectionSource, Schema schema)
+			throws ConnectionSourceException
+	{
+		Connection cn = null;
+
+		ConnectionOption connectionOption = ConnectionOption.valueOf(schema.getUrl(), schema.getUser(),
+				schema.getPassword());
+
+		if (schema.hasDriverEntity())
+		{
+			DriverEntity driverEntity = schema.getDriverEntity();
+
+			cn = connectionSource.getDedicatedConnection(driverEntity, connectionOption);
+		}
+		else
+		{
+			cn = connectionSource.getDedicatedConnection(connectionOption);
+		}
+
+		return cn;
+	}
 }
@@ -684,3 +684,16 @@ ALTER TABLE DATAGEAR_DATA_SET_CSV_FILE ALTER COLUMN DS_FILE_SOURCE_TYPE SET NOT
 --version[2.0.0], DO NOT EDIT THIS LINE!
 -----------------------------------------
 
+
+-----------------------------------------
+--version[2.1.0], DO NOT EDIT THIS LINE!
+-----------------------------------------
+
+--数据集结果缓存秒数，0表示不缓存
+ALTER TABLE DATAGEAR_DATA_SET ADD COLUMN DS_CACHE_SECONDS INTEGER DEFAULT 0;
+
+--SQL数据集是否采用参数绑定模式
+ALTER TABLE DATAGEAR_DATA_SET_SQL ADD COLUMN DS_BIND_PARAM VARCHAR(10);
+
+--HTTP数据集是否缓存响应
+ALTER TABLE DATAGEAR_DATA_SET_HTTP ADD COLUMN DS_CACHE_RESPONSE VARCHAR(10);
@@ -5,8 +5,12 @@
 package org.datagear.management.dbversion;
 
 import java.io.IOException;
+import java.sql.DriverManager;
+import java.sql.SQLException;
 import java.util.List;
 
+import org.apache.derby.jdbc.EmbeddedDataSource;
+import org.datagear.util.Global;
 import org.datagear.util.version.Version;
 import org.datagear.util.version.VersionContent;
 import org.junit.Assert;
@@ -49,4 +53,45 @@ public class DbVersionManagerTest
 			Assert.assertTrue(contents.get(3).endsWith(")"));
 		}
 	}
+
+	@Test
+	public void upgradeTest() throws Exception
+	{
+		String databaseName = "memory:dbVersionManagerTest";
+
+		EmbeddedDataSource dataSource = new EmbeddedDataSource();
+		dataSource.setDatabaseName(databaseName);
+		dataSource.setCreateDatabase("create");
+
+		try
+		{
+			DbVersionManager dbVersionManager = new DbVersionManager(dataSource);
+
+			List<VersionContent> versionContents = dbVersionManager.resolveUpgradeSqlVersionContents(null);
+			Version latest = versionContents.get(versionContents.size() - 1).getVersion();
+
+			Version version = dbVersionManager.upgrade();
+
+			// 升级脚本包含尚未发布的版本时，记录已执行的最高版本
+			Version expected = (latest.isHigherThan(Version.valueOf(Global.VERSION)) ? latest
+					: Version.valueOf(Global.VERSION));
+
+			Assert.assertEquals(expected, version);
+			Assert.assertEquals(expected, dbVersionManager.getCurrentVersion());
+
+			// 再次升级不应重复执行已执行的脚本
+			Assert.assertEquals(expected, dbVersionManager.upgrade());
+		}
+		finally
+		{
+			try
+			{
+				DriverManager.getConnection("jdbc:derby:" + databaseName + ";drop=true");
+			}
+			catch (SQLException e)
+			{
+				// 删除内存数据库总是抛出异常
+			}
+		}
+	}
 }
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2018 datagear.tech. All Rights Reserved.
+ */
+
+package org.datagear.management.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.datagear.management.service.impl.AnalysisEntityCache;
+import org.datagear.management.service.impl.AnalysisEntityCache.CacheKey;
+import org.junit.Test;
+
+/**
+ * {@linkplain AnalysisEntityCache}单元测试类。
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class AnalysisEntityCacheTest
+{
+	@Test
+	public void getTest()
+	{
+		AnalysisEntityCache cache = new AnalysisEntityCache();
+
+		Object value = new Object();
+
+		long version = cache.getVersion();
+		cache.put("type", "id", value, version);
+
+		assertSame(value, cache.get("type", "id"));
+		assertNull(cache.get("type", "id-1"));
+		assertNull(cache.get("type-1", "id"));
+
+		assertEquals(1, cache.getHitCount());
+		assertEquals(2, cache.getMissCount());
+	}
+
+	@Test
+	public void invalidateTest()
+	{
+		AnalysisEntityCache cache = new AnalysisEntityCache();
+
+		long version = cache.getVersion();
+		cache.put("type", "id", new Object(), version);
+
+		cache.invalidateAll();
+
+		assertNull(cache.get("type", "id"));
+
+		// 加载期间失效的值不会被缓存
+		cache.put("type", "id", new Object(), version);
+
+		assertNull(cache.get("type", "id"));
+	}
+
+	@Test
+	public void invalidateTest_id()
+	{
+		AnalysisEntityCache cache = new AnalysisEntityCache();
+
+		long version = cache.getVersion();
+		cache.put("schema", "s0", new Object(), version);
+		cache.put("schema", "s1", new Object(), version);
+		cache.put("dataSet", "d0", new Object(), version, new CacheKey("schema", "s0"));
+		cache.put("dataSet", "d1", new Object(), version, new CacheKey("schema", "s1"));
+		cache.put("chart", "c0", new Object(), version, new CacheKey("dataSet", "d0"));
+		cache.put("chart", "c1", new Object(), version, new CacheKey("dataSet", "d0"),
+				new CacheKey("dataSet", "d1"));
+
+		// 仅失效自身及直接、间接依赖它的
+		cache.invalidate("schema", "s0");
+
+		assertNull(cache.get("schema", "s0"));
+		assertNull(cache.get("dataSet", "d0"));
+		assertNull(cache.get("chart", "c0"));
+		assertNull(cache.get("chart", "c1"));
+		assertNotNull(cache.get("schema", "s1"));
+		assertNotNull(cache.get("dataSet", "d1"));
+
+		cache.invalidate("chart", "c1");
+		assertNotNull(cache.get("dataSet", "d1"));
+
+		cache.invalidate("schema", "s1");
+		assertNull(cache.get("dataSet", "d1"));
+	}
+}
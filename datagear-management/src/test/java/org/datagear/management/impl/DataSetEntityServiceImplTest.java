@@ -0,0 +1,204 @@
+/*
+ * Copyright 2018 datagear.tech. All Rights Reserved.
+ */
+
+package org.datagear.management.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Date;
+
+import org.apache.derby.jdbc.EmbeddedDataSource;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.datagear.analysis.DataSet;
+import org.datagear.analysis.DataSetProperty;
+import org.datagear.management.dbversion.DbVersionManager;
+import org.datagear.management.domain.HttpDataSetEntity;
+import org.datagear.management.domain.JsonValueDataSetEntity;
+import org.datagear.management.domain.Schema;
+import org.datagear.management.domain.SchemaConnectionFactory;
+import org.datagear.management.domain.SqlDataSetEntity;
+import org.datagear.management.domain.User;
+import org.datagear.management.service.impl.AnalysisEntityCache;
+import org.datagear.management.service.impl.AuthorizationServiceImpl;
+import org.datagear.management.service.impl.DataSetEntityServiceImpl;
+import org.datagear.management.service.impl.SchemaServiceImpl;
+import org.datagear.util.FileUtil;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mybatis.spring.SqlSessionFactoryBean;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+/**
+ * {@linkplain DataSetEntityServiceImpl}单元测试类。
+ * <p>
+ * 主要测试{@linkplain DataSetEntityServiceImpl#getDataSet(String)}的{@linkplain AnalysisEntityCache}失效。
+ * </p>
+ *
+ * @author datagear@163.com
+ *
+ */
+public class DataSetEntityServiceImplTest
+{
+	private static final String DATABASE_NAME = "memory:dataSetEntityServiceImplTest";
+
+	private static File dataSetRootDirectory;
+
+	private static SqlSessionFactory sqlSessionFactory;
+
+	private SchemaServiceImpl schemaService;
+
+	private DataSetEntityServiceImpl dataSetEntityService;
+
+	private final User user = new User("admin");
+
+	@BeforeClass
+	public static void initDatabase() throws Exception
+	{
+		EmbeddedDataSource dataSource = new EmbeddedDataSource();
+		dataSource.setDatabaseName(DATABASE_NAME);
+		dataSource.setCreateDatabase("create");
+
+		new DbVersionManager(dataSource).upgrade();
+
+		SqlSessionFactoryBean bean = new SqlSessionFactoryBean();
+		bean.setDataSource(dataSource);
+		bean.setMapperLocations(new PathMatchingResourcePatternResolver()
+				.getResources("classpath*:org/datagear/management/mapper/*.xml"));
+		sqlSessionFactory = bean.getObject();
+
+		dataSetRootDirectory = FileUtil.getDirectory("target/DataSetEntityServiceImplTest/");
+	}
+
+	@AfterClass
+	public static void dropDatabase()
+	{
+		try
+		{
+			DriverManager.getConnection("jdbc:derby:" + DATABASE_NAME + ";drop=true");
+		}
+		catch (SQLException e)
+		{
+			// 删除内存数据库总是抛出异常
+		}
+
+		FileUtil.deleteFile(dataSetRootDirectory);
+	}
+
+	@Before
+	public void init()
+	{
+		AnalysisEntityCache analysisEntityCache = new AnalysisEntityCache();
+
+		AuthorizationServiceImpl authorizationService = new AuthorizationServiceImpl(sqlSessionFactory,
+				new ArrayList<>());
+
+		this.schemaService = new SchemaServiceImpl(sqlSessionFactory, null, authorizationService);
+		this.schemaService.setAnalysisEntityCache(analysisEntityCache);
+
+		this.dataSetEntityService = new DataSetEntityServiceImpl(sqlSessionFactory, null, this.schemaService,
+				authorizationService, dataSetRootDirectory, null);
+		this.dataSetEntityService.setAnalysisEntityCache(analysisEntityCache);
+	}
+
+	@Test
+	public void getDataSetTest_update()
+	{
+		addJsonValueDataSet("update0", "[]");
+		addJsonValueDataSet("update1", "[]");
+
+		DataSet d0 = this.dataSetEntityService.getDataSet("update0");
+		DataSet d1 = this.dataSetEntityService.getDataSet("update1");
+
+		assertSame(d0, this.dataSetEntityService.getDataSet("update0"));
+
+		JsonValueDataSetEntity entity = (JsonValueDataSetEntity) this.dataSetEntityService.getById("update0");
+		entity.setName("update0-updated");
+		this.dataSetEntityService.update(entity);
+
+		DataSet updated = this.dataSetEntityService.getDataSet("update0");
+
+		assertNotSame(d0, updated);
+		assertEquals("update0-updated", updated.getName());
+
+		// 其他数据集的缓存值不受影响
+		assertSame(d1, this.dataSetEntityService.getDataSet("update1"));
+	}
+
+	@Test
+	public void getDataSetTest_delete()
+	{
+		addJsonValueDataSet("delete0", "[]");
+		addJsonValueDataSet("delete1", "[]");
+
+		this.dataSetEntityService.getDataSet("delete0");
+		DataSet d1 = this.dataSetEntityService.getDataSet("delete1");
+
+		this.dataSetEntityService.deleteById("delete0");
+
+		assertNull(this.dataSetEntityService.getDataSet("delete0"));
+		assertSame(d1, this.dataSetEntityService.getDataSet("delete1"));
+	}
+
+	@Test
+	public void getDataSetTest_schemaUpdate()
+	{
+		Schema schema = new Schema("schema", "schema", "jdbc:derby:memory:schema", "", "");
+		schema.setCreateUser(this.user);
+		schema.setCreateTime(new Date());
+		this.schemaService.add(schema);
+
+		SqlDataSetEntity sqlDataSet = new SqlDataSetEntity("schema0", "schema0", new ArrayList<DataSetProperty>(),
+				new SchemaConnectionFactory(null, schema), "SELECT 1 FROM SYSIBM.SYSDUMMY1", this.user);
+		this.dataSetEntityService.add(sqlDataSet);
+
+		addJsonValueDataSet("schema1", "[]");
+
+		SqlDataSetEntity d0 = (SqlDataSetEntity) this.dataSetEntityService.getDataSet("schema0");
+		DataSet d1 = this.dataSetEntityService.getDataSet("schema1");
+
+		assertEquals("schema", d0.getConnectionFactory().getSchema().getTitle());
+
+		schema.setTitle("schema-updated");
+		this.schemaService.update(schema);
+
+		// 依赖此数据源的数据集缓存值失效，其他的不受影响
+		SqlDataSetEntity updated = (SqlDataSetEntity) this.dataSetEntityService.getDataSet("schema0");
+
+		assertNotSame(d0, updated);
+		assertEquals("schema-updated", updated.getConnectionFactory().getSchema().getTitle());
+		assertSame(d1, this.dataSetEntityService.getDataSet("schema1"));
+	}
+
+	@Test
+	public void getByIdTest_httpCacheResponse()
+	{
+		HttpDataSetEntity entity = new HttpDataSetEntity("http0", "http0", null, "http://localhost/", this.user);
+		this.dataSetEntityService.add(entity);
+
+		assertFalse(((HttpDataSetEntity) this.dataSetEntityService.getById("http0")).isCacheResponse());
+
+		entity.setCacheResponse(true);
+		this.dataSetEntityService.update(entity);
+
+		assertTrue(((HttpDataSetEntity) this.dataSetEntityService.getById("http0")).isCacheResponse());
+	}
+
+	protected void addJsonValueDataSet(String id, String value)
+	{
+		JsonValueDataSetEntity entity = new JsonValueDataSetEntity(id, id, new ArrayList<DataSetProperty>(), value,
+				this.user);
+		this.dataSetEntityService.add(entity);
+	}
+}
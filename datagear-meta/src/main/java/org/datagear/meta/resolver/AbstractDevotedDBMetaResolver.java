@@ -11,11 +11,14 @@ import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.datagear.connection.ConnectionOption;
 import org.datagear.meta.Column;
@@ -240,6 +243,17 @@ public abstract class AbstractDevotedDBMetaResolver extends JdbcSupport implemen
 		DatabaseMetaData metaData = getDatabaseMetaData(cn);
 		String schema = getSchema(cn, metaData);
 
+		// 去除空、重复表名后批量获取
+		Set<String> names = new LinkedHashSet<>();
+		for (String tableName : tableNames)
+		{
+			if (!StringUtil.isEmpty(tableName))
+				names.add(tableName);
+		}
+
+		Map<String, ImportKey[]> importKeyss = getImportKeys(cn, metaData, catalog, schema, names);
+		Map<String, String[]> importTablesMap = new HashMap<>();
+
 		for (int i = 0; i < tableNames.length; i++)
 		{
 			String[] importTables = null;
@@ -248,37 +262,12 @@ public abstract class AbstractDevotedDBMetaResolver extends JdbcSupport implemen
 				importTables = EMPTY_STRING_ARRAY;
 			else
 			{
-				// 处理重复表
-				for (int k = 0; i < i; k++)
-				{
-					if (tableNames[k].equals(tableNames[i]))
-					{
-						importTables = importTabless.get(k);
-						break;
-					}
-				}
+				importTables = importTablesMap.get(tableNames[i]);
 
 				if (importTables == null)
 				{
-					ImportKey[] importKeys = getImportKeys(cn, metaData, catalog, schema, tableNames[i]);
-
-					if (importKeys == null || importKeys.length == 0)
-						importTables = EMPTY_STRING_ARRAY;
-					else
-					{
-						List<String> importedTableList = new ArrayList<>(2);
-
-						for (int j = 0; j < importKeys.length; j++)
-						{
-							String primaryTable = importKeys[j].getPrimaryTableName();
-
-							if (!importedTableList.contains(primaryTable))
-								importedTableList.add(primaryTable);
-						}
-
-						importTables = new String[importedTableList.size()];
-						importedTableList.toArray(importTables);
-					}
+					importTables = toImportTables(importKeyss.get(tableNames[i]));
+					importTablesMap.put(tableNames[i], importTables);
 				}
 			}
 
@@ -288,6 +277,31 @@ public abstract class AbstractDevotedDBMetaResolver extends JdbcSupport implemen
 		return importTabless;
 	}
 
+	/**
+	 * 获取{@linkplain ImportKey}数组中的不重复的主表名。
+	 * 
+	 * @param importKeys
+	 *            允许为{@code null}
+	 * @return
+	 */
+	protected String[] toImportTables(ImportKey[] importKeys)
+	{
+		if (importKeys == null || importKeys.length == 0)
+			return EMPTY_STRING_ARRAY;
+
+		List<String> importedTableList = new ArrayList<>(2);
+
+		for (int j = 0; j < importKeys.length; j++)
+		{
+			String primaryTable = importKeys[j].getPrimaryTableName();
+
+			if (!importedTableList.contains(primaryTable))
+				importedTableList.add(primaryTable);
+		}
+
+		return importedTableList.toArray(new String[importedTableList.size()]);
+	}
+
 	/**
 	 * 获取表类型。
 	 * <p>
@@ -891,6 +905,33 @@ public abstract class AbstractDevotedDBMetaResolver extends JdbcSupport implemen
 		return importKeys;
 	}
 
+	/**
+	 * 批量获取多个表的{@linkplain ImportKey}。
+	 * <p>
+	 * JDBC规范的{@linkplain DatabaseMetaData#getImportedKeys(String, String, String)}不支持全模式查询，
+	 * 因此这里逐表调用{@linkplain #getImportKeys(Connection, DatabaseMetaData, String, String, String)}，
+	 * 子类可以使用特定数据库的系统表查询重写此方法。
+	 * </p>
+	 * 
+	 * @param cn
+	 * @param metaData
+	 * @param catalog
+	 * @param schema
+	 * @param tableNames
+	 * @return 表名-导入键映射表，映射值为{@code null}表示无导入键
+	 * @throws DBMetaResolverException
+	 */
+	protected Map<String, ImportKey[]> getImportKeys(Connection cn, DatabaseMetaData metaData, String catalog,
+			String schema, Collection<String> tableNames) throws DBMetaResolverException
+	{
+		Map<String, ImportKey[]> importKeyss = new HashMap<>();
+
+		for (String tableName : tableNames)
+			importKeyss.put(tableName, getImportKeys(cn, metaData, catalog, schema, tableName));
+
+		return importKeyss;
+	}
+
 	/**
 	 * 添加非空、且不重名的名称元素。
 	 * 
@@ -6,15 +6,27 @@ package org.datagear.meta.resolver.support;
 
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import org.datagear.connection.ConnectionSensor;
 import org.datagear.connection.URLConnectionSensor;
 import org.datagear.connection.support.MySqlURLSensor;
+import org.datagear.meta.ImportKey;
 import org.datagear.meta.SimpleTable;
 import org.datagear.meta.resolver.AbstractConnectionDevotedDBMetaResolver;
+import org.datagear.meta.resolver.DBMetaResolverException;
 import org.datagear.meta.resolver.DevotedDBMetaResolver;
+import org.datagear.util.JdbcUtil;
 import org.datagear.util.StringUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * MySQL {@linkplain DevotedDBMetaResolver}。
@@ -24,6 +36,14 @@ import org.datagear.util.StringUtil;
  */
 public class MySqlDevotedDBMetaResolver extends AbstractConnectionDevotedDBMetaResolver
 {
+	private static final Logger LOGGER = LoggerFactory.getLogger(MySqlDevotedDBMetaResolver.class);
+
+	/** 查询模式内所有外键列的SQL */
+	protected static final String SQL_IMPORT_KEYS = "SELECT TABLE_NAME, CONSTRAINT_NAME, COLUMN_NAME,"
+			+ " REFERENCED_TABLE_NAME, REFERENCED_COLUMN_NAME FROM INFORMATION_SCHEMA.KEY_COLUMN_USAGE"
+			+ " WHERE TABLE_SCHEMA = ? AND REFERENCED_TABLE_NAME IS NOT NULL"
+			+ " ORDER BY TABLE_NAME, CONSTRAINT_NAME, ORDINAL_POSITION";
+
 	public MySqlDevotedDBMetaResolver()
 	{
 		super(new URLConnectionSensor(new MySqlURLSensor()));
@@ -43,6 +63,114 @@ public class MySqlDevotedDBMetaResolver extends AbstractConnectionDevotedDBMetaR
 		return simpleTable;
 	}
 
+	/**
+	 * 使用{@code INFORMATION_SCHEMA.KEY_COLUMN_USAGE}一次查询所有表的导入键，出现异常时将逐表查询。
+	 */
+	@Override
+	protected Map<String, ImportKey[]> getImportKeys(Connection cn, DatabaseMetaData metaData, String catalog,
+			String schema, Collection<String> tableNames) throws DBMetaResolverException
+	{
+		if (tableNames.size() < 2 || StringUtil.isEmpty(catalog))
+			return super.getImportKeys(cn, metaData, catalog, schema, tableNames);
+
+		Map<String, Map<String, ImportKey>> tableImportKeys = new HashMap<>();
+
+		PreparedStatement pst = null;
+		ResultSet rs = null;
+
+		try
+		{
+			pst = cn.prepareStatement(SQL_IMPORT_KEYS);
+			pst.setString(1, catalog);
+			rs = pst.executeQuery();
+
+			while (rs.next())
+			{
+				String tableName = rs.getString(1);
+				String keyName = rs.getString(2);
+				String columnName = rs.getString(3);
+				String primaryTableName = rs.getString(4);
+				String primaryColumnName = rs.getString(5);
+
+				if (StringUtil.isEmpty(tableName) || StringUtil.isEmpty(columnName)
+						|| StringUtil.isEmpty(primaryTableName) || StringUtil.isEmpty(primaryColumnName))
+					continue;
+
+				Map<String, ImportKey> importKeys = tableImportKeys.get(tableName);
+				if (importKeys == null)
+				{
+					importKeys = new LinkedHashMap<>();
+					tableImportKeys.put(tableName, importKeys);
+				}
+
+				ImportKey importKey = importKeys.get(keyName);
+				if (importKey == null)
+				{
+					importKey = new ImportKey();
+					importKey.setKeyName(keyName);
+					importKey.setPrimaryTableName(primaryTableName);
+					importKey.setColumnNames(EMPTY_STRING_ARRAY);
+					importKey.setPrimaryColumnNames(EMPTY_STRING_ARRAY);
+					importKeys.put(keyName, importKey);
+				}
+
+				importKey.setColumnNames(append(importKey.getColumnNames(), columnName));
+				importKey.setPrimaryColumnNames(append(importKey.getPrimaryColumnNames(), primaryColumnName));
+			}
+		}
+		catch (SQLException e)
+		{
+			LOGGER.warn("query import keys from INFORMATION_SCHEMA error, fall back to DatabaseMetaData", e);
+			return super.getImportKeys(cn, metaData, catalog, schema, tableNames);
+		}
+		finally
+		{
+			JdbcUtil.closeResultSet(rs);
+			JdbcUtil.closeStatement(pst);
+		}
+
+		Map<String, Map<String, ImportKey>> upperTableImportKeys = new HashMap<>();
+		for (Map.Entry<String, Map<String, ImportKey>> entry : tableImportKeys.entrySet())
+			upperTableImportKeys.put(entry.getKey().toUpperCase(), entry.getValue());
+
+		Map<String, ImportKey[]> importKeyss = new HashMap<>();
+
+		for (String tableName : tableNames)
+		{
+			Map<String, ImportKey> importKeys = tableImportKeys.get(tableName);
+
+			// lower_case_table_names设置可能导致表名大小写不一致
+			if (importKeys == null)
+				importKeys = upperTableImportKeys.get(tableName.toUpperCase());
+
+			importKeyss.put(tableName,
+					(importKeys == null ? null : importKeys.values().toArray(new ImportKey[importKeys.size()])));
+		}
+
+		return importKeyss;
+	}
+
+	/**
+	 * 追加不重复的名称。
+	 * 
+	 * @param names
+	 * @param name
+	 * @return
+	 */
+	protected String[] append(String[] names, String name)
+	{
+		for (String n : names)
+		{
+			if (n.equals(name))
+				return names;
+		}
+
+		String[] re = Arrays.copyOf(names, names.length + 1);
+		re[names.length] = name;
+
+		return re;
+	}
+
 	protected void resolveTableComment(SimpleTable st)
 	{
 		String comment = st.getComment();
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2018 datagear.tech. All Rights Reserved.
+ */
+
+package org.datagear.meta.resolver.support;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Map;
+
+import org.datagear.meta.ImportKey;
+import org.datagear.util.JdbcUtil;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * {@linkplain MySqlDevotedDBMetaResolver}单元测试类。
+ * <p>
+ * 使用Derby内存数据库模拟MySQL的{@code INFORMATION_SCHEMA.KEY_COLUMN_USAGE}系统表，测试
+ * {@linkplain MySqlDevotedDBMetaResolver#SQL_IMPORT_KEYS}的结果解析。
+ * </p>
+ *
+ * @author datagear@163.com
+ *
+ */
+public class MySqlDevotedDBMetaResolverTest
+{
+	private static final String DATABASE_URL = "jdbc:derby:memory:mySqlDevotedDBMetaResolverTest";
+
+	private final MySqlDevotedDBMetaResolver resolver = new MySqlDevotedDBMetaResolver();
+
+	@BeforeClass
+	public static void initDatabase() throws SQLException
+	{
+		Connection cn = DriverManager.getConnection(DATABASE_URL + ";create=true");
+		Statement st = null;
+
+		try
+		{
+			st = cn.createStatement();
+			st.executeUpdate("CREATE SCHEMA INFORMATION_SCHEMA");
+			st.executeUpdate("CREATE TABLE INFORMATION_SCHEMA.KEY_COLUMN_USAGE (TABLE_SCHEMA VARCHAR(64),"
+					+ " TABLE_NAME VARCHAR(64), CONSTRAINT_NAME VARCHAR(64), COLUMN_NAME VARCHAR(64),"
+					+ " ORDINAL_POSITION INTEGER, REFERENCED_TABLE_NAME VARCHAR(64),"
+					+ " REFERENCED_COLUMN_NAME VARCHAR(64))");
+
+			insertKeyColumn(st, "db1", "t_order", "fk_order_user", "user_id", 1, "t_user", "id");
+			// 复合外键的列乱序插入，应按照ORDINAL_POSITION排序
+			insertKeyColumn(st, "db1", "t_order_item", "fk_item_product", "product_name", 2, "t_product", "name");
+			insertKeyColumn(st, "db1", "t_order_item", "fk_item_product", "product_id", 1, "t_product", "id");
+			insertKeyColumn(st, "db1", "t_order_item", "fk_item_order", "order_id", 1, "t_order", "id");
+			// 主键、其他模式的外键都应被忽略
+			insertKeyColumn(st, "db1", "t_user", "PRIMARY", "id", 1, null, null);
+			insertKeyColumn(st, "db2", "t_user", "fk_user_dept", "dept_id", 1, "t_dept", "id");
+		}
+		finally
+		{
+			JdbcUtil.closeStatement(st);
+			JdbcUtil.closeConnection(cn);
+		}
+	}
+
+	@AfterClass
+	public static void dropDatabase()
+	{
+		try
+		{
+			DriverManager.getConnection(DATABASE_URL + ";drop=true");
+		}
+		catch (SQLException e)
+		{
+			// 删除内存数据库总是抛出异常
+		}
+	}
+
+	@Test
+	public void getImportKeysTest() throws Exception
+	{
+		Connection cn = DriverManager.getConnection(DATABASE_URL);
+
+		try
+		{
+			Map<String, ImportKey[]> importKeyss = this.resolver.getImportKeys(cn, cn.getMetaData(), "db1", null,
+					Arrays.asList("t_order", "t_order_item", "t_user"));
+
+			assertEquals(3, importKeyss.size());
+
+			ImportKey[] orderKeys = importKeyss.get("t_order");
+			assertEquals(1, orderKeys.length);
+			assertImportKey(orderKeys[0], "fk_order_user", new String[] { "user_id" }, "t_user",
+					new String[] { "id" });
+
+			ImportKey[] itemKeys = importKeyss.get("t_order_item");
+			assertEquals(2, itemKeys.length);
+			assertImportKey(itemKeys[0], "fk_item_order", new String[] { "order_id" }, "t_order",
+					new String[] { "id" });
+			assertImportKey(itemKeys[1], "fk_item_product", new String[] { "product_id", "product_name" },
+					"t_product", new String[] { "id", "name" });
+
+			// 没有外键的表
+			assertTrue(importKeyss.containsKey("t_user"));
+			assertNull(importKeyss.get("t_user"));
+		}
+		finally
+		{
+			JdbcUtil.closeConnection(cn);
+		}
+	}
+
+	@Test
+	public void getImportKeysTest_ignoreCase() throws Exception
+	{
+		Connection cn = DriverManager.getConnection(DATABASE_URL);
+
+		try
+		{
+			// lower_case_table_names设置可能导致系统表中的表名与传入的表名大小写不一致
+			Map<String, ImportKey[]> importKeyss = this.resolver.getImportKeys(cn, cn.getMetaData(), "db1", null,
+					Arrays.asList("T_ORDER", "T_Order_Item", "t_dept"));
+
+			ImportKey[] orderKeys = importKeyss.get("T_ORDER");
+			assertEquals(1, orderKeys.length);
+			assertImportKey(orderKeys[0], "fk_order_user", new String[] { "user_id" }, "t_user",
+					new String[] { "id" });
+
+			assertEquals(2, importKeyss.get("T_Order_Item").length);
+			assertNull(importKeyss.get("t_dept"));
+		}
+		finally
+		{
+			JdbcUtil.closeConnection(cn);
+		}
+	}
+
+	protected void assertImportKey(ImportKey importKey, String keyName, String[] columnNames,
+			String primaryTableName, String[] primaryColumnNames)
+	{
+		assertEquals(keyName, importKey.getKeyName());
+		assertArrayEquals(columnNames, importKey.getColumnNames());
+		assertEquals(primaryTableName, importKey.getPrimaryTableName());
+		assertArrayEquals(primaryColumnNames, importKey.getPrimaryColumnNames());
+	}
+
+	protected static void insertKeyColumn(Statement st, String schema, String table, String keyName,
+			String column, int position, String referencedTable, String referencedColumn) throws SQLException
+	{
+		st.executeUpdate("INSERT INTO INFORMATION_SCHEMA.KEY_COLUMN_USAGE VALUES (" + toLiteral(schema) + ", "
+				+ toLiteral(table) + ", " + toLiteral(keyName) + ", " + toLiteral(column) + ", " + position + ", "
+				+ toLiteral(referencedTable) + ", " + toLiteral(referencedColumn) + ")");
+	}
+
+	protected static String toLiteral(String value)
+	{
+		return (value == null ? "NULL" : "'" + value + "'");
+	}
+}
@@ -4,6 +4,7 @@
 
 package org.datagear.persistence;
 
+import java.sql.Connection;
 import java.sql.ResultSet;
 
 import org.datagear.meta.Table;
@@ -85,6 +86,20 @@ public interface Dialect
 	 */
 	Sql toPagingQuerySql(Sql query, Order[] orders, long startRow, int count);
 
+	/**
+	 * 构建限定最大行数的查询SQL，使数据库只执行、返回所需的行。
+	 * <p>
+	 * 返回的SQL的结果列应与{@code query}一致。如果不支持，返回{@code null}，此时应使用{@linkplain java.sql.Statement#setMaxRows(int)}。
+	 * </p>
+	 * 
+	 * @param query
+	 *            查询SQL
+	 * @param maxRows
+	 *            最大行数
+	 * @return
+	 */
+	Sql toMaxRowsQuerySql(Sql query, int maxRows);
+
 	/**
 	 * 获取作为关键字查询的列数。
 	 * 
@@ -116,4 +131,16 @@ public interface Dialect
 	 * @return
 	 */
 	Sql toOrderSql(Sql query, Order[] orders);
+
+	/**
+	 * 获取表的估算记录数。
+	 * <p>
+	 * 估算记录数取自数据库的统计信息，不一定精确，但是通常比{@code SELECT COUNT(*)}快得多。
+	 * </p>
+	 * 
+	 * @param cn
+	 * @param table
+	 * @return 返回{@code -1}表示不支持或者没有统计信息
+	 */
+	long getEstimatedRowCount(Connection cn, Table table);
 }
@@ -21,6 +21,12 @@ public class PagingData<T>
 	/** 总记录数 */
 	private long total = 0;
 
+	/** 总记录数是否是估算的 */
+	private boolean totalEstimated = false;
+
+	/** 键集分页令牌，查询下一页时传回可避免跳过之前的行，为{@code null}表示不支持 */
+	private String keysetToken = null;
+
 	/** 当前页数据 */
 	private List<T> items;
 
@@ -67,6 +73,26 @@ public class PagingData<T>
 		this.total = total;
 	}
 
+	public boolean isTotalEstimated()
+	{
+		return totalEstimated;
+	}
+
+	public void setTotalEstimated(boolean totalEstimated)
+	{
+		this.totalEstimated = totalEstimated;
+	}
+
+	public String getKeysetToken()
+	{
+		return keysetToken;
+	}
+
+	public void setKeysetToken(String keysetToken)
+	{
+		this.keysetToken = keysetToken;
+	}
+
 	public List<T> getItems()
 	{
 		return items;
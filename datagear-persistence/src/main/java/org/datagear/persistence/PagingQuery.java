@@ -19,6 +19,9 @@ public class PagingQuery extends Query
 	/** 分页信息 */
 	private Paging paging = new Paging();
 
+	/** 上一页查询结果的键集分页令牌（参考{@linkplain PagingData#getKeysetToken()}） */
+	private String keysetToken = null;
+
 	public PagingQuery()
 	{
 		super();
@@ -71,6 +74,16 @@ public class PagingQuery extends Query
 		this.paging.setPageSize(pageSize);
 	}
 
+	public String getKeysetToken()
+	{
+		return keysetToken;
+	}
+
+	public void setKeysetToken(String keysetToken)
+	{
+		this.keysetToken = keysetToken;
+	}
+
 	@Override
 	public String toString()
 	{
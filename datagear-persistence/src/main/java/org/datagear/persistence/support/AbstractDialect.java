@@ -5,6 +5,8 @@
 package org.datagear.persistence.support;
 
 import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ResultSet;
 import java.sql.Types;
 
 import org.datagear.meta.Column;
@@ -13,6 +15,7 @@ import org.datagear.meta.Table;
 import org.datagear.persistence.Dialect;
 import org.datagear.persistence.Order;
 import org.datagear.persistence.Query;
+import org.datagear.util.QueryResultSet;
 import org.datagear.util.Sql;
 
 /**
@@ -153,6 +156,61 @@ public abstract class AbstractDialect extends PersistenceSupport implements Dial
 		return Sql.valueOf().sql(query).sql(" ORDER BY ").sql(orderSql);
 	}
 
+	/**
+	 * 此方法默认返回{@code null}，子类应重写以支持限定最大行数的查询SQL。
+	 */
+	@Override
+	public Sql toMaxRowsQuerySql(Sql query, int maxRows)
+	{
+		return null;
+	}
+
+	/**
+	 * 此方法默认返回{@code -1}，子类应重写以支持估算记录数。
+	 */
+	@Override
+	public long getEstimatedRowCount(Connection cn, Table table)
+	{
+		return -1;
+	}
+
+	/**
+	 * 执行估算记录数查询。
+	 * <p>
+	 * 查询结果第一行第一列应为估算记录数，没有结果、结果为{@code null}、小于{@code 0}、执行出错都将返回{@code -1}。
+	 * </p>
+	 * 
+	 * @param cn
+	 * @param sql
+	 * @return
+	 */
+	protected long executeEstimatedRowCountQuery(Connection cn, Sql sql)
+	{
+		QueryResultSet qrs = null;
+
+		try
+		{
+			qrs = executeQuery(cn, sql, ResultSet.TYPE_FORWARD_ONLY);
+			ResultSet rs = qrs.getResultSet();
+
+			if (!rs.next())
+				return -1;
+
+			long count = rs.getLong(1);
+
+			return (rs.wasNull() || count < 0 ? -1 : count);
+		}
+		catch (Throwable t)
+		{
+			// 没有读取统计信息的权限等
+			return -1;
+		}
+		finally
+		{
+			QueryResultSet.close(qrs);
+		}
+	}
+
 	/**
 	 * 转换为排序SQL。
 	 * 
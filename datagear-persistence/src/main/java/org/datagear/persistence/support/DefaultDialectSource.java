@@ -335,6 +335,15 @@ public class DefaultDialectSource extends PersistenceSupport implements DialectS
 
 			return this.toPagingQuerySqlDialect.toPagingQuerySql(query, orders, startRow, count);
 		}
+
+		@Override
+		public Sql toMaxRowsQuerySql(Sql query, int maxRows)
+		{
+			if (this.toPagingQuerySqlDialect == null)
+				return null;
+
+			return this.toPagingQuerySqlDialect.toMaxRowsQuerySql(query, maxRows);
+		}
 	}
 
 	protected static class CombinedDialectBuilder extends AbstractDialectBuilder
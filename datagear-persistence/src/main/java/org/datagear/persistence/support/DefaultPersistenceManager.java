@@ -4,11 +4,16 @@
 
 package org.datagear.persistence.support;
 
+import java.math.BigDecimal;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.regex.Pattern;
@@ -21,6 +26,7 @@ import org.datagear.persistence.Dialect;
 import org.datagear.persistence.DialectSource;
 import org.datagear.persistence.LiteralSqlParamValue;
 import org.datagear.persistence.NonUniqueResultException;
+import org.datagear.persistence.Order;
 import org.datagear.persistence.PagingData;
 import org.datagear.persistence.PagingQuery;
 import org.datagear.persistence.PersistenceException;
@@ -29,6 +35,7 @@ import org.datagear.persistence.Query;
 import org.datagear.persistence.Row;
 import org.datagear.persistence.RowMapper;
 import org.datagear.persistence.SqlParamValueMapper;
+import org.datagear.util.IDUtil;
 import org.datagear.util.JDBCCompatiblity;
 import org.datagear.util.Sql;
 import org.datagear.util.SqlParamValue;
@@ -48,6 +55,28 @@ public class DefaultPersistenceManager extends PersistenceSupport implements Per
 
 	private DialectSource dialectSource;
 
+	/** 是否在可能时采用键集分页 */
+	private boolean keysetPaging = true;
+
+	/** 没有指定排序时，是否默认按主键排序以便采用键集分页 */
+	private boolean keysetDefaultOrder = false;
+
+	/** 键集分页位置缓存的最大数目 */
+	private int keysetCacheMaximumSize = 1000;
+
+	/** 分页查询记录数的缓存秒数，设置为{@code 0}表示不缓存 */
+	private int countCacheSeconds = 0;
+
+	/** 分页查询记录数缓存的最大数目 */
+	private int countCacheMaximumSize = 500;
+
+	/** 无查询条件的表的估算记录数达到此值时，将直接采用估算记录数作为总记录数，设置为{@code 0}表示不采用 */
+	private long estimatedTotalThreshold = 0;
+
+	private volatile Map<QueryCacheKey, CountCacheValue> _countCache = null;
+
+	private volatile Map<String, KeysetPosition> _keysetCache = null;
+
 	public DefaultPersistenceManager()
 	{
 		super();
@@ -70,6 +99,66 @@ public class DefaultPersistenceManager extends PersistenceSupport implements Per
 		this.dialectSource = dialectSource;
 	}
 
+	public boolean isKeysetPaging()
+	{
+		return keysetPaging;
+	}
+
+	public void setKeysetPaging(boolean keysetPaging)
+	{
+		this.keysetPaging = keysetPaging;
+	}
+
+	public boolean isKeysetDefaultOrder()
+	{
+		return keysetDefaultOrder;
+	}
+
+	public void setKeysetDefaultOrder(boolean keysetDefaultOrder)
+	{
+		this.keysetDefaultOrder = keysetDefaultOrder;
+	}
+
+	public int getKeysetCacheMaximumSize()
+	{
+		return keysetCacheMaximumSize;
+	}
+
+	public void setKeysetCacheMaximumSize(int keysetCacheMaximumSize)
+	{
+		this.keysetCacheMaximumSize = keysetCacheMaximumSize;
+	}
+
+	public int getCountCacheSeconds()
+	{
+		return countCacheSeconds;
+	}
+
+	public void setCountCacheSeconds(int countCacheSeconds)
+	{
+		this.countCacheSeconds = countCacheSeconds;
+	}
+
+	public int getCountCacheMaximumSize()
+	{
+		return countCacheMaximumSize;
+	}
+
+	public void setCountCacheMaximumSize(int countCacheMaximumSize)
+	{
+		this.countCacheMaximumSize = countCacheMaximumSize;
+	}
+
+	public long getEstimatedTotalThreshold()
+	{
+		return estimatedTotalThreshold;
+	}
+
+	public void setEstimatedTotalThreshold(long estimatedTotalThreshold)
+	{
+		this.estimatedTotalThreshold = estimatedTotalThreshold;
+	}
+
 	@Override
 	public Row insert(Connection cn, Table table, Row row) throws PersistenceException
 	{
@@ -146,6 +235,8 @@ public class DefaultPersistenceManager extends PersistenceSupport implements Per
 			releasableRegistry.release();
 		}
 
+		invalidateTableCache(cn, table);
+
 		Row re = new Row(row);
 
 		if (generatedResult != null && generatedResult.hasGeneratedResult())
@@ -221,7 +312,12 @@ public class DefaultPersistenceManager extends PersistenceSupport implements Per
 
 			if (updateColumnCount > 0)
 			{
-				return executeUpdateWrap(cn, sql);
+				int count = executeUpdateWrap(cn, sql);
+
+				if (count > 0)
+					invalidateTableCache(cn, table);
+
+				return count;
 			}
 			else
 			{
@@ -274,6 +370,9 @@ public class DefaultPersistenceManager extends PersistenceSupport implements Per
 				releasableRegistry.releaseClear();
 			}
 
+			if (count > 0)
+				invalidateTableCache(cn, table);
+
 			return count;
 		}
 		catch (SQLException e)
@@ -373,18 +472,40 @@ public class DefaultPersistenceManager extends PersistenceSupport implements Per
 
 		Sql queryView = buildQuerySql(cn, dialect, table, pagingQuery, true);
 
-		long total = queryCount(cn, queryView);
+		PagingData<Row> pagingData = createPagingData(cn, dialect, table, pagingQuery, queryView);
 
-		PagingData<Row> pagingData = new PagingData<>(pagingQuery.getPage(), total, pagingQuery.getPageSize());
+		Order[] keysetOrders = getKeysetOrders(table, pagingQuery.getOrders());
+		Order[] orders = (keysetOrders != null ? keysetOrders : pagingQuery.getOrders());
 
 		Sql query = null;
 		List<Row> rows = null;
 		int startRow = pagingData.getStartRow();
 		int count = pagingData.getPageSize();
+		KeysetPosition keysetPosition = null;
 
 		if (dialect.supportsPagingSql())
 		{
-			query = dialect.toPagingQuerySql(queryView, pagingQuery.getOrders(), startRow, count);
+			if (keysetOrders != null)
+				keysetPosition = new KeysetPosition(new QueryCacheKey(ConnectionOption.valueOfNonNull(cn),
+						table.getName(), queryView.getSqlValue(), queryView.getParamValues()), keysetOrders,
+						pagingData.getPage(), pagingData.getPageSize());
+
+			Sql keysetQuery = null;
+
+			// 键集分页仅适用于上一页至当前页，跳页时仍需跳过之前的行
+			if (keysetPosition != null && pagingData.getPage() == pagingQuery.getPage() && pagingData.getPage() > 1)
+			{
+				KeysetPosition prevPosition = getPrevKeysetPosition(pagingQuery.getKeysetToken(), keysetPosition);
+
+				if (prevPosition != null)
+					keysetQuery = buildKeysetQuerySql(dialect, table, queryView, keysetOrders,
+							prevPosition.getKeyValues());
+			}
+
+			if (keysetQuery != null)
+				query = dialect.toPagingQuerySql(keysetQuery, orders, 1, count);
+			else
+				query = dialect.toPagingQuerySql(queryView, orders, startRow, count);
 
 			// 数据库分页
 			if (query != null)
@@ -400,13 +521,17 @@ public class DefaultPersistenceManager extends PersistenceSupport implements Per
 			if (LOGGER.isWarnEnabled())
 				LOGGER.warn("memory pagination will be used for [{}]", ConnectionOption.valueOfNonNull(cn));
 
-			query = dialect.toOrderSql(queryView, pagingQuery.getOrders());
+			query = dialect.toOrderSql(queryView, orders);
 		}
 
 		rows = executeListQuery(cn, table, query, ResultSet.TYPE_SCROLL_INSENSITIVE, startRow, count, mapper);
 
 		pagingData.setItems(rows);
 
+		// 仅数据库分页可以继续键集分页
+		if (keysetPosition != null && count < 0)
+			pagingData.setKeysetToken(createKeysetToken(table, keysetPosition, rows));
+
 		return pagingData;
 	}
 
@@ -438,6 +563,385 @@ public class DefaultPersistenceManager extends PersistenceSupport implements Per
 		return re;
 	}
 
+	/**
+	 * 创建{@linkplain PagingData}。
+	 * <p>
+	 * 总记录数优先采用估算记录数（参考{@linkplain #getEstimatedTotalThreshold()}），其次是缓存的记录数（参考{@linkplain #getCountCacheSeconds()}），
+	 * 最后才会执行{@code SELECT COUNT(*)}。
+	 * </p>
+	 * 
+	 * @param cn
+	 * @param dialect
+	 * @param table
+	 * @param pagingQuery
+	 * @param queryView
+	 * @return
+	 */
+	protected PagingData<Row> createPagingData(Connection cn, Dialect dialect, Table table, PagingQuery pagingQuery,
+			Sql queryView)
+	{
+		long total = -1;
+
+		if (this.estimatedTotalThreshold > 0 && !pagingQuery.hasKeyword() && !pagingQuery.hasCondition())
+		{
+			long estimatedTotal = dialect.getEstimatedRowCount(cn, table);
+
+			if (estimatedTotal >= this.estimatedTotalThreshold)
+			{
+				PagingData<Row> pagingData = new PagingData<>(pagingQuery.getPage(), estimatedTotal,
+						pagingQuery.getPageSize());
+
+				// 估算记录数偏小而截断了请求页码时，需采用精确记录数
+				if (pagingData.getPage() == pagingQuery.getPage())
+				{
+					pagingData.setTotalEstimated(true);
+					return pagingData;
+				}
+			}
+		}
+
+		total = queryCountCached(cn, table, queryView);
+
+		return new PagingData<>(pagingQuery.getPage(), total, pagingQuery.getPageSize());
+	}
+
+	/**
+	 * 查询记录数，启用了记录数缓存时，将优先返回缓存值。
+	 * 
+	 * @param cn
+	 * @param table
+	 * @param query
+	 * @return
+	 */
+	protected long queryCountCached(Connection cn, Table table, Sql query)
+	{
+		if (this.countCacheSeconds <= 0)
+			return queryCount(cn, query);
+
+		QueryCacheKey key = new QueryCacheKey(ConnectionOption.valueOfNonNull(cn), table.getName(),
+				query.getSqlValue(), query.getParamValues());
+
+		Map<QueryCacheKey, CountCacheValue> countCache = getCountCache();
+
+		CountCacheValue value = countCache.get(key);
+
+		if (value != null && System.currentTimeMillis() - value.getTime() <= this.countCacheSeconds * 1000L)
+			return value.getCount();
+
+		long count = queryCount(cn, query);
+		countCache.put(key, new CountCacheValue(count, System.currentTimeMillis()));
+
+		return count;
+	}
+
+	/**
+	 * 清除指定表的记录数缓存、键集分页位置缓存。
+	 * <p>
+	 * 表数据改变后，之前的记录数、页码对应的键集位置都不再准确。
+	 * </p>
+	 * 
+	 * @param cn
+	 * @param table
+	 */
+	protected void invalidateTableCache(Connection cn, Table table)
+	{
+		Map<QueryCacheKey, CountCacheValue> countCache = this._countCache;
+		Map<String, KeysetPosition> keysetCache = this._keysetCache;
+
+		if (countCache == null && keysetCache == null)
+			return;
+
+		ConnectionOption connectionOption = ConnectionOption.valueOfNonNull(cn);
+
+		if (countCache != null)
+		{
+			synchronized (countCache)
+			{
+				Iterator<QueryCacheKey> it = countCache.keySet().iterator();
+
+				while (it.hasNext())
+				{
+					if (it.next().isTable(connectionOption, table.getName()))
+						it.remove();
+				}
+			}
+		}
+
+		if (keysetCache != null)
+		{
+			synchronized (keysetCache)
+			{
+				Iterator<KeysetPosition> it = keysetCache.values().iterator();
+
+				while (it.hasNext())
+				{
+					if (it.next().getQueryKey().isTable(connectionOption, table.getName()))
+						it.remove();
+				}
+			}
+		}
+	}
+
+	protected Map<QueryCacheKey, CountCacheValue> getCountCache()
+	{
+		if (this._countCache == null)
+		{
+			synchronized (this)
+			{
+				if (this._countCache == null)
+					this._countCache = createLruCache(this.countCacheMaximumSize);
+			}
+		}
+
+		return this._countCache;
+	}
+
+	protected Map<String, KeysetPosition> getKeysetCache()
+	{
+		if (this._keysetCache == null)
+		{
+			synchronized (this)
+			{
+				if (this._keysetCache == null)
+					this._keysetCache = createLruCache(this.keysetCacheMaximumSize);
+			}
+		}
+
+		return this._keysetCache;
+	}
+
+	/**
+	 * 创建线程安全的、按访问顺序淘汰的缓存。
+	 * 
+	 * @param maximumSize
+	 * @return
+	 */
+	protected <K, V> Map<K, V> createLruCache(final int maximumSize)
+	{
+		return Collections.synchronizedMap(new LinkedHashMap<K, V>(16, 0.75f, true)
+		{
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<K, V> eldest)
+			{
+				return size() > maximumSize;
+			}
+		});
+	}
+
+	/**
+	 * 获取{@code position}上一页的键集分页位置。
+	 * <p>
+	 * 键集位置保存在服务端，仅当{@code keysetToken}对应的位置与{@code position}是同一查询、同一排序、同一页大小，
+	 * 并且正是其上一页时，才会返回，否则返回{@code null}，此时应跳过之前的行进行分页。
+	 * </p>
+	 * 
+	 * @param keysetToken
+	 *            允许为{@code null}
+	 * @param position
+	 * @return
+	 */
+	protected KeysetPosition getPrevKeysetPosition(String keysetToken, KeysetPosition position)
+	{
+		if (StringUtil.isEmpty(keysetToken) || this._keysetCache == null)
+			return null;
+
+		KeysetPosition prev = this._keysetCache.get(keysetToken);
+
+		if (prev == null || !prev.isPrevOf(position))
+			return null;
+
+		return prev;
+	}
+
+	/**
+	 * 以当前页的最后一行创建键集分页位置，并返回用于查询下一页的令牌。
+	 * 
+	 * @param table
+	 * @param position
+	 * @param rows
+	 * @return 返回{@code null}表示当前页不能用于键集分页
+	 */
+	protected String createKeysetToken(Table table, KeysetPosition position, List<Row> rows)
+	{
+		if (rows == null || rows.size() < position.getPageSize())
+			return null;
+
+		Row lastRow = rows.get(rows.size() - 1);
+		Order[] keysetOrders = position.getOrders();
+		SqlParamValue[] keyValues = new SqlParamValue[keysetOrders.length];
+
+		for (int i = 0; i < keysetOrders.length; i++)
+		{
+			Column column = table.getColumn(keysetOrders[i].getName());
+			Object value = toKeysetValue(column, lastRow.get(column.getName()));
+
+			if (value == null)
+				return null;
+
+			keyValues[i] = new SqlParamValue(value, column.getType());
+		}
+
+		position.setKeyValues(keyValues);
+
+		String token = IDUtil.uuid();
+		getKeysetCache().put(token, position);
+
+		return token;
+	}
+
+	/**
+	 * 获取键集分页的排序。
+	 * <p>
+	 * 仅当表有主键、主键列类型支持键集分页、并且{@code orders}为空或者正是同一方向的主键列排序时，才可以键集分页。
+	 * </p>
+	 * 
+	 * @param table
+	 * @param orders
+	 *            允许为{@code null}
+	 * @return 返回{@code null}表示不能键集分页
+	 */
+	protected Order[] getKeysetOrders(Table table, Order[] orders)
+	{
+		if (!this.keysetPaging || !table.hasPrimaryKey())
+			return null;
+
+		String[] keyNames = table.getPrimaryKey().getColumnNames();
+		Column[] keyColumns = table.getColumns(keyNames);
+
+		if (keyColumns == null || keyColumns.length != keyNames.length)
+			return null;
+
+		for (Column column : keyColumns)
+		{
+			if (column == null || !supportsKeysetColumn(column))
+				return null;
+		}
+
+		if (orders == null || orders.length == 0)
+		{
+			// 默认不改变未指定排序时的查询结果顺序
+			if (!this.keysetDefaultOrder)
+				return null;
+
+			Order[] re = new Order[keyNames.length];
+
+			for (int i = 0; i < keyNames.length; i++)
+				re[i] = Order.valueOf(keyNames[i], Order.ASC);
+
+			return re;
+		}
+
+		if (orders.length != keyNames.length)
+			return null;
+
+		boolean asc = orders[0].isAsc();
+
+		for (int i = 0; i < orders.length; i++)
+		{
+			if (!keyNames[i].equals(orders[i].getName()) || orders[i].isAsc() != asc)
+				return null;
+		}
+
+		return orders;
+	}
+
+	/**
+	 * 是否支持作为键集分页的列。
+	 * <p>
+	 * 仅支持数值、字符串类型，因为其他类型（比如日期）的值作为参数比较时难以保证精确。
+	 * </p>
+	 * 
+	 * @param column
+	 * @return
+	 */
+	protected boolean supportsKeysetColumn(Column column)
+	{
+		int type = column.getType();
+
+		return (Types.TINYINT == type || Types.SMALLINT == type || Types.INTEGER == type || Types.BIGINT == type
+				|| Types.NUMERIC == type || Types.DECIMAL == type || Types.CHAR == type || Types.VARCHAR == type
+				|| Types.NCHAR == type || Types.NVARCHAR == type);
+	}
+
+	/**
+	 * 构建键集分页查询SQL，格式为：{@code SELECT * FROM (queryView) KT WHERE k1 > ? OR (k1 = ? AND k2 > ?) ...}。
+	 * 
+	 * @param dialect
+	 * @param table
+	 * @param queryView
+	 * @param keysetOrders
+	 * @param keyValues
+	 *            上一页最后一行的键值，与{@code keysetOrders}一一对应
+	 * @return
+	 */
+	protected Sql buildKeysetQuerySql(Dialect dialect, Table table, Sql queryView, Order[] keysetOrders,
+			SqlParamValue[] keyValues)
+	{
+		String operator = (keysetOrders[0].isAsc() ? " > ?" : " < ?");
+
+		Sql condition = Sql.valueOf().delimit(" OR ");
+
+		for (int i = 0; i < keysetOrders.length; i++)
+		{
+			Sql item = Sql.valueOf().sql("(").delimit(" AND ");
+
+			for (int j = 0; j < i; j++)
+				item.sqld(quote(dialect, keysetOrders[j].getName()) + " = ?").param(keyValues[j]);
+
+			item.sqld(quote(dialect, keysetOrders[i].getName()) + operator).param(keyValues[i]);
+			item.sql(")");
+
+			condition.sqld(item);
+		}
+
+		return Sql.valueOf().sql("SELECT * FROM (").sql(queryView).sql(") KT WHERE ").sql(condition);
+	}
+
+	/**
+	 * 将查询结果中的键值转换为列类型对应的值。
+	 * 
+	 * @param column
+	 * @param value
+	 * @return 返回{@code null}表示值不合法
+	 */
+	protected Object toKeysetValue(Column column, Object value)
+	{
+		if (value == null)
+			return null;
+
+		int type = column.getType();
+
+		if (Types.CHAR == type || Types.VARCHAR == type || Types.NCHAR == type || Types.NVARCHAR == type)
+			return value.toString();
+
+		BigDecimal number = null;
+
+		try
+		{
+			number = new BigDecimal(value.toString());
+		}
+		catch (NumberFormatException e)
+		{
+			return null;
+		}
+
+		try
+		{
+			if (Types.TINYINT == type || Types.SMALLINT == type || Types.INTEGER == type)
+				return number.intValueExact();
+			else if (Types.BIGINT == type)
+				return number.longValueExact();
+			else
+				return number;
+		}
+		catch (ArithmeticException e)
+		{
+			return null;
+		}
+	}
+
 	protected Sql buildQuerySql(Connection cn, Dialect dialect, Table table, Query query, boolean parameterized)
 	{
 		Sql sql = Sql.valueOf().sql("SELECT ").delimit(",");
@@ -678,4 +1182,217 @@ public class DefaultPersistenceManager extends PersistenceSupport implements Per
 	}
 
 	protected static final String SELECT_SQL_REGEX = "^\\s*((?i)select)\\s+\\S+[\\s\\S]*$";
+
+	/**
+	 * 查询缓存关键字。
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static class QueryCacheKey
+	{
+		private final ConnectionOption connectionOption;
+
+		private final String tableName;
+
+		private final String sql;
+
+		private final String paramValues;
+
+		public QueryCacheKey(ConnectionOption connectionOption, String tableName, String sql,
+				List<SqlParamValue> paramValues)
+		{
+			super();
+			this.connectionOption = connectionOption;
+			this.tableName = tableName;
+			this.sql = sql;
+			// SqlParamValue没有实现equals，这里使用其字符串形式
+			this.paramValues = (paramValues == null ? "" : paramValues.toString());
+		}
+
+		public ConnectionOption getConnectionOption()
+		{
+			return connectionOption;
+		}
+
+		public String getTableName()
+		{
+			return tableName;
+		}
+
+		/**
+		 * 是否是指定连接、指定表的查询。
+		 * 
+		 * @param connectionOption
+		 * @param tableName
+		 * @return
+		 */
+		public boolean isTable(ConnectionOption connectionOption, String tableName)
+		{
+			return (this.tableName.equals(tableName) && this.connectionOption.equals(connectionOption));
+		}
+
+		public String getSql()
+		{
+			return sql;
+		}
+
+		public String getParamValues()
+		{
+			return paramValues;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			final int prime = 31;
+			int result = 1;
+			result = prime * result + ((connectionOption == null) ? 0 : connectionOption.hashCode());
+			result = prime * result + ((tableName == null) ? 0 : tableName.hashCode());
+			result = prime * result + ((sql == null) ? 0 : sql.hashCode());
+			result = prime * result + ((paramValues == null) ? 0 : paramValues.hashCode());
+			return result;
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (this == obj)
+				return true;
+			if (obj == null)
+				return false;
+			if (getClass() != obj.getClass())
+				return false;
+			QueryCacheKey other = (QueryCacheKey) obj;
+			if (connectionOption == null)
+			{
+				if (other.connectionOption != null)
+					return false;
+			}
+			else if (!connectionOption.equals(other.connectionOption))
+				return false;
+			if (tableName == null)
+			{
+				if (other.tableName != null)
+					return false;
+			}
+			else if (!tableName.equals(other.tableName))
+				return false;
+			if (sql == null)
+			{
+				if (other.sql != null)
+					return false;
+			}
+			else if (!sql.equals(other.sql))
+				return false;
+			if (paramValues == null)
+			{
+				if (other.paramValues != null)
+					return false;
+			}
+			else if (!paramValues.equals(other.paramValues))
+				return false;
+			return true;
+		}
+	}
+
+	/**
+	 * 记录数缓存值。
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static class CountCacheValue
+	{
+		private final long count;
+
+		private final long time;
+
+		public CountCacheValue(long count, long time)
+		{
+			super();
+			this.count = count;
+			this.time = time;
+		}
+
+		public long getCount()
+		{
+			return count;
+		}
+
+		public long getTime()
+		{
+			return time;
+		}
+	}
+
+	/**
+	 * 键集分页位置，即某一页的查询及其最后一行的键值。
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static class KeysetPosition
+	{
+		private final QueryCacheKey queryKey;
+
+		private final Order[] orders;
+
+		private final int page;
+
+		private final int pageSize;
+
+		private SqlParamValue[] keyValues = null;
+
+		public KeysetPosition(QueryCacheKey queryKey, Order[] orders, int page, int pageSize)
+		{
+			super();
+			this.queryKey = queryKey;
+			this.orders = orders;
+			this.page = page;
+			this.pageSize = pageSize;
+		}
+
+		public QueryCacheKey getQueryKey()
+		{
+			return queryKey;
+		}
+
+		public Order[] getOrders()
+		{
+			return orders;
+		}
+
+		public int getPage()
+		{
+			return page;
+		}
+
+		public int getPageSize()
+		{
+			return pageSize;
+		}
+
+		public SqlParamValue[] getKeyValues()
+		{
+			return keyValues;
+		}
+
+		public void setKeyValues(SqlParamValue[] keyValues)
+		{
+			this.keyValues = keyValues;
+		}
+
+		/**
+		 * 是否是{@code next}的上一页。
+		 * 
+		 * @param next
+		 * @return
+		 */
+		public boolean isPrevOf(KeysetPosition next)
+		{
+			return (this.keyValues != null && this.page + 1 == next.page && this.pageSize == next.pageSize
+					&& Arrays.equals(this.orders, next.orders) && this.queryKey.equals(next.queryKey));
+		}
+	}
 }
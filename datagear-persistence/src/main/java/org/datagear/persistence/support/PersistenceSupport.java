@@ -19,6 +19,7 @@ import org.datagear.persistence.PersistenceException;
 import org.datagear.persistence.Row;
 import org.datagear.persistence.RowMapper;
 import org.datagear.persistence.RowMapperException;
+import org.datagear.util.ColumnValueReader;
 import org.datagear.util.JdbcSupport;
 import org.datagear.util.QueryResultSet;
 import org.datagear.util.Sql;
@@ -179,7 +180,11 @@ public class PersistenceSupport extends JdbcSupport
 
 		try
 		{
-			qrs = executeQuery(cn, sql, resultSetType);
+			if (count < 0 && resultSetType == ResultSet.TYPE_FORWARD_ONLY)
+				qrs = executeStreamingQuery(cn, sql);
+			else
+				qrs = executeQuery(cn, sql, resultSetType, (count < 0 ? 0 : count));
+
 			ResultSet rs = qrs.getResultSet();
 
 			return mapToRows(cn, table, rs, startRow, count, mapper);
@@ -223,13 +228,16 @@ public class PersistenceSupport extends JdbcSupport
 
 		int endRow = (count >= 0 ? startRow + count : -1);
 
+		// 未指定映射器时，预先确定列索引和读取器，避免每行都按列名查找
+		ColumnReadPlan readPlan = (mapper == null ? createColumnReadPlan(table, rs) : null);
+
 		int rowIndex = startRow;
 		while (rs.next())
 		{
 			if (endRow >= 0 && rowIndex >= endRow)
 				break;
 
-			Row row = mapToRow(cn, table, rs, rowIndex, mapper);
+			Row row = (readPlan != null ? readPlan.read(cn, rs) : mapToRow(cn, table, rs, rowIndex, mapper));
 
 			resultList.add(row);
 
@@ -300,6 +308,45 @@ public class PersistenceSupport extends JdbcSupport
 		}
 	}
 
+	/**
+	 * 创建{@linkplain ColumnReadPlan}。
+	 * 
+	 * @param table
+	 * @param rs
+	 * @return
+	 * @throws SQLException
+	 */
+	protected ColumnReadPlan createColumnReadPlan(Table table, ResultSet rs) throws SQLException
+	{
+		Column[] columns = table.getColumns();
+
+		int size = 0;
+		for (int i = 0; i < columns.length; i++)
+		{
+			if (supportsColumn(columns[i]))
+				size++;
+		}
+
+		String[] names = new String[size];
+		int[] indexes = new int[size];
+		ColumnValueReader[] readers = new ColumnValueReader[size];
+
+		for (int i = 0, j = 0; i < columns.length; i++)
+		{
+			Column column = columns[i];
+
+			if (!supportsColumn(column))
+				continue;
+
+			names[j] = column.getName();
+			indexes[j] = rs.findColumn(column.getName());
+			readers[j] = getColumnValueReader(column.getType());
+			j++;
+		}
+
+		return new ColumnReadPlan(names, indexes, readers);
+	}
+
 	public Object getColumnValue(Connection cn, ResultSet rs, Column column) throws SQLException
 	{
 		return getColumnValue(cn, rs, column.getName(), column.getType());
@@ -366,4 +413,48 @@ public class PersistenceSupport extends JdbcSupport
 				return false;
 		}
 	}
+
+	/**
+	 * 列读取计划。
+	 * <p>
+	 * 由结果集预先确定的列名、列索引及{@linkplain ColumnValueReader}，用于按索引读取行。
+	 * </p>
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static class ColumnReadPlan
+	{
+		private final String[] names;
+
+		private final int[] indexes;
+
+		private final ColumnValueReader[] readers;
+
+		public ColumnReadPlan(String[] names, int[] indexes, ColumnValueReader[] readers)
+		{
+			super();
+			this.names = names;
+			this.indexes = indexes;
+			this.readers = readers;
+		}
+
+		/**
+		 * 读取当前行。
+		 * 
+		 * @param cn
+		 * @param rs
+		 * @return
+		 * @throws SQLException
+		 */
+		public Row read(Connection cn, ResultSet rs) throws SQLException
+		{
+			Row row = new Row();
+
+			for (int i = 0; i < this.readers.length; i++)
+				row.put(this.names[i], this.readers[i].read(cn, rs, this.indexes[i]));
+
+			return row;
+		}
+	}
 }
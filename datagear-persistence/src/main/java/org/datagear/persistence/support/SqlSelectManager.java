@@ -7,6 +7,7 @@ package org.datagear.persistence.support;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.datagear.meta.Column;
@@ -90,7 +91,9 @@ public class SqlSelectManager extends PersistenceSupport
 
 		try
 		{
-			qrs = executeQuery(cn, sqlo, ResultSet.TYPE_FORWARD_ONLY);
+			// 仅读取至第startRow + fetchSize - 1行，驱动程序不必获取更多数据
+			int queryFetchSize = (startRow < 1 ? 0 : startRow - 1) + fetchSize;
+			qrs = executeQuery(cn, sqlo, ResultSet.TYPE_FORWARD_ONLY, queryFetchSize);
 			ResultSet rs = qrs.getResultSet();
 			Table table = buildTable(cn, rs);
 
@@ -146,6 +149,42 @@ public class SqlSelectManager extends PersistenceSupport
 		return new SqlSelectResult(sql, table, startRow, fetchSize, rows);
 	}
 
+	/**
+	 * 从结果集的当前位置继续读取SQL查询结果。
+	 * <p>
+	 * 与{@linkplain #select(Connection, String, ResultSet, int, int, RowMapper)}不同，它不会将结果集向前移动至{@code startRow}行，
+	 * 也不会多读取一行，适用于保持打开的结果集的连续分页读取。
+	 * </p>
+	 * 
+	 * @param cn
+	 * @param sql
+	 * @param table
+	 * @param rs
+	 * @param startRow
+	 *            结果集当前位置对应的行号，以{@code 1}开始
+	 * @param fetchSize
+	 * @param rowMapper
+	 *            允许为{@code null}
+	 * @return
+	 * @throws SQLException
+	 */
+	public SqlSelectResult selectNext(Connection cn, String sql, Table table, ResultSet rs, int startRow,
+			int fetchSize, RowMapper rowMapper) throws SQLException
+	{
+		List<Row> rows = new ArrayList<>();
+
+		int rowIndex = startRow;
+		while (rows.size() < fetchSize && rs.next())
+		{
+			Row row = mapToRow(cn, table, rs, rowIndex, rowMapper);
+			rows.add(row);
+
+			rowIndex++;
+		}
+
+		return new SqlSelectResult(sql, table, startRow, fetchSize, rows);
+	}
+
 	public Table buildTable(Connection cn, ResultSet rs) throws SQLException
 	{
 		Column[] columns = this.dbMetaResolver.getColumns(cn, rs.getMetaData());
@@ -4,9 +4,14 @@
 
 package org.datagear.persistence.support.dialect;
 
+import java.sql.Connection;
+import java.sql.Types;
+
+import org.datagear.meta.Table;
 import org.datagear.persistence.Order;
 import org.datagear.persistence.support.AbstractDialect;
 import org.datagear.util.Sql;
+import org.datagear.util.SqlParamValue;
 
 /**
  * Mysql方言。
@@ -56,4 +61,22 @@ public class MysqlDialect extends AbstractDialect
 
 		return sql;
 	}
+
+	@Override
+	public Sql toMaxRowsQuerySql(Sql query, int maxRows)
+	{
+		return Sql.valueOf().sql("SELECT * FROM (").sql(query).sql(") T LIMIT " + maxRows);
+	}
+
+	@Override
+	public long getEstimatedRowCount(Connection cn, Table table)
+	{
+		// InnoDB的TABLE_ROWS是采样估算值
+		Sql sql = Sql.valueOf()
+				.sql("SELECT TABLE_ROWS FROM INFORMATION_SCHEMA.TABLES"
+						+ " WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?")
+				.param(new SqlParamValue(table.getName(), Types.VARCHAR));
+
+		return executeEstimatedRowCountQuery(cn, sql);
+	}
 }
@@ -4,9 +4,14 @@
 
 package org.datagear.persistence.support.dialect;
 
+import java.sql.Connection;
+import java.sql.Types;
+
+import org.datagear.meta.Table;
 import org.datagear.persistence.Order;
 import org.datagear.persistence.support.AbstractDialect;
 import org.datagear.util.Sql;
+import org.datagear.util.SqlParamValue;
 
 /**
  * Oracle方言。
@@ -63,4 +68,20 @@ public class OracleDialect extends AbstractDialect
 
 		return sql;
 	}
+
+	@Override
+	public Sql toMaxRowsQuerySql(Sql query, int maxRows)
+	{
+		return Sql.valueOf().sql("SELECT * FROM (").sql(query).sql(") T WHERE ROWNUM <= " + maxRows);
+	}
+
+	@Override
+	public long getEstimatedRowCount(Connection cn, Table table)
+	{
+		// NUM_ROWS在收集统计信息时更新，从未收集过的表为null
+		Sql sql = Sql.valueOf().sql("SELECT NUM_ROWS FROM USER_TABLES WHERE TABLE_NAME = ?")
+				.param(new SqlParamValue(table.getName(), Types.VARCHAR));
+
+		return executeEstimatedRowCountQuery(cn, sql);
+	}
 }
@@ -4,9 +4,14 @@
 
 package org.datagear.persistence.support.dialect;
 
+import java.sql.Connection;
+import java.sql.Types;
+
+import org.datagear.meta.Table;
 import org.datagear.persistence.Order;
 import org.datagear.persistence.support.AbstractDialect;
 import org.datagear.util.Sql;
+import org.datagear.util.SqlParamValue;
 
 /**
  * PostgreSQL方言。
@@ -56,4 +61,22 @@ public class PostgresqlDialect extends AbstractDialect
 
 		return sql;
 	}
+
+	@Override
+	public Sql toMaxRowsQuerySql(Sql query, int maxRows)
+	{
+		return Sql.valueOf().sql("SELECT * FROM (").sql(query).sql(") T LIMIT " + maxRows);
+	}
+
+	@Override
+	public long getEstimatedRowCount(Connection cn, Table table)
+	{
+		// RELTUPLES在VACUUM、ANALYZE时更新，从未分析过的表为-1
+		Sql sql = Sql.valueOf()
+				.sql("SELECT C.RELTUPLES FROM PG_CLASS C INNER JOIN PG_NAMESPACE N ON C.RELNAMESPACE = N.OID"
+						+ " WHERE N.NSPNAME = CURRENT_SCHEMA() AND C.RELNAME = ?")
+				.param(new SqlParamValue(table.getName(), Types.VARCHAR));
+
+		return executeEstimatedRowCountQuery(cn, sql);
+	}
 }
@@ -4,9 +4,14 @@
 
 package org.datagear.persistence.support.dialect;
 
+import java.sql.Connection;
+import java.sql.Types;
+
+import org.datagear.meta.Table;
 import org.datagear.persistence.Order;
 import org.datagear.persistence.support.AbstractDialect;
 import org.datagear.util.Sql;
+import org.datagear.util.SqlParamValue;
 
 /**
  * SqlServer方言。
@@ -49,4 +54,22 @@ public class SqlServerDialect extends AbstractDialect
 
 		return sql;
 	}
+
+	@Override
+	public Sql toMaxRowsQuerySql(Sql query, int maxRows)
+	{
+		return Sql.valueOf().sql("SELECT TOP " + maxRows + " * FROM (").sql(query).sql(") T");
+	}
+
+	@Override
+	public long getEstimatedRowCount(Connection cn, Table table)
+	{
+		// 堆或者聚集索引分区的行数
+		Sql sql = Sql.valueOf()
+				.sql("SELECT SUM(P.ROWS) FROM SYS.PARTITIONS P"
+						+ " WHERE P.OBJECT_ID = OBJECT_ID(?) AND P.INDEX_ID IN (0, 1)")
+				.param(new SqlParamValue(table.getName(), Types.VARCHAR));
+
+		return executeEstimatedRowCountQuery(cn, sql);
+	}
 }
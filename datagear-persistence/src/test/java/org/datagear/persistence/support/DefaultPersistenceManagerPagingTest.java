@@ -0,0 +1,306 @@
+/*
+ * Copyright 2018 datagear.tech. All Rights Reserved.
+ */
+
+package org.datagear.persistence.support;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.List;
+
+import org.datagear.meta.Column;
+import org.datagear.meta.PrimaryKey;
+import org.datagear.meta.Table;
+import org.datagear.meta.TableType;
+import org.datagear.persistence.Order;
+import org.datagear.persistence.PagingData;
+import org.datagear.persistence.PagingQuery;
+import org.datagear.persistence.Row;
+import org.datagear.util.JdbcUtil;
+import org.datagear.util.Sql;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * {@linkplain DefaultPersistenceManager}键集分页、记录数缓存单元测试类。
+ *
+ * @author datagear@163.com
+ *
+ */
+public class DefaultPersistenceManagerPagingTest
+{
+	private static final String URL = "jdbc:derby:memory:defaultPersistenceManagerPagingTest";
+
+	private static final int ROW_COUNT = 10;
+
+	private static final int PAGE_SIZE = 3;
+
+	private Connection connection;
+
+	private Table table;
+
+	private DerbyTestDialect dialect = new DerbyTestDialect();
+
+	private DefaultPersistenceManager persistenceManager;
+
+	@Before
+	public void init() throws SQLException
+	{
+		this.connection = DriverManager.getConnection(URL + ";create=true");
+
+		executeUpdate("CREATE TABLE T_PAGING (ID INTEGER NOT NULL PRIMARY KEY, NAME VARCHAR(50))");
+
+		for (int i = 1; i <= ROW_COUNT; i++)
+			executeUpdate("INSERT INTO T_PAGING VALUES (" + i + ", 'name-" + i + "')");
+
+		this.table = new Table("T_PAGING", TableType.TABLE,
+				new Column[] { new Column("ID", Types.INTEGER), new Column("NAME", Types.VARCHAR) });
+		this.table.setPrimaryKey(new PrimaryKey(new String[] { "ID" }));
+
+		this.persistenceManager = new DefaultPersistenceManager();
+	}
+
+	@After
+	public void destroy() throws SQLException
+	{
+		try
+		{
+			executeUpdate("DROP TABLE T_PAGING");
+		}
+		finally
+		{
+			JdbcUtil.closeConnection(this.connection);
+		}
+	}
+
+	@AfterClass
+	public static void dropDatabase()
+	{
+		try
+		{
+			DriverManager.getConnection(URL + ";drop=true");
+		}
+		catch (SQLException e)
+		{
+			// 删除内存数据库总是抛出异常
+		}
+	}
+
+	@Test
+	public void pagingQueryTest_keysetToken() throws SQLException
+	{
+		PagingData<Row> page1 = pagingQuery(1, null, Order.ASC);
+
+		assertIds(page1, 1, 2, 3);
+		assertNotNull(page1.getKeysetToken());
+
+		// 删除上一页的行后，键集分页仍应从上一页最后一行之后开始，跳过之前的行则会漏掉第4行
+		executeUpdate("DELETE FROM T_PAGING WHERE ID = 2");
+
+		PagingData<Row> page2 = pagingQuery(2, page1.getKeysetToken(), Order.ASC);
+
+		assertIds(page2, 4, 5, 6);
+		assertNotNull(page2.getKeysetToken());
+
+		PagingData<Row> page3 = pagingQuery(3, page2.getKeysetToken(), Order.ASC);
+
+		assertIds(page3, 7, 8, 9);
+	}
+
+	@Test
+	public void pagingQueryTest_keysetTokenDesc() throws SQLException
+	{
+		PagingData<Row> page1 = pagingQuery(1, null, Order.DESC);
+
+		assertIds(page1, 10, 9, 8);
+
+		executeUpdate("DELETE FROM T_PAGING WHERE ID = 9");
+
+		PagingData<Row> page2 = pagingQuery(2, page1.getKeysetToken(), Order.DESC);
+
+		assertIds(page2, 7, 6, 5);
+	}
+
+	@Test
+	public void pagingQueryTest_unverifiedTokenUseOffset() throws SQLException
+	{
+		PagingData<Row> page1 = pagingQuery(1, null, Order.ASC);
+
+		executeUpdate("DELETE FROM T_PAGING WHERE ID = 2");
+
+		// 伪造的令牌
+		assertIds(pagingQuery(2, "forged-token", Order.ASC), 5, 6, 7);
+
+		// 不是上一页的令牌
+		assertIds(pagingQuery(3, page1.getKeysetToken(), Order.ASC), 8, 9, 10);
+
+		// 排序不同
+		assertIds(pagingQuery(2, page1.getKeysetToken(), Order.DESC), 7, 6, 5);
+
+		// 查询条件不同
+		PagingQuery pagingQuery = new PagingQuery(2, PAGE_SIZE);
+		pagingQuery.setCondition("ID > 0");
+		pagingQuery.setOrders(Order.valueOf("ID", Order.ASC));
+		pagingQuery.setKeysetToken(page1.getKeysetToken());
+		assertIds(this.persistenceManager.pagingQuery(connection, dialect, table, pagingQuery, null), 5, 6, 7);
+	}
+
+	@Test
+	public void pagingQueryTest_tokenInvalidatedByModification() throws SQLException
+	{
+		PagingData<Row> page1 = pagingQuery(1, null, Order.ASC);
+
+		Row row = new Row();
+		row.put("ID", 1);
+		this.persistenceManager.delete(connection, dialect, table, row, null);
+
+		// 表数据通过此管理器修改后，之前的键集位置不再可用，下一页将跳过之前的行
+		assertIds(pagingQuery(2, page1.getKeysetToken(), Order.ASC), 5, 6, 7);
+	}
+
+	@Test
+	public void pagingQueryTest_keysetDefaultOrder() throws SQLException
+	{
+		PagingQuery pagingQuery = new PagingQuery(1, PAGE_SIZE);
+
+		PagingData<Row> pagingData = this.persistenceManager.pagingQuery(connection, dialect, table, pagingQuery,
+				null);
+
+		assertEquals(PAGE_SIZE, pagingData.getItems().size());
+		assertNull(pagingData.getKeysetToken());
+		assertNull(this.dialect.getLastOrders());
+
+		this.persistenceManager.setKeysetDefaultOrder(true);
+
+		pagingData = this.persistenceManager.pagingQuery(connection, dialect, table, pagingQuery, null);
+
+		assertIds(pagingData, 1, 2, 3);
+		assertNotNull(pagingData.getKeysetToken());
+		assertEquals(1, this.dialect.getLastOrders().length);
+		assertEquals("ID", this.dialect.getLastOrders()[0].getName());
+	}
+
+	@Test
+	public void pagingQueryTest_lastPageHasNoToken() throws SQLException
+	{
+		PagingData<Row> page4 = pagingQuery(4, null, Order.ASC);
+
+		assertIds(page4, 10);
+		assertNull(page4.getKeysetToken());
+	}
+
+	@Test
+	public void pagingQueryTest_countCacheInvalidated() throws SQLException
+	{
+		this.persistenceManager.setCountCacheSeconds(60);
+
+		assertEquals(ROW_COUNT, pagingQuery(1, null, Order.ASC).getTotal());
+
+		// 未通过此管理器修改时，使用缓存的记录数
+		executeUpdate("INSERT INTO T_PAGING VALUES (11, 'name-11')");
+		assertEquals(ROW_COUNT, pagingQuery(1, null, Order.ASC).getTotal());
+
+		Row row = new Row();
+		row.put("ID", 12);
+		row.put("NAME", "name-12");
+		this.persistenceManager.insert(connection, dialect, table, row, null);
+		assertEquals(ROW_COUNT + 2, pagingQuery(1, null, Order.ASC).getTotal());
+
+		executeUpdate("DELETE FROM T_PAGING WHERE ID = 11");
+		assertEquals(ROW_COUNT + 2, pagingQuery(1, null, Order.ASC).getTotal());
+
+		Row update = new Row();
+		update.put("NAME", "name-12-update");
+		this.persistenceManager.update(connection, dialect, table, row, update, null);
+		assertEquals(ROW_COUNT + 1, pagingQuery(1, null, Order.ASC).getTotal());
+
+		executeUpdate("INSERT INTO T_PAGING VALUES (11, 'name-11')");
+		assertEquals(ROW_COUNT + 1, pagingQuery(1, null, Order.ASC).getTotal());
+
+		Row row11 = new Row();
+		row11.put("ID", 11);
+		this.persistenceManager.delete(connection, dialect, table, new Row[] { row, row11 }, null);
+		assertEquals(ROW_COUNT, pagingQuery(1, null, Order.ASC).getTotal());
+	}
+
+	protected PagingData<Row> pagingQuery(int page, String keysetToken, String orderType)
+	{
+		PagingQuery pagingQuery = new PagingQuery(page, PAGE_SIZE);
+		pagingQuery.setOrders(Order.valueOf("ID", orderType));
+		pagingQuery.setKeysetToken(keysetToken);
+
+		return this.persistenceManager.pagingQuery(connection, dialect, table, pagingQuery, null);
+	}
+
+	protected void assertIds(PagingData<Row> pagingData, int... ids)
+	{
+		List<Row> rows = pagingData.getItems();
+
+		assertEquals(ids.length, rows.size());
+
+		for (int i = 0; i < ids.length; i++)
+			assertEquals(ids[i], ((Number) rows.get(i).get("ID")).intValue());
+	}
+
+	protected void executeUpdate(String sql) throws SQLException
+	{
+		Statement st = null;
+
+		try
+		{
+			st = this.connection.createStatement();
+			st.executeUpdate(sql);
+		}
+		finally
+		{
+			JdbcUtil.closeStatement(st);
+		}
+	}
+
+	protected static class DerbyTestDialect extends AbstractDialect
+	{
+		private Order[] lastOrders = null;
+
+		public DerbyTestDialect()
+		{
+			super("\"");
+		}
+
+		public Order[] getLastOrders()
+		{
+			return lastOrders;
+		}
+
+		@Override
+		public boolean supportsPagingSql()
+		{
+			return true;
+		}
+
+		@Override
+		public Sql toPagingQuerySql(Sql query, Order[] orders, long startRow, int count)
+		{
+			this.lastOrders = orders;
+
+			Sql sql = Sql.valueOf().sql("SELECT * FROM (").sql(query).sql(") T");
+
+			Sql orderSql = toOrderSql(orders);
+
+			if (!isEmptySql(orderSql))
+				sql.sql(" ORDER BY ").sql(orderSql);
+
+			sql.sql(" OFFSET " + (startRow - 1) + " ROWS FETCH NEXT " + count + " ROWS ONLY");
+
+			return sql;
+		}
+	}
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2018 datagear.tech. All Rights Reserved.
+ */
+
+package org.datagear.util;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * 列值读取器。
+ * <p>
+ * 它按照列索引读取{@linkplain ResultSet}当前行的列值，读取方法已根据列的SQL类型预先确定，
+ * 对于同一结果集，可为每一列预先获取一个读取器（参考{@linkplain JdbcSupport#getColumnValueReader(int)}），
+ * 然后在遍历行时重复使用，避免每个单元格都按列名查找列、判断SQL类型。
+ * </p>
+ *
+ * @author datagear@163.com
+ *
+ */
+public interface ColumnValueReader
+{
+	/**
+	 * 读取列值。
+	 *
+	 * @param cn
+	 * @param rs
+	 * @param columnIndex
+	 *            列索引，以{@code 1}开头
+	 * @return 列值，SQL的{@code NULL}值将返回{@code null}
+	 * @throws SQLException
+	 */
+	Object read(Connection cn, ResultSet rs, int columnIndex) throws SQLException;
+}
@@ -34,6 +34,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.regex.Pattern;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -48,6 +49,31 @@ public class JdbcSupport
 {
 	private static final Logger LOGGER = LoggerFactory.getLogger(JdbcSupport.class);
 
+	/** 可批处理执行的SQL语句 */
+	private static final Pattern BATCHABLE_SQL_PATTERN = Pattern.compile("^\\s*(INSERT|UPDATE|DELETE)\\s",
+			Pattern.CASE_INSENSITIVE);
+
+	/** 流式查询默认的fetch size */
+	public static final int DEFAULT_STREAMING_FETCH_SIZE = 1000;
+
+	/** 流式查询的fetch size，MySQL驱动除外 */
+	private int streamingFetchSize = DEFAULT_STREAMING_FETCH_SIZE;
+
+	public JdbcSupport()
+	{
+		super();
+	}
+
+	public int getStreamingFetchSize()
+	{
+		return streamingFetchSize;
+	}
+
+	public void setStreamingFetchSize(int streamingFetchSize)
+	{
+		this.streamingFetchSize = streamingFetchSize;
+	}
+
 	/**
 	 * 执行数目查询。
 	 * 
@@ -93,12 +119,119 @@ public class JdbcSupport
 	 */
 	public QueryResultSet executeQuery(Connection cn, Sql sql, int resultSetType) throws SQLException
 	{
-		LOGGER.debug("execute {}, resultSetType={}", sql, resultSetType);
+		return executeQuery(cn, sql, resultSetType, 0, false);
+	}
+
+	/**
+	 * 执行查询，并设置{@linkplain Statement#setFetchSize(int)}。
+	 * <p>
+	 * 适用于只读取部分结果的查询，{@code fetchSize}通常设置为期望读取的行数。
+	 * </p>
+	 * 
+	 * @param cn
+	 * @param sql
+	 * @param resultSetType
+	 *            {@code ResultSet.TYPE_*}
+	 * @param fetchSize
+	 *            小于等于{@code 0}表示采用驱动程序默认值
+	 * @return
+	 * @throws SQLException
+	 */
+	public QueryResultSet executeQuery(Connection cn, Sql sql, int resultSetType, int fetchSize) throws SQLException
+	{
+		return executeQuery(cn, sql, resultSetType, fetchSize, false);
+	}
+
+	/**
+	 * 执行流式查询。
+	 * <p>
+	 * 适用于需要读取全部结果的大数据量查询（比如导出），它将依据数据库驱动设置合适的fetch size，使驱动程序分批获取数据，而不是将全部结果加载至内存：
+	 * </p>
+	 * <ul>
+	 * <li>MySQL：设置为{@linkplain Integer#MIN_VALUE}逐行读取，如果连接URL设置了{@code useCursorFetch=true}，则设置为{@linkplain #getStreamingFetchSize()}使用服务端游标；</li>
+	 * <li>PostgreSQL：仅在非自动提交时才会使用服务端游标，所以将临时关闭自动提交，并在{@linkplain QueryResultSet#close()}时恢复；</li>
+	 * <li>其他：设置为{@linkplain #getStreamingFetchSize()}。</li>
+	 * </ul>
+	 * <p>
+	 * 注意：对于MySQL，在返回的{@linkplain QueryResultSet}关闭之前，不能在{@code cn}上执行其他SQL。
+	 * </p>
+	 * 
+	 * @param cn
+	 * @param sql
+	 * @return
+	 * @throws SQLException
+	 */
+	public QueryResultSet executeStreamingQuery(Connection cn, Sql sql) throws SQLException
+	{
+		return executeQuery(cn, sql, ResultSet.TYPE_FORWARD_ONLY, 0, true);
+	}
+
+	/**
+	 * 执行限定最大行数的查询，并设置{@linkplain Statement#setMaxRows(int)}、{@linkplain Statement#setFetchSize(int)}。
+	 * <p>
+	 * 数据库最多只会返回{@code maxRows}行，适用于预览之类只读取前面部分结果的查询。
+	 * </p>
+	 * 
+	 * @param cn
+	 * @param sql
+	 * @param resultSetType
+	 *            {@code ResultSet.TYPE_*}
+	 * @param maxRows
+	 *            最大行数，小于等于{@code 0}表示不限定
+	 * @return
+	 * @throws SQLException
+	 */
+	public QueryResultSet executeMaxRowsQuery(Connection cn, Sql sql, int resultSetType, int maxRows)
+			throws SQLException
+	{
+		return executeQuery(cn, sql, resultSetType, maxRows, false, maxRows);
+	}
+
+	/**
+	 * 执行查询。
+	 * 
+	 * @param cn
+	 * @param sql
+	 * @param resultSetType
+	 * @param fetchSize
+	 *            小于等于{@code 0}表示采用驱动程序默认值
+	 * @param streaming
+	 *            是否流式查询，为{@code true}时将忽略{@code fetchSize}
+	 * @return
+	 * @throws SQLException
+	 */
+	protected QueryResultSet executeQuery(Connection cn, Sql sql, int resultSetType, int fetchSize,
+			boolean streaming) throws SQLException
+	{
+		return executeQuery(cn, sql, resultSetType, fetchSize, streaming, 0);
+	}
+
+	/**
+	 * 执行查询。
+	 * 
+	 * @param cn
+	 * @param sql
+	 * @param resultSetType
+	 * @param fetchSize
+	 *            小于等于{@code 0}表示采用驱动程序默认值
+	 * @param streaming
+	 *            是否流式查询，为{@code true}时将忽略{@code fetchSize}
+	 * @param maxRows
+	 *            最大行数，小于等于{@code 0}表示不限定
+	 * @return
+	 * @throws SQLException
+	 */
+	protected QueryResultSet executeQuery(Connection cn, Sql sql, int resultSetType, int fetchSize,
+			boolean streaming, int maxRows) throws SQLException
+	{
+		LOGGER.debug("execute {}, resultSetType={}, fetchSize={}, streaming={}, maxRows={}", sql, resultSetType,
+				fetchSize, streaming, maxRows);
 
 		Statement st = null;
 		ResultSet rs = null;
 		@SuppressWarnings("unchecked")
 		List<Object> setParams = Collections.EMPTY_LIST;
+		boolean autoCommitClosed = false;
 
 		try
 		{
@@ -109,6 +242,8 @@ public class JdbcSupport
 			{
 				PreparedStatement pst = createQueryPreparedStatement(cn, sql.getSqlValue(), resultSetType);
 				st = pst;
+				autoCommitClosed = setQueryFetchSize(cn, st, fetchSize, streaming);
+				setQueryMaxRows(st, maxRows);
 				setParams = setParamValues(cn, pst, sql);
 				rs = pst.executeQuery();
 			}
@@ -116,10 +251,17 @@ public class JdbcSupport
 			{
 				Statement stt = createQueryStatement(cn, resultSetType);
 				st = stt;
+				autoCommitClosed = setQueryFetchSize(cn, st, fetchSize, streaming);
+				setQueryMaxRows(st, maxRows);
 				rs = stt.executeQuery(sql.getSqlValue());
 			}
 
-			return new QueryResultSet(st, rs, setParams);
+			QueryResultSet qrs = new QueryResultSet(st, rs, setParams);
+
+			if (autoCommitClosed)
+				qrs.setAutoCommitRestoreConnection(cn);
+
+			return qrs;
 		}
 		catch (SQLSyntaxErrorException | SQLDataException | SQLTimeoutException | SQLWarning e)
 		{
@@ -141,6 +283,9 @@ public class JdbcSupport
 				JdbcUtil.closeResultSet(rs);
 				JdbcUtil.closeStatement(st);
 
+				if (autoCommitClosed)
+					restoreAutoCommit(cn);
+
 				throw e;
 			}
 			else
@@ -148,15 +293,111 @@ public class JdbcSupport
 				JdbcUtil.closeResultSet(rs);
 				JdbcUtil.closeStatement(st);
 
+				if (autoCommitClosed)
+					restoreAutoCommit(cn);
+
 				LOGGER.debug("query is downgraded to [ResultSet.TYPE_FORWARD_ONLY] for exception :", e);
 
 				@JDBCCompatiblity("降级为ResultSet.TYPE_FORWARD_ONLY重新执行")
-				QueryResultSet qrs = executeQuery(cn, sql, ResultSet.TYPE_FORWARD_ONLY);
+				QueryResultSet qrs = executeQuery(cn, sql, ResultSet.TYPE_FORWARD_ONLY, fetchSize, streaming, maxRows);
 				return qrs;
 			}
 		}
 	}
 
+	/**
+	 * 设置查询{@linkplain Statement}的fetch size。
+	 * 
+	 * @param cn
+	 * @param st
+	 * @param fetchSize
+	 *            小于等于{@code 0}表示采用驱动程序默认值
+	 * @param streaming
+	 *            是否流式查询，参考{@linkplain #executeStreamingQuery(Connection, Sql)}
+	 * @return 是否为此关闭了{@code cn}的自动提交，需在查询结束后恢复
+	 * @throws SQLException
+	 */
+	protected boolean setQueryFetchSize(Connection cn, Statement st, int fetchSize, boolean streaming)
+			throws SQLException
+	{
+		if (!streaming)
+		{
+			if (fetchSize > 0)
+				JdbcUtil.setFetchSizeIfSupports(st, fetchSize);
+			else if (st instanceof PreparedStatement)
+			{
+				@JDBCCompatiblity("连接池可能缓存并复用PreparedStatement，需重置之前查询设置的fetch size（比如MySQL流式查询的Integer.MIN_VALUE）")
+				int resetFetchSize = 0;
+				JdbcUtil.setFetchSizeIfSupports(st, resetFetchSize);
+			}
+
+			return false;
+		}
+
+		// 流式读取仅支持TYPE_FORWARD_ONLY
+		if (st.getResultSetType() != ResultSet.TYPE_FORWARD_ONLY)
+			return false;
+
+		String url = JdbcUtil.getURLIfSupports(cn);
+		url = (url == null ? "" : url.toLowerCase());
+
+		if (url.startsWith("jdbc:mysql:") || url.startsWith("jdbc:mariadb:"))
+		{
+			@JDBCCompatiblity("MySQL驱动仅在fetch size为Integer.MIN_VALUE时才会逐行流式读取，除非连接URL设置了useCursorFetch=true")
+			int mysqlFetchSize = (url.contains("usecursorfetch=true") ? this.streamingFetchSize : Integer.MIN_VALUE);
+			JdbcUtil.setFetchSizeIfSupports(st, mysqlFetchSize);
+
+			return false;
+		}
+
+		JdbcUtil.setFetchSizeIfSupports(st, this.streamingFetchSize);
+
+		if (url.startsWith("jdbc:postgresql:") && cn.getAutoCommit())
+		{
+			@JDBCCompatiblity("PostgreSQL驱动仅在非自动提交时才会使用服务端游标分批读取")
+			boolean closed = JdbcUtil.setAutoCommitIfSupports(cn, false);
+			return closed;
+		}
+
+		return false;
+	}
+
+	/**
+	 * 设置查询{@linkplain Statement}的最大行数。
+	 * 
+	 * @param st
+	 * @param maxRows
+	 *            小于等于{@code 0}表示不限定
+	 */
+	protected void setQueryMaxRows(Statement st, int maxRows)
+	{
+		// 连接池可能缓存并复用PreparedStatement，所以不限定时也需重置
+		if (maxRows <= 0 && !(st instanceof PreparedStatement))
+			return;
+
+		try
+		{
+			st.setMaxRows(Math.max(maxRows, 0));
+		}
+		catch (SQLException e)
+		{
+			@JDBCCompatiblity("某些驱动程序可能不支持此特性，忽略即可，读取结果时仍会限定行数")
+			SQLException e1 = e;
+			LOGGER.debug("setMaxRows is not supported", e1);
+		}
+	}
+
+	/**
+	 * 恢复连接为自动提交。
+	 * 
+	 * @param cn
+	 */
+	protected void restoreAutoCommit(Connection cn)
+	{
+		JdbcUtil.commitSilently(cn);
+		JdbcUtil.setAutoCommitIfSupports(cn, true);
+	}
+
 	/**
 	 * 执行更新。
 	 * 
@@ -1203,6 +1444,183 @@ public class JdbcSupport
 		throw new UnsupportedOperationException("Get JDBC [" + sqlType + "] type value is not supported");
 	}
 
+	/**
+	 * 获取列值。
+	 * <p>
+	 * 与{@linkplain #getColumnValue(Connection, ResultSet, String, int)}功能相同，但按照列索引读取。
+	 * </p>
+	 * <p>
+	 * 遍历结果集时，应使用{@linkplain #getColumnValueReader(int)}为每一列预先获取读取器，而不是对每个单元格调用此方法。
+	 * </p>
+	 * 
+	 * @param cn
+	 * @param rs
+	 * @param columnIndex
+	 *            列索引，以{@code 1}开头
+	 * @param sqlType
+	 * @return
+	 * @throws SQLException
+	 */
+	public Object getColumnValue(Connection cn, ResultSet rs, int columnIndex, int sqlType) throws SQLException
+	{
+		return getColumnValueReader(sqlType).read(cn, rs, columnIndex);
+	}
+
+	/**
+	 * 获取指定SQL类型的{@linkplain ColumnValueReader}。
+	 * <p>
+	 * 读取方法在此根据SQL类型确定，与{@linkplain #getColumnValue(Connection, ResultSet, String, int)}一致，
+	 * 返回的读取器直接调用对应的{@linkplain ResultSet}方法，读取时不再判断SQL类型。
+	 * 遍历结果集时，应在遍历之前为每一列获取一次读取器，然后在每一行重复使用。
+	 * </p>
+	 * <p>
+	 * 对于其他SQL类型，返回的读取器将调用{@linkplain #getColumnValueExt(Connection, ResultSet, String, int)}，
+	 * 它在首次读取时获取列标签，之后重复使用，因此只能用于同一结果集。
+	 * </p>
+	 * 
+	 * @param sqlType
+	 * @return
+	 */
+	@JDBCCompatiblity("某些驱动程序可能不支持ResultSet.getObject方法，所以这里没有使用")
+	public ColumnValueReader getColumnValueReader(int sqlType)
+	{
+		switch (sqlType)
+		{
+			case Types.ARRAY:
+				return TypedColumnValueReader.ARRAY;
+
+			case Types.BIGINT:
+				return TypedColumnValueReader.LONG;
+
+			case Types.BINARY:
+				return TypedColumnValueReader.BYTES;
+
+			case Types.BIT:
+				return TypedColumnValueReader.BOOLEAN;
+
+			case Types.BLOB:
+				return TypedColumnValueReader.BLOB;
+
+			case Types.BOOLEAN:
+				return TypedColumnValueReader.BOOLEAN;
+
+			case Types.CHAR:
+				return TypedColumnValueReader.STRING;
+
+			case Types.CLOB:
+				return TypedColumnValueReader.CLOB;
+
+			case Types.DATALINK:
+				return TypedColumnValueReader.OBJECT;
+
+			case Types.DATE:
+				return TypedColumnValueReader.DATE;
+
+			case Types.DECIMAL:
+				return TypedColumnValueReader.BIG_DECIMAL;
+
+			case Types.DISTINCT:
+				return TypedColumnValueReader.OBJECT;
+
+			case Types.DOUBLE:
+				return TypedColumnValueReader.DOUBLE;
+
+			case Types.FLOAT:
+				return TypedColumnValueReader.FLOAT;
+
+			case Types.INTEGER:
+				return TypedColumnValueReader.INT;
+
+			case Types.JAVA_OBJECT:
+				return TypedColumnValueReader.OBJECT;
+
+			case Types.LONGNVARCHAR:
+				return TypedColumnValueReader.NCHARACTER_STREAM;
+
+			case Types.LONGVARBINARY:
+				return TypedColumnValueReader.BINARY_STREAM;
+
+			case Types.LONGVARCHAR:
+				return TypedColumnValueReader.CHARACTER_STREAM;
+
+			case Types.NCHAR:
+				return TypedColumnValueReader.NSTRING;
+
+			case Types.NCLOB:
+				return TypedColumnValueReader.NCLOB;
+
+			case Types.NUMERIC:
+				return TypedColumnValueReader.BIG_DECIMAL;
+
+			case Types.NVARCHAR:
+				return TypedColumnValueReader.NSTRING;
+
+			case Types.OTHER:
+				return TypedColumnValueReader.OBJECT;
+
+			case Types.REAL:
+				return TypedColumnValueReader.FLOAT;
+
+			case Types.REF:
+				return TypedColumnValueReader.REF;
+
+			case Types.REF_CURSOR:
+				return TypedColumnValueReader.OBJECT;
+
+			case Types.ROWID:
+				return TypedColumnValueReader.ROWID;
+
+			case Types.SMALLINT:
+				return TypedColumnValueReader.SHORT;
+
+			case Types.SQLXML:
+				return TypedColumnValueReader.SQLXML;
+
+			case Types.STRUCT:
+				return TypedColumnValueReader.OBJECT;
+
+			case Types.TIME:
+				return TypedColumnValueReader.TIME;
+
+			case Types.TIME_WITH_TIMEZONE:
+				return TypedColumnValueReader.TIME;
+
+			case Types.TIMESTAMP:
+				return TypedColumnValueReader.TIMESTAMP;
+
+			case Types.TIMESTAMP_WITH_TIMEZONE:
+				return TypedColumnValueReader.TIMESTAMP;
+
+			case Types.TINYINT:
+				return TypedColumnValueReader.BYTE;
+
+			case Types.VARBINARY:
+				return TypedColumnValueReader.BYTES;
+
+			case Types.VARCHAR:
+				return TypedColumnValueReader.STRING;
+
+			default:
+				return new ExtColumnValueReader(sqlType);
+		}
+	}
+
+	/**
+	 * 获取指定SQL类型的{@linkplain ColumnValueReader}数组。
+	 * 
+	 * @param sqlTypes
+	 * @return
+	 */
+	public ColumnValueReader[] getColumnValueReaders(SqlType[] sqlTypes)
+	{
+		ColumnValueReader[] readers = new ColumnValueReader[sqlTypes.length];
+
+		for (int i = 0; i < sqlTypes.length; i++)
+			readers[i] = getColumnValueReader(sqlTypes[i].getType());
+
+		return readers;
+	}
+
 	/**
 	 * 将一个未移动过游标的{@linkplain ResultSet}游标前移至指定行之前。
 	 * 
@@ -1235,6 +1653,24 @@ public class JdbcSupport
 		}
 	}
 
+	/**
+	 * 是否是可以加入{@linkplain Statement#addBatch(String)}批处理执行的SQL语句。
+	 * <p>
+	 * 只有以{@code INSERT}、{@code UPDATE}、{@code DELETE}开头的数据修改语句才可批处理执行，
+	 * 查询语句、数据定义语句等不可批处理执行。
+	 * </p>
+	 * 
+	 * @param sql
+	 * @return
+	 */
+	public boolean isBatchableSql(String sql)
+	{
+		if (sql == null)
+			return false;
+
+		return BATCHABLE_SQL_PATTERN.matcher(sql).lookingAt();
+	}
+
 	/**
 	 * 获取列名。
 	 * 
@@ -1308,6 +1744,47 @@ public class JdbcSupport
 		return sqlTypes;
 	}
 
+	/**
+	 * 调用{@linkplain JdbcSupport#getColumnValueExt(Connection, ResultSet, String, int)}读取列值的{@linkplain ColumnValueReader}。
+	 * <p>
+	 * 列标签在首次读取时获取，之后重复使用，因此它只能用于同一结果集的同一列。
+	 * </p>
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	protected class ExtColumnValueReader implements ColumnValueReader
+	{
+		private final int sqlType;
+
+		private String columnName = null;
+
+		public ExtColumnValueReader(int sqlType)
+		{
+			super();
+			this.sqlType = sqlType;
+		}
+
+		public int getSqlType()
+		{
+			return sqlType;
+		}
+
+		@Override
+		public Object read(Connection cn, ResultSet rs, int columnIndex) throws SQLException
+		{
+			if (this.columnName == null)
+				this.columnName = rs.getMetaData().getColumnLabel(columnIndex);
+
+			Object value = getColumnValueExt(cn, rs, this.columnName, this.sqlType);
+
+			if (rs.wasNull())
+				value = null;
+
+			return value;
+		}
+	}
+
 	/**
 	 * SQL插入操作的自动生成结果。
 	 * 
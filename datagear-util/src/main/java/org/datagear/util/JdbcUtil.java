@@ -8,6 +8,7 @@ import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Savepoint;
 import java.sql.Statement;
 import java.sql.Types;
 
@@ -361,6 +362,71 @@ public class JdbcUtil
 		}
 	}
 
+	/**
+	 * 是否支持使用{@linkplain Savepoint}回退的批处理执行。
+	 * <p>
+	 * 连接需同时支持{@linkplain DatabaseMetaData#supportsBatchUpdates()}、{@linkplain DatabaseMetaData#supportsSavepoints()}，
+	 * 并且不是自动提交的。
+	 * </p>
+	 * 
+	 * @param cn
+	 * @return
+	 */
+	@JDBCCompatiblity("避免有驱动程序不支持此方法而抛出异常")
+	public static boolean supportsBatchWithSavepointIfSupports(Connection cn)
+	{
+		try
+		{
+			DatabaseMetaData metaData = cn.getMetaData();
+
+			return (metaData.supportsBatchUpdates() && metaData.supportsSavepoints() && !cn.getAutoCommit());
+		}
+		catch(Throwable e)
+		{
+			return false;
+		}
+	}
+
+	/**
+	 * 静默释放{@linkplain Savepoint}。
+	 * 
+	 * @param cn
+	 * @param savepoint
+	 */
+	@JDBCCompatiblity("某些驱动程序可能不支持Connection.releaseSavepoint方法而抛出异常")
+	public static void releaseSavepointSilently(Connection cn, Savepoint savepoint)
+	{
+		try
+		{
+			cn.releaseSavepoint(savepoint);
+		}
+		catch(Throwable e)
+		{
+		}
+	}
+
+	/**
+	 * 清空{@linkplain Statement}的批处理。
+	 * <p>
+	 * 此方法不会抛出任何{@linkplain Throwable}。
+	 * </p>
+	 * 
+	 * @param st
+	 */
+	public static void clearBatchSilently(Statement st)
+	{
+		if (st == null)
+			return;
+
+		try
+		{
+			st.clearBatch();
+		}
+		catch (Throwable t)
+		{
+		}
+	}
+
 	/**
 	 * 获取{@linkplain DatabaseMetaData#getDatabaseProductName()}。
 	 * 
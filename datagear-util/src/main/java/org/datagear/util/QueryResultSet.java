@@ -4,6 +4,7 @@
 
 package org.datagear.util;
 
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.Statement;
@@ -23,6 +24,9 @@ public class QueryResultSet
 
 	private List<Object> params;
 
+	/** 关闭时需恢复为自动提交的连接 */
+	private Connection autoCommitRestoreConnection = null;
+
 	public QueryResultSet()
 	{
 		super();
@@ -78,6 +82,21 @@ public class QueryResultSet
 		this.params = params;
 	}
 
+	public Connection getAutoCommitRestoreConnection()
+	{
+		return autoCommitRestoreConnection;
+	}
+
+	/**
+	 * 设置关闭时需恢复为自动提交的连接。
+	 * 
+	 * @param autoCommitRestoreConnection
+	 */
+	public void setAutoCommitRestoreConnection(Connection autoCommitRestoreConnection)
+	{
+		this.autoCommitRestoreConnection = autoCommitRestoreConnection;
+	}
+
 	public boolean isPreparedStatement()
 	{
 		return (this.statement instanceof PreparedStatement);
@@ -101,6 +120,12 @@ public class QueryResultSet
 
 		JdbcUtil.closeResultSet(this.resultSet);
 		JdbcUtil.closeStatement(this.statement);
+
+		if (this.autoCommitRestoreConnection != null)
+		{
+			JdbcUtil.commitSilently(this.autoCommitRestoreConnection);
+			JdbcUtil.setAutoCommitIfSupports(this.autoCommitRestoreConnection, true);
+		}
 	}
 
 	/**
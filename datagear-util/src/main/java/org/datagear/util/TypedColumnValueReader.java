@@ -0,0 +1,300 @@
+/*
+ * Copyright 2018 datagear.tech. All Rights Reserved.
+ */
+
+package org.datagear.util;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * 调用确定的{@linkplain ResultSet}方法读取列值的{@linkplain ColumnValueReader}。
+ * <p>
+ * 此类的常量实例都是无状态的，可在多个结果集、多个线程中共享，
+ * 它们由{@linkplain JdbcSupport#getColumnValueReader(int)}根据SQL类型选择，读取时不再判断SQL类型。
+ * </p>
+ *
+ * @author datagear@163.com
+ *
+ */
+public abstract class TypedColumnValueReader implements ColumnValueReader
+{
+	/** {@linkplain ResultSet#getArray(int)} */
+	public static final TypedColumnValueReader ARRAY = new TypedColumnValueReader()
+	{
+		@Override
+		protected Object readValue(ResultSet rs, int columnIndex) throws SQLException
+		{
+			return rs.getArray(columnIndex);
+		}
+	};
+
+	/** {@linkplain ResultSet#getLong(int)} */
+	public static final TypedColumnValueReader LONG = new TypedColumnValueReader()
+	{
+		@Override
+		protected Object readValue(ResultSet rs, int columnIndex) throws SQLException
+		{
+			return rs.getLong(columnIndex);
+		}
+	};
+
+	/** {@linkplain ResultSet#getBytes(int)} */
+	public static final TypedColumnValueReader BYTES = new TypedColumnValueReader()
+	{
+		@Override
+		protected Object readValue(ResultSet rs, int columnIndex) throws SQLException
+		{
+			return rs.getBytes(columnIndex);
+		}
+	};
+
+	/** {@linkplain ResultSet#getBoolean(int)} */
+	public static final TypedColumnValueReader BOOLEAN = new TypedColumnValueReader()
+	{
+		@Override
+		protected Object readValue(ResultSet rs, int columnIndex) throws SQLException
+		{
+			return rs.getBoolean(columnIndex);
+		}
+	};
+
+	/** {@linkplain ResultSet#getBlob(int)} */
+	public static final TypedColumnValueReader BLOB = new TypedColumnValueReader()
+	{
+		@Override
+		protected Object readValue(ResultSet rs, int columnIndex) throws SQLException
+		{
+			return rs.getBlob(columnIndex);
+		}
+	};
+
+	/** {@linkplain ResultSet#getString(int)} */
+	public static final TypedColumnValueReader STRING = new TypedColumnValueReader()
+	{
+		@Override
+		protected Object readValue(ResultSet rs, int columnIndex) throws SQLException
+		{
+			return rs.getString(columnIndex);
+		}
+	};
+
+	/** {@linkplain ResultSet#getClob(int)} */
+	public static final TypedColumnValueReader CLOB = new TypedColumnValueReader()
+	{
+		@Override
+		protected Object readValue(ResultSet rs, int columnIndex) throws SQLException
+		{
+			return rs.getClob(columnIndex);
+		}
+	};
+
+	/** {@linkplain ResultSet#getObject(int)} */
+	public static final TypedColumnValueReader OBJECT = new TypedColumnValueReader()
+	{
+		@Override
+		protected Object readValue(ResultSet rs, int columnIndex) throws SQLException
+		{
+			return rs.getObject(columnIndex);
+		}
+	};
+
+	/** {@linkplain ResultSet#getDate(int)} */
+	public static final TypedColumnValueReader DATE = new TypedColumnValueReader()
+	{
+		@Override
+		protected Object readValue(ResultSet rs, int columnIndex) throws SQLException
+		{
+			return rs.getDate(columnIndex);
+		}
+	};
+
+	/** {@linkplain ResultSet#getBigDecimal(int)} */
+	public static final TypedColumnValueReader BIG_DECIMAL = new TypedColumnValueReader()
+	{
+		@Override
+		protected Object readValue(ResultSet rs, int columnIndex) throws SQLException
+		{
+			return rs.getBigDecimal(columnIndex);
+		}
+	};
+
+	/** {@linkplain ResultSet#getDouble(int)} */
+	public static final TypedColumnValueReader DOUBLE = new TypedColumnValueReader()
+	{
+		@Override
+		protected Object readValue(ResultSet rs, int columnIndex) throws SQLException
+		{
+			return rs.getDouble(columnIndex);
+		}
+	};
+
+	/** {@linkplain ResultSet#getFloat(int)} */
+	public static final TypedColumnValueReader FLOAT = new TypedColumnValueReader()
+	{
+		@Override
+		protected Object readValue(ResultSet rs, int columnIndex) throws SQLException
+		{
+			return rs.getFloat(columnIndex);
+		}
+	};
+
+	/** {@linkplain ResultSet#getInt(int)} */
+	public static final TypedColumnValueReader INT = new TypedColumnValueReader()
+	{
+		@Override
+		protected Object readValue(ResultSet rs, int columnIndex) throws SQLException
+		{
+			return rs.getInt(columnIndex);
+		}
+	};
+
+	/** {@linkplain ResultSet#getNCharacterStream(int)} */
+	public static final TypedColumnValueReader NCHARACTER_STREAM = new TypedColumnValueReader()
+	{
+		@Override
+		protected Object readValue(ResultSet rs, int columnIndex) throws SQLException
+		{
+			return rs.getNCharacterStream(columnIndex);
+		}
+	};
+
+	/** {@linkplain ResultSet#getBinaryStream(int)} */
+	public static final TypedColumnValueReader BINARY_STREAM = new TypedColumnValueReader()
+	{
+		@Override
+		protected Object readValue(ResultSet rs, int columnIndex) throws SQLException
+		{
+			return rs.getBinaryStream(columnIndex);
+		}
+	};
+
+	/** {@linkplain ResultSet#getCharacterStream(int)} */
+	public static final TypedColumnValueReader CHARACTER_STREAM = new TypedColumnValueReader()
+	{
+		@Override
+		protected Object readValue(ResultSet rs, int columnIndex) throws SQLException
+		{
+			return rs.getCharacterStream(columnIndex);
+		}
+	};
+
+	/** {@linkplain ResultSet#getNString(int)} */
+	public static final TypedColumnValueReader NSTRING = new TypedColumnValueReader()
+	{
+		@Override
+		protected Object readValue(ResultSet rs, int columnIndex) throws SQLException
+		{
+			return rs.getNString(columnIndex);
+		}
+	};
+
+	/** {@linkplain ResultSet#getNClob(int)} */
+	public static final TypedColumnValueReader NCLOB = new TypedColumnValueReader()
+	{
+		@Override
+		protected Object readValue(ResultSet rs, int columnIndex) throws SQLException
+		{
+			return rs.getNClob(columnIndex);
+		}
+	};
+
+	/** {@linkplain ResultSet#getRef(int)} */
+	public static final TypedColumnValueReader REF = new TypedColumnValueReader()
+	{
+		@Override
+		protected Object readValue(ResultSet rs, int columnIndex) throws SQLException
+		{
+			return rs.getRef(columnIndex);
+		}
+	};
+
+	/** {@linkplain ResultSet#getRowId(int)} */
+	public static final TypedColumnValueReader ROWID = new TypedColumnValueReader()
+	{
+		@Override
+		protected Object readValue(ResultSet rs, int columnIndex) throws SQLException
+		{
+			return rs.getRowId(columnIndex);
+		}
+	};
+
+	/** {@linkplain ResultSet#getShort(int)} */
+	public static final TypedColumnValueReader SHORT = new TypedColumnValueReader()
+	{
+		@Override
+		protected Object readValue(ResultSet rs, int columnIndex) throws SQLException
+		{
+			return rs.getShort(columnIndex);
+		}
+	};
+
+	/** {@linkplain ResultSet#getSQLXML(int)} */
+	public static final TypedColumnValueReader SQLXML = new TypedColumnValueReader()
+	{
+		@Override
+		protected Object readValue(ResultSet rs, int columnIndex) throws SQLException
+		{
+			return rs.getSQLXML(columnIndex);
+		}
+	};
+
+	/** {@linkplain ResultSet#getTime(int)} */
+	public static final TypedColumnValueReader TIME = new TypedColumnValueReader()
+	{
+		@Override
+		protected Object readValue(ResultSet rs, int columnIndex) throws SQLException
+		{
+			return rs.getTime(columnIndex);
+		}
+	};
+
+	/** {@linkplain ResultSet#getTimestamp(int)} */
+	public static final TypedColumnValueReader TIMESTAMP = new TypedColumnValueReader()
+	{
+		@Override
+		protected Object readValue(ResultSet rs, int columnIndex) throws SQLException
+		{
+			return rs.getTimestamp(columnIndex);
+		}
+	};
+
+	/** {@linkplain ResultSet#getByte(int)} */
+	public static final TypedColumnValueReader BYTE = new TypedColumnValueReader()
+	{
+		@Override
+		protected Object readValue(ResultSet rs, int columnIndex) throws SQLException
+		{
+			return rs.getByte(columnIndex);
+		}
+	};
+
+	public TypedColumnValueReader()
+	{
+		super();
+	}
+
+	@Override
+	public Object read(Connection cn, ResultSet rs, int columnIndex) throws SQLException
+	{
+		Object value = readValue(rs, columnIndex);
+
+		// 基本类型的读取方法对于SQL的NULL值会返回0、false等默认值
+		if (rs.wasNull())
+			value = null;
+
+		return value;
+	}
+
+	/**
+	 * 读取列值。
+	 * 
+	 * @param rs
+	 * @param columnIndex
+	 *            列索引，以{@code 1}开头
+	 * @return
+	 * @throws SQLException
+	 */
+	protected abstract Object readValue(ResultSet rs, int columnIndex) throws SQLException;
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2018 datagear.org. All Rights Reserved.
+ */
+
+package org.datagear.util.resource;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * GZIP压缩文件字符输出流{@linkplain ResourceFactory}。
+ * <p>
+ * 写入的字符将在输出时直接压缩为GZIP格式存入文件，不会产生未压缩的中间文件。
+ * </p>
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class GzipFileWriterResourceFactory extends FileWriterResourceFactory
+{
+	/** 文件扩展名 */
+	public static final String FILE_EXTENSION = ".gz";
+
+	/** 压缩缓冲字节数 */
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	public GzipFileWriterResourceFactory()
+	{
+		super();
+	}
+
+	public GzipFileWriterResourceFactory(File file)
+	{
+		super(file);
+	}
+
+	@Override
+	protected OutputStream getOutputStream() throws Exception
+	{
+		return new GZIPOutputStream(new FileOutputStream(getFile()), BUFFER_SIZE);
+	}
+
+	/**
+	 * 构建{@linkplain GzipFileWriterResourceFactory}。
+	 * 
+	 * @param file
+	 * @param charsetName
+	 * @return
+	 */
+	public static GzipFileWriterResourceFactory valueOf(File file, String charsetName)
+	{
+		Charset charset = Charset.forName(charsetName);
+
+		GzipFileWriterResourceFactory resourceFactory = new GzipFileWriterResourceFactory(file);
+		resourceFactory.setCharset(charset);
+
+		return resourceFactory;
+	}
+}
@@ -0,0 +1,274 @@
+/*
+ * Copyright 2018 datagear.tech. All Rights Reserved.
+ */
+
+package org.datagear.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * {@linkplain JdbcSupport}单元测试类。
+ *
+ * @author datagear@163.com
+ *
+ */
+public class JdbcSupportTest
+{
+	private static final String URL = "jdbc:derby:memory:jdbcSupportTest";
+
+	private JdbcSupport jdbcSupport = new JdbcSupport();
+
+	@BeforeClass
+	public static void initDatabase() throws Exception
+	{
+		Connection cn = DriverManager.getConnection(URL + ";create=true");
+		Statement st = null;
+		PreparedStatement pst = null;
+
+		try
+		{
+			st = cn.createStatement();
+			st.executeUpdate("CREATE TABLE T_TYPE (ID INTEGER, C_SMALLINT SMALLINT, C_INTEGER INTEGER,"
+					+ " C_BIGINT BIGINT, C_DECIMAL DECIMAL(10, 2), C_REAL REAL, C_DOUBLE DOUBLE, C_CHAR CHAR(3),"
+					+ " C_VARCHAR VARCHAR(10), C_LONG_VARCHAR LONG VARCHAR, C_BINARY CHAR(2) FOR BIT DATA,"
+					+ " C_VARBINARY VARCHAR(4) FOR BIT DATA, C_LONG_VARBINARY LONG VARCHAR FOR BIT DATA,"
+					+ " C_BLOB BLOB, C_CLOB CLOB, C_DATE DATE, C_TIME TIME, C_TIMESTAMP TIMESTAMP, C_BOOLEAN BOOLEAN)");
+
+			pst = cn.prepareStatement(
+					"INSERT INTO T_TYPE VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+			pst.setInt(1, 1);
+			pst.setShort(2, (short) 1);
+			pst.setInt(3, 2);
+			pst.setLong(4, 3L);
+			pst.setBigDecimal(5, new BigDecimal("4.50"));
+			pst.setFloat(6, 5.5F);
+			pst.setDouble(7, 6.5D);
+			pst.setString(8, "abc");
+			pst.setString(9, "def");
+			pst.setString(10, "ghi");
+			pst.setBytes(11, new byte[] { 1, 2 });
+			pst.setBytes(12, new byte[] { 3, 4, 5 });
+			pst.setBytes(13, new byte[] { 6, 7 });
+			pst.setBytes(14, new byte[] { 8, 9 });
+			pst.setString(15, "jkl");
+			pst.setDate(16, Date.valueOf("2020-01-02"));
+			pst.setTime(17, Time.valueOf("03:04:05"));
+			pst.setTimestamp(18, Timestamp.valueOf("2020-01-02 03:04:05"));
+			pst.setBoolean(19, true);
+			pst.executeUpdate();
+
+			st.executeUpdate("INSERT INTO T_TYPE (ID) VALUES (2)");
+		}
+		finally
+		{
+			JdbcUtil.closeStatement(pst);
+			JdbcUtil.closeStatement(st);
+			JdbcUtil.closeConnection(cn);
+		}
+	}
+
+	@AfterClass
+	public static void dropDatabase()
+	{
+		try
+		{
+			DriverManager.getConnection(URL + ";drop=true");
+		}
+		catch (SQLException e)
+		{
+			// 删除内存数据库总是抛出异常
+		}
+	}
+
+	@Test
+	public void isBatchableSqlTest()
+	{
+		assertTrue(jdbcSupport.isBatchableSql("INSERT INTO T VALUES (1)"));
+		assertTrue(jdbcSupport.isBatchableSql("update T set A = 1"));
+		assertTrue(jdbcSupport.isBatchableSql("  Delete FROM T"));
+		assertTrue(jdbcSupport.isBatchableSql("\n\tINSERT\nINTO T VALUES (1)"));
+
+		assertFalse(jdbcSupport.isBatchableSql(null));
+		assertFalse(jdbcSupport.isBatchableSql(""));
+		assertFalse(jdbcSupport.isBatchableSql("SELECT * FROM T"));
+		assertFalse(jdbcSupport.isBatchableSql("CREATE TABLE T (A INT)"));
+		assertFalse(jdbcSupport.isBatchableSql("DROP TABLE T"));
+		assertFalse(jdbcSupport.isBatchableSql("MERGE INTO T USING S ON (T.A = S.A)"));
+		assertFalse(jdbcSupport.isBatchableSql("WITH S AS (SELECT 1 FROM T) SELECT * FROM S"));
+		assertFalse(jdbcSupport.isBatchableSql("INSERTS"));
+		assertFalse(jdbcSupport.isBatchableSql("UPDATE_LOG"));
+		assertFalse(jdbcSupport.isBatchableSql("-- comment\nSELECT * FROM T"));
+	}
+
+	@Test
+	public void getColumnValueReadersTest() throws Exception
+	{
+		Connection cn = DriverManager.getConnection(URL);
+		Statement st = null;
+		ResultSet rs = null;
+
+		try
+		{
+			st = cn.createStatement();
+			rs = st.executeQuery("SELECT * FROM T_TYPE ORDER BY ID");
+
+			SqlType[] sqlTypes = jdbcSupport.getColumnSqlTypes(rs.getMetaData());
+			ColumnValueReader[] readers = jdbcSupport.getColumnValueReaders(sqlTypes);
+
+			assertArrayEquals(new ColumnValueReader[] { TypedColumnValueReader.INT, TypedColumnValueReader.SHORT,
+					TypedColumnValueReader.INT, TypedColumnValueReader.LONG, TypedColumnValueReader.BIG_DECIMAL,
+					TypedColumnValueReader.FLOAT, TypedColumnValueReader.DOUBLE, TypedColumnValueReader.STRING,
+					TypedColumnValueReader.STRING, TypedColumnValueReader.CHARACTER_STREAM,
+					TypedColumnValueReader.BYTES, TypedColumnValueReader.BYTES, TypedColumnValueReader.BINARY_STREAM,
+					TypedColumnValueReader.BLOB, TypedColumnValueReader.CLOB, TypedColumnValueReader.DATE,
+					TypedColumnValueReader.TIME, TypedColumnValueReader.TIMESTAMP, TypedColumnValueReader.BOOLEAN },
+					readers);
+
+			assertTrue(rs.next());
+
+			assertEquals(1, readers[0].read(cn, rs, 1));
+			assertEquals((short) 1, readers[1].read(cn, rs, 2));
+			assertEquals(2, readers[2].read(cn, rs, 3));
+			assertEquals(3L, readers[3].read(cn, rs, 4));
+			assertEquals(new BigDecimal("4.50"), readers[4].read(cn, rs, 5));
+			assertEquals(5.5F, readers[5].read(cn, rs, 6));
+			assertEquals(6.5D, readers[6].read(cn, rs, 7));
+			assertEquals("abc", readers[7].read(cn, rs, 8));
+			assertEquals("def", readers[8].read(cn, rs, 9));
+			assertEquals("ghi", IOUtil.readString((Reader) readers[9].read(cn, rs, 10), true));
+			assertArrayEquals(new byte[] { 1, 2 }, (byte[]) readers[10].read(cn, rs, 11));
+			assertArrayEquals(new byte[] { 3, 4, 5 }, (byte[]) readers[11].read(cn, rs, 12));
+			assertArrayEquals(new byte[] { 6, 7 }, IOUtil.readBytes((InputStream) readers[12].read(cn, rs, 13), true));
+			assertArrayEquals(new byte[] { 8, 9 }, ((Blob) readers[13].read(cn, rs, 14)).getBytes(1, 2));
+			assertEquals("jkl", ((Clob) readers[14].read(cn, rs, 15)).getSubString(1, 3));
+			assertEquals(Date.valueOf("2020-01-02"), readers[15].read(cn, rs, 16));
+			assertEquals(Time.valueOf("03:04:05"), readers[16].read(cn, rs, 17));
+			assertEquals(Timestamp.valueOf("2020-01-02 03:04:05"), readers[17].read(cn, rs, 18));
+			assertEquals(true, readers[18].read(cn, rs, 19));
+
+			// 与按列名读取的值一致
+			for (int i = 0; i < readers.length; i++)
+			{
+				if (sqlTypes[i].getType() == Types.LONGVARCHAR || sqlTypes[i].getType() == Types.LONGVARBINARY
+						|| sqlTypes[i].getType() == Types.BLOB || sqlTypes[i].getType() == Types.CLOB)
+					continue;
+
+				Object expected = jdbcSupport.getColumnValue(cn, rs, rs.getMetaData().getColumnLabel(i + 1),
+						sqlTypes[i].getType());
+				Object actual = readers[i].read(cn, rs, i + 1);
+
+				if (expected instanceof byte[])
+					assertArrayEquals((byte[]) expected, (byte[]) actual);
+				else
+					assertEquals(expected, actual);
+			}
+
+			assertTrue(rs.next());
+
+			assertEquals(2, readers[0].read(cn, rs, 1));
+
+			for (int i = 1; i < readers.length; i++)
+				assertNull(readers[i].read(cn, rs, i + 1));
+
+			assertFalse(rs.next());
+		}
+		finally
+		{
+			JdbcUtil.closeResultSet(rs);
+			JdbcUtil.closeStatement(st);
+			JdbcUtil.closeConnection(cn);
+		}
+	}
+
+	@Test
+	public void getColumnValueReaderTest_ext() throws Exception
+	{
+		List<String> columnNames = new ArrayList<>();
+
+		JdbcSupport jdbcSupport = new JdbcSupport()
+		{
+			@Override
+			protected Object getColumnValueExt(Connection cn, ResultSet rs, String columnName, int sqlType)
+					throws SQLException
+			{
+				columnNames.add(columnName);
+				return rs.getString(columnName);
+			}
+		};
+
+		Connection cn = DriverManager.getConnection(URL);
+		Statement st = null;
+		ResultSet rs = null;
+
+		try
+		{
+			st = cn.createStatement();
+			rs = st.executeQuery("SELECT ID, C_VARCHAR AS NAME FROM T_TYPE ORDER BY ID");
+
+			int[] metaDataCount = new int[1];
+			ResultSet rsFinal = rs;
+			ResultSet countingRs = (ResultSet) Proxy.newProxyInstance(getClass().getClassLoader(),
+					new Class<?>[] { ResultSet.class }, (proxy, method, args) ->
+					{
+						if ("getMetaData".equals(method.getName()))
+							metaDataCount[0]++;
+
+						try
+						{
+							return method.invoke(rsFinal, args);
+						}
+						catch (InvocationTargetException e)
+						{
+							throw e.getCause();
+						}
+					});
+
+			ColumnValueReader reader = jdbcSupport.getColumnValueReader(Types.NULL);
+
+			assertTrue(countingRs.next());
+			assertEquals("def", reader.read(cn, countingRs, 2));
+			assertTrue(countingRs.next());
+			assertNull(reader.read(cn, countingRs, 2));
+
+			// 列标签仅获取一次
+			assertEquals(1, metaDataCount[0]);
+			assertEquals(2, columnNames.size());
+			assertEquals("NAME", columnNames.get(0));
+			assertEquals("NAME", columnNames.get(1));
+		}
+		finally
+		{
+			JdbcUtil.closeResultSet(rs);
+			JdbcUtil.closeStatement(st);
+			JdbcUtil.closeConnection(cn);
+		}
+	}
+}
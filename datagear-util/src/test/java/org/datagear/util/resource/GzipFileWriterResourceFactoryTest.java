@@ -0,0 +1,78 @@
+/*
+ * Copyright 2018 datagear.tech. All Rights Reserved.
+ */
+
+package org.datagear.util.resource;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.InputStream;
+import java.io.Writer;
+import java.util.zip.GZIPInputStream;
+
+import org.datagear.util.FileUtil;
+import org.datagear.util.IOUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * {@linkplain GzipFileWriterResourceFactory}单元测试类。
+ *
+ * @author datagear@163.com
+ *
+ */
+public class GzipFileWriterResourceFactoryTest
+{
+	private File directory;
+
+	@Before
+	public void init()
+	{
+		this.directory = FileUtil.getDirectory("target/GzipFileWriterResourceFactoryTest/");
+	}
+
+	@After
+	public void destroy()
+	{
+		FileUtil.deleteFile(this.directory);
+	}
+
+	@Test
+	public void getTest() throws Exception
+	{
+		File file = FileUtil.getFile(this.directory, "test.csv" + GzipFileWriterResourceFactory.FILE_EXTENSION);
+
+		StringBuilder sb = new StringBuilder();
+
+		// 内容超过压缩缓冲字节数
+		for (int i = 0; i < 10000; i++)
+			sb.append(i).append(",名称-").append(i).append("\r\n");
+
+		String content = sb.toString();
+
+		GzipFileWriterResourceFactory resourceFactory = GzipFileWriterResourceFactory.valueOf(file, "GBK");
+
+		Writer writer = resourceFactory.get();
+
+		try
+		{
+			writer.write(content);
+		}
+		finally
+		{
+			resourceFactory.release(writer);
+		}
+
+		InputStream in = IOUtil.getInputStream(file);
+
+		// GZIP格式文件头
+		assertEquals(0x1f, in.read());
+		assertEquals(0x8b, in.read());
+
+		IOUtil.close(in);
+
+		assertEquals(content, IOUtil.readString(new GZIPInputStream(IOUtil.getInputStream(file)), "GBK", true));
+	}
+}
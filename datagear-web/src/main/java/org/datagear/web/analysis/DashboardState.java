@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2018 datagear.tech. All Rights Reserved.
+ */
+
+package org.datagear.web.analysis;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.datagear.analysis.Chart;
+import org.datagear.analysis.ChartDataSet;
+import org.datagear.analysis.Dashboard;
+
+/**
+ * 看板状态。
+ * <p>
+ * 它是已渲染看板的紧凑、可序列化表示形式，仅保存图表ID、以及图表数据集ID和参数值，
+ * 看板数据请求时，再依此重建{@linkplain Dashboard}、{@linkplain Chart}、{@linkplain ChartDataSet}这些重量级对象。
+ * </p>
+ * <p>
+ * 此类是不可变的，因此可以在线程间安全地共享。
+ * </p>
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class DashboardState implements Serializable
+{
+	private static final long serialVersionUID = 1L;
+
+	private final String id;
+
+	/** 加载图表部件时用于权限校验的用户ID */
+	private final String chartWidgetUserId;
+
+	private final List<ChartState> chartStates;
+
+	public DashboardState(String id, String chartWidgetUserId, List<ChartState> chartStates)
+	{
+		super();
+		this.id = id;
+		this.chartWidgetUserId = chartWidgetUserId;
+		this.chartStates = Collections.unmodifiableList(new ArrayList<>(chartStates));
+	}
+
+	public String getId()
+	{
+		return id;
+	}
+
+	public String getChartWidgetUserId()
+	{
+		return chartWidgetUserId;
+	}
+
+	public List<ChartState> getChartStates()
+	{
+		return chartStates;
+	}
+
+	/**
+	 * 返回添加了指定{@linkplain ChartState}的新{@linkplain DashboardState}。
+	 * 
+	 * @param chartState
+	 * @return
+	 */
+	public DashboardState addChartState(ChartState chartState)
+	{
+		List<ChartState> chartStates = new ArrayList<>(this.chartStates.size() + 1);
+		chartStates.addAll(this.chartStates);
+		chartStates.add(chartState);
+
+		return new DashboardState(this.id, this.chartWidgetUserId, chartStates);
+	}
+
+	@Override
+	public String toString()
+	{
+		return getClass().getSimpleName() + " [id=" + id + ", chartWidgetUserId=" + chartWidgetUserId
+				+ ", chartStates=" + chartStates + "]";
+	}
+
+	/**
+	 * 由{@linkplain Dashboard}构建{@linkplain DashboardState}。
+	 * 
+	 * @param dashboard
+	 * @param chartWidgetUserId
+	 * @return
+	 */
+	public static DashboardState valueOf(Dashboard dashboard, String chartWidgetUserId)
+	{
+		List<Chart> charts = dashboard.getCharts();
+
+		List<ChartState> chartStates = new ArrayList<>(charts == null ? 0 : charts.size());
+
+		if (charts != null)
+		{
+			for (Chart chart : charts)
+				chartStates.add(ChartState.valueOf(chart));
+		}
+
+		return new DashboardState(dashboard.getId(), chartWidgetUserId, chartStates);
+	}
+
+	/**
+	 * 图表状态。
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	public static class ChartState implements Serializable
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final String id;
+
+		private final List<ChartDataSetState> chartDataSetStates;
+
+		public ChartState(String id, List<ChartDataSetState> chartDataSetStates)
+		{
+			super();
+			this.id = id;
+			this.chartDataSetStates = Collections.unmodifiableList(new ArrayList<>(chartDataSetStates));
+		}
+
+		public String getId()
+		{
+			return id;
+		}
+
+		public List<ChartDataSetState> getChartDataSetStates()
+		{
+			return chartDataSetStates;
+		}
+
+		@Override
+		public String toString()
+		{
+			return getClass().getSimpleName() + " [id=" + id + ", chartDataSetStates=" + chartDataSetStates + "]";
+		}
+
+		/**
+		 * 由{@linkplain Chart}构建{@linkplain ChartState}。
+		 * 
+		 * @param chart
+		 * @return
+		 */
+		public static ChartState valueOf(Chart chart)
+		{
+			ChartDataSet[] chartDataSets = chart.getChartDataSets();
+
+			List<ChartDataSetState> chartDataSetStates = new ArrayList<>(
+					chartDataSets == null ? 0 : chartDataSets.length);
+
+			if (chartDataSets != null)
+			{
+				for (ChartDataSet chartDataSet : chartDataSets)
+					chartDataSetStates.add(new ChartDataSetState(chartDataSet.getDataSet().getId(),
+							chartDataSet.getParamValues()));
+			}
+
+			return new ChartState(chart.getId(), chartDataSetStates);
+		}
+	}
+
+	/**
+	 * 图表数据集状态。
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	public static class ChartDataSetState implements Serializable
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final String dataSetId;
+
+		/** 参数值，它们来自JSON，是可序列化的 */
+		private final HashMap<String, Object> paramValues;
+
+		public ChartDataSetState(String dataSetId, Map<String, ?> paramValues)
+		{
+			super();
+			this.dataSetId = dataSetId;
+			this.paramValues = (paramValues == null ? new HashMap<String, Object>()
+					: new HashMap<String, Object>(paramValues));
+		}
+
+		public String getDataSetId()
+		{
+			return dataSetId;
+		}
+
+		public Map<String, Object> getParamValues()
+		{
+			return Collections.unmodifiableMap(this.paramValues);
+		}
+
+		@Override
+		public String toString()
+		{
+			return getClass().getSimpleName() + " [dataSetId=" + dataSetId + ", paramValues=" + paramValues + "]";
+		}
+	}
+}
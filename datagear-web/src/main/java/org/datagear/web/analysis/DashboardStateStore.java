@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2018 datagear.tech. All Rights Reserved.
+ */
+
+package org.datagear.web.analysis;
+
+import org.datagear.web.analysis.DashboardState.ChartState;
+
+/**
+ * {@linkplain DashboardState}存储。
+ * <p>
+ * 它以用户ID、看板ID存储已渲染看板的{@linkplain DashboardState}，使看板数据请求不再依赖HTTP会话，
+ * 实现类可以基于内存，也可以基于共享存储（比如嵌入式键值库）以支持多节点部署，此时可将{@linkplain DashboardState}序列化存储。
+ * </p>
+ * <p>
+ * 此类的实现应是线程安全的。
+ * </p>
+ * 
+ * @author datagear@163.com
+ *
+ */
+public interface DashboardStateStore
+{
+	/**
+	 * 存储{@linkplain DashboardState}，已存在则替换。
+	 * 
+	 * @param userId
+	 * @param dashboardState
+	 */
+	void put(String userId, DashboardState dashboardState);
+
+	/**
+	 * 获取{@linkplain DashboardState}，没有则返回{@code null}。
+	 * 
+	 * @param userId
+	 * @param dashboardId
+	 * @return
+	 */
+	DashboardState get(String userId, String dashboardId);
+
+	/**
+	 * 为已存储的{@linkplain DashboardState}添加{@linkplain ChartState}。
+	 * <p>
+	 * 实现类应保证此操作是原子的，避免并发添加时丢失。
+	 * </p>
+	 * 
+	 * @param userId
+	 * @param dashboardId
+	 * @param chartState
+	 * @return {@code false} 没有对应的{@linkplain DashboardState}
+	 */
+	boolean addChartState(String userId, String dashboardId, ChartState chartState);
+}
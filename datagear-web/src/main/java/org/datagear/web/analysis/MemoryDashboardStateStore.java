@@ -0,0 +1,254 @@
+/*
+ * Copyright (c) 2018 datagear.tech. All Rights Reserved.
+ */
+
+package org.datagear.web.analysis;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.datagear.web.analysis.DashboardState.ChartState;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+
+/**
+ * 基于内存的{@linkplain DashboardStateStore}。
+ * <p>
+ * 它按照最近最少使用原则淘汰{@linkplain DashboardState}，每个用户的数目不会超过{@linkplain #getMaxPerUser()}，
+ * 总数目不会超过{@linkplain #getMaximumSize()}。
+ * </p>
+ * <p>
+ * 总数目淘汰由分段加锁的{@linkplain Cache}负责，每个用户的数目淘汰由按用户划分、按照访问顺序排列的标识集合负责，
+ * 两者的淘汰操作都是常数时间的，且不同用户之间不会竞争同一个锁。
+ * </p>
+ * <p>
+ * 此类是线程安全的。
+ * </p>
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class MemoryDashboardStateStore implements DashboardStateStore
+{
+	/** 每个用户的最大数目 */
+	private int maxPerUser = 50;
+
+	/** 最大总数目 */
+	private int maximumSize = 10000;
+
+	private volatile Cache<StoreKey, DashboardState> _dashboardStates = null;
+
+	/** 用户的看板标识，按照访问顺序排列 */
+	private final ConcurrentMap<String, LinkedHashMap<String, Boolean>> _userDashboardIds = new ConcurrentHashMap<>();
+
+	public MemoryDashboardStateStore()
+	{
+		super();
+	}
+
+	public int getMaxPerUser()
+	{
+		return maxPerUser;
+	}
+
+	public void setMaxPerUser(int maxPerUser)
+	{
+		this.maxPerUser = maxPerUser;
+	}
+
+	public int getMaximumSize()
+	{
+		return maximumSize;
+	}
+
+	public void setMaximumSize(int maximumSize)
+	{
+		this.maximumSize = maximumSize;
+	}
+
+	@Override
+	public void put(String userId, DashboardState dashboardState)
+	{
+		String dashboardId = dashboardState.getId();
+
+		getDashboardStates().put(new StoreKey(userId, dashboardId), dashboardState);
+
+		String[] eldest = new String[1];
+
+		this._userDashboardIds.compute(userId, (k, dashboardIds) ->
+		{
+			if (dashboardIds == null)
+				dashboardIds = new LinkedHashMap<>(16, 0.75f, true);
+
+			dashboardIds.put(dashboardId, Boolean.TRUE);
+
+			if (dashboardIds.size() > this.maxPerUser)
+			{
+				Iterator<String> it = dashboardIds.keySet().iterator();
+				eldest[0] = it.next();
+				it.remove();
+			}
+
+			return dashboardIds;
+		});
+
+		if (eldest[0] != null)
+			getDashboardStates().invalidate(new StoreKey(userId, eldest[0]));
+	}
+
+	@Override
+	public DashboardState get(String userId, String dashboardId)
+	{
+		DashboardState dashboardState = getDashboardStates().getIfPresent(new StoreKey(userId, dashboardId));
+
+		if (dashboardState != null)
+			touchUserDashboardId(userId, dashboardId);
+
+		return dashboardState;
+	}
+
+	@Override
+	public boolean addChartState(String userId, String dashboardId, ChartState chartState)
+	{
+		DashboardState dashboardState = getDashboardStates().asMap()
+				.computeIfPresent(new StoreKey(userId, dashboardId), (k, v) -> v.addChartState(chartState));
+
+		if (dashboardState == null)
+			return false;
+
+		touchUserDashboardId(userId, dashboardId);
+
+		return true;
+	}
+
+	/**
+	 * 获取当前总数目。
+	 * 
+	 * @return
+	 */
+	public int size()
+	{
+		return (int) getDashboardStates().size();
+	}
+
+	protected Cache<StoreKey, DashboardState> getDashboardStates()
+	{
+		Cache<StoreKey, DashboardState> dashboardStates = this._dashboardStates;
+
+		if (dashboardStates == null)
+		{
+			synchronized (this)
+			{
+				dashboardStates = this._dashboardStates;
+
+				if (dashboardStates == null)
+				{
+					dashboardStates = CacheBuilder.newBuilder().maximumSize(this.maximumSize)
+							.<StoreKey, DashboardState> removalListener(n ->
+							{
+								if (n.getCause() != RemovalCause.REPLACED)
+									removeUserDashboardId(n.getKey());
+							}).build();
+
+					this._dashboardStates = dashboardStates;
+				}
+			}
+		}
+
+		return dashboardStates;
+	}
+
+	/**
+	 * 将用户的看板标识设为最近使用的。
+	 * 
+	 * @param userId
+	 * @param dashboardId
+	 */
+	protected void touchUserDashboardId(String userId, String dashboardId)
+	{
+		this._userDashboardIds.computeIfPresent(userId, (k, dashboardIds) ->
+		{
+			dashboardIds.get(dashboardId);
+			return dashboardIds;
+		});
+	}
+
+	/**
+	 * 移除用户的看板标识，用户已没有看板时，也将移除用户。
+	 * 
+	 * @param key
+	 */
+	protected void removeUserDashboardId(StoreKey key)
+	{
+		this._userDashboardIds.computeIfPresent(key.getUserId(), (k, dashboardIds) ->
+		{
+			dashboardIds.remove(key.getDashboardId());
+			return (dashboardIds.isEmpty() ? null : dashboardIds);
+		});
+	}
+
+	protected static class StoreKey
+	{
+		private final String userId;
+
+		private final String dashboardId;
+
+		public StoreKey(String userId, String dashboardId)
+		{
+			super();
+			this.userId = userId;
+			this.dashboardId = dashboardId;
+		}
+
+		public String getUserId()
+		{
+			return userId;
+		}
+
+		public String getDashboardId()
+		{
+			return dashboardId;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			final int prime = 31;
+			int result = 1;
+			result = prime * result + ((userId == null) ? 0 : userId.hashCode());
+			result = prime * result + ((dashboardId == null) ? 0 : dashboardId.hashCode());
+			return result;
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (this == obj)
+				return true;
+			if (obj == null)
+				return false;
+			if (getClass() != obj.getClass())
+				return false;
+			StoreKey other = (StoreKey) obj;
+			if (userId == null)
+			{
+				if (other.userId != null)
+					return false;
+			}
+			else if (!userId.equals(other.userId))
+				return false;
+			if (dashboardId == null)
+			{
+				if (other.dashboardId != null)
+					return false;
+			}
+			else if (!dashboardId.equals(other.dashboardId))
+				return false;
+			return true;
+		}
+	}
+}
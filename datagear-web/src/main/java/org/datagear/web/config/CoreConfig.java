@@ -12,12 +12,26 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
+import org.apache.hc.client5.http.config.RequestConfig;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.io.SocketConfig;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
 import org.apache.ibatis.session.SqlSessionFactory;
+import org.datagear.analysis.ColumnarDataSetResult;
 import org.datagear.analysis.TemplateDashboardWidgetResManager;
+import org.datagear.analysis.support.DashboardDataSetResultResolver;
+import org.datagear.analysis.support.DataSetResultCache;
 import org.datagear.analysis.support.FileTemplateDashboardWidgetResManager;
+import org.datagear.analysis.support.HttpDataSetResponseCache;
 import org.datagear.analysis.support.NameAsTemplateDashboardWidgetResManager;
 import org.datagear.analysis.support.html.DirectoryHtmlChartPluginManager;
 import org.datagear.analysis.support.html.HtmlTplDashboardImport;
@@ -34,8 +48,11 @@ import org.datagear.dataexchange.BatchDataExchange;
 import org.datagear.dataexchange.BatchDataExchangeService;
 import org.datagear.dataexchange.DevotedDataExchangeService;
 import org.datagear.dataexchange.GenericDataExchangeService;
+import org.datagear.dataexchange.AbstractDevotedDBMetaDataExchangeService;
+import org.datagear.dataexchange.SubDataExchangeScheduler;
 import org.datagear.dataexchange.support.CsvDataExportService;
 import org.datagear.dataexchange.support.CsvDataImportService;
+import org.datagear.dataexchange.support.DbDataImportService;
 import org.datagear.dataexchange.support.ExcelDataExportService;
 import org.datagear.dataexchange.support.ExcelDataImportService;
 import org.datagear.dataexchange.support.JsonDataExportService;
@@ -55,6 +72,7 @@ import org.datagear.management.service.RoleUserService;
 import org.datagear.management.service.SchemaService;
 import org.datagear.management.service.SqlHistoryService;
 import org.datagear.management.service.UserService;
+import org.datagear.management.service.impl.AnalysisEntityCache;
 import org.datagear.management.service.impl.AnalysisProjectServiceImpl;
 import org.datagear.management.service.impl.AuthorizationServiceImpl;
 import org.datagear.management.service.impl.DataSetEntityServiceImpl;
@@ -67,6 +85,7 @@ import org.datagear.management.service.impl.SchemaServiceImpl;
 import org.datagear.management.service.impl.SqlHistoryServiceImpl;
 import org.datagear.management.service.impl.UserPasswordEncoder;
 import org.datagear.management.service.impl.UserServiceImpl;
+import org.datagear.management.util.DialectMaxRowsQuerySqlResolver;
 import org.datagear.meta.resolver.DBMetaResolver;
 import org.datagear.meta.resolver.GenericDBMetaResolver;
 import org.datagear.persistence.DialectSource;
@@ -75,10 +94,13 @@ import org.datagear.persistence.support.DefaultDialectSource;
 import org.datagear.persistence.support.DefaultPersistenceManager;
 import org.datagear.persistence.support.SqlSelectManager;
 import org.datagear.util.IOUtil;
+import org.datagear.web.analysis.DashboardStateStore;
+import org.datagear.web.analysis.MemoryDashboardStateStore;
 import org.datagear.web.format.DateFormatter;
 import org.datagear.web.format.SqlDateFormatter;
 import org.datagear.web.format.SqlTimeFormatter;
 import org.datagear.web.format.SqlTimestampFormatter;
+import org.datagear.web.json.jackson.ColumnarDataSetResultSerializer;
 import org.datagear.web.json.jackson.LocaleDateSerializer;
 import org.datagear.web.json.jackson.LocaleSqlDateSerializer;
 import org.datagear.web.json.jackson.LocaleSqlTimeSerializer;
@@ -92,6 +114,7 @@ import org.datagear.web.util.DirectoryFactory;
 import org.datagear.web.util.DirectoryHtmlChartPluginManagerInitializer;
 import org.datagear.web.util.SqlDriverChecker;
 import org.datagear.web.util.TableCache;
+import org.datagear.web.util.TableCatalogCache;
 import org.datagear.web.util.XmlDriverEntityManagerInitializer;
 import org.mybatis.spring.SqlSessionFactoryBean;
 import org.springframework.beans.factory.BeanInitializationException;
@@ -224,6 +247,8 @@ public class CoreConfig implements InitializingBean
 		jsonSerializerConfigs.add(new JsonSerializerConfig(java.sql.Date.class, localeSqlDateSerializer));
 		jsonSerializerConfigs.add(new JsonSerializerConfig(java.sql.Time.class, localeSqlTimeSerializer));
 		jsonSerializerConfigs.add(new JsonSerializerConfig(java.sql.Timestamp.class, localeSqlTimestampSerializer));
+		jsonSerializerConfigs
+				.add(new JsonSerializerConfig(ColumnarDataSetResult.class, new ColumnarDataSetResultSerializer()));
 
 		bean.setJsonSerializerConfigs(jsonSerializerConfigs);
 
@@ -269,7 +294,35 @@ public class CoreConfig implements InitializingBean
 	@Bean
 	public CloseableHttpClient httpClient()
 	{
-		return HttpClients.createDefault();
+		int connectTimeout = environment.getProperty("httpClient.connectTimeoutSeconds", Integer.class, 10);
+		int readTimeout = environment.getProperty("httpClient.readTimeoutSeconds", Integer.class, 30);
+
+		PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+				.setMaxConnTotal(environment.getProperty("httpClient.maxTotal", Integer.class, 200))
+				.setMaxConnPerRoute(environment.getProperty("httpClient.maxPerRoute", Integer.class, 20))
+				.setDefaultSocketConfig(SocketConfig.custom().setSoTimeout(Timeout.ofSeconds(readTimeout)).build())
+				.setValidateAfterInactivity(TimeValue.ofSeconds(5)).build();
+
+		RequestConfig requestConfig = RequestConfig.custom().setConnectTimeout(Timeout.ofSeconds(connectTimeout))
+				.setResponseTimeout(Timeout.ofSeconds(readTimeout))
+				.setConnectionRequestTimeout(Timeout.ofSeconds(connectTimeout)).build();
+
+		return HttpClients.custom().setConnectionManager(connectionManager).setDefaultRequestConfig(requestConfig)
+				.evictExpiredConnections()
+				.evictIdleConnections(
+						TimeValue.ofSeconds(environment.getProperty("httpClient.idleSeconds", Integer.class, 60)))
+				.build();
+	}
+
+	@Bean(initMethod = "init")
+	public HttpDataSetResponseCache httpDataSetResponseCache()
+	{
+		HttpDataSetResponseCache bean = new HttpDataSetResponseCache();
+		bean.setMaximumWeight(
+				environment.getProperty("httpDataSetResponseCache.maximumWeight", Long.class, 32L * 1024 * 1024));
+		bean.setMaxEntryWeight(
+				environment.getProperty("httpDataSetResponseCache.maxEntryWeight", Long.class, 1024L * 1024));
+		return bean;
 	}
 
 	protected File createDirectory(String directoryName, boolean createIfInexistence)
@@ -349,6 +402,10 @@ public class CoreConfig implements InitializingBean
 				Arrays.asList(new MySqlDevotedPropertiesProcessor(), new OracleDevotedPropertiesProcessor()));
 
 		bean.setPropertiesProcessor(genericPropertiesProcessor);
+		bean.setPoolPreparedStatements(
+				environment.getProperty("connectionSource.poolPreparedStatements", Boolean.class, false));
+		bean.setMaxOpenPreparedStatements(
+				environment.getProperty("connectionSource.maxOpenPreparedStatements", Integer.class, 50));
 
 		return bean;
 	}
@@ -360,6 +417,15 @@ public class CoreConfig implements InitializingBean
 		return bean;
 	}
 
+	@Bean(initMethod = "init", destroyMethod = "destroy")
+	public TableCatalogCache tableCatalogCache()
+	{
+		TableCatalogCache bean = new TableCatalogCache();
+		bean.setRefreshAfterSeconds(environment.getProperty("tableCatalog.refreshAfterSeconds", Integer.class,
+				bean.getRefreshAfterSeconds()));
+		return bean;
+	}
+
 	@Bean
 	public DialectSource dialectSource()
 	{
@@ -371,6 +437,13 @@ public class CoreConfig implements InitializingBean
 	public PersistenceManager persistenceManager()
 	{
 		DefaultPersistenceManager bean = new DefaultPersistenceManager(this.dialectSource());
+
+		bean.setKeysetPaging(environment.getProperty("dataPaging.keyset", Boolean.class, true));
+		bean.setKeysetDefaultOrder(environment.getProperty("dataPaging.keysetDefaultOrder", Boolean.class, false));
+		bean.setCountCacheSeconds(environment.getProperty("dataPaging.countCacheSeconds", Integer.class, 0));
+		bean.setEstimatedTotalThreshold(
+				environment.getProperty("dataPaging.estimatedTotalThreshold", Long.class, 0L));
+
 		return bean;
 	}
 
@@ -412,6 +485,7 @@ public class CoreConfig implements InitializingBean
 	{
 		SchemaServiceImpl bean = new SchemaServiceImpl(this.sqlSessionFactory(), this.driverEntityManager(),
 				this.authorizationService());
+		bean.setAnalysisEntityCache(this.analysisEntityCache());
 
 		return bean;
 	}
@@ -443,6 +517,28 @@ public class CoreConfig implements InitializingBean
 	{
 		DataSetEntityServiceImpl bean = new DataSetEntityServiceImpl(this.sqlSessionFactory(), this.connectionSource(),
 				this.schemaService(), this.authorizationService(), this.dataSetRootDirectory(), this.httpClient());
+		bean.setDataSetResultCache(this.dataSetResultCache());
+		bean.setHttpDataSetResponseCache(this.httpDataSetResponseCache());
+		bean.setAnalysisEntityCache(this.analysisEntityCache());
+		bean.setMaxRowsQuerySqlResolver(new DialectMaxRowsQuerySqlResolver(this.dialectSource()));
+		return bean;
+	}
+
+	@Bean
+	public AnalysisEntityCache analysisEntityCache()
+	{
+		AnalysisEntityCache bean = new AnalysisEntityCache();
+		bean.setMaximumSize(environment.getProperty("analysisEntityCache.maximumSize", Integer.class, 1000));
+		return bean;
+	}
+
+	@Bean(initMethod = "init")
+	public DataSetResultCache dataSetResultCache()
+	{
+		DataSetResultCache bean = new DataSetResultCache();
+		bean.setMaximumSize(environment.getProperty("dataSetResultCache.maximumSize", Integer.class, 500));
+		bean.setMaxExpireSeconds(
+				environment.getProperty("dataSetResultCache.maxExpireSeconds", Integer.class, 60 * 60 * 24));
 		return bean;
 	}
 
@@ -474,6 +570,7 @@ public class CoreConfig implements InitializingBean
 	{
 		HtmlChartWidgetEntityServiceImpl bean = new HtmlChartWidgetEntityServiceImpl(this.sqlSessionFactory(),
 				this.directoryHtmlChartPluginManager(), this.dataSetEntityService(), this.authorizationService());
+		bean.setAnalysisEntityCache(this.analysisEntityCache());
 
 		return bean;
 	}
@@ -502,6 +599,8 @@ public class CoreConfig implements InitializingBean
 		bean.setDashboardImports(this.buildHtmlTplDashboardWidgetRendererd_dshboardImports());
 		bean.setImportHtmlChartPluginVarNameResolver(
 				this.buildHtmlTplDashboardWidgetRendererd_importHtmlChartPluginVarNameResolver());
+		bean.setCompiledHtmlTplCacheMaximumSize(
+				environment.getProperty("dashboard.compiledTemplateCache.maximumSize", Integer.class, 500));
 
 		return bean;
 	}
@@ -581,6 +680,38 @@ public class CoreConfig implements InitializingBean
 		return resolver;
 	}
 
+	@Bean
+	public DashboardStateStore dashboardStateStore()
+	{
+		MemoryDashboardStateStore bean = new MemoryDashboardStateStore();
+		bean.setMaxPerUser(environment.getProperty("dashboard.state.maxPerUser", Integer.class, 50));
+		bean.setMaximumSize(environment.getProperty("dashboard.state.maximumSize", Integer.class, 10000));
+
+		return bean;
+	}
+
+	@Bean(destroyMethod = "shutdown")
+	public DashboardDataSetResultResolver dashboardDataSetResultResolver()
+	{
+		DashboardDataSetResultResolver bean = new DashboardDataSetResultResolver();
+
+		int threads = environment.getProperty("dashboard.dataSetResult.threads", Integer.class, 0);
+
+		if (threads > 0)
+		{
+			int queueSize = environment.getProperty("dashboard.dataSetResult.queueSize", Integer.class, 100);
+
+			// 队列已满时由请求线程自己执行，保证并行度有界
+			ThreadPoolExecutor executorService = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+					new ArrayBlockingQueue<Runnable>(queueSize), new ThreadPoolExecutor.CallerRunsPolicy());
+			executorService.allowCoreThreadTimeOut(true);
+
+			bean.setExecutorService(executorService);
+		}
+
+		return bean;
+	}
+
 	@Bean
 	public HtmlTplDashboardWidgetEntityService htmlTplDashboardWidgetEntityService()
 	{
@@ -624,11 +755,17 @@ public class CoreConfig implements InitializingBean
 		return bean;
 	}
 
-	@Bean
+	@Bean(initMethod = "init", destroyMethod = "shutdown")
 	public SqlpadExecutionService sqlpadExecutionService()
 	{
 		SqlpadExecutionService bean = new SqlpadExecutionService(this.connectionSource(), this.messageSource(),
 				this.sqlHistoryService(), this.sqlSelectManager());
+
+		bean.setCursorIdleSeconds(environment.getProperty("sqlpad.cursor.idleSeconds", Integer.class, 30));
+		bean.setCursorMaxPerUser(environment.getProperty("sqlpad.cursor.maxPerUser", Integer.class, 0));
+		bean.setCursorMaxTotal(environment.getProperty("sqlpad.cursor.maxTotal", Integer.class, 4));
+		bean.setBatchSize(environment.getProperty("sqlpad.batchSize", Integer.class, 0));
+
 		return bean;
 	}
 
@@ -638,22 +775,52 @@ public class CoreConfig implements InitializingBean
 		List<DevotedDataExchangeService<?>> bean = new ArrayList<>();
 
 		bean.add(new CsvDataImportService(this.dbMetaResolver()));
-		bean.add(new CsvDataExportService(this.dbMetaResolver()));
+		bean.add(initPartitionExport(new CsvDataExportService(this.dbMetaResolver())));
 		bean.add(new SqlDataImportService());
 		bean.add(new SqlDataExportService(this.dbMetaResolver()));
 		bean.add(new ExcelDataImportService(this.dbMetaResolver()));
 		bean.add(new ExcelDataExportService(this.dbMetaResolver()));
 		bean.add(new JsonDataImportService(this.dbMetaResolver()));
-		bean.add(new JsonDataExportService(this.dbMetaResolver()));
+		bean.add(initPartitionExport(new JsonDataExportService(this.dbMetaResolver())));
+		bean.add(new DbDataImportService(this.dbMetaResolver()));
+
+		return bean;
+	}
+
+	@Bean(destroyMethod = "shutdown")
+	public ExecutorService dataExportPartitionExecutor()
+	{
+		int threads = Math.max(environment.getProperty("dataExchange.partitionThreads", Integer.class, 4), 1);
+
+		// 所有分区导出共享，队列已满时由导出线程自己执行，保证数据库连接数有界
+		ThreadPoolExecutor bean = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<Runnable>(100), new ThreadPoolExecutor.CallerRunsPolicy());
+		bean.allowCoreThreadTimeOut(true);
 
 		return bean;
 	}
 
+	protected <T extends AbstractDevotedDBMetaDataExchangeService<?>> T initPartitionExport(T service)
+	{
+		if (environment.getProperty("dataExchange.partitionThreads", Integer.class, 4) > 0)
+			service.setPartitionExecutor(this.dataExportPartitionExecutor());
+
+		service.setMaxPartitionCount(environment.getProperty("dataExchange.maxPartitionCount", Integer.class,
+				AbstractDevotedDBMetaDataExchangeService.DEFAULT_MAX_PARTITION_COUNT));
+
+		return service;
+	}
+
 	@Bean(destroyMethod = "shutdown")
 	public BatchDataExchangeService<BatchDataExchange> batchDataExchangeService()
 	{
 		BatchDataExchangeService<BatchDataExchange> bean = new BatchDataExchangeService<>();
 		bean.setSubDataExchangeService(this.dataExchangeService());
+		bean.setScheduler(new SubDataExchangeScheduler(
+				environment.getProperty("dataExchange.maxConcurrency", Integer.class,
+						SubDataExchangeScheduler.DEFAULT_MAX_CONCURRENCY),
+				environment.getProperty("dataExchange.maxSchemaConcurrency", Integer.class,
+						SubDataExchangeScheduler.DEFAULT_MAX_GROUP_CONCURRENCY)));
 		return bean;
 	}
 
@@ -8,7 +8,6 @@
 package org.datagear.web.controller;
 
 import java.io.IOException;
-import java.io.Serializable;
 import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -22,25 +21,33 @@ import java.util.Set;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import javax.servlet.http.HttpSession;
 
 import org.datagear.analysis.Chart;
 import org.datagear.analysis.ChartDataSet;
+import org.datagear.analysis.ColumnarDataSetResult;
 import org.datagear.analysis.Dashboard;
 import org.datagear.analysis.DashboardTheme;
 import org.datagear.analysis.DashboardThemeSource;
+import org.datagear.analysis.DataSet;
 import org.datagear.analysis.DataSetParam;
 import org.datagear.analysis.DataSetResult;
 import org.datagear.analysis.RenderContext;
+import org.datagear.analysis.support.DashboardDataSetResultResolver;
 import org.datagear.analysis.support.DataSetParamValueConverter;
 import org.datagear.analysis.support.DefaultRenderContext;
 import org.datagear.analysis.support.SimpleDashboardThemeSource;
-import org.datagear.analysis.support.html.HtmlTplDashboard;
 import org.datagear.analysis.support.html.HtmlTplDashboardRenderAttr;
 import org.datagear.analysis.support.html.HtmlTplDashboardRenderAttr.WebContext;
 import org.datagear.analysis.support.html.HtmlTplDashboardWidgetRenderer;
+import org.datagear.management.domain.User;
+import org.datagear.management.service.DataSetEntityService;
 import org.datagear.util.StringUtil;
+import org.datagear.web.analysis.DashboardState;
+import org.datagear.web.analysis.DashboardState.ChartDataSetState;
+import org.datagear.web.analysis.DashboardState.ChartState;
+import org.datagear.web.analysis.DashboardStateStore;
 import org.datagear.web.util.WebUtils;
+import org.springframework.beans.factory.annotation.Autowired;
 
 /**
  * 抽象数据分析控制器。
@@ -59,6 +66,9 @@ public abstract class AbstractDataAnalysisController extends AbstractController
 	/** 更新看板数据请求的图表集参数值的参数名 */
 	public static final String UPDATE_DASHBOARD_PARAM_CHARTS_PARAM_VALUES = "chartsParamValues";
 
+	/** 更新看板数据请求的是否使用列式结果的参数名 */
+	public static final String UPDATE_DASHBOARD_PARAM_COLUMNAR = "columnar";
+
 	public static final String DASHBOARD_THEME_NAME_PARAM = "themeName";
 
 	/** 看板心跳URL名 */
@@ -68,6 +78,15 @@ public abstract class AbstractDataAnalysisController extends AbstractController
 
 	private DashboardThemeSource dashboardThemeSource = new SimpleDashboardThemeSource();
 
+	@Autowired
+	private DashboardDataSetResultResolver dashboardDataSetResultResolver;
+
+	@Autowired
+	private DashboardStateStore dashboardStateStore;
+
+	@Autowired
+	private DataSetEntityService dataSetEntityService;
+
 	public AbstractDataAnalysisController()
 	{
 		super();
@@ -93,6 +112,36 @@ public abstract class AbstractDataAnalysisController extends AbstractController
 		this.dashboardThemeSource = dashboardThemeSource;
 	}
 
+	public DashboardDataSetResultResolver getDashboardDataSetResultResolver()
+	{
+		return dashboardDataSetResultResolver;
+	}
+
+	public void setDashboardDataSetResultResolver(DashboardDataSetResultResolver dashboardDataSetResultResolver)
+	{
+		this.dashboardDataSetResultResolver = dashboardDataSetResultResolver;
+	}
+
+	public DashboardStateStore getDashboardStateStore()
+	{
+		return dashboardStateStore;
+	}
+
+	public void setDashboardStateStore(DashboardStateStore dashboardStateStore)
+	{
+		this.dashboardStateStore = dashboardStateStore;
+	}
+
+	public DataSetEntityService getDataSetEntityService()
+	{
+		return dataSetEntityService;
+	}
+
+	public void setDataSetEntityService(DataSetEntityService dataSetEntityService)
+	{
+		this.dataSetEntityService = dataSetEntityService;
+	}
+
 	protected RenderContext createHtmlRenderContext(HttpServletRequest request, HttpServletResponse response,
 			HtmlTplDashboardRenderAttr renderAttr, WebContext webContext,
 			HtmlTplDashboardWidgetRenderer htmlTplDashboardWidgetRenderer) throws IOException
@@ -175,15 +224,15 @@ public abstract class AbstractDataAnalysisController extends AbstractController
 		if (StringUtil.isEmpty(dashboardId))
 			throw new IllegalInputException();
 
-		SessionHtmlTplDashboardManager dashboardManager = getSessionHtmlTplDashboardManagerNotNull(request);
+		DashboardState dashboardState = getDashboardStateNotNull(request, response, dashboardId);
+		Dashboard dashboard = buildDashboard(dashboardState);
 
-		HtmlTplDashboard dashboard = dashboardManager.get(dashboardId);
+		Map<String, DataSetResult[]> resultsMap = null;
 
-		if (dashboard == null)
-			throw new RecordNotFoundException();
+		boolean columnar = Boolean.TRUE.equals(dashboardParams.get(UPDATE_DASHBOARD_PARAM_COLUMNAR));
 
 		if (chartIds == null || chartIds.isEmpty())
-			return dashboard.getDataSetResults();
+			resultsMap = this.dashboardDataSetResultResolver.getDataSetResults(dashboard, columnar);
 		else
 		{
 			if (chartsParamValues == null)
@@ -192,27 +241,153 @@ public abstract class AbstractDataAnalysisController extends AbstractController
 			Set<String> chartIdSet = new HashSet<>(chartIds.size());
 			chartIdSet.addAll(chartIds);
 
-			return dashboard.getDataSetResults(chartIdSet, convertChartsParamValues(dashboard, chartsParamValues));
+			resultsMap = this.dashboardDataSetResultResolver.getDataSetResults(dashboard, chartIdSet,
+					convertChartsParamValues(dashboard, chartsParamValues), columnar);
 		}
+
+		// 不支持直接构建列式结果的数据集，这里再转换
+		if (columnar)
+			resultsMap = toColumnarDataSetResults(resultsMap);
+
+		return resultsMap;
 	}
 
-	protected SessionHtmlTplDashboardManager getSessionHtmlTplDashboardManagerNotNull(HttpServletRequest request)
+	/**
+	 * 将看板数据转换为{@linkplain ColumnarDataSetResult}形式，不支持转换的将保持原样。
+	 * <p>
+	 * 原数据可能来自缓存，所以这里不会修改原对象。
+	 * </p>
+	 * 
+	 * @param resultsMap
+	 * @return
+	 */
+	protected Map<String, DataSetResult[]> toColumnarDataSetResults(Map<String, DataSetResult[]> resultsMap)
 	{
-		HttpSession session = request.getSession();
+		Map<String, DataSetResult[]> columnarMap = new HashMap<>(resultsMap.size());
+
+		for (Map.Entry<String, DataSetResult[]> entry : resultsMap.entrySet())
+		{
+			DataSetResult[] results = entry.getValue();
+			DataSetResult[] columnarResults = null;
+
+			if (results != null)
+			{
+				columnarResults = new DataSetResult[results.length];
+
+				for (int i = 0; i < results.length; i++)
+				{
+					ColumnarDataSetResult columnarResult = ColumnarDataSetResult.valueOf(results[i]);
+					columnarResults[i] = (columnarResult == null ? results[i] : columnarResult);
+				}
+			}
+
+			columnarMap.put(entry.getKey(), columnarResults);
+		}
 
-		SessionHtmlTplDashboardManager dashboardManager = (SessionHtmlTplDashboardManager) session
-				.getAttribute(SessionHtmlTplDashboardManager.class.getName());
+		return columnarMap;
+	}
 
-		synchronized (session)
+	/**
+	 * 存储已渲染看板的{@linkplain DashboardState}。
+	 * 
+	 * @param request
+	 * @param response
+	 * @param dashboard
+	 * @param chartWidgetUser
+	 *            加载图表部件时用于权限校验的用户
+	 */
+	protected void putDashboardState(HttpServletRequest request, HttpServletResponse response, Dashboard dashboard,
+			User chartWidgetUser)
+	{
+		User user = WebUtils.getUser(request, response);
+		this.dashboardStateStore.put(user.getId(), DashboardState.valueOf(dashboard, chartWidgetUser.getId()));
+	}
+
+	/**
+	 * 获取{@linkplain DashboardState}，没有则抛出{@linkplain RecordNotFoundException}。
+	 * 
+	 * @param request
+	 * @param response
+	 * @param dashboardId
+	 * @return
+	 */
+	protected DashboardState getDashboardStateNotNull(HttpServletRequest request, HttpServletResponse response,
+			String dashboardId)
+	{
+		User user = WebUtils.getUser(request, response);
+		DashboardState dashboardState = this.dashboardStateStore.get(user.getId(), dashboardId);
+
+		if (dashboardState == null)
+			throw new RecordNotFoundException();
+
+		return dashboardState;
+	}
+
+	/**
+	 * 为已存储的{@linkplain DashboardState}添加图表。
+	 * 
+	 * @param request
+	 * @param response
+	 * @param dashboardId
+	 * @param chart
+	 */
+	protected void addDashboardStateChart(HttpServletRequest request, HttpServletResponse response,
+			String dashboardId, Chart chart)
+	{
+		User user = WebUtils.getUser(request, response);
+
+		if (!this.dashboardStateStore.addChartState(user.getId(), dashboardId, ChartState.valueOf(chart)))
+			throw new RecordNotFoundException();
+	}
+
+	/**
+	 * 由{@linkplain DashboardState}重建仅用于获取数据的{@linkplain Dashboard}。
+	 * 
+	 * @param dashboardState
+	 * @return
+	 */
+	protected Dashboard buildDashboard(DashboardState dashboardState)
+	{
+		Map<String, DataSet> dataSets = new HashMap<>();
+
+		List<ChartState> chartStates = dashboardState.getChartStates();
+		List<Chart> charts = new ArrayList<>(chartStates.size());
+
+		for (ChartState chartState : chartStates)
 		{
-			if (dashboardManager == null)
+			List<ChartDataSetState> chartDataSetStates = chartState.getChartDataSetStates();
+			ChartDataSet[] chartDataSets = new ChartDataSet[chartDataSetStates.size()];
+
+			for (int i = 0; i < chartDataSets.length; i++)
 			{
-				dashboardManager = new SessionHtmlTplDashboardManager();
-				session.setAttribute(SessionHtmlTplDashboardManager.class.getName(), dashboardManager);
+				ChartDataSetState chartDataSetState = chartDataSetStates.get(i);
+				String dataSetId = chartDataSetState.getDataSetId();
+
+				DataSet dataSet = dataSets.get(dataSetId);
+
+				if (dataSet == null)
+				{
+					dataSet = this.dataSetEntityService.getDataSet(dataSetId);
+
+					if (dataSet == null)
+						throw new RecordNotFoundException();
+
+					dataSets.put(dataSetId, dataSet);
+				}
+
+				ChartDataSet chartDataSet = new ChartDataSet(dataSet);
+				chartDataSet.setParamValues(chartDataSetState.getParamValues());
+
+				chartDataSets[i] = chartDataSet;
 			}
+
+			charts.add(new Chart(chartState.getId(), null, chartDataSets, null, null));
 		}
 
-		return dashboardManager;
+		Dashboard dashboard = new Dashboard(dashboardState.getId(), null, null);
+		dashboard.setCharts(charts);
+
+		return dashboard;
 	}
 
 	@SuppressWarnings("unchecked")
@@ -273,32 +448,4 @@ public abstract class AbstractDataAnalysisController extends AbstractController
 	{
 		return WebUtils.addJsessionidParam(url, sessionId);
 	}
-
-	protected static class SessionHtmlTplDashboardManager implements Serializable
-	{
-		private static final long serialVersionUID = 1L;
-
-		private transient Map<String, HtmlTplDashboard> htmlTplDashboards;
-
-		public SessionHtmlTplDashboardManager()
-		{
-			super();
-		}
-
-		public synchronized HtmlTplDashboard get(String htmlTplDashboardId)
-		{
-			if (this.htmlTplDashboards == null)
-				return null;
-
-			return this.htmlTplDashboards.get(htmlTplDashboardId);
-		}
-
-		public synchronized void put(HtmlTplDashboard dashboard)
-		{
-			if (this.htmlTplDashboards == null)
-				this.htmlTplDashboards = new HashMap<>();
-
-			this.htmlTplDashboards.put(dashboard.getId(), dashboard);
-		}
-	}
 }
@@ -4,14 +4,22 @@
 
 package org.datagear.web.controller;
 
+import java.sql.Connection;
+import java.util.List;
+
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.datagear.management.domain.Schema;
+import org.datagear.meta.SimpleTable;
 import org.datagear.meta.Table;
+import org.datagear.meta.TableType;
 import org.datagear.meta.resolver.DBMetaResolver;
 import org.datagear.persistence.support.NoColumnDefinedException;
+import org.datagear.util.JdbcUtil;
 import org.datagear.web.util.TableCache;
+import org.datagear.web.util.TableCatalog;
+import org.datagear.web.util.TableCatalogCache;
 import org.springframework.beans.factory.annotation.Autowired;
 
 /**
@@ -28,6 +36,9 @@ public abstract class AbstractSchemaConnTableController extends AbstractSchemaCo
 	@Autowired
 	private TableCache tableCache;
 
+	@Autowired
+	private TableCatalogCache tableCatalogCache;
+
 	public AbstractSchemaConnTableController()
 	{
 		super();
@@ -53,6 +64,47 @@ public abstract class AbstractSchemaConnTableController extends AbstractSchemaCo
 		this.tableCache = tableCache;
 	}
 
+	public TableCatalogCache getTableCatalogCache()
+	{
+		return tableCatalogCache;
+	}
+
+	public void setTableCatalogCache(TableCatalogCache tableCatalogCache)
+	{
+		this.tableCatalogCache = tableCatalogCache;
+	}
+
+	/**
+	 * 获取{@linkplain Schema}的用户数据表{@linkplain TableCatalog}。
+	 * <p>
+	 * 调用者应已校验{@code schema}的读权限。
+	 * </p>
+	 * 
+	 * @param schema
+	 * @return
+	 * @throws Throwable
+	 */
+	protected TableCatalog getTableCatalog(Schema schema) throws Throwable
+	{
+		return this.tableCatalogCache.get(schema.getId(), () ->
+		{
+			Connection cn = null;
+
+			try
+			{
+				cn = getSchemaConnection(schema);
+				JdbcUtil.setReadonlyIfSupports(cn, true);
+
+				List<SimpleTable> tables = getDbMetaResolver().getSimpleTables(cn);
+				return TableType.filterUserDataTables(cn, getDbMetaResolver(), tables);
+			}
+			finally
+			{
+				JdbcUtil.closeConnection(cn);
+			}
+		});
+	}
+
 	/**
 	 * 抽象数据库表执行器。
 	 * 
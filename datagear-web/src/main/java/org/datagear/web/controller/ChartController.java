@@ -412,8 +412,7 @@ public class ChartController extends AbstractChartPluginAwareController implemen
 
 		HtmlTplDashboard dashboard = dashboardWidget.render(renderContext);
 
-		SessionHtmlTplDashboardManager dashboardManager = getSessionHtmlTplDashboardManagerNotNull(request);
-		dashboardManager.put(dashboard);
+		putDashboardState(request, response, dashboard, user);
 	}
 
 	protected WebContext createWebContext(HttpServletRequest request)
@@ -44,11 +44,13 @@ import org.datagear.management.domain.User;
 import org.datagear.management.service.AnalysisProjectService;
 import org.datagear.management.service.HtmlChartWidgetEntityService.ChartWidgetSourceContext;
 import org.datagear.management.service.HtmlTplDashboardWidgetEntityService;
+import org.datagear.management.service.UserService;
 import org.datagear.persistence.PagingData;
 import org.datagear.util.FileUtil;
 import org.datagear.util.IDUtil;
 import org.datagear.util.IOUtil;
 import org.datagear.util.StringUtil;
+import org.datagear.web.analysis.DashboardState;
 import org.datagear.web.util.OperationMessage;
 import org.datagear.web.util.WebUtils;
 import org.datagear.web.vo.APIDDataFilterPagingQuery;
@@ -99,6 +101,9 @@ public class DashboardController extends AbstractDataAnalysisController implemen
 	@Autowired
 	private File tempDirectory;
 
+	@Autowired
+	private UserService userService;
+
 	private ServletContext servletContext;
 
 	public DashboardController()
@@ -137,6 +142,16 @@ public class DashboardController extends AbstractDataAnalysisController implemen
 		this.tempDirectory = tempDirectory;
 	}
 
+	public UserService getUserService()
+	{
+		return userService;
+	}
+
+	public void setUserService(UserService userService)
+	{
+		this.userService = userService;
+	}
+
 	public ServletContext getServletContext()
 	{
 		return servletContext;
@@ -809,8 +824,7 @@ public class DashboardController extends AbstractDataAnalysisController implemen
 
 			HtmlTplDashboard dashboard = dashboardWidget.render(renderContext, template);
 
-			SessionHtmlTplDashboardManager dashboardManager = getSessionHtmlTplDashboardManagerNotNull(request);
-			dashboardManager.put(dashboard);
+			putDashboardState(request, response, dashboard, dashboardWidget.getCreateUser());
 		}
 		finally
 		{
@@ -851,16 +865,14 @@ public class DashboardController extends AbstractDataAnalysisController implemen
 			@RequestParam(LOAD_CHART_PARAM_CHART_WIDGET_ID) String chartWidgetId,
 			@RequestParam(LOAD_CHART_PARAM_CHART_ELEMENT_ID) String chartElementId) throws Throwable
 	{
-		SessionHtmlTplDashboardManager dashboardManager = getSessionHtmlTplDashboardManagerNotNull(request);
-		HtmlTplDashboard dashboard = dashboardManager.get(dashboardId);
+		DashboardState dashboardState = getDashboardStateNotNull(request, response, dashboardId);
+		User chartWidgetUser = this.userService.getById(dashboardState.getChartWidgetUserId());
 
-		if (dashboard == null)
+		if (chartWidgetUser == null)
 			throw new RecordNotFoundException();
 
-		HtmlTplDashboardWidgetEntity dashboardWidget = (HtmlTplDashboardWidgetEntity) dashboard.getWidget();
-
 		// 确保看板创建用户对看板模板内定义的图表有权限
-		ChartWidgetSourceContext.set(new ChartWidgetSourceContext(dashboardWidget.getCreateUser()));
+		ChartWidgetSourceContext.set(new ChartWidgetSourceContext(chartWidgetUser));
 
 		ChartWidgetSource chartWidgetSource = getHtmlTplDashboardWidgetEntityService()
 				.getHtmlTplDashboardWidgetRenderer().getChartWidgetSource();
@@ -889,13 +901,7 @@ public class DashboardController extends AbstractDataAnalysisController implemen
 
 		Chart chart = chartWidget.render(renderContext);
 
-		synchronized (dashboard)
-		{
-			List<Chart> charts = dashboard.getCharts();
-			List<Chart> newCharts = (charts == null || charts.isEmpty() ? new ArrayList<>() : new ArrayList<>(charts));
-			newCharts.add(chart);
-			dashboard.setCharts(newCharts);
-		}
+		addDashboardStateChart(request, response, dashboardId, chart);
 	}
 
 	/**
@@ -30,6 +30,7 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Pattern;
+import java.util.zip.Deflater;
 import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
 
@@ -43,7 +44,6 @@ import org.datagear.dataexchange.DataExchange;
 import org.datagear.dataexchange.DataExchangeService;
 import org.datagear.dataexchange.DataFormat;
 import org.datagear.dataexchange.DataFormatContext;
-import org.datagear.dataexchange.DataImportOption;
 import org.datagear.dataexchange.Query;
 import org.datagear.dataexchange.SimpleBatchDataExchange;
 import org.datagear.dataexchange.SqlQuery;
@@ -63,6 +63,7 @@ import org.datagear.dataexchange.support.JsonDataImportOption;
 import org.datagear.dataexchange.support.SqlDataExport;
 import org.datagear.dataexchange.support.SqlDataExportOption;
 import org.datagear.dataexchange.support.SqlDataImport;
+import org.datagear.dataexchange.support.SqlDataImportOption;
 import org.datagear.management.domain.Schema;
 import org.datagear.management.domain.User;
 import org.datagear.meta.SimpleTable;
@@ -80,6 +81,7 @@ import org.datagear.util.resource.DataSourceConnectionFactory;
 import org.datagear.util.resource.FileOutputStreamResourceFactory;
 import org.datagear.util.resource.FileReaderResourceFactory;
 import org.datagear.util.resource.FileWriterResourceFactory;
+import org.datagear.util.resource.GzipFileWriterResourceFactory;
 import org.datagear.util.resource.ResourceFactory;
 import org.datagear.web.dataexchange.MessageBatchDataExchangeListener;
 import org.datagear.web.dataexchange.MessageSubDataImportListener;
@@ -309,8 +311,8 @@ public class DataExchangeController extends AbstractSchemaConnController
 		Set<SubDataExchange> subDataExchangeSet = new HashSet<>(subDataExchangeIds.length);
 		Collections.addAll(subDataExchangeSet, subDataExchanges);
 
-		BatchDataExchange batchDataExchange = buildBatchDataExchange(connectionFactory, subDataExchangeSet,
-				dataExchangeId, locale);
+		BatchDataExchange batchDataExchange = buildBatchDataExchange(user, schema, connectionFactory,
+				subDataExchangeSet, dataExchangeId, locale);
 
 		this.dataExchangeService.exchange(batchDataExchange);
 
@@ -423,8 +425,8 @@ public class DataExchangeController extends AbstractSchemaConnController
 		Set<SubDataExchange> subDataExchangeSet = new HashSet<>(subDataExchangeIds.length);
 		Collections.addAll(subDataExchangeSet, subDataExchanges);
 
-		BatchDataExchange batchDataExchange = buildBatchDataExchange(connectionFactory, subDataExchangeSet,
-				dataExchangeId, locale);
+		BatchDataExchange batchDataExchange = buildBatchDataExchange(user, schema, connectionFactory,
+				subDataExchangeSet, dataExchangeId, locale);
 
 		this.dataExchangeService.exchange(batchDataExchange);
 
@@ -566,8 +568,8 @@ public class DataExchangeController extends AbstractSchemaConnController
 		Set<SubDataExchange> subDataExchangeSet = new HashSet<>(subDataExchangeIds.length);
 		Collections.addAll(subDataExchangeSet, subDataExchanges);
 
-		BatchDataExchange batchDataExchange = buildBatchDataExchange(connectionFactory, subDataExchangeSet,
-				dataExchangeId, locale);
+		BatchDataExchange batchDataExchange = buildBatchDataExchange(user, schema, connectionFactory,
+				subDataExchangeSet, dataExchangeId, locale);
 
 		this.dataExchangeService.exchange(batchDataExchange);
 
@@ -693,8 +695,8 @@ public class DataExchangeController extends AbstractSchemaConnController
 		Set<SubDataExchange> subDataExchangeSet = new HashSet<>(subDataExchangeIds.length);
 		Collections.addAll(subDataExchangeSet, subDataExchanges);
 
-		BatchDataExchange batchDataExchange = buildBatchDataExchange(connectionFactory, subDataExchangeSet,
-				dataExchangeId, locale);
+		BatchDataExchange batchDataExchange = buildBatchDataExchange(user, schema, connectionFactory,
+				subDataExchangeSet, dataExchangeId, locale);
 
 		this.dataExchangeService.exchange(batchDataExchange);
 
@@ -891,7 +893,7 @@ public class DataExchangeController extends AbstractSchemaConnController
 		String dataExchangeId = exportForm.getDataExchangeId();
 		String[] subDataExchangeIds = exportForm.getSubDataExchangeIds();
 		String[] queries = exportForm.getQueries();
-		String[] fileNames = exportForm.getFileNames();
+		String[] fileNames = getExportFileNames(exportForm);
 
 		checkNoEmptyWithElement(subDataExchangeIds);
 		checkNoEmptyWithElement(queries);
@@ -914,9 +916,7 @@ public class DataExchangeController extends AbstractSchemaConnController
 		{
 			Query query = toQuery(queries[i]);
 
-			File file = FileUtil.getFile(directory, fileNames[i]);
-			ResourceFactory<Writer> writerFactory = FileWriterResourceFactory.valueOf(file,
-					exportForm.getFileEncoding());
+			ResourceFactory<Writer> writerFactory = getExportFileWriterFactory(directory, fileNames[i], exportForm);
 
 			CsvDataExport csvDataExport = new CsvDataExport(connectionFactory, exportForm.getDataFormat(),
 					exportForm.getExportOption(), query, writerFactory);
@@ -932,7 +932,7 @@ public class DataExchangeController extends AbstractSchemaConnController
 			subDataExchanges.add(subDataExchange);
 		}
 
-		BatchDataExchange batchDataExchange = buildBatchDataExchange(connectionFactory, subDataExchanges,
+		BatchDataExchange batchDataExchange = buildBatchDataExchange(user, schema, connectionFactory, subDataExchanges,
 				dataExchangeId, locale);
 
 		this.dataExchangeService.exchange(batchDataExchange);
@@ -1035,7 +1035,7 @@ public class DataExchangeController extends AbstractSchemaConnController
 			subDataExchanges.add(subDataExchange);
 		}
 
-		BatchDataExchange batchDataExchange = buildBatchDataExchange(connectionFactory, subDataExchanges,
+		BatchDataExchange batchDataExchange = buildBatchDataExchange(user, schema, connectionFactory, subDataExchanges,
 				dataExchangeId, locale);
 
 		this.dataExchangeService.exchange(batchDataExchange);
@@ -1106,7 +1106,7 @@ public class DataExchangeController extends AbstractSchemaConnController
 		String[] subDataExchangeIds = exportForm.getSubDataExchangeIds();
 		String[] queries = exportForm.getQueries();
 		String[] tableNames = exportForm.getTableNames();
-		String[] fileNames = exportForm.getFileNames();
+		String[] fileNames = getExportFileNames(exportForm);
 
 		checkNoEmptyWithElement(subDataExchangeIds);
 		checkNoEmptyWithElement(queries);
@@ -1130,9 +1130,7 @@ public class DataExchangeController extends AbstractSchemaConnController
 		{
 			Query query = toQuery(queries[i]);
 
-			File file = FileUtil.getFile(directory, fileNames[i]);
-			ResourceFactory<Writer> writerFactory = FileWriterResourceFactory.valueOf(file,
-					exportForm.getFileEncoding());
+			ResourceFactory<Writer> writerFactory = getExportFileWriterFactory(directory, fileNames[i], exportForm);
 
 			SqlDataExport sqlDataExport = new SqlDataExport(connectionFactory, exportForm.getDataFormat(),
 					exportForm.getExportOption(), query, tableNames[i], writerFactory);
@@ -1148,7 +1146,7 @@ public class DataExchangeController extends AbstractSchemaConnController
 			subDataExchanges.add(subDataExchange);
 		}
 
-		BatchDataExchange batchDataExchange = buildBatchDataExchange(connectionFactory, subDataExchanges,
+		BatchDataExchange batchDataExchange = buildBatchDataExchange(user, schema, connectionFactory, subDataExchanges,
 				dataExchangeId, locale);
 
 		this.dataExchangeService.exchange(batchDataExchange);
@@ -1225,7 +1223,7 @@ public class DataExchangeController extends AbstractSchemaConnController
 		String[] subDataExchangeIds = exportForm.getSubDataExchangeIds();
 		String[] queries = exportForm.getQueries();
 		String[] tableNames = exportForm.getTableNames();
-		String[] fileNames = exportForm.getFileNames();
+		String[] fileNames = getExportFileNames(exportForm);
 
 		checkNoEmptyWithElement(subDataExchangeIds);
 		checkNoEmptyWithElement(queries);
@@ -1248,9 +1246,7 @@ public class DataExchangeController extends AbstractSchemaConnController
 		{
 			Query query = toQuery(queries[i]);
 
-			File file = FileUtil.getFile(directory, fileNames[i]);
-			ResourceFactory<Writer> writerFactory = FileWriterResourceFactory.valueOf(file,
-					exportForm.getFileEncoding());
+			ResourceFactory<Writer> writerFactory = getExportFileWriterFactory(directory, fileNames[i], exportForm);
 
 			JsonDataExport csvDataExport = new JsonDataExport(connectionFactory, exportForm.getDataFormat(),
 					exportOption, query, writerFactory, (tableNames == null ? null : tableNames[i]));
@@ -1266,7 +1262,7 @@ public class DataExchangeController extends AbstractSchemaConnController
 			subDataExchanges.add(subDataExchange);
 		}
 
-		BatchDataExchange batchDataExchange = buildBatchDataExchange(connectionFactory, subDataExchanges,
+		BatchDataExchange batchDataExchange = buildBatchDataExchange(user, schema, connectionFactory, subDataExchanges,
 				dataExchangeId, locale);
 
 		this.dataExchangeService.exchange(batchDataExchange);
@@ -1324,7 +1320,18 @@ public class DataExchangeController extends AbstractSchemaConnController
 		try
 		{
 			out = new ZipOutputStream(response.getOutputStream());
-			IOUtil.writeFileToZipOutputStream(out, directory, null);
+
+			File[] files = directory.listFiles();
+
+			if (files == null)
+				files = new File[0];
+
+			for (File file : files)
+			{
+				// 已压缩的导出文件不再重复压缩
+				out.setLevel(isCompressedExportFile(file) ? Deflater.NO_COMPRESSION : Deflater.DEFAULT_COMPRESSION);
+				IOUtil.writeFileToZipOutputStream(out, file, file.getName());
+			}
 		}
 		finally
 		{
@@ -1519,10 +1526,12 @@ public class DataExchangeController extends AbstractSchemaConnController
 		return fileInfos;
 	}
 
-	protected BatchDataExchange buildBatchDataExchange(ConnectionFactory connectionFactory,
+	protected BatchDataExchange buildBatchDataExchange(User user, Schema schema, ConnectionFactory connectionFactory,
 			Set<SubDataExchange> subDataExchanges, String channel, Locale locale)
 	{
 		BatchDataExchange batchDataExchange = new SimpleBatchDataExchange(connectionFactory, subDataExchanges);
+		batchDataExchange.setScheduleOwner(user.getId());
+		batchDataExchange.setScheduleGroup(schema.getId());
 
 		MessageBatchDataExchangeListener listener = new MessageBatchDataExchangeListener(this.messageChannel, channel,
 				getMessageSource(), locale);
@@ -1765,6 +1774,52 @@ public class DataExchangeController extends AbstractSchemaConnController
 		return logFile;
 	}
 
+	/**
+	 * 获取导出文件名，压缩导出时将添加压缩文件扩展名。
+	 * 
+	 * @param exportForm
+	 * @return
+	 */
+	protected String[] getExportFileNames(TextFileBatchDataExportForm exportForm)
+	{
+		String[] fileNames = exportForm.getFileNames();
+
+		if (fileNames == null || !exportForm.isGzip())
+			return fileNames;
+
+		String[] gzipFileNames = new String[fileNames.length];
+
+		for (int i = 0; i < fileNames.length; i++)
+			gzipFileNames[i] = fileNames[i] + GzipFileWriterResourceFactory.FILE_EXTENSION;
+
+		return gzipFileNames;
+	}
+
+	/**
+	 * 获取导出文件输出流工厂，压缩导出时将直接写入压缩文件。
+	 * 
+	 * @param directory
+	 * @param fileName
+	 * @param exportForm
+	 * @return
+	 */
+	protected ResourceFactory<Writer> getExportFileWriterFactory(File directory, String fileName,
+			TextFileBatchDataExportForm exportForm)
+	{
+		File file = FileUtil.getFile(directory, fileName);
+
+		if (exportForm.isGzip())
+			return GzipFileWriterResourceFactory.valueOf(file, exportForm.getFileEncoding());
+		else
+			return FileWriterResourceFactory.valueOf(file, exportForm.getFileEncoding());
+	}
+
+	protected boolean isCompressedExportFile(File file)
+	{
+		return (file.isFile()
+				&& file.getName().toLowerCase().endsWith(GzipFileWriterResourceFactory.FILE_EXTENSION));
+	}
+
 	protected File getExportFileZip(String dataExchangeId)
 	{
 		File file = FileUtil.getFile(getDataExchangeTmpDirectory(), dataExchangeId + ".zip");
@@ -2079,19 +2134,19 @@ public class DataExchangeController extends AbstractSchemaConnController
 	{
 		private static final long serialVersionUID = 1L;
 
-		private DataImportOption importOption;
+		private SqlDataImportOption importOption;
 
 		public SqlFileBatchDataImportForm()
 		{
 			super();
 		}
 
-		public DataImportOption getImportOption()
+		public SqlDataImportOption getImportOption()
 		{
 			return importOption;
 		}
 
-		public void setImportOption(DataImportOption importOption)
+		public void setImportOption(SqlDataImportOption importOption)
 		{
 			this.importOption = importOption;
 		}
@@ -2107,6 +2162,9 @@ public class DataExchangeController extends AbstractSchemaConnController
 
 		private String[] queries;
 
+		/** 是否将导出文件压缩为GZIP格式 */
+		private boolean gzip = false;
+
 		public TextFileBatchDataExportForm()
 		{
 			super();
@@ -2141,6 +2199,16 @@ public class DataExchangeController extends AbstractSchemaConnController
 		{
 			this.queries = queries;
 		}
+
+		public boolean isGzip()
+		{
+			return gzip;
+		}
+
+		public void setGzip(boolean gzip)
+		{
+			this.gzip = gzip;
+		}
 	}
 
 	public static class SqlFileBatchDataExportForm extends TextFileBatchDataExportForm
@@ -713,6 +713,7 @@ public class DataSetController extends AbstractSchemaConnController
 
 		SchemaConnectionFactory connectionFactory = new SchemaConnectionFactory(getConnectionSource(), schema);
 		dataSet.setConnectionFactory(connectionFactory);
+		dataSet.setMaxRowsQuerySqlResolver(getDataSetEntityService().getMaxRowsQuerySqlResolver());
 
 		Map<String, Object> convertedParamValues = getDataSetParamValueConverter().convert(preview.getParamValues(),
 				dataSet.getParams());
@@ -4,7 +4,6 @@
 
 package org.datagear.web.controller;
 
-import java.sql.Connection;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
@@ -19,8 +18,8 @@ import org.datagear.management.domain.User;
 import org.datagear.meta.Column;
 import org.datagear.meta.SimpleTable;
 import org.datagear.meta.Table;
-import org.datagear.meta.TableType;
 import org.datagear.web.util.KeywordMatcher;
+import org.datagear.web.util.TableCatalog;
 import org.datagear.web.util.WebUtils;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -51,26 +50,21 @@ public class SqlEditorController extends AbstractSchemaConnTableController
 	{
 		final User user = WebUtils.getUser(request, response);
 
-		List<SimpleTable> tables = new ReturnSchemaConnExecutor<List<SimpleTable>>(request, response, springModel,
+		TableCatalog tableCatalog = new ReturnSchemaConnExecutor<TableCatalog>(request, response, springModel,
 				schemaId, true)
 		{
 			@Override
-			protected List<SimpleTable> execute(HttpServletRequest request, HttpServletResponse response,
+			protected TableCatalog execute(HttpServletRequest request, HttpServletResponse response,
 					org.springframework.ui.Model springModel, Schema schema) throws Throwable
 			{
 				checkReadTableDataPermission(schema, user);
 
-				Connection cn = getConnection();
-
-				List<SimpleTable> tables = getDbMetaResolver().getSimpleTables(cn);
-				return TableType.filterUserDataTables(cn, getDbMetaResolver(), tables);
+				return getTableCatalog(schema);
 			}
 
 		}.execute();
 
-		SchemaController.sortByTableName(tables);
-
-		List<SimpleTable> keywordTables = SchemaController.findByKeyword(tables, keyword);
+		List<SimpleTable> keywordTables = tableCatalog.findByKeyword(keyword);
 
 		List<String> tableNames = new ArrayList<>();
 
@@ -256,24 +256,13 @@ public class SqlpadController extends AbstractSchemaConnController
 		if (fetchSize > 1000)
 			fetchSize = 1000;
 
-		final int startRowFinal = startRow;
-		final int fetchSizeFinal = fetchSize;
-
-		SqlSelectResult result = new ReturnSchemaConnExecutor<SqlSelectResult>(request, response, springModel, schemaId,
-				true)
-		{
-			@Override
-			protected SqlSelectResult execute(HttpServletRequest request, HttpServletResponse response,
-					Model springModel, Schema schema) throws Throwable
-			{
-				checkReadTableDataPermission(schema, user);
+		Schema schema = getSchemaForUserNotNull(user, schemaId);
 
-				SqlSelectResult result = getSqlSelectManager().select(getConnection(), sql, startRowFinal,
-						fetchSizeFinal, buildDefaultLOBRowMapper());
+		checkReadTableDataPermission(schema, user);
 
-				return result;
-			}
-		}.execute();
+		// 由SqlpadExecutionService保持查询游标，加载更多时不必重新执行SQL
+		SqlSelectResult result = this.sqlpadExecutionService.select(user, schema, sqlpadId, sql, startRow, fetchSize,
+				buildDefaultLOBRowMapper());
 
 		if (!Boolean.TRUE.equals(returnMeta))
 			result.setTable(null);
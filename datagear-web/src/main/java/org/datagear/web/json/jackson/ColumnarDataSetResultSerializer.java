@@ -0,0 +1,105 @@
+/*
+ * Copyright 2018 datagear.tech. All Rights Reserved.
+ */
+
+package org.datagear.web.json.jackson;
+
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.List;
+
+import org.datagear.analysis.ColumnarDataSetResult;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+/**
+ * {@linkplain ColumnarDataSetResult}的{@linkplain JsonSerializer}。
+ * <p>
+ * 输出格式为：
+ * </p>
+ * <code>
+ * <pre>
+ * { "columnar": true, "names": [ "name0", ... ], "rowCount": 2, "columns": [ [ v00, v01 ], ... ], "nullRows": [ 1, ... ] }
+ * </pre>
+ * </code>
+ * <p>
+ * 其中，{@code "nullRows"}是值为{@code null}的行索引，仅在有这样的行时才输出。
+ * </p>
+ * <p>
+ * 基本类型数组列直接写入，不会产生装箱对象。
+ * </p>
+ *
+ * @author datagear@163.com
+ *
+ */
+public class ColumnarDataSetResultSerializer extends JsonSerializer<ColumnarDataSetResult>
+{
+	public ColumnarDataSetResultSerializer()
+	{
+		super();
+	}
+
+	@Override
+	public void serialize(ColumnarDataSetResult value, JsonGenerator gen, SerializerProvider serializers)
+			throws IOException
+	{
+		List<String> names = value.getNames();
+		Object[] columns = value.getColumns();
+		int rowCount = value.getRowCount();
+
+		gen.writeStartObject();
+
+		gen.writeBooleanField("columnar", true);
+
+		gen.writeArrayFieldStart("names");
+		if (names != null)
+		{
+			for (String name : names)
+				gen.writeString(name);
+		}
+		gen.writeEndArray();
+
+		gen.writeNumberField("rowCount", rowCount);
+
+		gen.writeArrayFieldStart("columns");
+		if (columns != null)
+		{
+			for (Object column : columns)
+				writeColumn(column, rowCount, gen, serializers);
+		}
+		gen.writeEndArray();
+
+		BitSet nullRows = value.getNullRows();
+		if (nullRows != null && !nullRows.isEmpty())
+		{
+			gen.writeArrayFieldStart("nullRows");
+			for (int i = nullRows.nextSetBit(0); i >= 0 && i < rowCount; i = nullRows.nextSetBit(i + 1))
+				gen.writeNumber(i);
+			gen.writeEndArray();
+		}
+
+		gen.writeEndObject();
+	}
+
+	protected void writeColumn(Object column, int rowCount, JsonGenerator gen, SerializerProvider serializers)
+			throws IOException
+	{
+		if (column instanceof long[])
+			gen.writeArray((long[]) column, 0, rowCount);
+		else if (column instanceof double[])
+			gen.writeArray((double[]) column, 0, rowCount);
+		else
+		{
+			Object[] values = (Object[]) column;
+
+			gen.writeStartArray();
+
+			for (int i = 0; i < rowCount; i++)
+				serializers.defaultSerializeValue(values[i], gen);
+
+			gen.writeEndArray();
+		}
+	}
+}
@@ -8,30 +8,42 @@ import java.io.Serializable;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Savepoint;
 import java.sql.Statement;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.datagear.connection.ConnectionSource;
 import org.datagear.connection.ConnectionSourceException;
 import org.datagear.management.domain.Schema;
+import org.datagear.management.domain.User;
 import org.datagear.management.service.SqlHistoryService;
 import org.datagear.management.util.SchemaConnectionSupport;
+import org.datagear.meta.Table;
+import org.datagear.persistence.RowMapper;
 import org.datagear.persistence.support.PersistenceSupport;
 import org.datagear.persistence.support.SqlSelectManager;
 import org.datagear.persistence.support.SqlSelectResult;
 import org.datagear.util.JdbcUtil;
+import org.datagear.util.QueryResultSet;
+import org.datagear.util.Sql;
 import org.datagear.util.SqlScriptParser.SqlStatement;
 import org.datagear.web.controller.SqlpadController.SqlpadFileDirectory;
 import org.datagear.web.util.MessageChannel;
 import org.datagear.web.util.OperationMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.context.MessageSource;
 import org.springframework.context.NoSuchMessageException;
 
@@ -43,6 +55,8 @@ import org.springframework.context.NoSuchMessageException;
  */
 public class SqlpadExecutionService extends PersistenceSupport
 {
+	private static final Logger LOGGER = LoggerFactory.getLogger(SqlpadExecutionService.class);
+
 	private ConnectionSource connectionSource;
 
 	private MessageSource messageSource;
@@ -62,6 +76,22 @@ public class SqlpadExecutionService extends PersistenceSupport
 
 	private ConcurrentMap<String, SqlpadExecutionRunnable> _sqlpadExecutionRunnableMap = new ConcurrentHashMap<>();
 
+	/** 查询游标的最大空闲秒数，超过后将被关闭 */
+	private int cursorIdleSeconds = 30;
+
+	/** 每个用户允许同时保持打开的查询游标最大数目，设置为{@code 0}表示禁用查询游标 */
+	private int cursorMaxPerUser = 0;
+
+	/** 所有用户允许同时保持打开的查询游标最大数目，超出时将关闭最久未访问的，设置为{@code 0}表示不限定 */
+	private int cursorMaxTotal = 4;
+
+	/** 连续数据修改语句的批量执行条数，小于等于{@code 1}表示逐条执行 */
+	private int batchSize = 0;
+
+	private ConcurrentMap<SqlpadCursorKey, SqlpadCursor> _sqlpadCursorMap = new ConcurrentHashMap<>();
+
+	private ScheduledExecutorService _cursorEvictExecutor = null;
+
 	public SqlpadExecutionService()
 	{
 		super();
@@ -142,6 +172,77 @@ public class SqlpadExecutionService extends PersistenceSupport
 		this.schemaConnectionSupport = schemaConnectionSupport;
 	}
 
+	public int getCursorIdleSeconds()
+	{
+		return cursorIdleSeconds;
+	}
+
+	public void setCursorIdleSeconds(int cursorIdleSeconds)
+	{
+		this.cursorIdleSeconds = cursorIdleSeconds;
+	}
+
+	public int getCursorMaxPerUser()
+	{
+		return cursorMaxPerUser;
+	}
+
+	public void setCursorMaxPerUser(int cursorMaxPerUser)
+	{
+		this.cursorMaxPerUser = cursorMaxPerUser;
+	}
+
+	public int getCursorMaxTotal()
+	{
+		return cursorMaxTotal;
+	}
+
+	public void setCursorMaxTotal(int cursorMaxTotal)
+	{
+		this.cursorMaxTotal = cursorMaxTotal;
+	}
+
+	public int getBatchSize()
+	{
+		return batchSize;
+	}
+
+	public void setBatchSize(int batchSize)
+	{
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * 初始化。
+	 * <p>
+	 * 它将启动关闭空闲查询游标的定时任务。
+	 * </p>
+	 */
+	public void init()
+	{
+		if (this.cursorMaxPerUser <= 0 || this.cursorIdleSeconds <= 0)
+			return;
+
+		long period = Math.max(1, this.cursorIdleSeconds / 2);
+
+		this._cursorEvictExecutor = Executors.newSingleThreadScheduledExecutor();
+		this._cursorEvictExecutor.scheduleWithFixedDelay(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				try
+				{
+					evictIdleCursors();
+				}
+				catch (Throwable t)
+				{
+					LOGGER.error("evict idle sqlpad cursors error", t);
+				}
+			}
+		}, period, period, TimeUnit.SECONDS);
+	}
+
 	/**
 	 * 提交SQL执行。
 	 * 
@@ -195,12 +296,371 @@ public class SqlpadExecutionService extends PersistenceSupport
 		return this._messageChannel.pull(sqlpadId, count);
 	}
 
+	/**
+	 * 查询SQL并返回指定分页的结果。
+	 * <p>
+	 * 首次查询时，结果集和连接将作为查询游标按照用户、{@code schema}、{@code sqlpadId}、{@code sql}保持打开，
+	 * 后续如果请求的{@code startRow}正好是游标的下一行，将从游标继续读取，而不必重新执行SQL并跳过之前的行。
+	 * </p>
+	 * <p>
+	 * 查询游标使用不占用连接池的独立连接（参考{@linkplain #getSchemaCursorConnection(Schema)}），
+	 * 因此保持打开的游标不会使其他请求等待连接池的连接。
+	 * </p>
+	 * <p>
+	 * 结果已读取完、游标正被其他请求使用、禁用了查询游标时，将按照无游标的方式执行。
+	 * </p>
+	 * 
+	 * @param user
+	 * @param schema
+	 * @param sqlpadId
+	 * @param sql
+	 * @param startRow
+	 *            起始行号，以{@code 1}开始
+	 * @param fetchSize
+	 * @param rowMapper
+	 *            允许为{@code null}
+	 * @return
+	 * @throws SQLException
+	 * @throws ConnectionSourceException
+	 */
+	public SqlSelectResult select(User user, Schema schema, String sqlpadId, String sql, int startRow, int fetchSize,
+			RowMapper rowMapper) throws SQLException, ConnectionSourceException
+	{
+		if (startRow < 1)
+			startRow = 1;
+
+		SqlpadCursorKey key = new SqlpadCursorKey(user.getId(), schema.getId(), sqlpadId, sql);
+		SqlpadCursor cursor = this._sqlpadCursorMap.get(key);
+
+		if (cursor != null)
+		{
+			if (!cursor.tryLock())
+				return selectWithoutCursor(schema, sql, startRow, fetchSize, rowMapper);
+
+			try
+			{
+				if (!cursor.isClosed() && cursor.getNextRow() == startRow)
+					return selectNext(key, cursor, fetchSize, rowMapper);
+
+				closeCursor(key, cursor);
+			}
+			finally
+			{
+				cursor.unlock();
+			}
+		}
+
+		if (this.cursorMaxPerUser <= 0)
+			return selectWithoutCursor(schema, sql, startRow, fetchSize, rowMapper);
+
+		cursor = openCursor(user, schema, sql, startRow, fetchSize);
+
+		SqlSelectResult result = null;
+
+		cursor.lock();
+		try
+		{
+			result = selectNext(key, cursor, fetchSize, rowMapper);
+		}
+		finally
+		{
+			cursor.unlock();
+		}
+
+		// 这里不应持有任何游标的锁，避免与其他请求相互等待
+		if (!cursor.isClosed())
+		{
+			SqlpadCursor old = this._sqlpadCursorMap.put(key, cursor);
+
+			if (old != null && old != cursor)
+				lockAndCloseCursor(null, old);
+
+			evictExceededUserCursors(user.getId());
+			evictExceededTotalCursors();
+		}
+
+		return result;
+	}
+
+	/**
+	 * 获取当前保持打开的查询游标数。
+	 * 
+	 * @return
+	 */
+	public int getCursorCount()
+	{
+		return this._sqlpadCursorMap.size();
+	}
+
 	/**
 	 * 关闭。
 	 */
 	public void shutdown()
 	{
 		this._executorService.shutdown();
+
+		if (this._cursorEvictExecutor != null)
+			this._cursorEvictExecutor.shutdownNow();
+
+		for (Map.Entry<SqlpadCursorKey, SqlpadCursor> entry : this._sqlpadCursorMap.entrySet())
+			closeCursor(entry.getKey(), entry.getValue());
+	}
+
+	/**
+	 * 从游标读取下一页结果，结果已读取完时将关闭游标。
+	 * <p>
+	 * 调用此方法前应已获取游标的锁。
+	 * </p>
+	 * 
+	 * @param key
+	 * @param cursor
+	 * @param fetchSize
+	 * @param rowMapper
+	 * @return
+	 * @throws SQLException
+	 */
+	protected SqlSelectResult selectNext(SqlpadCursorKey key, SqlpadCursor cursor, int fetchSize,
+			RowMapper rowMapper) throws SQLException
+	{
+		boolean close = true;
+
+		try
+		{
+			SqlSelectResult result = this.sqlSelectManager.selectNext(cursor.getConnection(), key.getSql(),
+					cursor.getTable(), cursor.getResultSet(), cursor.getNextRow(), fetchSize, rowMapper);
+
+			int rowCount = result.getRows().size();
+			cursor.setNextRow(cursor.getNextRow() + rowCount);
+			cursor.setLastAccessTime(System.currentTimeMillis());
+
+			close = (rowCount < fetchSize);
+
+			return result;
+		}
+		finally
+		{
+			if (close)
+				closeCursor(key, cursor);
+		}
+	}
+
+	/**
+	 * 打开一个新查询游标，并移动至{@code startRow}行之前。
+	 * 
+	 * @param user
+	 * @param schema
+	 * @param sql
+	 * @param startRow
+	 * @param fetchSize
+	 * @return
+	 * @throws SQLException
+	 * @throws ConnectionSourceException
+	 */
+	protected SqlpadCursor openCursor(User user, Schema schema, String sql, int startRow, int fetchSize)
+			throws SQLException, ConnectionSourceException
+	{
+		Connection cn = null;
+		QueryResultSet qrs = null;
+
+		try
+		{
+			cn = getSchemaCursorConnection(schema);
+			// 关闭自动提交，某些驱动程序（比如PostgreSQL）仅在此时才会使用服务端游标分批获取数据
+			JdbcUtil.setAutoCommitIfSupports(cn, false);
+			JdbcUtil.setReadonlyIfSupports(cn, true);
+
+			qrs = executeQuery(cn, Sql.valueOf(sql), ResultSet.TYPE_FORWARD_ONLY, fetchSize);
+			ResultSet rs = qrs.getResultSet();
+			Table table = this.sqlSelectManager.buildTable(cn, rs);
+
+			for (int i = 1; i < startRow; i++)
+			{
+				if (!rs.next())
+					break;
+			}
+
+			return new SqlpadCursor(user.getId(), cn, qrs, table, startRow);
+		}
+		catch (SQLException | RuntimeException e)
+		{
+			QueryResultSet.close(qrs);
+			closeCursorConnection(cn);
+
+			throw e;
+		}
+	}
+
+	/**
+	 * 不使用游标查询SQL。
+	 * 
+	 * @param schema
+	 * @param sql
+	 * @param startRow
+	 * @param fetchSize
+	 * @param rowMapper
+	 * @return
+	 * @throws SQLException
+	 * @throws ConnectionSourceException
+	 */
+	protected SqlSelectResult selectWithoutCursor(Schema schema, String sql, int startRow, int fetchSize,
+			RowMapper rowMapper) throws SQLException, ConnectionSourceException
+	{
+		Connection cn = null;
+
+		try
+		{
+			cn = getSchemaConnection(schema);
+			JdbcUtil.setAutoCommitIfSupports(cn, false);
+			JdbcUtil.setReadonlyIfSupports(cn, true);
+
+			return this.sqlSelectManager.select(cn, sql, startRow, fetchSize, rowMapper);
+		}
+		finally
+		{
+			closeCursorConnection(cn);
+		}
+	}
+
+	/**
+	 * 关闭并移除查询游标。
+	 * 
+	 * @param key
+	 *            为{@code null}时仅关闭不移除
+	 * @param cursor
+	 */
+	protected void closeCursor(SqlpadCursorKey key, SqlpadCursor cursor)
+	{
+		if (key != null)
+			this._sqlpadCursorMap.remove(key, cursor);
+
+		Connection cn = cursor.close();
+
+		if (cn != null)
+			closeCursorConnection(cn);
+	}
+
+	/**
+	 * 等待查询游标未被使用时，关闭并移除它。
+	 * 
+	 * @param key
+	 *            为{@code null}时仅关闭不移除
+	 * @param cursor
+	 */
+	protected void lockAndCloseCursor(SqlpadCursorKey key, SqlpadCursor cursor)
+	{
+		cursor.lock();
+
+		try
+		{
+			closeCursor(key, cursor);
+		}
+		finally
+		{
+			cursor.unlock();
+		}
+	}
+
+	/**
+	 * 关闭查询游标的连接。
+	 * 
+	 * @param cn
+	 *            允许为{@code null}
+	 */
+	protected void closeCursorConnection(Connection cn)
+	{
+		if (cn == null)
+			return;
+
+		try
+		{
+			JdbcUtil.rollbackIfSupports(cn);
+		}
+		catch (Throwable t)
+		{
+		}
+
+		JdbcUtil.closeConnection(cn);
+	}
+
+	/**
+	 * 关闭空闲超时的查询游标。
+	 */
+	protected void evictIdleCursors()
+	{
+		long expiredTime = System.currentTimeMillis() - this.cursorIdleSeconds * 1000L;
+
+		for (Map.Entry<SqlpadCursorKey, SqlpadCursor> entry : this._sqlpadCursorMap.entrySet())
+		{
+			SqlpadCursor cursor = entry.getValue();
+
+			if (cursor.getLastAccessTime() < expiredTime && cursor.tryLock())
+			{
+				try
+				{
+					closeCursor(entry.getKey(), cursor);
+				}
+				finally
+				{
+					cursor.unlock();
+				}
+			}
+		}
+	}
+
+	/**
+	 * 关闭指定用户超出{@linkplain #getCursorMaxPerUser()}的最久未访问的查询游标。
+	 * 
+	 * @param userId
+	 */
+	protected void evictExceededUserCursors(String userId)
+	{
+		evictExceededCursors(userId, this.cursorMaxPerUser);
+	}
+
+	/**
+	 * 关闭所有用户超出{@linkplain #getCursorMaxTotal()}的最久未访问的查询游标。
+	 */
+	protected void evictExceededTotalCursors()
+	{
+		if (this.cursorMaxTotal <= 0)
+			return;
+
+		evictExceededCursors(null, this.cursorMaxTotal);
+	}
+
+	/**
+	 * 关闭超出最大数目的最久未访问的查询游标。
+	 * 
+	 * @param userId
+	 *            为{@code null}表示所有用户
+	 * @param maxCount
+	 */
+	protected void evictExceededCursors(String userId, int maxCount)
+	{
+		while (true)
+		{
+			int count = 0;
+			Map.Entry<SqlpadCursorKey, SqlpadCursor> oldest = null;
+
+			for (Map.Entry<SqlpadCursorKey, SqlpadCursor> entry : this._sqlpadCursorMap.entrySet())
+			{
+				SqlpadCursor cursor = entry.getValue();
+
+				if (userId != null && !cursor.getUserId().equals(userId))
+					continue;
+
+				count++;
+
+				if (oldest == null || cursor.getLastAccessTime() < oldest.getValue().getLastAccessTime())
+					oldest = entry;
+			}
+
+			if (count <= maxCount || oldest == null)
+				return;
+
+			// 正被其他请求使用的游标，等待其使用完后再关闭
+			lockAndCloseCursor(oldest.getKey(), oldest.getValue());
+		}
 	}
 
 	/**
@@ -215,6 +675,21 @@ public class SqlpadExecutionService extends PersistenceSupport
 		return this.schemaConnectionSupport.getSchemaConnection(this.connectionSource, schema);
 	}
 
+	/**
+	 * 获取指定{@linkplain Schema}用于查询游标的{@linkplain Connection}。
+	 * <p>
+	 * 查询游标可能长时间持有连接，所以这里获取不占用连接池的独立连接，关闭游标时将直接关闭物理连接。
+	 * </p>
+	 * 
+	 * @param schema
+	 * @return
+	 * @throws ConnectionSourceException
+	 */
+	protected Connection getSchemaCursorConnection(Schema schema) throws ConnectionSourceException
+	{
+		return this.schemaConnectionSupport.getSchemaDedicatedConnection(this.connectionSource, schema);
+	}
+
 	/**
 	 * 发送执行开始消息。
 	 * 
@@ -527,49 +1002,75 @@ public class SqlpadExecutionService extends PersistenceSupport
 
 			List<String> sqlHistories = new ArrayList<>();
 
+			int batchSize = (SqlpadExecutionService.this.batchSize > 1
+					&& JdbcUtil.supportsBatchWithSavepointIfSupports(cn) ? SqlpadExecutionService.this.batchSize : 0);
+			List<SqlStatement> batch = (batchSize > 1 ? new ArrayList<>(batchSize) : null);
+			int batchStartIndex = 0;
+
 			try
 			{
+				boolean breakLoop = false;
+
 				for (int i = 0; i < totalCount; i++)
 				{
+					// 处理命令前先执行之前的批处理，使暂停、停止等命令作用的位置与逐条执行时一致
+					if (batch != null && this.sqlCommand != null && !batch.isEmpty())
+					{
+						breakLoop = executeBatch(sqlExecutionStat, sqlpadFileDirectory, cn, st, batch,
+								batchStartIndex, sqlHistories);
+						if (breakLoop)
+							break;
+					}
+
 					if (handleSqlCommandInExecution(cn, true, sqlExecutionStat))
 						break;
 
 					SqlStatement sqlStatement = getSqlStatements().get(i);
 
-					if (!SqlpadExecutionService.this.sqlPermissionChecker.hasPermission(getUser(), getSchema(),
-							sqlStatement))
+					boolean hasPermission = SqlpadExecutionService.this.sqlPermissionChecker.hasPermission(getUser(),
+							getSchema(), sqlStatement);
+
+					if (batch != null && hasPermission && isBatchableSql(sqlStatement.getSql()))
 					{
-						sendSqlExceptionMessage(getSqlpadId(), sqlStatement, i,
-								getMessage(getLocale(), "sqlpad.executionSQLPermissionDenied"));
+						if (batch.isEmpty())
+							batchStartIndex = i;
 
-						sqlExecutionStat.increaseExceptionCount();
+						st.addBatch(sqlStatement.getSql());
+						batch.add(sqlStatement);
+
+						if (batch.size() >= batchSize)
+							breakLoop = executeBatch(sqlExecutionStat, sqlpadFileDirectory, cn, st, batch,
+									batchStartIndex, sqlHistories);
 					}
 					else
 					{
-						try
+						if (batch != null && !batch.isEmpty())
 						{
-							execute(sqlExecutionStat, sqlpadFileDirectory, cn, st, sqlStatement, i);
-							sqlExecutionStat.increaseSuccessCount();
-
-							sqlHistories.add(sqlStatement.getSql());
+							breakLoop = executeBatch(sqlExecutionStat, sqlpadFileDirectory, cn, st, batch,
+									batchStartIndex, sqlHistories);
+							if (breakLoop)
+								break;
 						}
-						catch (SQLException e)
-						{
-							sqlExecutionStat.increaseExceptionCount();
 
-							sendSqlExceptionMessage(getSqlpadId(), sqlStatement, i, e,
-									getMessage(getLocale(), "sqlpad.executionSQLException", e.getMessage()));
+						if (!hasPermission)
+						{
+							sendSqlExceptionMessage(getSqlpadId(), sqlStatement, i,
+									getMessage(getLocale(), "sqlpad.executionSQLPermissionDenied"));
 
-							if (ExceptionHandleMode.IGNORE.equals(getExceptionHandleMode()))
-								;
-							else
-							{
-								break;
-							}
+							sqlExecutionStat.increaseExceptionCount();
 						}
+						else
+							breakLoop = executeSingle(sqlExecutionStat, sqlpadFileDirectory, cn, st, sqlStatement, i,
+									sqlHistories);
 					}
+
+					if (breakLoop)
+						break;
 				}
 
+				if (batch != null && !breakLoop && !batch.isEmpty())
+					executeBatch(sqlExecutionStat, sqlpadFileDirectory, cn, st, batch, batchStartIndex, sqlHistories);
+
 				if (SqlCommand.STOP.equals(this.sqlCommand))
 					;
 				else
@@ -745,6 +1246,121 @@ public class SqlpadExecutionService extends PersistenceSupport
 			}
 		}
 
+		/**
+		 * 执行一条SQL，并发送执行结果消息。
+		 * 
+		 * @param sqlExecutionStat
+		 * @param sqlpadFileDirectory
+		 * @param cn
+		 * @param st
+		 * @param sqlStatement
+		 * @param sqlStatementIndex
+		 * @param sqlHistories
+		 * @return true 退出执行循环；false 不退出执行循环。
+		 */
+		protected boolean executeSingle(SQLExecutionStat sqlExecutionStat, SqlpadFileDirectory sqlpadFileDirectory,
+				Connection cn, Statement st, SqlStatement sqlStatement, int sqlStatementIndex,
+				List<String> sqlHistories)
+		{
+			try
+			{
+				execute(sqlExecutionStat, sqlpadFileDirectory, cn, st, sqlStatement, sqlStatementIndex);
+				sqlExecutionStat.increaseSuccessCount();
+
+				sqlHistories.add(sqlStatement.getSql());
+
+				return false;
+			}
+			catch (SQLException e)
+			{
+				sqlExecutionStat.increaseExceptionCount();
+
+				sendSqlExceptionMessage(getSqlpadId(), sqlStatement, sqlStatementIndex, e,
+						getMessage(getLocale(), "sqlpad.executionSQLException", e.getMessage()));
+
+				return !ExceptionHandleMode.IGNORE.equals(getExceptionHandleMode());
+			}
+		}
+
+		/**
+		 * 批处理执行已加入{@code st}的SQL语句，发送执行结果消息，并清空{@code sqlStatements}。
+		 * <p>
+		 * 执行前会设置{@linkplain Savepoint}，如果批处理执行出错，将回滚至此并逐条重新执行这些SQL语句，
+		 * 以确定并报告出错的SQL语句。
+		 * </p>
+		 * 
+		 * @param sqlExecutionStat
+		 * @param sqlpadFileDirectory
+		 * @param cn
+		 * @param st
+		 * @param sqlStatements
+		 * @param startIndex
+		 *            第一条SQL语句的索引
+		 * @param sqlHistories
+		 * @return true 退出执行循环；false 不退出执行循环。
+		 * @throws SQLException
+		 */
+		protected boolean executeBatch(SQLExecutionStat sqlExecutionStat, SqlpadFileDirectory sqlpadFileDirectory,
+				Connection cn, Statement st, List<SqlStatement> sqlStatements, int startIndex,
+				List<String> sqlHistories) throws SQLException
+		{
+			try
+			{
+				long startTime = System.currentTimeMillis();
+
+				Savepoint savepoint = cn.setSavepoint();
+				int[] updateCounts = null;
+
+				try
+				{
+					updateCounts = st.executeBatch();
+				}
+				catch (SQLException e)
+				{
+					JdbcUtil.clearBatchSilently(st);
+					cn.rollback(savepoint);
+				}
+
+				if (updateCounts != null)
+				{
+					JdbcUtil.releaseSavepointSilently(cn, savepoint);
+
+					sqlExecutionStat.increaseSqlDuration(System.currentTimeMillis() - startTime);
+
+					for (int i = 0, len = sqlStatements.size(); i < len; i++)
+					{
+						SqlStatement sqlStatement = sqlStatements.get(i);
+						int updateCount = (i < updateCounts.length ? updateCounts[i] : -1);
+
+						if (updateCount > -1)
+							sendSqlSuccessMessage(getSqlpadId(), sqlStatement, startIndex + i, updateCount);
+						else
+							sendSqlSuccessMessage(getSqlpadId(), sqlStatement, startIndex + i);
+
+						sqlExecutionStat.increaseSuccessCount();
+						sqlHistories.add(sqlStatement.getSql());
+					}
+
+					return false;
+				}
+				else
+				{
+					for (int i = 0, len = sqlStatements.size(); i < len; i++)
+					{
+						if (executeSingle(sqlExecutionStat, sqlpadFileDirectory, cn, st, sqlStatements.get(i),
+								startIndex + i, sqlHistories))
+							return true;
+					}
+
+					return false;
+				}
+			}
+			finally
+			{
+				sqlStatements.clear();
+			}
+		}
+
 		/**
 		 * 执行SQL，出现异常时应该抛出{@linkplain SQLException}。
 		 * 
@@ -840,6 +1456,226 @@ public class SqlpadExecutionService extends PersistenceSupport
 		}
 	}
 
+	/**
+	 * 查询游标关键字。
+	 * <p>
+	 * 它包含用户ID、数据源ID，使得游标只能被打开它的用户在同一数据源上复用。
+	 * </p>
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static class SqlpadCursorKey
+	{
+		private final String userId;
+
+		private final String schemaId;
+
+		private final String sqlpadId;
+
+		private final String sql;
+
+		public SqlpadCursorKey(String userId, String schemaId, String sqlpadId, String sql)
+		{
+			super();
+			this.userId = userId;
+			this.schemaId = schemaId;
+			this.sqlpadId = sqlpadId;
+			this.sql = sql;
+		}
+
+		public String getUserId()
+		{
+			return userId;
+		}
+
+		public String getSchemaId()
+		{
+			return schemaId;
+		}
+
+		public String getSqlpadId()
+		{
+			return sqlpadId;
+		}
+
+		public String getSql()
+		{
+			return sql;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			final int prime = 31;
+			int result = 1;
+			result = prime * result + ((schemaId == null) ? 0 : schemaId.hashCode());
+			result = prime * result + ((sql == null) ? 0 : sql.hashCode());
+			result = prime * result + ((sqlpadId == null) ? 0 : sqlpadId.hashCode());
+			result = prime * result + ((userId == null) ? 0 : userId.hashCode());
+			return result;
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (this == obj)
+				return true;
+			if (obj == null)
+				return false;
+			if (getClass() != obj.getClass())
+				return false;
+			SqlpadCursorKey other = (SqlpadCursorKey) obj;
+			if (schemaId == null)
+			{
+				if (other.schemaId != null)
+					return false;
+			}
+			else if (!schemaId.equals(other.schemaId))
+				return false;
+			if (sql == null)
+			{
+				if (other.sql != null)
+					return false;
+			}
+			else if (!sql.equals(other.sql))
+				return false;
+			if (sqlpadId == null)
+			{
+				if (other.sqlpadId != null)
+					return false;
+			}
+			else if (!sqlpadId.equals(other.sqlpadId))
+				return false;
+			if (userId == null)
+			{
+				if (other.userId != null)
+					return false;
+			}
+			else if (!userId.equals(other.userId))
+				return false;
+			return true;
+		}
+	}
+
+	/**
+	 * 保持打开的查询游标。
+	 * <p>
+	 * 它持有独占的{@linkplain Connection}和{@linkplain ResultSet}，使用前应先获取锁。
+	 * </p>
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static class SqlpadCursor
+	{
+		private final String userId;
+
+		private final Connection connection;
+
+		private final QueryResultSet queryResultSet;
+
+		private final Table table;
+
+		/** 结果集下一次读取的行号 */
+		private volatile int nextRow;
+
+		private volatile long lastAccessTime;
+
+		private volatile boolean closed = false;
+
+		private final ReentrantLock lock = new ReentrantLock();
+
+		public SqlpadCursor(String userId, Connection connection, QueryResultSet queryResultSet, Table table,
+				int nextRow)
+		{
+			super();
+			this.userId = userId;
+			this.connection = connection;
+			this.queryResultSet = queryResultSet;
+			this.table = table;
+			this.nextRow = nextRow;
+			this.lastAccessTime = System.currentTimeMillis();
+		}
+
+		public String getUserId()
+		{
+			return userId;
+		}
+
+		public Connection getConnection()
+		{
+			return connection;
+		}
+
+		public ResultSet getResultSet()
+		{
+			return this.queryResultSet.getResultSet();
+		}
+
+		public Table getTable()
+		{
+			return table;
+		}
+
+		public int getNextRow()
+		{
+			return nextRow;
+		}
+
+		public void setNextRow(int nextRow)
+		{
+			this.nextRow = nextRow;
+		}
+
+		public long getLastAccessTime()
+		{
+			return lastAccessTime;
+		}
+
+		public void setLastAccessTime(long lastAccessTime)
+		{
+			this.lastAccessTime = lastAccessTime;
+		}
+
+		public boolean isClosed()
+		{
+			return closed;
+		}
+
+		public boolean tryLock()
+		{
+			return this.lock.tryLock();
+		}
+
+		public void lock()
+		{
+			this.lock.lock();
+		}
+
+		public void unlock()
+		{
+			this.lock.unlock();
+		}
+
+		/**
+		 * 关闭结果集。
+		 * 
+		 * @return 需由调用者关闭的{@linkplain Connection}，已关闭过则返回{@code null}
+		 */
+		public synchronized Connection close()
+		{
+			if (this.closed)
+				return null;
+
+			this.closed = true;
+
+			QueryResultSet.close(this.queryResultSet);
+
+			return this.connection;
+		}
+	}
+
 	/**
 	 * SQL执行统计信息。
 	 * 
@@ -0,0 +1,206 @@
+/*
+ * Copyright 2018 datagear.tech. All Rights Reserved.
+ */
+
+package org.datagear.web.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import org.datagear.meta.SimpleTable;
+import org.datagear.web.util.KeywordMatcher.KeywordInfo;
+import org.datagear.web.util.KeywordMatcher.MatchType;
+
+/**
+ * 数据库表目录快照。
+ * <p>
+ * 它保存某个{@linkplain org.datagear.management.domain.Schema}的用户数据表列表（按照表名排序），
+ * 并建立大写表名的有序索引，使得表名前缀查找（关键字为{@code "abc%"}）可以通过二分查找完成，
+ * 其他关键字查找也只需遍历预先转换的大写表名，而无需访问数据库。
+ * </p>
+ * <p>
+ * 此类是不可变的，可在多线程间共享。
+ * </p>
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class TableCatalog
+{
+	/** 按照表名排序的表 */
+	private final SimpleTable[] tables;
+
+	/** 与{@linkplain #tables}一一对应的大写表名 */
+	private final String[] upperNames;
+
+	/** 排序的大写表名 */
+	private final String[] sortedUpperNames;
+
+	/** 与{@linkplain #sortedUpperNames}一一对应的{@linkplain #tables}索引 */
+	private final int[] sortedUpperNameIndexes;
+
+	/** 创建时间 */
+	private final long createTime;
+
+	public TableCatalog(List<SimpleTable> tables)
+	{
+		super();
+
+		SimpleTable[] myTables = tables.toArray(new SimpleTable[tables.size()]);
+		Arrays.sort(myTables, TABLE_SORT_BY_NAME_COMPARATOR);
+
+		int len = myTables.length;
+
+		String[] upperNames = new String[len];
+		Integer[] indexes = new Integer[len];
+
+		for (int i = 0; i < len; i++)
+		{
+			upperNames[i] = myTables[i].getName().toUpperCase();
+			indexes[i] = i;
+		}
+
+		Arrays.sort(indexes, new Comparator<Integer>()
+		{
+			@Override
+			public int compare(Integer o1, Integer o2)
+			{
+				return upperNames[o1].compareTo(upperNames[o2]);
+			}
+		});
+
+		String[] sortedUpperNames = new String[len];
+		int[] sortedUpperNameIndexes = new int[len];
+
+		for (int i = 0; i < len; i++)
+		{
+			sortedUpperNames[i] = upperNames[indexes[i]];
+			sortedUpperNameIndexes[i] = indexes[i];
+		}
+
+		this.tables = myTables;
+		this.upperNames = upperNames;
+		this.sortedUpperNames = sortedUpperNames;
+		this.sortedUpperNameIndexes = sortedUpperNameIndexes;
+		this.createTime = System.currentTimeMillis();
+	}
+
+	/**
+	 * 获取创建时间。
+	 * 
+	 * @return
+	 */
+	public long getCreateTime()
+	{
+		return createTime;
+	}
+
+	/**
+	 * 获取表数目。
+	 * 
+	 * @return
+	 */
+	public int getTableCount()
+	{
+		return this.tables.length;
+	}
+
+	/**
+	 * 获取按照表名排序的所有表。
+	 * 
+	 * @return 新的可修改列表
+	 */
+	public List<SimpleTable> getTables()
+	{
+		return new ArrayList<>(Arrays.asList(this.tables));
+	}
+
+	/**
+	 * 根据表名关键字查找表。
+	 * <p>
+	 * 关键字格式与{@linkplain KeywordMatcher}一致，返回列表按照表名排序。
+	 * </p>
+	 * 
+	 * @param keyword
+	 *            允许为{@code null}
+	 * @return 新的可修改列表
+	 */
+	public List<SimpleTable> findByKeyword(String keyword)
+	{
+		KeywordInfo keywordInfo = KeywordMatcher.resolveKeywordInfo(keyword);
+
+		if (keywordInfo == null)
+			return getTables();
+
+		MatchType matchType = keywordInfo.getMatchType();
+		String upperKeyword = keywordInfo.getUpperKeyword();
+
+		if (MatchType.START.equals(matchType))
+			return findByUpperPrefix(upperKeyword);
+
+		List<SimpleTable> result = new ArrayList<>();
+
+		for (int i = 0; i < this.tables.length; i++)
+		{
+			String upperName = this.upperNames[i];
+
+			boolean match = (MatchType.END.equals(matchType) ? upperName.endsWith(upperKeyword)
+					: upperName.indexOf(upperKeyword) >= 0);
+
+			if (match)
+				result.add(this.tables[i]);
+		}
+
+		return result;
+	}
+
+	/**
+	 * 查找大写表名以指定前缀开头的表。
+	 * 
+	 * @param upperPrefix
+	 * @return 新的可修改列表，按照表名排序
+	 */
+	protected List<SimpleTable> findByUpperPrefix(String upperPrefix)
+	{
+		int start = Arrays.binarySearch(this.sortedUpperNames, upperPrefix);
+
+		if (start < 0)
+			start = -start - 1;
+
+		int end = start;
+		while (end < this.sortedUpperNames.length && this.sortedUpperNames[end].startsWith(upperPrefix))
+			end++;
+
+		if (start == end)
+			return new ArrayList<>(0);
+
+		int[] indexes = Arrays.copyOfRange(this.sortedUpperNameIndexes, start, end);
+
+		// 还原为表名排序
+		Arrays.sort(indexes);
+
+		List<SimpleTable> result = new ArrayList<>(indexes.length);
+
+		for (int index : indexes)
+			result.add(this.tables[index]);
+
+		return result;
+	}
+
+	@Override
+	public String toString()
+	{
+		return getClass().getSimpleName() + " [tableCount=" + this.tables.length + ", createTime=" + createTime + "]";
+	}
+
+	public static final Comparator<SimpleTable> TABLE_SORT_BY_NAME_COMPARATOR = new Comparator<SimpleTable>()
+	{
+		@Override
+		public int compare(SimpleTable o1, SimpleTable o2)
+		{
+			return o1.getName().compareTo(o2.getName());
+		}
+	};
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright 2018 datagear.tech. All Rights Reserved.
+ */
+
+package org.datagear.web.util;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.datagear.management.domain.Schema;
+import org.datagear.meta.SimpleTable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * {@linkplain TableCatalog}缓存。
+ * <p>
+ * 每个{@linkplain Schema}缓存一个{@linkplain TableCatalog}，首次获取时同步加载，
+ * 之后超过{@linkplain #getRefreshAfterSeconds()}时仍返回已缓存的{@linkplain TableCatalog}，
+ * 同时在后台线程中重新加载，使得表列表、SQL自动补全不必每次都访问数据库。
+ * </p>
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class TableCatalogCache
+{
+	private static final Logger LOGGER = LoggerFactory.getLogger(TableCatalogCache.class);
+
+	/** 缓存值的最大数 */
+	private int maximumSize = 100;
+
+	/** 缓存过期分钟数 */
+	private int expireAfterAccessMinutes = 60 * 72;
+
+	/** 后台刷新秒数，小于等于0表示不刷新 */
+	private int refreshAfterSeconds = 60 * 5;
+
+	private Cache<String, TableCatalog> _cache = null;
+
+	private ExecutorService _refreshExecutor = null;
+
+	private final Set<String> _refreshingSchemaIds = ConcurrentHashMap.newKeySet();
+
+	private final ConcurrentMap<String, AtomicLong> _versions = new ConcurrentHashMap<>();
+
+	public TableCatalogCache()
+	{
+		super();
+	}
+
+	public int getMaximumSize()
+	{
+		return maximumSize;
+	}
+
+	public void setMaximumSize(int maximumSize)
+	{
+		this.maximumSize = maximumSize;
+	}
+
+	public int getExpireAfterAccessMinutes()
+	{
+		return expireAfterAccessMinutes;
+	}
+
+	public void setExpireAfterAccessMinutes(int expireAfterAccessMinutes)
+	{
+		this.expireAfterAccessMinutes = expireAfterAccessMinutes;
+	}
+
+	public int getRefreshAfterSeconds()
+	{
+		return refreshAfterSeconds;
+	}
+
+	public void setRefreshAfterSeconds(int refreshAfterSeconds)
+	{
+		this.refreshAfterSeconds = refreshAfterSeconds;
+	}
+
+	/**
+	 * 初始化。
+	 */
+	public void init()
+	{
+		this._cache = CacheBuilder.newBuilder().maximumSize(this.maximumSize)
+				.expireAfterAccess(this.expireAfterAccessMinutes * 60, TimeUnit.SECONDS).build();
+
+		this._refreshExecutor = Executors.newSingleThreadExecutor(r ->
+		{
+			Thread thread = new Thread(r, TableCatalogCache.class.getSimpleName() + "-refresh");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * 销毁。
+	 */
+	public void destroy()
+	{
+		if (this._refreshExecutor != null)
+			this._refreshExecutor.shutdownNow();
+	}
+
+	/**
+	 * 获取{@linkplain TableCatalog}。
+	 * <p>
+	 * 没有缓存时将使用{@code loader}同步加载；缓存已超过{@linkplain #getRefreshAfterSeconds()}时，
+	 * 将返回已缓存的，并使用{@code loader}在后台重新加载。
+	 * </p>
+	 * 
+	 * @param schemaId
+	 * @param loader
+	 *            加载器，可能在后台线程中调用，因此它应自行获取、关闭数据库连接
+	 * @return
+	 * @throws Throwable
+	 */
+	public TableCatalog get(String schemaId, TableCatalogLoader loader) throws Throwable
+	{
+		TableCatalog catalog = this._cache.getIfPresent(schemaId);
+
+		if (catalog == null)
+		{
+			long version = getVersion(schemaId).get();
+			catalog = new TableCatalog(loader.load());
+			putIfVersionUnchanged(schemaId, catalog, version);
+		}
+		else if (isStale(catalog))
+			refreshAsync(schemaId, loader);
+
+		return catalog;
+	}
+
+	/**
+	 * 清除指定{@linkplain Schema} ID的缓存。
+	 * <p>
+	 * 清除前已开始的加载结果也不会再被缓存。
+	 * </p>
+	 * 
+	 * @param schemaId
+	 */
+	public void invalidate(String schemaId)
+	{
+		AtomicLong version = getVersion(schemaId);
+
+		synchronized (version)
+		{
+			version.incrementAndGet();
+			this._cache.invalidate(schemaId);
+		}
+	}
+
+	protected boolean isStale(TableCatalog catalog)
+	{
+		if (this.refreshAfterSeconds <= 0)
+			return false;
+
+		return (System.currentTimeMillis() - catalog.getCreateTime() > this.refreshAfterSeconds * 1000L);
+	}
+
+	protected void refreshAsync(String schemaId, TableCatalogLoader loader)
+	{
+		// 同一Schema同时只允许一个后台加载
+		if (!this._refreshingSchemaIds.add(schemaId))
+			return;
+
+		long version = getVersion(schemaId).get();
+
+		try
+		{
+			this._refreshExecutor.submit(() ->
+			{
+				try
+				{
+					TableCatalog catalog = new TableCatalog(loader.load());
+					putIfVersionUnchanged(schemaId, catalog, version);
+				}
+				catch (Throwable t)
+				{
+					LOGGER.warn("refresh table catalog for schema [" + schemaId + "] error", t);
+				}
+				finally
+				{
+					this._refreshingSchemaIds.remove(schemaId);
+				}
+			});
+		}
+		catch (Throwable t)
+		{
+			this._refreshingSchemaIds.remove(schemaId);
+			LOGGER.warn("submit table catalog refresh for schema [" + schemaId + "] error", t);
+		}
+	}
+
+	protected void putIfVersionUnchanged(String schemaId, TableCatalog catalog, long version)
+	{
+		AtomicLong myVersion = getVersion(schemaId);
+
+		synchronized (myVersion)
+		{
+			if (myVersion.get() == version)
+				this._cache.put(schemaId, catalog);
+		}
+	}
+
+	protected AtomicLong getVersion(String schemaId)
+	{
+		return this._versions.computeIfAbsent(schemaId, k -> new AtomicLong(0));
+	}
+
+	/**
+	 * {@linkplain TableCatalog}表加载器。
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	public static interface TableCatalogLoader
+	{
+		/**
+		 * 加载用户数据表列表。
+		 * 
+		 * @return
+		 * @throws Throwable
+		 */
+		List<SimpleTable> load() throws Throwable;
+	}
+}
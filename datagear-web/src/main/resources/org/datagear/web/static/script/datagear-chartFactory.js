@@ -365,6 +365,7 @@
 		this._initMap();
 		this._initEchartsThemeName();
 		this._initDisableSetting();
+		this._initColumnarResult();
 		this._initEventHandlers();
 		this._initCustomChartRenderer();
 		
@@ -486,6 +487,20 @@
 		this.disableSetting(disableSetting == "true");
 	};
 	
+	/**
+	 * 初始化图表是否请求列式数据集结果。
+	 * 此方法从图表元素的"dg-chart-columnar-result"属性获取是否请求值。
+	 */
+	chartBase._initColumnarResult = function()
+	{
+		var columnarResult = this.elementJquery().attr("dg-chart-columnar-result");
+		
+		if(!columnarResult)
+			columnarResult = $(document.body).attr("dg-chart-columnar-result");
+		
+		this.columnarResult(columnarResult == "true");
+	};
+	
 	/**
 	 * 初始化图表事件处理函数。
 	 * 此方法从图表元素的所有以"dg-chart-on-"开头的属性获取事件处理函数。
@@ -629,6 +644,20 @@
 			this._disableSetting = disable;
 	};
 	
+	/**
+	 * 获取/设置图表是否请求列式数据集结果。
+	 * 列式数据集结果可大幅减小大数据量结果的传输量，在图表使用前会被chartFactory.toRowResult()还原为行数据，对图表透明。
+	 * 
+	 * @param columnar 可选，是否请求列式数据集结果，没有则执行获取操作
+	 */
+	chartBase.columnarResult = function(columnar)
+	{
+		if(columnar === undefined)
+			return (this._columnarResult === true);
+		else
+			this._columnarResult = columnar;
+	};
+	
 	/**
 	 * 获取/设置初始图表事件处理函数数组。
 	 * 
@@ -1523,7 +1552,7 @@
 	 */
 	chartBase.resultData = function(result)
 	{
-		return (result ? result.data : undefined);
+		return (result ? chartFactory.toRowResult(result).data : undefined);
 	};
 	
 	/**
@@ -1535,6 +1564,9 @@
 	 */
 	chartBase.resultDatas = function(result)
 	{
+		if(result != null)
+			chartFactory.toRowResult(result);
+		
 		if(result == null || result.data == null)
 			return [];
 		
@@ -2100,6 +2132,59 @@
 	// chartBase end
 	//----------------------------------------
 	
+	/**
+	 * 将列式数据集结果（org.datagear.analysis.ColumnarDataSetResult）还原为行数据集结果。
+	 * 列式数据集结果格式为：
+	 * { columnar: true, names: [ "...", ... ], rowCount: 数值, columns: [ [ ... ], ... ], nullRows: [ 行索引, ... ] }
+	 * 还原后的格式为：
+	 * { data: [ { ... }, ... ] }
+	 * 还原的行对象包含所有属性名，值为null的也不会省略，nullRows中的行将还原为null。
+	 * 
+	 * @param result 数据集结果对象，如果是列式，将被直接修改
+	 * @return result
+	 */
+	chartFactory.toRowResult = function(result)
+	{
+		if(result == null || result.columnar !== true)
+			return result;
+		
+		var names = (result.names || []);
+		var columns = (result.columns || []);
+		var rowCount = (result.rowCount || 0);
+		var nullRows = (result.nullRows || []);
+		
+		var data = new Array(rowCount);
+		
+		for(var i=0; i<rowCount; i++)
+		{
+			var row = {};
+			
+			for(var j=0; j<names.length; j++)
+			{
+				var value = columns[j][i];
+				row[names[j]] = (value === undefined ? null : value);
+			}
+			
+			data[i] = row;
+		}
+		
+		for(var i=0; i<nullRows.length; i++)
+		{
+			if(nullRows[i] < rowCount)
+				data[nullRows[i]] = null;
+		}
+		
+		result.data = data;
+		
+		delete result.columnar;
+		delete result.names;
+		delete result.rowCount;
+		delete result.columns;
+		delete result.nullRows;
+		
+		return result;
+	};
+	
 	/**
 	 * 执行JS代码。
 	 * 
@@ -182,7 +182,9 @@
 				//org.datagear.web.controller.AbstractDataAnalysisController.UPDATE_DASHBOARD_PARAM_CHART_IDS
 				chartIdsParamName: "chartIds",
 				//org.datagear.web.controller.AbstractDataAnalysisController.UPDATE_DASHBOARD_PARAM_CHARTS_PARAM_VALUES
-				chartsParamValuesParamName: "chartsParamValues"
+				chartsParamValuesParamName: "chartsParamValues",
+				//org.datagear.web.controller.AbstractDataAnalysisController.UPDATE_DASHBOARD_PARAM_COLUMNAR
+				columnarParamName: "columnar"
 			});
 	
 	/**
@@ -1096,6 +1098,8 @@
 							var results = (resultsMap[chartId] || []);
 							for(var i=0; i<results.length; i++)
 							{
+								global.chartFactory.toRowResult(results[i]);
+								
 								if(results[i] && results[i].data != null)
 								{
 									var resultDatas = results[i].data;
@@ -1249,10 +1253,15 @@
 		{
 			var chartIds = [];
 			var chartsParamValues = {};
+			var columnar = false;
 			
 			for(var i=0; i<charts.length; i++)
 			{
 				chartIds[i] = charts[i].id;
+				
+				if(charts[i].columnarResult && charts[i].columnarResult())
+					columnar = true;
+				
 				var chartDataSets = (charts[i].chartDataSets || []);
 				var myParamValuess = [];
 				for(var j=0; j<chartDataSets.length; j++)
@@ -1263,6 +1272,9 @@
 			
 			data[updateDashboardConfig.chartIdsParamName] = chartIds;
 			data[updateDashboardConfig.chartsParamValuesParamName] = chartsParamValues;
+			
+			if(columnar)
+				data[updateDashboardConfig.columnarParamName] = true;
 		}
 		
 		return data;
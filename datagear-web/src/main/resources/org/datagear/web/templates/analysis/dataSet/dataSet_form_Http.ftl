@@ -101,6 +101,21 @@ readonly 是否只读操作，允许为null
 					</div>
 				</div>
 			</div>
+			<div class="form-item">
+				<div class="form-item-label">
+					<label title="<@spring.message code='dataSet.http.cacheResponse.desc' />">
+						<@spring.message code='dataSet.http.cacheResponse' />
+					</label>
+				</div>
+				<div class="form-item-value no-padding-bottom">
+					<div id="${pageId}-cacheResponse">
+						<label for="${pageId}-cacheResponse-true"><@spring.message code='yes' /></label>
+						<input id="${pageId}-cacheResponse-true" type="radio" name="cacheResponse" value="true" />
+						<label for="${pageId}-cacheResponse-false"><@spring.message code='no' /></label>
+						<input id="${pageId}-cacheResponse-false" type="radio" name="cacheResponse" value="false" />
+					</div>
+				</div>
+			</div>
 			<div class="workspace">
 				<div class="form-item">
 					<div class="form-item-label">
@@ -162,6 +177,8 @@ readonly 是否只读操作，允许为null
 	po.element("select[name='requestContentType']").selectmenu({ appendTo : po.element() });
 	po.element("select[name='requestContentCharset']").selectmenu({ appendTo : po.element(), classes : { "ui-selectmenu-menu" : "encoding-selectmenu-menu" } });
 	po.element("select[name='responseContentType']").selectmenu({ appendTo : po.element() });
+	po.element("#${pageId}-cacheResponse").buttonset();
+	po.element("#${pageId}-cacheResponse-${((dataSet.cacheResponse)!false)?string('true', 'false')}").click();
 	po.initWorkspaceHeight();
 	po.element(".workspace-editor-tabs").tabs();
 	var workspaceEditorGapHeight = po.element(".workspace-editor-nav").outerHeight(true) + 4;
@@ -34,6 +34,21 @@ readonly 是否只读操作，允许为null
 					</#if>
 				</div>
 			</div>
+			<div class="form-item">
+				<div class="form-item-label">
+					<label title="<@spring.message code='dataSet.sql.bindParam.desc' />">
+						<@spring.message code='dataSet.sql.bindParam' />
+					</label>
+				</div>
+				<div class="form-item-value no-padding-bottom">
+					<div id="${pageId}-bindParam">
+						<label for="${pageId}-bindParam-true"><@spring.message code='yes' /></label>
+						<input id="${pageId}-bindParam-true" type="radio" name="bindParam" value="true" />
+						<label for="${pageId}-bindParam-false"><@spring.message code='no' /></label>
+						<input id="${pageId}-bindParam-false" type="radio" name="bindParam" value="false" />
+					</div>
+				</div>
+			</div>
 			<div class="workspace">
 				<div class="form-item">
 					<div class="form-item-label">
@@ -76,6 +91,8 @@ readonly 是否只读操作，允许为null
 			+"<span class='ui-button-icon-space'> </span><@spring.message code='sqlpad.exportSqlResult' /></button>");
 	
 	$.initButtons(po.element());
+	po.element("#${pageId}-bindParam").buttonset();
+	po.element("#${pageId}-bindParam-${((dataSet.bindParam)!false)?string('true', 'false')}").click();
 	po.initAnalysisProject("${(dataSet.analysisProject.id)!''?js_string}", "${(dataSet.analysisProject.name)!''?js_string}");
 	po.initWorkspaceHeight();
 	
@@ -123,6 +140,7 @@ readonly 是否只读操作，允许为null
 		var dataSet = po.previewOptions.data.dataSet;
 		
 		dataSet.sql = sql;
+		dataSet.bindParam = po.element("input[name='bindParam']:checked").val();
 		po.previewOptions.data.schemaId = schemaId;
 	};
 	
@@ -137,9 +155,11 @@ readonly 是否只读操作，允许为null
 		var schemaId = po.getDataSetSchemaId();
 		var sql = po.sqlEditor.getValue();
 		
+		var bindParam = po.element("input[name='bindParam']:checked").val();
+		
 		var pd = po.previewOptions.data.dataSet;
 		
-		return (pd.sql != sql) || (po.previewOptions.data.schemaId != schemaId);
+		return (pd.sql != sql) || (pd.bindParam != bindParam) || (po.previewOptions.data.schemaId != schemaId);
 	};
 	
 	po.previewOptions.url = po.url("previewSql");
@@ -1,5 +1,5 @@
 <#--
-数据集表单页：名称输入框片段
+数据集表单页：名称、结果缓存秒数输入框片段
 -->
 <input type="hidden" name="id" value="${(dataSet.id)!''?html}" />
 <div class="form-item form-item-name form-item-analysisProjectAware">
@@ -10,4 +10,14 @@
 		<input type="text" name="name" value="${(dataSet.name)!''?html}" class="ui-widget ui-widget-content" />
 	</div>
 	<#include "../../include/analysisProjectAware_form_select.ftl" >
+</div>
+<div class="form-item form-item-resultCacheSeconds">
+	<div class="form-item-label">
+		<label title="<@spring.message code='dataSet.resultCacheSeconds.desc' />">
+			<@spring.message code='dataSet.resultCacheSeconds' />
+		</label>
+	</div>
+	<div class="form-item-value">
+		<input type="text" name="resultCacheSeconds" value="${((dataSet.resultCacheSeconds)!0)?c}" class="ui-widget ui-widget-content" />
+	</div>
 </div>
\ No newline at end of file
@@ -222,6 +222,33 @@ boolean readonly 是否只读操作，默认为false
 		po.conditionAutocompleteSource = $.buildSearchConditionAutocompleteSource(table, po.sqlIdentifierQuote);
 		po.initConditionPanel();
 		po.initPagination();
+		
+		//键集分页：翻至下一页时，传回上一页的键集分页令牌，后台校验通过后不必跳过之前的行
+		po.keysetPagingState = null;
+		
+		po.dataTableAjaxParamSuper = po.dataTableAjaxParam;
+		po.dataTableAjaxParam = function()
+		{
+			var param = po.dataTableAjaxParamSuper();
+			var state = po.keysetPagingState;
+			
+			if(state && param.page == state.page + 1)
+				param.keysetToken = state.keysetToken;
+			
+			return param;
+		};
+		
+		po.dataTableAjaxSuccessSuper = po.dataTableAjaxSuccess;
+		po.dataTableAjaxSuccess = function(pagingData, textStatus, jqXHR)
+		{
+			po.dataTableAjaxSuccessSuper(pagingData, textStatus, jqXHR);
+			
+			if(pagingData.keysetToken)
+				po.keysetPagingState = { "page" : pagingData.page, "keysetToken" : pagingData.keysetToken };
+			else
+				po.keysetPagingState = null;
+		};
+		
 		po.initDataTableAjax(po.url("queryData"), table);
 		po.bindResizeDataTable();
 		
@@ -40,6 +40,27 @@ Schema schema 数据库，不允许为null
 							</div>
 						</div>
 					</div>
+					<div class="form-item">
+						<div class="form-item-label">
+							<label title="<@spring.message code='dataExport.partitionCount.desc' />"><@spring.message code='dataExport.partitionCount' /></label>
+						</div>
+						<div class="form-item-value">
+							<input type="text" name="exportOption.partitionCount" value="0" class="ui-widget ui-widget-content" />
+						</div>
+					</div>
+					<div class="form-item">
+						<div class="form-item-label">
+							<label title="<@spring.message code='dataExport.gzip.desc' />"><@spring.message code='dataExport.gzip' /></label>
+						</div>
+						<div class="form-item-value">
+							<div id="${pageId}-gzip">
+								<label for="${pageId}-gzip-0"><@spring.message code='yes' /></label>
+								<input id="${pageId}-gzip-0" type="radio" name="gzip" value="true" />
+								<label for="${pageId}-gzip-1"><@spring.message code='no' /></label>
+								<input id="${pageId}-gzip-1" type="radio" name="gzip" value="false" />
+							</div>
+						</div>
+					</div>
 				</div>
 				<h3><@spring.message code='dataExport.selectAndExportData' /></h3>
 				<div>
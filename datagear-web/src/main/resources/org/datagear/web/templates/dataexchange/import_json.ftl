@@ -52,6 +52,7 @@ Schema schema 数据库，不允许为null
 							</div>
 						</div>
 					</div>
+					<#include "include/dataImport_form_batchSize_html.ftl">
 					<div class="form-item">
 						<div class="form-item-label"><@spring.message code='dataExchange.exceptionResolve' /></div>
 						<div class="form-item-value">
@@ -28,6 +28,7 @@ Schema schema 数据库，不允许为null
 			<div class="form-content form-content-wizard">
 				<h3><@spring.message code='dataImport.setDataFormat' /></h3>
 				<div>
+					<#include "include/dataImport_form_batchSize_html.ftl">
 					<div class="form-item">
 						<div class="form-item-label"><@spring.message code='dataExchange.exceptionResolve' /></div>
 						<div class="form-item-value">
@@ -204,6 +204,7 @@ dataExchange_js.ftl
 	{
 		$.initButtons(po.element());
 		po.element("#${pageId}-nullForIllegalColumnValue").buttonset();
+		po.element("#${pageId}-gzip").buttonset();
 		po.element("#${pageId}-add-group-select").selectmenu(
 		{
 			classes : {"ui-selectmenu-button": "ui-button-icon-only ui-corner-right"},
@@ -217,6 +218,7 @@ dataExchange_js.ftl
 		po.element("#${pageId}-add-group").controlgroup();
 		
 		po.element("#${pageId}-nullForIllegalColumnValue-1").click();
+		po.element("#${pageId}-gzip-1").click();
 	};
 	
 	po.initDataExportDataTable = function()
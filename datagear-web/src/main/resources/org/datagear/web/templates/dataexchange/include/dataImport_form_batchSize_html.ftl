@@ -0,0 +1,11 @@
+<#--
+批量导入条数输入框片段
+-->
+<div class="form-item">
+	<div class="form-item-label">
+		<label title="<@spring.message code='dataImport.batchSize.desc' />"><@spring.message code='dataImport.batchSize' /></label>
+	</div>
+	<div class="form-item-value">
+		<input type="text" name="importOption.batchSize" value="100" class="ui-widget ui-widget-content" />
+	</div>
+</div>
\ No newline at end of file
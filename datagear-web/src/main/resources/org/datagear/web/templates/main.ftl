@@ -383,7 +383,16 @@ ${detectNewVersionScript}
 						}
 						else if(po.isSchemaNode(node))
 						{
-							$.ajaxJson(po.concatContextPath("schema", node.id, "pagingQueryTable"),
+							var url = po.concatContextPath("schema", node.id, "pagingQueryTable");
+							
+							//刷新数据库时重新加载表
+							if(node.original.reloadTable)
+							{
+								url += "?reload=true";
+								node.original.reloadTable = false;
+							}
+							
+							$.ajaxJson(url,
 							{
 								data: po.getSearchSchemaFormDataForTable(),
 								success: function(pagingData)
@@ -1165,7 +1174,10 @@ ${detectNewVersionScript}
 						for(var i=0; i<selNodes.length; i++)
 						{
 							if(po.isSchemaNode(selNodes[i]))
+							{
+								selNodes[i].original.reloadTable = true;
 								jstree.refresh_node(selNodes[i]);
+							}
 						}
 					}
 				}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2018 datagear.tech. All Rights Reserved.
+ */
+
+package org.datagear.web.analysis;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.datagear.web.analysis.DashboardState.ChartState;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * {@linkplain MemoryDashboardStateStore}单元测试类。
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class MemoryDashboardStateStoreTest
+{
+	@Test
+	public void putTest_maxPerUser()
+	{
+		MemoryDashboardStateStore store = new MemoryDashboardStateStore();
+		store.setMaxPerUser(2);
+
+		store.put("user0", createDashboardState("d0"));
+		store.put("user0", createDashboardState("d1"));
+		store.put("user1", createDashboardState("d2"));
+
+		// 访问d0，使d1成为user0最久未使用的
+		Assert.assertNotNull(store.get("user0", "d0"));
+
+		store.put("user0", createDashboardState("d3"));
+
+		Assert.assertNotNull(store.get("user0", "d0"));
+		Assert.assertNull(store.get("user0", "d1"));
+		Assert.assertNotNull(store.get("user0", "d3"));
+		Assert.assertNotNull(store.get("user1", "d2"));
+		Assert.assertNull(store.get("user1", "d0"));
+		Assert.assertEquals(3, store.size());
+	}
+
+	@Test
+	public void putTest_maximumSize()
+	{
+		MemoryDashboardStateStore store = new MemoryDashboardStateStore();
+		store.setMaximumSize(2);
+
+		store.put("user0", createDashboardState("d0"));
+		store.put("user1", createDashboardState("d1"));
+		store.put("user2", createDashboardState("d2"));
+
+		Assert.assertNull(store.get("user0", "d0"));
+		Assert.assertNotNull(store.get("user1", "d1"));
+		Assert.assertNotNull(store.get("user2", "d2"));
+		Assert.assertEquals(2, store.size());
+	}
+
+	@Test
+	public void putTest_concurrent() throws Exception
+	{
+		MemoryDashboardStateStore store = new MemoryDashboardStateStore();
+		store.setMaxPerUser(5);
+		store.setMaximumSize(1000);
+
+		List<Thread> threads = new ArrayList<>();
+
+		for (int i = 0; i < 8; i++)
+		{
+			String userId = "user" + i;
+
+			threads.add(new Thread(() ->
+			{
+				for (int j = 0; j < 1000; j++)
+				{
+					store.put(userId, createDashboardState("d" + j));
+					store.get(userId, "d" + (j / 2));
+				}
+			}));
+		}
+
+		for (Thread thread : threads)
+			thread.start();
+
+		for (Thread thread : threads)
+			thread.join();
+
+		// 每个用户仅保留最近使用的
+		for (int i = 0; i < 8; i++)
+		{
+			Assert.assertNotNull(store.get("user" + i, "d999"));
+			Assert.assertNull(store.get("user" + i, "d0"));
+		}
+
+		Assert.assertEquals(8 * 5, store.size());
+	}
+
+	@Test
+	public void addChartStateTest()
+	{
+		MemoryDashboardStateStore store = new MemoryDashboardStateStore();
+
+		store.put("user0", createDashboardState("d0"));
+
+		ChartState chartState = new ChartState("c0", Collections.<DashboardState.ChartDataSetState> emptyList());
+
+		Assert.assertTrue(store.addChartState("user0", "d0", chartState));
+		Assert.assertFalse(store.addChartState("user1", "d0", chartState));
+
+		DashboardState dashboardState = store.get("user0", "d0");
+		Assert.assertEquals(1, dashboardState.getChartStates().size());
+		Assert.assertEquals("c0", dashboardState.getChartStates().get(0).getId());
+	}
+
+	protected DashboardState createDashboardState(String id)
+	{
+		return new DashboardState(id, "admin", Collections.<ChartState> emptyList());
+	}
+}
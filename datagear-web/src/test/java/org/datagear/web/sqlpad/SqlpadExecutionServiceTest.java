@@ -0,0 +1,539 @@
+/*
+ * Copyright 2018 datagear.tech. All Rights Reserved.
+ */
+
+package org.datagear.web.sqlpad;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import org.datagear.connection.ConnectionSourceException;
+import org.datagear.management.domain.Schema;
+import org.datagear.management.domain.User;
+import org.datagear.meta.resolver.GenericDBMetaResolver;
+import org.datagear.persistence.support.SqlSelectManager;
+import org.datagear.persistence.support.SqlSelectResult;
+import org.datagear.util.JdbcUtil;
+import org.datagear.util.SqlScriptParser.SqlStatement;
+import org.datagear.web.sqlpad.SqlpadExecutionService.ExceptionHandleMode;
+import org.datagear.web.sqlpad.SqlpadExecutionService.SQLExecutionStat;
+import org.datagear.web.sqlpad.SqlpadExecutionService.SqlpadExecutionRunnable;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * {@linkplain SqlpadExecutionService}查询游标、批处理执行单元测试类。
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class SqlpadExecutionServiceTest
+{
+	private static final String URL = "jdbc:derby:memory:sqlpadExecutionServiceTest";
+
+	private static final String SQL = "SELECT ID FROM T_SQLPAD ORDER BY ID";
+
+	private static final int ROW_COUNT = 10;
+
+	@BeforeClass
+	public static void initTable() throws SQLException
+	{
+		Connection cn = DriverManager.getConnection(URL + ";create=true");
+		Statement st = null;
+
+		try
+		{
+			st = cn.createStatement();
+			st.executeUpdate("CREATE TABLE T_SQLPAD (ID INTEGER NOT NULL PRIMARY KEY)");
+
+			for (int i = 1; i <= ROW_COUNT; i++)
+				st.executeUpdate("INSERT INTO T_SQLPAD VALUES (" + i + ")");
+		}
+		finally
+		{
+			JdbcUtil.closeStatement(st);
+			JdbcUtil.closeConnection(cn);
+		}
+	}
+
+	@AfterClass
+	public static void dropTable()
+	{
+		try
+		{
+			DriverManager.getConnection(URL + ";drop=true");
+		}
+		catch (SQLException e)
+		{
+			// 删除内存数据库总是抛出异常
+		}
+	}
+
+	@Test
+	public void selectTest_reuseCursor() throws Throwable
+	{
+		TestSqlpadExecutionService service = createService();
+		User user = new User("user0");
+		Schema schema = createSchema("schema0");
+
+		try
+		{
+			SqlSelectResult result = service.select(user, schema, "sqlpad0", SQL, 1, 3, null);
+			assertEquals(1, getId(result, 0));
+			assertEquals(1, service.getCursorCount());
+
+			result = service.select(user, schema, "sqlpad0", SQL, 4, 3, null);
+			assertEquals(4, getId(result, 0));
+
+			// 从游标继续读取，没有打开新连接
+			assertEquals(1, service.openCount);
+			assertEquals(1, service.getCursorCount());
+
+			// 游标使用不占用连接池的独立连接
+			assertEquals(1, service.dedicatedOpenCount);
+		}
+		finally
+		{
+			service.shutdown();
+		}
+	}
+
+	@Test
+	public void selectTest_cursorDisabledByDefault() throws Throwable
+	{
+		TestSqlpadExecutionService service = createService();
+		service.setCursorMaxPerUser(new SqlpadExecutionService().getCursorMaxPerUser());
+		User user = new User("user0");
+		Schema schema = createSchema("schema0");
+
+		try
+		{
+			service.select(user, schema, "sqlpad0", SQL, 1, 3, null);
+			SqlSelectResult result = service.select(user, schema, "sqlpad0", SQL, 4, 3, null);
+
+			assertEquals(4, getId(result, 0));
+			assertEquals(0, service.getCursorCount());
+			assertEquals(2, service.openCount);
+			assertEquals(0, service.dedicatedOpenCount);
+		}
+		finally
+		{
+			service.shutdown();
+		}
+	}
+
+	@Test
+	public void selectTest_notReuseOtherUserOrSchemaCursor() throws Throwable
+	{
+		TestSqlpadExecutionService service = createService();
+		Schema schema = createSchema("schema0");
+
+		try
+		{
+			service.select(new User("user0"), schema, "sqlpad0", SQL, 1, 3, null);
+
+			// 其他用户使用相同的sqlpadId、SQL，不能读取user0的游标
+			SqlSelectResult result = service.select(new User("user1"), schema, "sqlpad0", SQL, 4, 3, null);
+			assertEquals(4, getId(result, 0));
+			assertEquals(2, service.openCount);
+			assertEquals(2, service.getCursorCount());
+
+			service.select(new User("user0"), createSchema("schema1"), "sqlpad0", SQL, 4, 3, null);
+			assertEquals(3, service.openCount);
+			assertEquals(3, service.getCursorCount());
+		}
+		finally
+		{
+			service.shutdown();
+		}
+	}
+
+	@Test
+	public void selectTest_evictExceededUserCursors() throws Throwable
+	{
+		TestSqlpadExecutionService service = createService();
+		service.setCursorMaxPerUser(2);
+		User user = new User("user0");
+		Schema schema = createSchema("schema0");
+
+		try
+		{
+			service.select(user, schema, "sqlpad0", SQL, 1, 3, null);
+			service.select(user, schema, "sqlpad1", SQL, 1, 3, null);
+			service.select(user, schema, "sqlpad2", SQL, 1, 3, null);
+
+			assertEquals(2, service.getCursorCount());
+			assertEquals(1, service.closeCount);
+
+			// sqlpad0的游标已被关闭，需重新执行
+			service.select(user, schema, "sqlpad0", SQL, 4, 3, null);
+			assertEquals(4, service.openCount);
+		}
+		finally
+		{
+			service.shutdown();
+		}
+	}
+
+	@Test
+	public void selectTest_evictExceededTotalCursors() throws Throwable
+	{
+		TestSqlpadExecutionService service = createService();
+		service.setCursorMaxTotal(2);
+		Schema schema = createSchema("schema0");
+
+		try
+		{
+			service.select(new User("user0"), schema, "sqlpad0", SQL, 1, 3, null);
+			service.select(new User("user1"), schema, "sqlpad0", SQL, 1, 3, null);
+			service.select(new User("user2"), schema, "sqlpad0", SQL, 1, 3, null);
+
+			assertEquals(2, service.getCursorCount());
+			assertEquals(1, service.closeCount);
+		}
+		finally
+		{
+			service.shutdown();
+		}
+	}
+
+	@Test
+	public void selectTest_closeCursorAfterLastRow() throws Throwable
+	{
+		TestSqlpadExecutionService service = createService();
+		User user = new User("user0");
+		Schema schema = createSchema("schema0");
+
+		try
+		{
+			service.select(user, schema, "sqlpad0", SQL, 1, 6, null);
+			SqlSelectResult result = service.select(user, schema, "sqlpad0", SQL, 7, 6, null);
+
+			assertEquals(4, result.getRows().size());
+			assertEquals(0, service.getCursorCount());
+			assertEquals(1, service.closeCount);
+		}
+		finally
+		{
+			service.shutdown();
+		}
+	}
+
+	@Test
+	public void evictIdleCursorsTest() throws Throwable
+	{
+		TestSqlpadExecutionService service = createService();
+		service.setCursorIdleSeconds(0);
+
+		try
+		{
+			service.select(new User("user0"), createSchema("schema0"), "sqlpad0", SQL, 1, 3, null);
+			assertEquals(1, service.getCursorCount());
+
+			Thread.sleep(5);
+			service.evictIdleCursors();
+
+			assertEquals(0, service.getCursorCount());
+			assertEquals(1, service.closeCount);
+		}
+		finally
+		{
+			service.shutdown();
+		}
+	}
+
+	@Test
+	public void executeBatchTest() throws Throwable
+	{
+		List<String> sqls = Arrays.asList("INSERT INTO T_SQLPAD_BATCH VALUES (1)",
+				"INSERT INTO T_SQLPAD_BATCH VALUES (2)", "UPDATE T_SQLPAD_BATCH SET ID = 3 WHERE ID = 2");
+
+		TestSqlpadExecutionService service = createService();
+		Connection cn = null;
+		Statement st = null;
+
+		try
+		{
+			cn = createBatchTable();
+			st = cn.createStatement();
+
+			SQLExecutionStat stat = new SQLExecutionStat(sqls.size());
+			List<String> sqlHistories = new ArrayList<>();
+
+			boolean breakLoop = executeBatch(service, ExceptionHandleMode.ABORT, cn, st, sqls, 5, stat,
+					sqlHistories);
+
+			assertFalse(breakLoop);
+			assertEquals(Arrays.asList(5, 6, 7), service.successIndexes);
+			assertEquals(Arrays.asList(1, 1, 1), service.successUpdateCounts);
+			assertTrue(service.exceptionIndexes.isEmpty());
+			assertEquals(3, stat.getSuccessCount());
+			assertEquals(sqls, sqlHistories);
+		}
+		finally
+		{
+			dropBatchTable(cn, st);
+			service.shutdown();
+		}
+	}
+
+	@Test
+	public void executeBatchTest_fallbackIgnore() throws Throwable
+	{
+		List<String> sqls = Arrays.asList("INSERT INTO T_SQLPAD_BATCH VALUES (1)",
+				"INSERT INTO T_SQLPAD_BATCH VALUES (2)", "INSERT INTO T_SQLPAD_BATCH VALUES (1)",
+				"INSERT INTO T_SQLPAD_BATCH VALUES (3)");
+
+		TestSqlpadExecutionService service = createService();
+		Connection cn = null;
+		Statement st = null;
+
+		try
+		{
+			cn = createBatchTable();
+			st = cn.createStatement();
+
+			SQLExecutionStat stat = new SQLExecutionStat(sqls.size());
+			List<String> sqlHistories = new ArrayList<>();
+
+			boolean breakLoop = executeBatch(service, ExceptionHandleMode.IGNORE, cn, st, sqls, 5, stat,
+					sqlHistories);
+
+			// 批处理出错后回滚至保存点并逐条执行，执行结果消息对应各自的SQL语句索引
+			assertFalse(breakLoop);
+			assertEquals(Arrays.asList(5, 6, 8), service.successIndexes);
+			assertEquals(Arrays.asList(7), service.exceptionIndexes);
+			assertEquals(3, stat.getSuccessCount());
+			assertEquals(1, stat.getExceptionCount());
+			assertEquals(3, sqlHistories.size());
+			assertEquals(3, getBatchTableCount(st));
+		}
+		finally
+		{
+			dropBatchTable(cn, st);
+			service.shutdown();
+		}
+	}
+
+	@Test
+	public void executeBatchTest_fallbackAbort() throws Throwable
+	{
+		List<String> sqls = Arrays.asList("INSERT INTO T_SQLPAD_BATCH VALUES (1)",
+				"INSERT INTO T_SQLPAD_BATCH VALUES (2)", "INSERT INTO T_SQLPAD_BATCH VALUES (1)",
+				"INSERT INTO T_SQLPAD_BATCH VALUES (3)");
+
+		TestSqlpadExecutionService service = createService();
+		Connection cn = null;
+		Statement st = null;
+
+		try
+		{
+			cn = createBatchTable();
+			st = cn.createStatement();
+
+			SQLExecutionStat stat = new SQLExecutionStat(sqls.size());
+
+			boolean breakLoop = executeBatch(service, ExceptionHandleMode.ABORT, cn, st, sqls, 0, stat,
+					new ArrayList<>());
+
+			assertTrue(breakLoop);
+			assertEquals(Arrays.asList(0, 1), service.successIndexes);
+			assertEquals(Arrays.asList(2), service.exceptionIndexes);
+			assertEquals(2, getBatchTableCount(st));
+		}
+		finally
+		{
+			dropBatchTable(cn, st);
+			service.shutdown();
+		}
+	}
+
+	protected boolean executeBatch(TestSqlpadExecutionService service, ExceptionHandleMode exceptionHandleMode,
+			Connection cn, Statement st, List<String> sqls, int startIndex, SQLExecutionStat stat,
+			List<String> sqlHistories) throws SQLException
+	{
+		SqlpadExecutionSubmit submit = new SqlpadExecutionSubmit();
+		submit.setSqlpadId("sqlpad0");
+		submit.setExceptionHandleMode(exceptionHandleMode);
+		submit.setLocale(Locale.getDefault());
+
+		SqlpadExecutionRunnable runnable = service.new SqlpadExecutionRunnable(submit);
+
+		List<SqlStatement> sqlStatements = new ArrayList<>();
+
+		for (int i = 0; i < sqls.size(); i++)
+		{
+			String sql = sqls.get(i);
+
+			st.addBatch(sql);
+			sqlStatements.add(new SqlStatement(sql, startIndex + i, 0, startIndex + i, sql.length()));
+		}
+
+		boolean breakLoop = runnable.executeBatch(stat, null, cn, st, sqlStatements, startIndex, sqlHistories);
+
+		assertTrue(sqlStatements.isEmpty());
+
+		return breakLoop;
+	}
+
+	protected Connection createBatchTable() throws SQLException
+	{
+		Connection cn = DriverManager.getConnection(URL);
+		Statement st = null;
+
+		try
+		{
+			st = cn.createStatement();
+			st.executeUpdate("CREATE TABLE T_SQLPAD_BATCH (ID INTEGER NOT NULL PRIMARY KEY)");
+		}
+		finally
+		{
+			JdbcUtil.closeStatement(st);
+		}
+
+		cn.setAutoCommit(false);
+
+		return cn;
+	}
+
+	protected int getBatchTableCount(Statement st) throws SQLException
+	{
+		ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM T_SQLPAD_BATCH");
+
+		try
+		{
+			rs.next();
+			return rs.getInt(1);
+		}
+		finally
+		{
+			JdbcUtil.closeResultSet(rs);
+		}
+	}
+
+	protected void dropBatchTable(Connection cn, Statement st) throws SQLException
+	{
+		try
+		{
+			if (cn != null)
+			{
+				cn.rollback();
+				cn.setAutoCommit(true);
+
+				st.executeUpdate("DROP TABLE T_SQLPAD_BATCH");
+			}
+		}
+		finally
+		{
+			JdbcUtil.closeStatement(st);
+			JdbcUtil.closeConnection(cn);
+		}
+	}
+
+	protected TestSqlpadExecutionService createService()
+	{
+		TestSqlpadExecutionService service = new TestSqlpadExecutionService();
+		service.setSqlSelectManager(new SqlSelectManager(new GenericDBMetaResolver()));
+		service.setCursorMaxPerUser(5);
+
+		return service;
+	}
+
+	protected Schema createSchema(String id)
+	{
+		return new Schema(id, id, URL, "", "");
+	}
+
+	protected int getId(SqlSelectResult result, int index)
+	{
+		return ((Number) result.getRows().get(index).get("ID")).intValue();
+	}
+
+	protected static class TestSqlpadExecutionService extends SqlpadExecutionService
+	{
+		public int openCount = 0;
+
+		public int dedicatedOpenCount = 0;
+
+		public int closeCount = 0;
+
+		public List<Integer> successIndexes = new ArrayList<>();
+
+		public List<Integer> successUpdateCounts = new ArrayList<>();
+
+		public List<Integer> exceptionIndexes = new ArrayList<>();
+
+		@Override
+		protected Connection getSchemaConnection(Schema schema) throws ConnectionSourceException
+		{
+			try
+			{
+				Connection cn = DriverManager.getConnection(URL);
+				this.openCount++;
+
+				return cn;
+			}
+			catch (SQLException e)
+			{
+				throw new ConnectionSourceException(e);
+			}
+		}
+
+		@Override
+		protected Connection getSchemaCursorConnection(Schema schema) throws ConnectionSourceException
+		{
+			Connection cn = getSchemaConnection(schema);
+			this.dedicatedOpenCount++;
+
+			return cn;
+		}
+
+		@Override
+		protected void closeCursorConnection(Connection cn)
+		{
+			if (cn != null)
+				this.closeCount++;
+
+			super.closeCursorConnection(cn);
+		}
+
+		@Override
+		protected void sendSqlSuccessMessage(String channel, SqlStatement sqlStatement, int sqlStatementIndex)
+		{
+			this.successIndexes.add(sqlStatementIndex);
+		}
+
+		@Override
+		protected void sendSqlSuccessMessage(String channel, SqlStatement sqlStatement, int sqlStatementIndex,
+				int updateCount)
+		{
+			this.successIndexes.add(sqlStatementIndex);
+			this.successUpdateCounts.add(updateCount);
+		}
+
+		@Override
+		protected void sendSqlExceptionMessage(String channel, SqlStatement sqlStatement, int sqlStatementIndex,
+				SQLException e, String content)
+		{
+			this.exceptionIndexes.add(sqlStatementIndex);
+		}
+
+		@Override
+		protected String getMessage(Locale locale, String code, Object... args)
+		{
+			return code;
+		}
+	}
+}
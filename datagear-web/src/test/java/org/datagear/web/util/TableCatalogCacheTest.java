@@ -0,0 +1,192 @@
+/*
+ * Copyright 2018 datagear.tech. All Rights Reserved.
+ */
+
+package org.datagear.web.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.datagear.meta.SimpleTable;
+import org.datagear.web.util.TableCatalogCache.TableCatalogLoader;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * {@linkplain TableCatalogCache}单元测试类。
+ *
+ * @author datagear@163.com
+ *
+ */
+public class TableCatalogCacheTest
+{
+	private static final String SCHEMA_ID = "schema0";
+
+	private TestTableCatalogCache tableCatalogCache;
+
+	private ExecutorService executorService;
+
+	@Before
+	public void init()
+	{
+		this.tableCatalogCache = new TestTableCatalogCache();
+		this.tableCatalogCache.init();
+
+		this.executorService = Executors.newSingleThreadExecutor();
+	}
+
+	@After
+	public void destroy()
+	{
+		this.tableCatalogCache.destroy();
+		this.executorService.shutdownNow();
+	}
+
+	@Test
+	public void getTest() throws Throwable
+	{
+		CountingLoader loader = new CountingLoader();
+
+		TableCatalog catalog = this.tableCatalogCache.get(SCHEMA_ID, loader);
+
+		assertEquals("T_1", catalog.getTables().get(0).getName());
+		assertSame(catalog, this.tableCatalogCache.get(SCHEMA_ID, loader));
+		assertEquals(1, loader.count.get());
+
+		this.tableCatalogCache.invalidate(SCHEMA_ID);
+
+		assertEquals("T_2", this.tableCatalogCache.get(SCHEMA_ID, loader).getTables().get(0).getName());
+		assertEquals(2, loader.count.get());
+	}
+
+	@Test
+	public void invalidateTest_racingLoad() throws Throwable
+	{
+		final BlockingLoader loader = new BlockingLoader();
+
+		Future<TableCatalog> future = this.executorService.submit(new Callable<TableCatalog>()
+		{
+			@Override
+			public TableCatalog call() throws Exception
+			{
+				try
+				{
+					return tableCatalogCache.get(SCHEMA_ID, loader);
+				}
+				catch (Throwable t)
+				{
+					throw new Exception(t);
+				}
+			}
+		});
+
+		assertTrue(loader.started.await(10, TimeUnit.SECONDS));
+
+		// 加载期间表被修改
+		this.tableCatalogCache.invalidate(SCHEMA_ID);
+		loader.release.countDown();
+
+		assertEquals("T_1", future.get(10, TimeUnit.SECONDS).getTables().get(0).getName());
+
+		// 清除之前开始的加载结果不应被缓存
+		loader.blocking = false;
+		assertEquals("T_2", this.tableCatalogCache.get(SCHEMA_ID, loader).getTables().get(0).getName());
+		assertEquals(2, loader.count.get());
+	}
+
+	@Test
+	public void invalidateTest_racingRefresh() throws Throwable
+	{
+		BlockingLoader loader = new BlockingLoader();
+		loader.blocking = false;
+
+		TableCatalog catalog = this.tableCatalogCache.get(SCHEMA_ID, loader);
+		assertEquals(1, loader.count.get());
+
+		// 已过期，返回缓存的并在后台重新加载
+		this.tableCatalogCache.stale = true;
+		loader.blocking = true;
+
+		assertSame(catalog, this.tableCatalogCache.get(SCHEMA_ID, loader));
+		assertTrue(loader.started.await(10, TimeUnit.SECONDS));
+
+		this.tableCatalogCache.invalidate(SCHEMA_ID);
+		loader.release.countDown();
+
+		assertTrue(this.tableCatalogCache.refreshed.await(10, TimeUnit.SECONDS));
+
+		// 后台加载结果不应覆盖清除操作
+		this.tableCatalogCache.stale = false;
+		loader.blocking = false;
+
+		assertEquals("T_3", this.tableCatalogCache.get(SCHEMA_ID, loader).getTables().get(0).getName());
+		assertEquals(3, loader.count.get());
+	}
+
+	protected static class TestTableCatalogCache extends TableCatalogCache
+	{
+		public volatile boolean stale = false;
+
+		public final CountDownLatch refreshed = new CountDownLatch(1);
+
+		@Override
+		protected boolean isStale(TableCatalog catalog)
+		{
+			return this.stale;
+		}
+
+		@Override
+		protected void putIfVersionUnchanged(String schemaId, TableCatalog catalog, long version)
+		{
+			super.putIfVersionUnchanged(schemaId, catalog, version);
+
+			if (this.stale)
+				this.refreshed.countDown();
+		}
+	}
+
+	protected static class CountingLoader implements TableCatalogLoader
+	{
+		public final AtomicInteger count = new AtomicInteger(0);
+
+		@Override
+		public List<SimpleTable> load() throws Throwable
+		{
+			return TableCatalogTest.createTables("T_" + this.count.incrementAndGet());
+		}
+	}
+
+	protected static class BlockingLoader extends CountingLoader
+	{
+		public volatile boolean blocking = true;
+
+		public final CountDownLatch started = new CountDownLatch(1);
+
+		public final CountDownLatch release = new CountDownLatch(1);
+
+		@Override
+		public List<SimpleTable> load() throws Throwable
+		{
+			List<SimpleTable> tables = super.load();
+
+			if (this.blocking)
+			{
+				this.started.countDown();
+				this.release.await(10, TimeUnit.SECONDS);
+			}
+
+			return tables;
+		}
+	}
+}
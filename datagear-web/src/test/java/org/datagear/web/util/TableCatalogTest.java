@@ -0,0 +1,140 @@
+/*
+ * Copyright 2018 datagear.tech. All Rights Reserved.
+ */
+
+package org.datagear.web.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.datagear.meta.SimpleTable;
+import org.datagear.meta.TableType;
+import org.junit.Test;
+
+/**
+ * {@linkplain TableCatalog}单元测试类。
+ *
+ * @author datagear@163.com
+ *
+ */
+public class TableCatalogTest
+{
+	private TableCatalog tableCatalog = new TableCatalog(createTables("T_USER", "t_order", "T_ORDER_ITEM", "Log_User",
+			"T_ROLE", "t_user_role", "ABC", "T_", "T"));
+
+	@Test
+	public void getTablesTest()
+	{
+		assertEquals(9, tableCatalog.getTableCount());
+		assertEquals(Arrays.asList("ABC", "Log_User", "T", "T_", "T_ORDER_ITEM", "T_ROLE", "T_USER", "t_order",
+				"t_user_role"), getNames(tableCatalog.getTables()));
+	}
+
+	@Test
+	public void findByKeywordTest_start()
+	{
+		assertEquals(Arrays.asList("T_USER", "t_user_role"), findNames("t_user%"));
+		assertEquals(Arrays.asList("T_ORDER_ITEM", "t_order"), findNames("T_ORDER%"));
+		assertEquals(Arrays.asList("T", "T_", "T_ORDER_ITEM", "T_ROLE", "T_USER", "t_order", "t_user_role"),
+				findNames("t%"));
+		assertEquals(Arrays.asList("ABC"), findNames("ABC%"));
+
+		// 前缀位于有序表名的首尾、或不存在
+		assertEquals(Arrays.asList("ABC"), findNames("A%"));
+		assertEquals(Arrays.asList("T_USER", "t_user_role"), findNames("T_U%"));
+		assertEquals(Arrays.asList(), findNames("0%"));
+		assertEquals(Arrays.asList(), findNames("Z%"));
+		assertEquals(Arrays.asList(), findNames("T_USERS%"));
+	}
+
+	@Test
+	public void findByKeywordTest_end()
+	{
+		assertEquals(Arrays.asList("Log_User", "T_USER"), findNames("%user"));
+		assertEquals(Arrays.asList("T_ROLE", "t_user_role"), findNames("%_ROLE"));
+		assertEquals(Arrays.asList(), findNames("%xyz"));
+	}
+
+	@Test
+	public void findByKeywordTest_contain()
+	{
+		assertEquals(Arrays.asList("Log_User", "T_USER", "t_user_role"), findNames("User"));
+		assertEquals(Arrays.asList("Log_User", "T_USER", "t_user_role"), findNames("%user%"));
+		assertEquals(Arrays.asList("T_ORDER_ITEM", "t_order"), findNames("ORDER"));
+		assertEquals(Arrays.asList(), findNames("xyz"));
+	}
+
+	@Test
+	public void findByKeywordTest_all()
+	{
+		List<String> all = getNames(tableCatalog.getTables());
+
+		assertEquals(all, findNames(null));
+		assertEquals(all, findNames(""));
+		assertEquals(all, findNames("  "));
+		assertEquals(all, findNames("%"));
+		assertEquals(all, findNames("%%"));
+	}
+
+	@Test
+	public void findByKeywordTest_sameAsKeywordMatcher()
+	{
+		List<SimpleTable> tables = tableCatalog.getTables();
+
+		String[] keywords = { null, "", "%", "t", "T%", "%R", "%_%", "user", "order%", "%role", "_", "T_%", "abc" };
+
+		for (String keyword : keywords)
+		{
+			List<SimpleTable> expected = KeywordMatcher.<SimpleTable> match(tables, keyword,
+					new KeywordMatcher.MatchValue<SimpleTable>()
+					{
+						@Override
+						public String[] get(SimpleTable t)
+						{
+							return new String[] { t.getName() };
+						}
+					});
+
+			assertEquals(keyword, getNames(expected), findNames(keyword));
+		}
+	}
+
+	@Test
+	public void findByKeywordTest_empty()
+	{
+		TableCatalog emptyCatalog = new TableCatalog(new ArrayList<SimpleTable>());
+
+		assertEquals(0, emptyCatalog.getTableCount());
+		assertEquals(Arrays.asList(), emptyCatalog.findByKeyword("T%"));
+		assertEquals(Arrays.asList(), emptyCatalog.findByKeyword("T"));
+		assertEquals(Arrays.asList(), emptyCatalog.findByKeyword(null));
+	}
+
+	protected List<String> findNames(String keyword)
+	{
+		return getNames(tableCatalog.findByKeyword(keyword));
+	}
+
+	protected static List<SimpleTable> createTables(String... names)
+	{
+		List<SimpleTable> tables = new ArrayList<>(names.length);
+
+		for (String name : names)
+			tables.add(new SimpleTable(name, TableType.TABLE));
+
+		return tables;
+	}
+
+	protected static List<String> getNames(List<SimpleTable> tables)
+	{
+		List<String> names = new ArrayList<>(tables.size());
+
+		for (SimpleTable table : tables)
+			names.add(table.getName());
+
+		return names;
+	}
+}